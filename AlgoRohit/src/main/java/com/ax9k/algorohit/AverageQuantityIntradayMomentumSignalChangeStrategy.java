@@ -39,7 +39,7 @@ public class AverageQuantityIntradayMomentumSignalChangeStrategy implements Peri
 
     private AverageQuantityData averageQuantityByTime;
     private Algo.Signal regime = NONE;
-    private SignalContext currentSignals = new SignalContext(NONE, NONE);
+    private SignalContext currentSignals = SignalContext.of(NONE, NONE);
 
     AverageQuantityIntradayMomentumSignalChangeStrategy(Logger logger,
                                                         FeatureManager<OhlcvBar> ohlcvFeatures,
@@ -83,7 +83,8 @@ public class IntradayMomentumAlgoFactory implements AlgoFactory {
 
         PeriodicSignalChangeStrategy signalChangeStrategy;
         if (!configuration.getOptional("contractHasVolumes", true)) {
-            FeatureManager<OrderBook> bookFeatures = new FeatureManager<>(tradingDay::getOrderBookHistory);
+            FeatureManager<OrderBook> bookFeatures = new FeatureManager<>(tradingDay.getSymbol(),
+                                                                          tradingDay::getOrderBookHistory);
             signalChangeStrategy = new NoBarIntradayMomentumStrategy(algoLogger,
                                                                      bookFeatures,
                                                                      tradingDay.getHistory(Ticker.class),
@@ -93,7 +94,8 @@ public class IntradayMomentumAlgoFactory implements AlgoFactory {
         } else {
             String quantityFilesLocation = configuration.getOptional("quantityFilesLocation").orElse(null);
 
-            FeatureManager<OhlcvBar> ohlcvFeatures = new FeatureManager<>(tradingDay::getBarHistory);
+            FeatureManager<OhlcvBar> ohlcvFeatures = new FeatureManager<>(tradingDay.getSymbol(),
+                                                                          tradingDay::getBarHistory);
             signalChangeStrategy = new AverageQuantityIntradayMomentumSignalChangeStrategy(algoLogger,
                                                                                            ohlcvFeatures,
                                                                                            UPDATE_PERIOD,
@@ -117,6 +119,9 @@ public class IntradayMomentumAlgoFactory implements AlgoFactory {
                 cashoutLowerLevel,
                 maxGiveBack);
 
+        if (configuration.getOptional("eventDrivenEvaluation", false)) {
+            result.setEventDrivenEvaluation(true);
+        }
         if (configuration.getOptional("tradingSuspended", false)) {
             result.stopTrading("algo factory");
         }
@@ -43,7 +43,7 @@ public class NoBarIntradayMomentumStrategy implements PeriodicSignalChangeStrate
     private final double emaNegCrossTolerance;
 
     private Algo.Signal regime = NONE;
-    private SignalContext currentSignals = new SignalContext(NONE, NONE);
+    private SignalContext currentSignals = SignalContext.of(NONE, NONE);
 
     NoBarIntradayMomentumStrategy(Logger logger,
                                   FeatureManager<OrderBook> bookFeatures,
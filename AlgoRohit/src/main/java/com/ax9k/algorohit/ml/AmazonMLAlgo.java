@@ -11,13 +11,13 @@ import java.time.Duration;
 import java.util.Map;
 
 class AmazonMLAlgo extends GenerateTrainingData {
-    private final ModelClient model;
+    private final PredictionModel model;
     private final int stopBuffer;
     private final double entryThreshold, exitThreshold;
 
     AmazonMLAlgo(PositionManager positionManager,
                  TradingDay tradingDay,
-                 String modelId,
+                 PredictionModel model,
                  int stopBuffer,
                  int periodicUpdateDurationSeconds,
                  double entryThreshold,
@@ -26,7 +26,7 @@ class AmazonMLAlgo extends GenerateTrainingData {
               tradingDay,
               periodicUpdateDurationSeconds);
         tradingDay.getHeartBeat().setDuration(Duration.ofSeconds(6));
-        model = new ModelClient(modelId);
+        this.model = model;
 
         this.stopBuffer = stopBuffer;
         this.entryThreshold = entryThreshold;
@@ -5,13 +5,12 @@ import com.ax9k.algo.AlgoFactory;
 import com.ax9k.core.marketmodel.TradingDay;
 import com.ax9k.positionmanager.PositionManager;
 import com.ax9k.utils.config.Configuration;
+import com.ax9k.utils.path.PathLoader;
 
 public class AmazonMLAlgoFactory implements AlgoFactory {
     @Override
     public Algo create(PositionManager positionManager, TradingDay tradingDay, Configuration configuration) {
-        configuration.requireOptions("modelId", "stopBuffer", "periodicUpdateDurationSeconds");
-
-        String modelId = configuration.get("modelId");
+        configuration.requireOptions("stopBuffer", "periodicUpdateDurationSeconds");
 
         int periodicUpdateDurationSeconds = configuration.get("periodicUpdateDurationSeconds", Integer.class);
         int stopBuffer = configuration.get("stopBuffer", Integer.class);
@@ -22,11 +21,19 @@ public class AmazonMLAlgoFactory implements AlgoFactory {
         return new AmazonMLAlgo(
                 positionManager,
                 tradingDay,
-                modelId,
+                loadModel(configuration),
                 stopBuffer,
                 periodicUpdateDurationSeconds,
                 entryThreshold,
                 exitThreshold
         );
     }
+
+    private static PredictionModel loadModel(Configuration configuration) {
+        if (configuration.hasOption("modelFile")) {
+            return LocalModel.load(PathLoader.load(configuration.get("modelFile")));
+        }
+        configuration.requireOptions("modelId");
+        return new ModelClient(configuration.get("modelId"));
+    }
 }
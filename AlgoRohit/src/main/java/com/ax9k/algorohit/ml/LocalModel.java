@@ -0,0 +1,275 @@
+package com.ax9k.algorohit.ml;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.time.StopWatch;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Scores features in-process with an exported model, instead of calling a remote prediction endpoint.
+ * <p>
+ * The model file is JSON, naming the input features and output labels in order:
+ * <pre>
+ * {"type": "linear", "features": [...], "labels": ["UP", "DOWN", "NO_CHANGE"],
+ *  "intercepts": [per label], "weights": [[per feature] per label]}
+ *
+ * {"type": "trees", "features": [...], "labels": [...], "baseScores": [per label, optional],
+ *  "trees": [{"label": index, "nodes": [{"feature": index, "threshold": t, "left": node, "right": node},
+ *                                      {"value": v}, ...]}]}
+ * </pre>
+ * Each label's score is its linear combination or the sum of its trees' leaf values, and the probabilities are the
+ * softmax of the scores. Trees go left when a feature is below the threshold or missing. Missing features
+ * contribute nothing to a linear score.
+ */
+final class LocalModel implements PredictionModel {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    private final String[] featureNames;
+    private final PredictedChange[] labels;
+    private final Scorer scorer;
+
+    private LocalModel(String[] featureNames, PredictedChange[] labels, Scorer scorer) {
+        this.featureNames = featureNames;
+        this.labels = labels;
+        this.scorer = scorer;
+    }
+
+    static LocalModel load(Path file) {
+        JsonNode model;
+        try (var reader = Files.newBufferedReader(file)) {
+            model = JSON_MAPPER.readTree(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not read model file: " + file, e);
+        }
+        notNull(model, "empty model file: %s", file);
+
+        String[] featureNames = strings(required(model, "features"));
+        PredictedChange[] labels = Arrays.stream(strings(required(model, "labels")))
+                                         .map(PredictedChange::fromLabel)
+                                         .toArray(PredictedChange[]::new);
+        isTrue(labels.length > 0, "model has no labels: %s", file);
+
+        String type = required(model, "type").asText();
+        Scorer scorer;
+        switch (type) {
+            case "linear":
+                scorer = LinearScorer.parse(model, featureNames.length, labels.length);
+                break;
+            case "trees":
+                scorer = TreeEnsembleScorer.parse(model, featureNames.length, labels.length);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown model type '" + type + "' in " + file);
+        }
+
+        LOGGER.info("Loaded {} model with {} features and labels {} from {}",
+                    type, featureNames.length, Arrays.toString(labels), file);
+        return new LocalModel(featureNames, labels, scorer);
+    }
+
+    @Override
+    public Prediction predict(Map<String, ?> features) {
+        StopWatch stopWatch = StopWatch.createStarted();
+
+        double[] values = new double[featureNames.length];
+        for (int i = 0; i < featureNames.length; i++) {
+            values[i] = toDouble(features.get(featureNames[i]));
+        }
+        double[] scores = new double[labels.length];
+        scorer.score(values, scores);
+
+        int best = 0;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        double total = 0;
+        for (double score : scores) {
+            total += Math.exp(score - scores[best]);
+        }
+        Prediction prediction = new Prediction(labels[best], 1 / total);
+
+        LOGGER.debug("got local prediction {} micro sec. {}", stopWatch.getTime(TimeUnit.MICROSECONDS), prediction);
+        return prediction;
+    }
+
+    private static double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value == null) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(value.toString());
+        } catch (NumberFormatException notNumeric) {
+            return Double.NaN;
+        }
+    }
+
+    private static JsonNode required(JsonNode node, String field) {
+        JsonNode result = node.get(field);
+        isTrue(result != null && !result.isNull(), "model is missing '%s'", field);
+        return result;
+    }
+
+    private static String[] strings(JsonNode array) {
+        String[] result = new String[array.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = array.get(i).asText();
+        }
+        return result;
+    }
+
+    private static double[] doubles(JsonNode array, int expectedLength, String description) {
+        isTrue(array.size() == expectedLength, "expected %s %s but found %s", expectedLength, description,
+               array.size());
+        double[] result = new double[expectedLength];
+        for (int i = 0; i < expectedLength; i++) {
+            result[i] = array.get(i).asDouble();
+        }
+        return result;
+    }
+
+    private interface Scorer {
+        void score(double[] features, double[] scores);
+    }
+
+    private static final class LinearScorer implements Scorer {
+        private final double[] intercepts;
+        private final double[][] weights;
+
+        private LinearScorer(double[] intercepts, double[][] weights) {
+            this.intercepts = intercepts;
+            this.weights = weights;
+        }
+
+        private static LinearScorer parse(JsonNode model, int featureCount, int labelCount) {
+            double[] intercepts = doubles(required(model, "intercepts"), labelCount, "intercepts");
+            JsonNode weightRows = required(model, "weights");
+            isTrue(weightRows.size() == labelCount, "expected a row of weights per label");
+            double[][] weights = new double[labelCount][];
+            for (int i = 0; i < labelCount; i++) {
+                weights[i] = doubles(weightRows.get(i), featureCount, "weights");
+            }
+            return new LinearScorer(intercepts, weights);
+        }
+
+        @Override
+        public void score(double[] features, double[] scores) {
+            for (int label = 0; label < scores.length; label++) {
+                double[] labelWeights = weights[label];
+                double score = intercepts[label];
+                for (int i = 0; i < features.length; i++) {
+                    if (!Double.isNaN(features[i])) {
+                        score += labelWeights[i] * features[i];
+                    }
+                }
+                scores[label] = score;
+            }
+        }
+    }
+
+    private static final class TreeEnsembleScorer implements Scorer {
+        private static final int LEAF = -1;
+
+        private final double[] baseScores;
+        private final Tree[] trees;
+
+        private TreeEnsembleScorer(double[] baseScores, Tree[] trees) {
+            this.baseScores = baseScores;
+            this.trees = trees;
+        }
+
+        private static TreeEnsembleScorer parse(JsonNode model, int featureCount, int labelCount) {
+            JsonNode baseScores = model.get("baseScores");
+            JsonNode treeNodes = required(model, "trees");
+            Tree[] trees = new Tree[treeNodes.size()];
+            for (int i = 0; i < trees.length; i++) {
+                trees[i] = Tree.parse(treeNodes.get(i), featureCount, labelCount);
+            }
+            return new TreeEnsembleScorer(baseScores != null ?
+                                          doubles(baseScores, labelCount, "base scores") :
+                                          new double[labelCount],
+                                          trees);
+        }
+
+        @Override
+        public void score(double[] features, double[] scores) {
+            System.arraycopy(baseScores, 0, scores, 0, scores.length);
+            for (Tree tree : trees) {
+                scores[tree.label] += tree.evaluate(features);
+            }
+        }
+
+        private static final class Tree {
+            private final int label;
+            private final int[] feature;
+            private final double[] threshold;
+            private final int[] left, right;
+            private final double[] value;
+
+            private Tree(int label, int[] feature, double[] threshold, int[] left, int[] right, double[] value) {
+                this.label = label;
+                this.feature = feature;
+                this.threshold = threshold;
+                this.left = left;
+                this.right = right;
+                this.value = value;
+            }
+
+            private static Tree parse(JsonNode tree, int featureCount, int labelCount) {
+                int label = required(tree, "label").asInt();
+                isTrue(label >= 0 && label < labelCount, "tree label out of range: %s", label);
+
+                JsonNode nodes = required(tree, "nodes");
+                int size = nodes.size();
+                isTrue(size > 0, "tree has no nodes");
+                int[] feature = new int[size];
+                double[] threshold = new double[size];
+                int[] left = new int[size];
+                int[] right = new int[size];
+                double[] value = new double[size];
+                for (int i = 0; i < size; i++) {
+                    JsonNode node = nodes.get(i);
+                    if (node.has("value")) {
+                        feature[i] = LEAF;
+                        value[i] = node.get("value").asDouble();
+                        continue;
+                    }
+                    feature[i] = required(node, "feature").asInt();
+                    threshold[i] = required(node, "threshold").asDouble();
+                    left[i] = required(node, "left").asInt();
+                    right[i] = required(node, "right").asInt();
+                    isTrue(feature[i] >= 0 && feature[i] < featureCount, "feature out of range: %s", feature[i]);
+                    isTrue(left[i] > i && left[i] < size && right[i] > i && right[i] < size,
+                           "children of node %s must follow it in the tree", i);
+                }
+                return new Tree(label, feature, threshold, left, right, value);
+            }
+
+            private double evaluate(double[] features) {
+                int node = 0;
+                while (feature[node] != LEAF) {
+                    double x = features[feature[node]];
+                    node = Double.isNaN(x) || x < threshold[node] ? left[node] : right[node];
+                }
+                return value[node];
+            }
+        }
+    }
+}
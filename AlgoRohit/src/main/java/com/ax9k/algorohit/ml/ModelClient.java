@@ -17,7 +17,7 @@ import java.util.stream.Collectors;
 
 import static java.util.Comparator.comparing;
 
-final class ModelClient implements AutoCloseable {
+final class ModelClient implements PredictionModel {
     private static final Logger LOGGER = LogManager.getLogger();
     private static final Region REGION = Region.US_EAST_1;
     private static final String TIME_PROPERTY = "eventTime";
@@ -45,7 +45,8 @@ final class ModelClient implements AutoCloseable {
         return model.endpointInfo().endpointUrl();
     }
 
-    com.ax9k.algorohit.ml.Prediction predict(Map<String, ?> features) {
+    @Override
+    public com.ax9k.algorohit.ml.Prediction predict(Map<String, ?> features) {
         if (predictionCounter++ > MAX_PREDICTIONS) {
             throw new IllegalStateException("'max predictions exceeded");
         }
@@ -13,7 +13,7 @@ public final class Prediction {
         this(PredictedChange.fromLabel(score.getKey()), score.getValue());
     }
 
-    private Prediction(PredictedChange change, double probability) {
+    Prediction(PredictedChange change, double probability) {
         this.change = change;
         this.probability = probability;
     }
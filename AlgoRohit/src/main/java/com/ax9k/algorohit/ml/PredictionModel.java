@@ -0,0 +1,11 @@
+package com.ax9k.algorohit.ml;
+
+import java.util.Map;
+
+interface PredictionModel extends AutoCloseable {
+    Prediction predict(Map<String, ?> features);
+
+    @Override
+    default void close() {
+    }
+}
@@ -15,6 +15,7 @@ module com.ax9k.algorohit {
     requires org.apache.commons.lang3;
     requires machinelearning;
     requires org.apache.logging.log4j.core;
+    requires com.fasterxml.jackson.databind;
 
     exports com.ax9k.algorohit to com.ax9k.service;
     opens com.ax9k.algorohit to com.fasterxml.jackson.databind;
@@ -0,0 +1,75 @@
+package com.ax9k.algorohit.ml;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocalModelTest {
+    private static LocalModel load(String json) throws IOException {
+        Path file = Files.createTempFile("model", ".json");
+        Files.write(file, json.replace('\'', '"').getBytes());
+        return LocalModel.load(file);
+    }
+
+    @Test
+    void shouldRejectUnknownModelType() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> load("{'type': 'svm', 'features': ['x'], 'labels': ['UP']}"));
+    }
+
+    @Nested
+    class WhenLinear {
+        private static final String MODEL = "{'type': 'linear', 'features': ['spread', 'rsi'], " +
+                                            "'labels': ['UP', 'DOWN', 'NO_CHANGE'], " +
+                                            "'intercepts': [0, 0, 1], " +
+                                            "'weights': [[1, 0.1], [-1, -0.1], [0, 0]]}";
+
+        @Test
+        void shouldPredictLabelWithHighestScore() throws IOException {
+            Prediction prediction = load(MODEL).predict(Map.of("spread", 3, "rsi", 10));
+
+            assertEquals(PredictedChange.UP, prediction.getChange());
+            assertEquals(1 / (1 + Math.exp(-8) + Math.exp(-3)), prediction.getProbability(), 1e-9);
+        }
+
+        @Test
+        void shouldIgnoreMissingAndNonNumericFeatures() throws IOException {
+            Prediction prediction = load(MODEL).predict(Map.of("rsi", "n/a"));
+
+            assertEquals(PredictedChange.NO_CHANGE, prediction.getChange());
+        }
+
+        @Test
+        void shouldRejectWeightsNotMatchingFeatures() {
+            assertThrows(IllegalArgumentException.class,
+                         () -> load(MODEL.replace("[1, 0.1]", "[1]")));
+        }
+    }
+
+    @Nested
+    class WhenTreeEnsemble {
+        private static final String MODEL = "{'type': 'trees', 'features': ['spread'], 'labels': ['UP', 'DOWN'], " +
+                                            "'trees': [" +
+                                            "{'label': 0, 'nodes': [{'feature': 0, 'threshold': 2, " +
+                                            "'left': 1, 'right': 2}, {'value': -1}, {'value': 1}]}, " +
+                                            "{'label': 1, 'nodes': [{'value': 0.5}]}]}";
+
+        @Test
+        void shouldSumLeavesOfEachLabel() throws IOException {
+            assertEquals(PredictedChange.UP, load(MODEL).predict(Map.of("spread", 2.5)).getChange());
+            assertEquals(PredictedChange.DOWN, load(MODEL).predict(Map.of("spread", 1)).getChange());
+        }
+
+        @Test
+        void shouldGoLeftWhenFeatureIsMissing() throws IOException {
+            assertEquals(PredictedChange.DOWN, load(MODEL).predict(Map.of()).getChange());
+        }
+    }
+}
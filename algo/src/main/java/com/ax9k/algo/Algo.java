@@ -2,6 +2,7 @@ package com.ax9k.algo;
 
 import com.ax9k.algo.features.FeatureManager;
 import com.ax9k.algo.features.set.SetFeature;
+import com.ax9k.core.checkpoint.Checkpointable;
 import com.ax9k.core.event.Event;
 import com.ax9k.core.event.EventType;
 import com.ax9k.core.marketmodel.Phase;
@@ -21,6 +22,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.Serializable;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -28,11 +30,14 @@ import java.time.Duration;
 import java.time.LocalTime;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Observable;
 import java.util.Observer;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
@@ -41,7 +46,7 @@ import java.util.stream.DoubleStream;
 import static org.apache.commons.lang3.Validate.notNull;
 
 @JsonPropertyOrder({ "algoName" })
-public abstract class Algo implements Observer {
+public abstract class Algo implements Observer, Checkpointable {
     protected static final double INVALID_FEATURE_VALUE = Double.MIN_VALUE;
     protected static final String SPACER = "------------------------------";
     protected static final Logger ERROR_LOG = LogManager.getLogger("error");
@@ -55,13 +60,14 @@ public abstract class Algo implements Observer {
     protected final TradingDay tradingDay;
     protected final FeatureManager<Trade> tradeFeatures;
     protected final FeatureManager<OrderBook> bookFeatures;
-    protected final PeriodicFeatureUpdates periodicUpdates = new PeriodicFeatureUpdates();
+    protected final PeriodicFeatureUpdates periodicUpdates;
     private final boolean logFeatureArray;
     private final boolean logFeatureArrayOnHeartBeat;
     private final String version;
     private final Trigger closedTrigger;
     private final Trigger firstEventTrigger;
     private final Map<String, Double> features = new HashMap<>();
+    private final AtomicLong featuresVersion = new AtomicLong();
     private final Map<Phase, Runnable> phaseCallbacks = new HashMap<>();
     private final Map<Phase, Trigger> phaseChangeTriggers = new HashMap<>();
     protected Event triggeringEvent;
@@ -80,8 +86,9 @@ public abstract class Algo implements Observer {
         this.logFeatureArray = logFeatureArray;
         this.logFeatureArrayOnHeartBeat = logFeatureArrayOnHeartBeat;
 
-        bookFeatures = new FeatureManager<>(tradingDay::getOrderBookHistory);
-        tradeFeatures = new FeatureManager<>(tradingDay::getTradeHistory);
+        bookFeatures = new FeatureManager<>(tradingDay.getSymbol(), tradingDay::getOrderBookHistory);
+        tradeFeatures = new FeatureManager<>(tradingDay.getSymbol(), tradingDay::getTradeHistory);
+        periodicUpdates = new PeriodicFeatureUpdates(tradingDay.getSymbol());
 
         firstEventTrigger = new Trigger(() -> {
             lock.lock();
@@ -178,6 +185,30 @@ public abstract class Algo implements Observer {
         }
     }
 
+    /**
+     * Captures the periodic feature histories. Subclasses with state of their own should extend this.
+     */
+    @Override
+    public Serializable checkpoint() {
+        lock.lock();
+        try {
+            return periodicUpdates.copyHistories();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void restore(Serializable state) {
+        lock.lock();
+        try {
+            periodicUpdates.restoreHistories((Map<Duration, List<PeriodicFeatureResult>>) state);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     protected boolean validFeatureResults(double... results) {
         return DoubleStream.of(results)
                            .allMatch(this::validFeatureResult);
@@ -245,6 +276,7 @@ public abstract class Algo implements Observer {
                                 "feature '%s' must be declared on or before the first event", feature);
 
             features.put(feature, INVALID_FEATURE_VALUE);
+            featuresVersion.incrementAndGet();
         } finally {
             lock.unlock();
         }
@@ -255,7 +287,10 @@ public abstract class Algo implements Observer {
         try {
             Validate.validState(features.containsKey(feature),
                                 "feature '%s' must be declared before a value is set", feature);
-            features.put(feature, value);
+            Double previous = features.put(feature, value);
+            if (!Objects.equals(previous, value)) {
+                featuresVersion.incrementAndGet();
+            }
         } finally {
             lock.unlock();
         }
@@ -350,6 +385,15 @@ public abstract class Algo implements Observer {
         previousPhase = currentPhase;
     }
 
+    /**
+     * Changes whenever a feature value does, so readers can skip {@link #getFeaturesJson()} and its lock while the
+     * features are unchanged. The event time in that output is not part of the version.
+     */
+    @JsonIgnore
+    public long getFeaturesVersion() {
+        return featuresVersion.get();
+    }
+
     @JsonIgnore
     public String getFeaturesJson() {
         lock.lock();
@@ -4,6 +4,7 @@ import com.ax9k.core.event.Event;
 import com.ax9k.core.time.Time;
 import com.ax9k.utils.json.JsonUtils;
 
+import java.io.Serializable;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -16,7 +17,8 @@ import java.util.OptionalDouble;
 import static java.lang.String.format;
 import static java.util.Map.entry;
 
-public class PeriodicFeatureResult implements Event {
+public class PeriodicFeatureResult implements Event, Serializable {
+    private static final long serialVersionUID = 1L;
     private static final String FEATURE_NOT_PRESENT_ERROR = "Feature '%s' not recorded in: %s";
     private static final Map<Class, Class> BOXED_TYPES;
 
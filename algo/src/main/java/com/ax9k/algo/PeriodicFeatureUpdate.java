@@ -12,6 +12,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
@@ -22,7 +23,7 @@ class PeriodicFeatureUpdate {
     private static final Logger PERIODIC_FEATURE_LOGGER = LogManager.getLogger("periodicFeatureLogger");
 
     private final History<PeriodicFeatureResult> history = new BasicHistory<>();
-    private final FeatureManager<PeriodicFeatureResult> manager = new FeatureManager<>(this::getHistory);
+    private final FeatureManager<PeriodicFeatureResult> manager;
 
     private final TradingSchedule tradingSchedule;
     private final Consumer<PeriodicFeatureResult> featuresRecorder;
@@ -31,23 +32,53 @@ class PeriodicFeatureUpdate {
 
     private Instant lastUpdate;
     private boolean updated;
+    private int recordedResults;
 
     PeriodicFeatureUpdate(TradingSchedule tradingSchedule,
                           Consumer<PeriodicFeatureResult> featureRecorder,
                           Duration period,
                           LocalTime periodStart) {
+        this(null, tradingSchedule, featureRecorder, period, periodStart);
+    }
+
+    PeriodicFeatureUpdate(String instrument,
+                          TradingSchedule tradingSchedule,
+                          Consumer<PeriodicFeatureResult> featureRecorder,
+                          Duration period,
+                          LocalTime periodStart) {
+        manager = new FeatureManager<>(instrument, this::getHistory);
         this.tradingSchedule = notNull(tradingSchedule, "tradingSchedule");
         this.featuresRecorder = notNull(featureRecorder, "featureRecorder");
         this.period = notNull(period, "period");
         this.periodStart = notNull(periodStart, "periodStart");
     }
 
-    void runIfNecessary(Instant now) {
+    List<PeriodicFeatureResult> snapshotHistory() {
+        return history.snapshot();
+    }
+
+    /**
+     * Updates resume from the end of the last restored period, so any periods missed while stopped become filler.
+     */
+    void restore(List<PeriodicFeatureResult> results) {
+        results.forEach(history::record);
+        if (!results.isEmpty()) {
+            lastUpdate = results.get(results.size() - 1).getTimestamp();
+        }
+    }
+
+    /**
+     * @return whether any results were recorded
+     */
+    boolean runIfNecessary(Instant now) {
         if (updateDue(now)) {
+            int recordedBefore = recordedResults;
             performUpdates(now);
             updated = true;
+            return recordedResults != recordedBefore;
         } else {
             updated = false;
+            return false;
         }
     }
 
@@ -102,6 +133,7 @@ class PeriodicFeatureUpdate {
 
         if (tradingSchedule.phaseForTime(periodStart).isTradingSession()) {
             history.record(result);
+            recordedResults++;
             featuresRecorder.accept(result);
             PERIODIC_FEATURE_LOGGER.info(result);
             return true;
@@ -142,6 +174,7 @@ class PeriodicFeatureUpdate {
 
         if (tradingSchedule.phaseForTime(periodStart).isTradingSession()) {
             history.record(result);
+            recordedResults++;
             result.recordAll(filler);
             PERIODIC_FEATURE_LOGGER.info(result);
             return true;
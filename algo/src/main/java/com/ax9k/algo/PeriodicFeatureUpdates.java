@@ -4,20 +4,38 @@ import com.ax9k.algo.features.FeatureManager;
 import com.ax9k.core.history.History;
 import com.ax9k.core.marketmodel.TradingSchedule;
 import com.ax9k.utils.json.JsonUtils;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import static java.util.Objects.requireNonNull;
 
 public class PeriodicFeatureUpdates {
     private final Map<Duration, PeriodicFeatureUpdate> updates = new HashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final String instrument;
+
+    public PeriodicFeatureUpdates() {
+        this(null);
+    }
+
+    /**
+     * @param instrument the symbol of the contract the features are calculated for, or {@code null} for the only
+     *                   contract in the process
+     */
+    public PeriodicFeatureUpdates(String instrument) {
+        this.instrument = instrument;
+    }
 
     public void add(TradingSchedule tradingSchedule,
                     Duration period,
@@ -26,7 +44,8 @@ public class PeriodicFeatureUpdates {
         requireNonNull(period, "period");
         requireNonNull(features, "features");
         requireNonNull(periodStart, "periodStart");
-        updates.put(period, new PeriodicFeatureUpdate(tradingSchedule, features, period, periodStart));
+        updates.put(period, new PeriodicFeatureUpdate(instrument, tradingSchedule, features, period, periodStart));
+        version.incrementAndGet();
     }
 
     public int getPeriodicFeatureUpdatesCount() {
@@ -41,8 +60,14 @@ public class PeriodicFeatureUpdates {
         return updates.keySet().toString();
     }
 
+    @JsonIgnore
+    public Set<Duration> getPeriodSet() {
+        return Set.copyOf(updates.keySet());
+    }
+
     public void cancel(Duration period) {
         updates.remove(requireNonNull(period, "period"));
+        version.incrementAndGet();
     }
 
     public FeatureManager<PeriodicFeatureResult> getFeatures(Duration period) {
@@ -71,12 +96,45 @@ public class PeriodicFeatureUpdates {
         return requireExistingUpdate(period).getHistory();
     }
 
+    HashMap<Duration, List<PeriodicFeatureResult>> copyHistories() {
+        HashMap<Duration, List<PeriodicFeatureResult>> result = new HashMap<>(updates.size());
+        for (var update : updates.entrySet()) {
+            result.put(update.getKey(), update.getValue().snapshotHistory());
+        }
+        return result;
+    }
+
+    /**
+     * Histories of periods that are not currently registered are ignored.
+     */
+    void restoreHistories(Map<Duration, List<PeriodicFeatureResult>> histories) {
+        for (var history : histories.entrySet()) {
+            PeriodicFeatureUpdate update = updates.get(history.getKey());
+            if (update != null) {
+                update.restore(history.getValue());
+            }
+        }
+        version.incrementAndGet();
+    }
+
     public void runUpdates(Instant now) {
+        boolean recorded = false;
         for (PeriodicFeatureUpdate update : updates.values()) {
-            update.runIfNecessary(now);
+            recorded |= update.runIfNecessary(now);
+        }
+        if (recorded) {
+            version.incrementAndGet();
         }
     }
 
+    /**
+     * @return a number that changes whenever periods are added or cancelled, or results are recorded or restored
+     */
+    @JsonIgnore
+    public long getVersion() {
+        return version.get();
+    }
+
     @Override
     public int hashCode() {
         return 31 * updates.hashCode();
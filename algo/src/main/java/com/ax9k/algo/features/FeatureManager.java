@@ -10,9 +10,19 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public final class FeatureManager<T extends Event> {
+    private final String instrument;
     private final Supplier<History<T>> historySupplier;
 
     public FeatureManager(Supplier<History<T>> historySupplier) {
+        this(null, historySupplier);
+    }
+
+    /**
+     * @param instrument the symbol of the contract the histories belong to, or {@code null} for the only contract in
+     *                   the process. Set features that keep running results keep them apart per contract.
+     */
+    public FeatureManager(String instrument, Supplier<History<T>> historySupplier) {
+        this.instrument = instrument;
         this.historySupplier = historySupplier;
     }
 
@@ -30,7 +40,7 @@ public final class FeatureManager<T extends Event> {
                       Feature<T> feature,
                       Duration relevantPeriod) {
         History<T> history = historySupplier.get();
-        return setFeature.calculate(feature, history.asSource(relevantPeriod));
+        return setFeature.calculate(instrument, feature, history.asSource(relevantPeriod), Parameters.NONE);
     }
 
     public double get(SetFeature setFeature,
@@ -38,14 +48,14 @@ public final class FeatureManager<T extends Event> {
                       Duration relevantPeriod,
                       Predicate<T> filter) {
         History<T> history = historySupplier.get();
-        return setFeature.calculate(feature, history.asSource(relevantPeriod, filter));
+        return setFeature.calculate(instrument, feature, history.asSource(relevantPeriod, filter), Parameters.NONE);
     }
 
     public double get(SetFeature setFeature,
                       Feature<T> feature,
                       int numberOfEntries) {
         History<T> history = historySupplier.get();
-        return setFeature.calculate(feature, history.asSource(numberOfEntries));
+        return setFeature.calculate(instrument, feature, history.asSource(numberOfEntries), Parameters.NONE);
     }
 
     public double get(SetFeature setFeature,
@@ -53,7 +63,7 @@ public final class FeatureManager<T extends Event> {
                       int numberOfEntries,
                       Parameters parameters) {
         History<T> history = historySupplier.get();
-        return setFeature.calculate(feature, history.asSource(numberOfEntries), parameters);
+        return setFeature.calculate(instrument, feature, history.asSource(numberOfEntries), parameters);
     }
 
     public double get(SetFeature setFeature,
@@ -61,7 +71,7 @@ public final class FeatureManager<T extends Event> {
                       int numberOfEntries,
                       Predicate<T> filter) {
         History<T> history = historySupplier.get();
-        return setFeature.calculate(feature, history.asSource(numberOfEntries, filter));
+        return setFeature.calculate(instrument, feature, history.asSource(numberOfEntries, filter), Parameters.NONE);
     }
 
     public double get(SetFeature setFeature,
@@ -70,19 +80,19 @@ public final class FeatureManager<T extends Event> {
                       Predicate<T> filter,
                       Parameters parameters) {
         History<T> history = historySupplier.get();
-        return setFeature.calculate(feature, history.asSource(numberOfEntries, filter), parameters);
+        return setFeature.calculate(instrument, feature, history.asSource(numberOfEntries, filter), parameters);
     }
 
     public double get(SetFeature setFeature,
                       Feature<T> feature) {
         History<T> history = historySupplier.get();
-        return setFeature.calculate(feature, history.asSource());
+        return setFeature.calculate(instrument, feature, history.asSource(), Parameters.NONE);
     }
 
     public double get(SetFeature setFeature,
                       Feature<T> feature,
                       Parameters parameters) {
         History<T> history = historySupplier.get();
-        return setFeature.calculate(feature, history.asSource(), parameters);
+        return setFeature.calculate(instrument, feature, history.asSource(), parameters);
     }
 }
@@ -12,10 +12,13 @@ import com.ax9k.algo.features.set.RelativeStrengthIndex;
 import com.ax9k.algo.features.set.SetFeature;
 import com.ax9k.algo.features.set.StandardDeviation;
 import com.ax9k.algo.features.set.Sum;
+import com.ax9k.core.checkpoint.Checkpointable;
 import com.ax9k.core.marketmodel.Trade;
 import com.ax9k.core.marketmodel.bar.OhlcvBar;
 import com.ax9k.core.marketmodel.orderbook.OrderBook;
 
+import java.util.Map;
+
 public final class StandardFeatures {
     public static final Feature<OrderBook> BID_0 = (book) -> book.getBidPrice(0);
     public static final Feature<OrderBook> ASK_0 = (book) -> book.getAskPrice(0);
@@ -54,10 +57,28 @@ public final class StandardFeatures {
     public static final SetFeature SUM = new Sum();
     public static final SetFeature RANGE = new Range();
     public static final SetFeature STANDARD_DEVIATION = new StandardDeviation();
-    public static final SetFeature EXPONENTIAL_WEIGHTED_MOVING_AVERAGE = new ExponentialWeightedMovingAverage();
-    public static final SetFeature RSI = new RelativeStrengthIndex();
+    public static final ExponentialWeightedMovingAverage EXPONENTIAL_WEIGHTED_MOVING_AVERAGE =
+            new ExponentialWeightedMovingAverage();
+    public static final RelativeStrengthIndex RSI = new RelativeStrengthIndex();
 
     private StandardFeatures() {
         throw new AssertionError("StandardFeatures is not instantiable");
     }
+
+    /**
+     * @return the running results of the features that build on their own previous results, keyed by feature name
+     */
+    public static Map<String, Checkpointable> getResultStores() {
+        return Map.of("EXPONENTIAL_WEIGHTED_MOVING_AVERAGE", EXPONENTIAL_WEIGHTED_MOVING_AVERAGE.getResultStores(),
+                      "RSI", RSI.getResultStores());
+    }
+
+    /**
+     * Forgets the running results of the features that build on their own previous results. Anything replaying
+     * market data from the start, such as one backtest of a parameter sweep, must call this first.
+     */
+    public static void clearResultStores() {
+        EXPONENTIAL_WEIGHTED_MOVING_AVERAGE.clearResultStores();
+        RSI.clearResultStores();
+    }
 }
@@ -5,6 +5,7 @@ import com.ax9k.algo.features.Parameters;
 import com.ax9k.algo.features.store.Key;
 import com.ax9k.algo.features.store.ResultStore;
 import com.ax9k.algo.features.store.ResultStoreRegistry;
+import com.ax9k.core.checkpoint.Checkpointable;
 import com.ax9k.core.event.Event;
 import com.ax9k.core.history.Source;
 
@@ -18,8 +19,30 @@ public final class ExponentialWeightedMovingAverage implements SetFeature {
 
     private final ResultStoreRegistry storeRegistry = new ResultStoreRegistry();
 
+    /**
+     * @return the running results kept between calculations
+     */
+    public Checkpointable getResultStores() {
+        return storeRegistry;
+    }
+
+    /**
+     * Forgets the running results, so that the next calculation starts afresh.
+     */
+    public void clearResultStores() {
+        storeRegistry.clear();
+    }
+
     @Override
     public <T extends Event> double calculate(Feature<T> feature, Source<T> history, Parameters parameters) {
+        return calculate(null, feature, history, parameters);
+    }
+
+    @Override
+    public <T extends Event> double calculate(String instrument,
+                                              Feature<T> feature,
+                                              Source<T> history,
+                                              Parameters parameters) {
         if (history.isEmpty()) {
             return INVALID_RESULT;
         }
@@ -27,7 +50,7 @@ public final class ExponentialWeightedMovingAverage implements SetFeature {
         int roundingPrecision = parameters.getInt("precision").orElse(3);
         int intendedPeriods = history.getIntendedSize().orElseThrow(NO_INTENDED_PERIODS_ERROR);
 
-        Key parameterKey = Key.create(feature, history, parameters);
+        Key parameterKey = Key.create(instrument, feature, history, parameters);
         ResultStore resultStore = storeRegistry.registerAndGet(parameterKey);
 
         double latestValue = history.getLatest().map(feature).orElseThrow();
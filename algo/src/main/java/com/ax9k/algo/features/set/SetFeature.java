@@ -13,4 +13,17 @@ public interface SetFeature {
     }
 
     <T extends Event> double calculate(Feature<T> feature, Source<T> history, Parameters parameters);
+
+    /**
+     * Calculates for one of the contracts hosted in the process. Features that keep running results between
+     * calculations keep them apart per contract.
+     *
+     * @param instrument the contract's symbol, or {@code null} for the only contract in the process
+     */
+    default <T extends Event> double calculate(String instrument,
+                                               Feature<T> feature,
+                                               Source<T> history,
+                                               Parameters parameters) {
+        return calculate(feature, history, parameters);
+    }
 }
\ No newline at end of file
@@ -5,9 +5,13 @@ import com.ax9k.algo.features.Parameters;
 import com.ax9k.core.event.Event;
 import com.ax9k.core.history.Source;
 
+import java.io.Serializable;
+
 import static java.util.Objects.requireNonNull;
 
-public class Key implements Comparable<Key> {
+public class Key implements Comparable<Key>, Serializable {
+    private static final long serialVersionUID = 1L;
+
     private final String value;
 
     private Key(String value) {
@@ -15,8 +19,19 @@ public class Key implements Comparable<Key> {
     }
 
     public static <T extends Event> Key create(Feature<T> feature, Source<T> history, Parameters parameters) {
+        return create(null, feature, history, parameters);
+    }
+
+    /**
+     * @param instrument the contract's symbol, or {@code null} for the only contract in the process
+     */
+    public static <T extends Event> Key create(String instrument,
+                                               Feature<T> feature,
+                                               Source<T> history,
+                                               Parameters parameters) {
         int periods = history.getIntendedSize().orElse(history.getSize());
-        return new Key(feature.toString() + periods + parameters);
+        String value = feature.toString() + periods + parameters;
+        return new Key(instrument == null ? value : instrument + ':' + value);
     }
 
     @Override
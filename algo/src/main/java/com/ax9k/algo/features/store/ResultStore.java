@@ -4,10 +4,21 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
+/**
+ * Synchronised, as a checkpoint may copy the values while the feature that owns the store updates them.
+ */
 public class ResultStore {
     private static final String DEFAULT_FEATURE_RESULT_KEY = "FEATURE_RESULT";
 
-    private final Map<String, Object> cache = new HashMap<>();
+    private final Map<String, Object> cache;
+
+    public ResultStore() {
+        cache = new HashMap<>();
+    }
+
+    ResultStore(Map<String, Object> values) {
+        cache = new HashMap<>(values);
+    }
 
     public Optional<Double> getPreviousResult() {
         return get(DEFAULT_FEATURE_RESULT_KEY);
@@ -17,7 +28,7 @@ public class ResultStore {
         return get(key, Double.class);
     }
 
-    public <T> Optional<T> get(String key, Class<T> type) {
+    public synchronized <T> Optional<T> get(String key, Class<T> type) {
         return Optional.ofNullable(cache.get(key)).map(type::cast);
     }
 
@@ -25,7 +36,7 @@ public class ResultStore {
         store(DEFAULT_FEATURE_RESULT_KEY, value);
     }
 
-    public void store(String key, Object value) {
+    public synchronized void store(String key, Object value) {
         cache.put(key, value);
     }
 
@@ -33,11 +44,15 @@ public class ResultStore {
         return contains(DEFAULT_FEATURE_RESULT_KEY);
     }
 
-    public boolean contains(String key) {
+    public synchronized boolean contains(String key) {
         return cache.containsKey(key);
     }
 
-    public void discard(String key) {
+    public synchronized void discard(String key) {
         cache.remove(key);
     }
+
+    synchronized HashMap<String, Object> copyValues() {
+        return new HashMap<>(cache);
+    }
 }
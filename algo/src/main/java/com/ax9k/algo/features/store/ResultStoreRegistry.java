@@ -1,22 +1,60 @@
 package com.ax9k.algo.features.store;
 
+import com.ax9k.core.checkpoint.Checkpointable;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
-public class ResultStoreRegistry {
+/**
+ * The running results of a stateful feature. Every access is guarded by the registry's lock, as the algos update the
+ * stores from their market data threads while checkpoints copy them from another, and even a lookup reorders the
+ * least recently used map.
+ */
+public class ResultStoreRegistry implements Checkpointable {
     private static final int MAXIMUM_REGISTERED_CACHES = 100;
 
     private final Map<Key, ResultStore> registry = new LeastRecentlyUsedCache<>(MAXIMUM_REGISTERED_CACHES);
 
-    public void register(Key key) {
+    public synchronized void register(Key key) {
         registry.put(key, new ResultStore());
     }
 
-    public Optional<ResultStore> get(Key key) {
+    public synchronized Optional<ResultStore> get(Key key) {
         return Optional.ofNullable(registry.get(key));
     }
 
-    public ResultStore registerAndGet(Key key) {
+    public synchronized ResultStore registerAndGet(Key key) {
         return registry.computeIfAbsent(key, __ -> new ResultStore());
     }
+
+    /**
+     * Forgets every running result, so that the next calculation starts afresh.
+     */
+    public synchronized void clear() {
+        registry.clear();
+    }
+
+    /**
+     * Copies the values of every store, least recently used first, so that restoring keeps the eviction order.
+     */
+    @Override
+    public synchronized Serializable checkpoint() {
+        LinkedHashMap<Key, HashMap<String, Object>> result = new LinkedHashMap<>();
+        for (Map.Entry<Key, ResultStore> entry : registry.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().copyValues());
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized void restore(Serializable state) {
+        Map<Key, Map<String, Object>> stores = (Map<Key, Map<String, Object>>) state;
+        for (Map.Entry<Key, Map<String, Object>> entry : stores.entrySet()) {
+            registry.put(entry.getKey(), new ResultStore(entry.getValue()));
+        }
+    }
 }
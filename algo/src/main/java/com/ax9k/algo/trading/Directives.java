@@ -2,6 +2,10 @@ package com.ax9k.algo.trading;
 
 import org.apache.commons.lang3.Validate;
 
+/**
+ * Creates trade directives. Directives are immutable, so strategies can create the ones they need once and return
+ * them on every decision.
+ */
 public final class Directives {
     private static final TradeDirective NO_OP = (__) -> {};
 
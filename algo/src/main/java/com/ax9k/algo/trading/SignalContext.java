@@ -3,10 +3,35 @@ package com.ax9k.algo.trading;
 import com.ax9k.algo.Algo.Signal;
 import com.fasterxml.jackson.annotation.JsonGetter;
 
+import java.util.Objects;
+
 import static com.ax9k.algo.Algo.Signal.NONE;
 import static org.apache.commons.lang3.Validate.notNull;
 
+/**
+ * The current and previous enter and exit signals. Immutable.
+ * <p>
+ * There are only a few dozen possible contexts, so {@link #of(Signal, Signal)} and the update methods return shared
+ * instances instead of allocating on every signal evaluation.
+ */
 public final class SignalContext {
+    private static final Signal[] SIGNALS = Signal.values();
+    private static final SignalContext[] INSTANCES = new SignalContext[SIGNALS.length * SIGNALS.length *
+                                                                       SIGNALS.length * SIGNALS.length];
+
+    static {
+        for (Signal previousEnter : SIGNALS) {
+            for (Signal enter : SIGNALS) {
+                for (Signal previousExit : SIGNALS) {
+                    for (Signal exit : SIGNALS) {
+                        INSTANCES[index(previousEnter, enter, previousExit, exit)] =
+                                new SignalContext(previousEnter, enter, previousExit, exit);
+                    }
+                }
+            }
+        }
+    }
+
     private final Signal previousEnter;
     private final Signal enter;
     private final Signal previousExit;
@@ -26,16 +51,30 @@ public final class SignalContext {
         this.exit = notNull(exit);
     }
 
+    public static SignalContext of(Signal enter, Signal exit) {
+        return intern(NONE, enter, NONE, exit);
+    }
+
+    private static SignalContext intern(Signal previousEnter, Signal enter, Signal previousExit, Signal exit) {
+        return INSTANCES[index(notNull(previousEnter), notNull(enter), notNull(previousExit), notNull(exit))];
+    }
+
+    private static int index(Signal previousEnter, Signal enter, Signal previousExit, Signal exit) {
+        int count = SIGNALS.length;
+        return ((previousEnter.ordinal() * count + enter.ordinal()) * count + previousExit.ordinal()) * count +
+               exit.ordinal();
+    }
+
     public SignalContext update(Signal newEnter, Signal newExit) {
-        return new SignalContext(enter, newEnter, exit, newExit);
+        return intern(enter, newEnter, exit, newExit);
     }
 
     public SignalContext updateEnter(Signal newEnter) {
-        return new SignalContext(enter, newEnter, previousExit, exit);
+        return intern(enter, newEnter, previousExit, exit);
     }
 
     public SignalContext updateExit(Signal newExit) {
-        return new SignalContext(previousEnter, enter, exit, newExit);
+        return intern(previousEnter, enter, exit, newExit);
     }
 
     public Signal getPreviousEnter() {
@@ -63,4 +102,20 @@ public final class SignalContext {
     public boolean exitJustChanged() {
         return previousExit != exit;
     }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(previousEnter, enter, previousExit, exit);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) { return true; }
+        if (other == null || getClass() != other.getClass()) { return false; }
+        SignalContext that = (SignalContext) other;
+        return previousEnter == that.previousEnter &&
+               enter == that.enter &&
+               previousExit == that.previousExit &&
+               exit == that.exit;
+    }
 }
@@ -1,5 +1,6 @@
 package com.ax9k.algo.trading;
 
+import com.ax9k.algo.Algo.Signal;
 import com.ax9k.core.marketmodel.Milestone;
 import com.ax9k.core.marketmodel.Phase;
 import com.ax9k.core.marketmodel.TradingSchedule;
@@ -8,6 +9,8 @@ import com.ax9k.positionmanager.Position;
 
 import java.time.Duration;
 import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.Map;
 
 import static com.ax9k.algo.Algo.Signal.BUY;
 import static com.ax9k.algo.Algo.Signal.SELL;
@@ -17,16 +20,36 @@ import static com.ax9k.algo.trading.Directives.none;
 import static com.ax9k.algo.trading.Directives.sell;
 import static com.ax9k.utils.compare.ComparableUtils.greaterThanOrEqual;
 
+/**
+ * Enters on a change of the enter signal, reverses on a reversal of it and exits on a change of the exit signal or
+ * at the exit time. Every directive it can return is created up front, so deciding allocates nothing.
+ */
 public final class StandardTradingStrategy implements TradingStrategy {
     private static final Duration EXIT_TIME_BUFFER = Duration.ofMinutes(5);
     //TODO this should come from the ALGO config and default to 5 mins
+    private static final TradeDirective EXIT_AT_EXIT_TIME = exit("Hit exit time");
+    private static final Map<Signal, TradeDirective> EXIT_ON_SIGNAL = new EnumMap<>(Signal.class);
+
+    static {
+        for (Signal signal : Signal.values()) {
+            EXIT_ON_SIGNAL.put(signal, exit("Exit signal changed to: " + signal));
+        }
+    }
 
     private final LocalTime exitTime;
     private final double quantityMultiplier;
+    private final TradeDirective enterLong;
+    private final TradeDirective enterShort;
+    private final TradeDirective reverseToLong;
+    private final TradeDirective reverseToShort;
 
     private StandardTradingStrategy(LocalTime exitTime, double quantityMultiplier) {
         this.exitTime = exitTime;
         this.quantityMultiplier = quantityMultiplier;
+        enterLong = buy(quantityMultiplier);
+        enterShort = sell(quantityMultiplier);
+        reverseToLong = buy(2 * quantityMultiplier);
+        reverseToShort = sell(2 * quantityMultiplier);
     }
 
     public static StandardTradingStrategy tradeNumberOfSessions(int sessionsToTrade, double quantityMultiplier) {
@@ -56,7 +79,7 @@ public final class StandardTradingStrategy implements TradingStrategy {
     public TradeDirective decideAction(SignalContext signals, Position position) {
         if (isTimeToExit()) {
             if (position.hasPosition()) {
-                return exit("Hit exit time");
+                return EXIT_AT_EXIT_TIME;
             }
             return none();
         }
@@ -64,19 +87,19 @@ public final class StandardTradingStrategy implements TradingStrategy {
         if (position.hasPosition()) {
             if (signals.enterJustChanged()) {
                 if (position.isLong() && signals.getPreviousEnter() == BUY && signals.getEnter() == SELL) {
-                    return sell(2 * quantityMultiplier);
+                    return reverseToShort;
                 } else if (position.isShort() && signals.getPreviousEnter() == SELL && signals.getEnter() == BUY) {
-                    return buy(2 * quantityMultiplier);
+                    return reverseToLong;
                 }
             } else if (signals.exitJustChanged() && (signals.getExit() != SELL && position.isShort()) ||
                        (signals.getExit() != BUY && position.isLong())) {
-                return exit("Exit signal changed to: " + signals.getExit());
+                return EXIT_ON_SIGNAL.get(signals.getExit());
             }
         } else if (signals.enterJustChanged()) {
             if (signals.getEnter() == BUY) {
-                return buy(quantityMultiplier);
+                return enterLong;
             } else if (signals.getEnter() == SELL) {
-                return sell(quantityMultiplier);
+                return enterShort;
             }
         }
         return none();
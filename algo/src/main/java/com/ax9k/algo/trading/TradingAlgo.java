@@ -8,6 +8,7 @@ import com.ax9k.core.marketmodel.TradingDay;
 import com.ax9k.core.marketmodel.TradingSchedule;
 import com.ax9k.core.time.Time;
 import com.ax9k.positionmanager.OrderReceiver;
+import com.ax9k.positionmanager.Position;
 import com.ax9k.positionmanager.PositionManager;
 import org.apache.logging.log4j.Logger;
 
@@ -18,20 +19,32 @@ import java.util.Observable;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
+/**
+ * Trades on the signals of a subclass, guarded by cash-out, giveback and stop levels.
+ * <p>
+ * By default the guards and the trading strategy are evaluated on every event. With
+ * {@link #setEventDrivenEvaluation(boolean) event-driven evaluation}, they are evaluated only when something they
+ * depend on has changed: a signal, the position or its orders, the phase, the strategy's exit time, or the
+ * unrealised PnL or price crossing a cash-out, giveback or stop level. The decisions are the same either way.
+ */
 public class TradingAlgo extends Algo {
     protected final Trigger signalChanged = new Trigger();
     private final TradingStrategy tradingStrategy;
     private final OrderReceiver orderReceiver;
     private final Trigger aboutToCloseTrigger;
-    protected SignalContext signals = new SignalContext(Signal.NONE, Signal.NONE);
+    protected SignalContext signals = SignalContext.of(Signal.NONE, Signal.NONE);
     protected double cashoutUpperLevel = Double.MAX_VALUE;
     protected double cashoutLowerLevel = Integer.MIN_VALUE;
     protected double maxGiveBack = Double.MAX_VALUE;
     protected int stopBuffer = 100;
     private LocalTime tenMinutesToClose;
     private boolean tradingSuspended;
-    private int hitStopCount = 0;
-    private double stopPrice;
+    private volatile double stopPrice;
+    private volatile boolean eventDrivenEvaluation;
+    private Position lastPosition;
+    private long lastOrdersVersion = -1;
+    private Phase lastPhase;
+    private boolean lastTimeToExit;
 
     public TradingAlgo(String version,
                        PositionManager positionManager,
@@ -110,6 +123,11 @@ public class TradingAlgo extends Algo {
 
     @Override
     public void update(Observable o, Object arg) {
+        if (eventDrivenEvaluation) {
+            updateOnChange(o, arg);
+            return;
+        }
+
         if (positionReporter.getCurrentPosition()
                             .noPosition()) {  //TODO this only really needs to be set if a trade has been filled.
             setNoStopPrice();
@@ -117,6 +135,45 @@ public class TradingAlgo extends Algo {
 
         super.update(o, arg);
 
+        evaluate();
+    }
+
+    private void updateOnChange(Observable o, Object arg) {
+        Position position = positionReporter.getCurrentPosition();
+        boolean positionChanged = position != lastPosition || position.getOrdersVersion() != lastOrdersVersion;
+        if (positionChanged) {
+            lastPosition = position;
+            lastOrdersVersion = position.getOrdersVersion();
+            if (position.noPosition()) {
+                setNoStopPrice();
+            }
+        }
+
+        super.update(o, arg);
+
+        Phase phase = tradingDay.getPhase();
+        boolean timeToExit = tradingStrategy.isTimeToExit();
+        boolean milestoneCrossed = phase != lastPhase || timeToExit != lastTimeToExit;
+        lastPhase = phase;
+        lastTimeToExit = timeToExit;
+
+        if (positionChanged || milestoneCrossed || signalChanged.isTriggered() || cashoutLevelCrossed(position)) {
+            evaluate();
+        }
+    }
+
+    private boolean cashoutLevelCrossed(Position position) {
+        if (position.noPosition()) {
+            return false;
+        }
+        double unrealisedPnL = getUnrealisedPnL();
+        double dailyHighestPnl = positionReporter.getDailyHighestPnl();
+        return unrealisedPnL >= cashoutUpperLevel ||
+               unrealisedPnL <= cashoutLowerLevel ||
+               (dailyHighestPnl > 0 && unrealisedPnL <= dailyHighestPnl - maxGiveBack);
+    }
+
+    private void evaluate() {
         lock.lock();
         try {
             if (!positionReporter.isExitingPosition() && !positionReporter.hasPendingOrders() &&
@@ -147,6 +204,21 @@ public class TradingAlgo extends Algo {
         }
     }
 
+    /**
+     * Switches between evaluating the guards and trading strategy on every event and evaluating them only when
+     * their inputs have changed. Meant to be set before the first event.
+     */
+    public void setEventDrivenEvaluation(boolean enabled) {
+        eventDrivenEvaluation = enabled;
+        lastPosition = null;
+        lastPhase = null;
+        algoLogger.info("Event-driven evaluation {}", enabled ? "enabled" : "disabled");
+    }
+
+    public boolean isEventDrivenEvaluation() {
+        return eventDrivenEvaluation;
+    }
+
     private void setNoStopPrice() {
         setStopPrice(-1);
     }
@@ -205,6 +277,10 @@ public class TradingAlgo extends Algo {
     }
 
     private void checkStopPrice() {
+        if (eventDrivenEvaluation && !stopPriceCrossed()) {
+            return;
+        }
+
         lock.lock();
         try {
             if (hasStop() && tradingDay.isReady() &&
@@ -215,13 +291,18 @@ public class TradingAlgo extends Algo {
                                     getBid0(),
                                     getAsk0(),
                                     getContractPosition()));
-                hitStopCount++;
+                positionReporter.getStatistics().stopHit();
             }
         } finally {
             lock.unlock();
         }
     }
 
+    private boolean stopPriceCrossed() {
+        double stop = stopPrice;
+        return stop != -1 && ((isLong() && getBid0() <= stop) || (isShort() && getAsk0() >= stop));
+    }
+
     protected boolean isLong() {
         return positionReporter.getCurrentPosition().isLong();
     }
@@ -239,12 +320,7 @@ public class TradingAlgo extends Algo {
     }
 
     public int getHitStopCount() {
-        lock.lock();
-        try {
-            return hitStopCount;
-        } finally {
-            lock.unlock();
-        }
+        return positionReporter.getStatistics().getHitStopCount();
     }
 
     public double getStopPrice() {
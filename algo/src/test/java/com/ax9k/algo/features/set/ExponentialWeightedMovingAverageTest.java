@@ -1,8 +1,13 @@
 package com.ax9k.algo.features.set;
 
+import com.ax9k.algo.features.Parameters;
+import com.ax9k.core.history.Source;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ExponentialWeightedMovingAverageTest implements SetFeatureSpecification {
@@ -26,6 +31,27 @@ class ExponentialWeightedMovingAverageTest implements SetFeatureSpecification {
     @Disabled("Not applicable")
     public void shouldProduceConsistentResults() { }
 
+    private static Source<TestDatum> source(double... values) {
+        return new IncrementingListSource<>(TestDatum.wrapAll(values), OptionalInt.of(values.length));
+    }
+
+    @Test
+    void shouldKeepRunningResultsApartPerInstrument() {
+        SetFeature testFeature = new ExponentialWeightedMovingAverage();
+        Source<TestDatum> firstInstrument = source(1, 2, 3, 4);
+        Source<TestDatum> secondInstrument = source(10, 20, 30, 40);
+        double firstResult = 0;
+        double secondResult = 0;
+
+        for (int i = 0; i < 4; i++) {
+            firstResult = testFeature.calculate("HSI", TestDatum.EXTRACT_VALUE, firstInstrument, Parameters.NONE);
+            secondResult = testFeature.calculate("HHI", TestDatum.EXTRACT_VALUE, secondInstrument, Parameters.NONE);
+        }
+
+        assertEquals(2.824, firstResult);
+        assertEquals(28.24, secondResult);
+    }
+
     @Test
     void assertFailsWhenIntendedSizeNotGiven() {
         SetFeatureTestCase testCase = testCase(new double[] { 2, 3, 4, }, -1);
@@ -0,0 +1,295 @@
+package com.ax9k.algo.trading;
+
+import com.ax9k.algo.Algo.Signal;
+import com.ax9k.algo.SamplePhase;
+import com.ax9k.broker.Broker;
+import com.ax9k.broker.BrokerCallbackReceiver;
+import com.ax9k.broker.OrderRecord;
+import com.ax9k.broker.OrderRequest;
+import com.ax9k.core.event.EventType;
+import com.ax9k.core.marketmodel.Contract;
+import com.ax9k.core.marketmodel.TradingDay;
+import com.ax9k.core.marketmodel.orderbook.OrderBook;
+import com.ax9k.core.marketmodel.orderbook.OrderBookLevel;
+import com.ax9k.core.time.Time;
+import com.ax9k.positionmanager.PositionManager;
+import com.ax9k.positionmanager.StandardPositionManagerFactory;
+import com.ax9k.utils.config.Configurations;
+import org.apache.logging.log4j.LogManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static com.ax9k.algo.Algo.Signal.BUY;
+import static com.ax9k.algo.Algo.Signal.NONE;
+import static com.ax9k.algo.Algo.Signal.SELL;
+import static com.ax9k.core.marketmodel.BidAsk.BID;
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventDrivenEvaluationTest {
+    private static final LocalDate DATE = LocalDate.of(2018, 6, 1);
+    private static final LocalTime MORNING = LocalTime.of(9, 30);
+
+    @BeforeAll
+    static void setSchedule() {
+        Time.setTradingSchedule(SamplePhase.tradingSchedule());
+    }
+
+    private static Instant at(LocalTime time) {
+        return Time.internationalise(LocalDateTime.of(DATE, time));
+    }
+
+    /**
+     * Runs the script once polling and once event-driven, and checks that both make the same orders and reach the
+     * same state after every event.
+     *
+     * @return the event-driven replay
+     */
+    private static Replay assertSameAsPolling(Consumer<Replay> script) {
+        return assertSameAsPolling(MORNING, script);
+    }
+
+    private static Replay assertSameAsPolling(LocalTime start, Consumer<Replay> script) {
+        Replay polled = new Replay(false, start);
+        script.accept(polled);
+        Replay eventDriven = new Replay(true, start);
+        script.accept(eventDriven);
+
+        assertEquals(polled.trace, eventDriven.trace);
+        return eventDriven;
+    }
+
+    @Test
+    void shouldGiveTheSameDirectivesAsPolling() {
+        LocalTime preOpen = LocalTime.of(9, 0);
+        Replay replay = assertSameAsPolling(preOpen, day -> day.thresholdBooks(preOpen, 100, 101, 109, 100)
+                                                               .thresholdBooks(MORNING, 100, 104, 108, 109, 110, 109,
+                                                                               108, 105, 100, 95, 92, 90, 91, 93, 98,
+                                                                               100)
+                                                               .thresholdBooks(LocalTime.of(11, 59, 58),
+                                                                               100, 108, 109, 110, 92)
+                                                               .thresholdBooks(LocalTime.of(13, 0),
+                                                                               91, 90, 99, 108, 107, 108, 91, 100));
+
+        assertTrue(replay.broker.orderCount > 0);
+    }
+
+    @Test
+    void shouldClearStopPriceWhenOnlyThePositionChanges() {
+        Replay replay = assertSameAsPolling(day -> {
+            day.book(100, BUY, BUY).book(100).book(100);
+            assertEquals(1, day.algo.getStopPrice());
+
+            day.brokerCallbacks().positionUpdate(0, 0);
+            day.book(100);
+        });
+
+        assertEquals(-1, replay.algo.getStopPrice());
+        assertEquals(1, replay.broker.orderCount);
+    }
+
+    @Test
+    void shouldCashOutWhenUpperLevelIsCrossed() {
+        Replay replay = assertSameAsPolling(day -> {
+            day.algo.cashoutUpperLevel = 5;
+            day.book(100, BUY, BUY).book(101).book(102).book(105).book(107).book(107).book(107);
+        });
+
+        assertTrue(replay.algo.isTradingSuspended());
+        assertTrue(replay.trace.contains("09:30:04 SELL 1.0@107.0"), replay.trace.toString());
+        assertEquals(0, replay.positionManager.getPositionReporter().getCurrentPosition().getContractPosition());
+    }
+
+    @Test
+    void shouldCashOutWhenMaxGiveBackIsExceeded() {
+        Replay replay = assertSameAsPolling(day -> {
+            day.algo.maxGiveBack = 3;
+            day.book(100, BUY, BUY).book(101).book(102)
+                .book(110, BUY, NONE).book(110).book(110)
+                .book(100, NONE, BUY).book(100, BUY, BUY).book(100).book(100)
+                .book(99);
+            assertFalse(day.algo.isTradingSuspended());
+
+            day.book(97).book(97).book(97);
+        });
+
+        assertEquals(9, replay.positionManager.getPositionReporter().getDailyHighestPnl());
+        assertTrue(replay.algo.isTradingSuspended());
+        assertTrue(replay.trace.contains("09:30:11 SELL 1.0@97.0"), replay.trace.toString());
+    }
+
+    /**
+     * A trading day with a real position manager, replayed one book at a time.
+     */
+    private static final class Replay {
+        private final List<String> trace = new ArrayList<>();
+        private final TradingDay tradingDay;
+        private final PositionManager positionManager;
+        private final FillingBroker broker;
+        private final ScriptedAlgo algo;
+        private Instant timestamp;
+        private Signal enter = NONE;
+        private Signal exit = NONE;
+
+        private Replay(boolean eventDriven, LocalTime start) {
+            timestamp = at(start);
+            Time.update(timestamp);
+            tradingDay = new TradingDay();
+            positionManager = new StandardPositionManagerFactory().create(Configurations.load(Map.of()), true, false);
+            broker = new FillingBroker(positionManager.getBrokerCallbackReceiver(), trace);
+            positionManager.getOrderReceiver().initialiseBroker(broker);
+            brokerCallbacks().positionUpdate(0, 0);
+            tradingDay.setBookUpdateConsumer(positionManager.getMarketDataProviderCallbackReceiver()::updateBookValues);
+
+            algo = new ScriptedAlgo(this);
+            algo.setEventDrivenEvaluation(eventDriven);
+            tradingDay.addObserver(algo);
+        }
+
+        private BrokerCallbackReceiver brokerCallbacks() {
+            return positionManager.getBrokerCallbackReceiver();
+        }
+
+        private Replay thresholdBooks(LocalTime start, double... bids) {
+            timestamp = at(start);
+            for (double bid : bids) {
+                book(bid,
+                     bid >= 108 ? BUY : bid <= 92 ? SELL : NONE,
+                     bid >= 104 ? BUY : bid <= 96 ? SELL : NONE);
+            }
+            return this;
+        }
+
+        private Replay book(double bid, Signal enter, Signal exit) {
+            this.enter = enter;
+            this.exit = exit;
+            return book(bid);
+        }
+
+        /**
+         * Replays a book one second after the previous one, keeping the signals unchanged, then lets the broker
+         * report the orders placed so far.
+         */
+        private Replay book(double bid) {
+            tradingDay.orderBook(new OrderBook(timestamp,
+                                               EventType.UNKNOWN,
+                                               new OrderBookLevel[] { new OrderBookLevel(bid + 1, 1) },
+                                               new OrderBookLevel[] { new OrderBookLevel(bid, 1) }));
+            timestamp = timestamp.plusSeconds(1);
+
+            trace.add(format("%s position: %s, stop: %s, suspended: %s",
+                             Time.currentTime(),
+                             positionManager.getPositionReporter().getCurrentPosition().getContractPosition(),
+                             algo.getStopPrice(),
+                             algo.isTradingSuspended()));
+            broker.report();
+            return this;
+        }
+    }
+
+    /**
+     * Sets the signals given by its replay, and only when they change, so that event-driven evaluation has to rely
+     * on the position and PnL alone between signal changes.
+     */
+    private static final class ScriptedAlgo extends TradingAlgo {
+        private final Replay replay;
+
+        private ScriptedAlgo(Replay replay) {
+            super("test", replay.positionManager, replay.tradingDay, LogManager.getLogger("algoLogger"),
+                  StandardTradingStrategy.noExit(1), false, false);
+            this.replay = replay;
+        }
+
+        @Override
+        protected void calculateFeatures() {
+            SignalContext current = getSignals();
+            if (current.getEnter() != replay.enter || current.getExit() != replay.exit) {
+                setEnterSignal(replay.enter);
+                setExitSignal(replay.exit);
+            }
+        }
+    }
+
+    /**
+     * Fills every order at its requested price. Like Interactive Brokers, it reports the new position after the
+     * event the order was placed in, and the fill itself only after the next one.
+     */
+    private static final class FillingBroker implements Broker {
+        private final BrokerCallbackReceiver receiver;
+        private final List<String> trace;
+        private final Contract contract = mock(Contract.class);
+        private final List<OrderRequest> placed = new ArrayList<>();
+        private final List<OrderRequest> positionReported = new ArrayList<>();
+        private double position;
+        private int orderCount;
+
+        private FillingBroker(BrokerCallbackReceiver receiver, List<String> trace) {
+            this.receiver = receiver;
+            this.trace = trace;
+            when(contract.getMultiplier()).thenReturn(1);
+        }
+
+        @Override
+        public OrderRecord place(OrderRequest order) {
+            trace.add(format("%s %s %s@%s",
+                             Time.currentTime(), order.getSide() == BID ? "BUY" : "SELL",
+                             order.getQuantity(), order.getPrice()));
+            placed.add(order);
+            return new OrderRecord(Time.now(), ++orderCount);
+        }
+
+        private void report() {
+            int firstId = orderCount - placed.size() - positionReported.size() + 1;
+            for (OrderRequest order : positionReported) {
+                receiver.orderFilled(Time.now(), firstId++, order.getPrice(), order.getQuantity());
+            }
+            positionReported.clear();
+
+            for (OrderRequest order : placed) {
+                position += order.getSide() == BID ? order.getQuantity() : -order.getQuantity();
+                receiver.positionUpdate(position, order.getPrice() * contract.getMultiplier());
+            }
+            positionReported.addAll(placed);
+            placed.clear();
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public void connect() {
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public void requestData() {
+        }
+
+        @Override
+        public Contract getContract() {
+            return contract;
+        }
+
+        @Override
+        public void cancelAllPendingOrders() {
+        }
+    }
+}
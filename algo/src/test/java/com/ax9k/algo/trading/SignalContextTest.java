@@ -0,0 +1,70 @@
+package com.ax9k.algo.trading;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static com.ax9k.algo.Algo.Signal.BUY;
+import static com.ax9k.algo.Algo.Signal.NONE;
+import static com.ax9k.algo.Algo.Signal.SELL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SignalContextTest {
+    @Test
+    void shouldShareInstances() {
+        SignalContext initial = SignalContext.of(NONE, NONE);
+
+        assertSame(initial, SignalContext.of(NONE, NONE));
+        assertSame(initial.update(BUY, SELL), initial.update(BUY, SELL));
+        assertSame(initial.updateEnter(BUY).updateExit(SELL), initial.updateExit(SELL).updateEnter(BUY));
+    }
+
+    @Test
+    void shouldEqualConstructedContext() {
+        assertEquals(new SignalContext(BUY, SELL), SignalContext.of(BUY, SELL));
+        assertEquals(new SignalContext(BUY, SELL).hashCode(), SignalContext.of(BUY, SELL).hashCode());
+    }
+
+    @Test
+    void shouldRejectNullSignals() {
+        assertThrows(NullPointerException.class, () -> SignalContext.of(null, NONE));
+        assertThrows(NullPointerException.class, () -> SignalContext.of(NONE, NONE).updateExit(null));
+    }
+
+    @Nested
+    class WhenUpdated {
+        private final SignalContext previous = SignalContext.of(BUY, NONE);
+
+        @Test
+        void shouldKeepPreviousSignals() {
+            SignalContext result = previous.update(SELL, BUY);
+
+            assertEquals(BUY, result.getPreviousEnter());
+            assertEquals(SELL, result.getEnter());
+            assertEquals(NONE, result.getPreviousExit());
+            assertEquals(BUY, result.getExit());
+            assertTrue(result.enterJustChanged());
+            assertTrue(result.exitJustChanged());
+        }
+
+        @Test
+        void shouldOnlyChangeUpdatedSignal() {
+            SignalContext result = previous.updateEnter(BUY);
+
+            assertFalse(result.enterJustChanged());
+            assertFalse(result.exitJustChanged());
+            assertSame(previous.updateEnter(BUY), result);
+        }
+
+        @Test
+        void shouldNotChangeOriginal() {
+            previous.update(SELL, SELL);
+
+            assertEquals(NONE, previous.getPreviousEnter());
+            assertEquals(BUY, previous.getEnter());
+        }
+    }
+}
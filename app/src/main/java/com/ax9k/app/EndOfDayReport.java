@@ -1,10 +1,5 @@
 package com.ax9k.app;
 
-import com.ax9k.algo.Algo;
-import com.ax9k.algo.trading.TradingAlgo;
-import com.ax9k.core.marketmodel.TradingDay;
-import com.ax9k.positionmanager.PositionReporter;
-import com.ax9k.provider.MarketDataProvider;
 import com.ax9k.utils.s3.S3Uploader;
 import org.apache.commons.cli.CommandLine;
 import org.apache.logging.log4j.LogManager;
@@ -20,8 +15,6 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.time.Instant;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -37,47 +30,17 @@ class EndOfDayReport {
 
     private final S3Uploader uploader;
     private final String outputPath;
-    private final String providerSource;
-    private final String createdTimestamp;
     private final String batchId;
-    private final LocalDate date;
-    private final String algoName;
-    private final double pnl;
-    private final double maxPnl;
-    private final double minPnl;
-    private final int hitStopCount;
-    private final double dailyTradeHigh;
-    private final double dailyTradeLow;
-    private final int winningTrades;
-    private final int losingTrades;
-
-    private final int tradeCount;
+    private final ReportRecord record;
 
     private Connection dbConnection;
 
-    EndOfDayReport(CommandLine arguments,
-                   PositionReporter positionReporter,
-                   Algo algo,
-                   MarketDataProvider provider,
-                   TradingDay tradingDay) {
+    EndOfDayReport(CommandLine arguments, ReportRecord record) {
         String outputBucket = arguments.getOptionValue(OUTPUT_BUCKET.getLongOpt());
         uploader = new S3Uploader(outputBucket);
         outputPath = arguments.getOptionValue(OUTPUT_PATH.getLongOpt());
         batchId = arguments.getOptionValue(BATCH_ID.getLongOpt());
-        createdTimestamp = Instant.now().toString();
-        pnl = positionReporter.getPnl();
-        maxPnl = positionReporter.getDailyHighestPnl();
-        minPnl = positionReporter.getDailyLowestPnl();
-        hitStopCount = algo instanceof TradingAlgo ? ((TradingAlgo) algo).getHitStopCount() : 0;
-        tradeCount = positionReporter.getTradeCount();
-        providerSource = provider.getSource();
-        algoName = algo.getAlgoName();
-        date = provider.getDate();
-        dailyTradeHigh = tradingDay.getDailyTradeHigh();
-        dailyTradeLow = tradingDay.getDailyTradeLow();
-        int dailyTradeCount = tradingDay.getDailyTradeCount();
-        winningTrades = positionReporter.getWinningTrades();
-        losingTrades = positionReporter.getLosingTrades();
+        this.record = record;
     }
 
     void upload() {
@@ -111,8 +74,8 @@ class EndOfDayReport {
         try {
             File index = new File("temp");
             for (File log : gzipBookAndFeatureLogs(index)) {
-                String fileName = providerSource + "_" + log.getName();
-                Path s3Key = Paths.get(batchId, outputPath, date.format(BASIC_ISO_DATE), fileName);
+                String fileName = record.getSource() + "_" + log.getName();
+                Path s3Key = Paths.get(batchId, outputPath, record.getDate().format(BASIC_ISO_DATE), fileName);
                 uploader.upload(log.toPath(), s3Key);
             }
         } catch (IOException e) {
@@ -143,7 +106,7 @@ class EndOfDayReport {
     private boolean isBookOrFeatureLog(File log) {
         String name = log.getName().toLowerCase();
 
-        return name.contains("book") || name.contains("feature");
+        return (name.contains("book") || name.contains("feature")) && !name.endsWith(".idx");
     }
 
     @SuppressWarnings("ResultOfMethodCallIgnored")
@@ -175,26 +138,28 @@ class EndOfDayReport {
         try (Statement statement = dbConnection.createStatement()) {
 
             String deleteSQL =
-                    String.format("DELETE FROM DAILY_REPORT WHERE BATCH_ID = '%s' AND DATE='%s'", batchId, date);
+                    String.format("DELETE FROM DAILY_REPORT WHERE BATCH_ID = '%s' AND DATE='%s'",
+                                  batchId,
+                                  record.getDate());
             statement.executeUpdate(deleteSQL);
             String sql =
                     String.format("INSERT INTO DAILY_REPORT (BATCH_ID, ALGO_NAME, PNL, MAX_PNL, MIN_PNL,STOP_COUNT, " +
                                   "TRADES, MARKET_HIGH, MARKET_LOW, WINNING_TRADES, LOOSING_TRADES, DATE, " +
                                   "CREATED_TIMESTAMP) VALUES ('%s','%s', %s, %s, %s, %s, %s, %s, %s,%s,%s,'%s', '%s')",
                                   batchId,
-                                  algoName,
-                                  pnl,
-                                  maxPnl,
-                                  minPnl,
-                                  hitStopCount,
-                                  tradeCount,
-                                  dailyTradeHigh,
-                                  dailyTradeLow,
-                                  winningTrades,
-                                  losingTrades,
-                                  date,
-                                  createdTimestamp);
-            LOGGER.info("Deleted existing records. Batch ID: {}, Date: {}", batchId, date);
+                                  record.getAlgoName(),
+                                  record.getPnl(),
+                                  record.getMaxPnl(),
+                                  record.getMinPnl(),
+                                  record.getHitStopCount(),
+                                  record.getTradeCount(),
+                                  record.getDailyTradeHigh(),
+                                  record.getDailyTradeLow(),
+                                  record.getWinningTrades(),
+                                  record.getLosingTrades(),
+                                  record.getDate(),
+                                  record.getCreatedTimestamp());
+            LOGGER.info("Deleted existing records. Batch ID: {}, Date: {}", batchId, record.getDate());
 
             statement.executeUpdate(sql);
             LOGGER.info("Successfully updated PostgreSQL database.");
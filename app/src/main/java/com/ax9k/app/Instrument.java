@@ -0,0 +1,103 @@
+package com.ax9k.app;
+
+import com.ax9k.algo.Algo;
+import com.ax9k.algo.trading.TradingAlgo;
+import com.ax9k.broker.Broker;
+import com.ax9k.core.marketmodel.ConflatingObserver;
+import com.ax9k.core.marketmodel.TradingDay;
+import com.ax9k.positionmanager.PositionManager;
+import com.ax9k.provider.MarketDataProvider;
+
+import java.time.Instant;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * One contract hosted by the process, with its own trading day, position manager, broker, provider and algo.
+ * <p>
+ * Contracts share the heap, logging and JIT warm-up, but not an event loop: each provider owns its connection
+ * and reader thread and feeds only its own trading day, so a slow contract can't hold up the others' events.
+ */
+final class Instrument {
+    private final String symbol;
+    private final TradingDay tradingDay;
+    private final PositionManager positionManager;
+    private final Broker broker;
+    private final MarketDataProvider provider;
+    private final Algo algo;
+    private final ConflatingObserver algoDelivery;
+
+    /**
+     * @param algoDelivery the thread delivering market data to the algo, or {@code null} if the trading day
+     *                     notifies the algo directly
+     */
+    Instrument(String symbol,
+               TradingDay tradingDay,
+               PositionManager positionManager,
+               Broker broker,
+               MarketDataProvider provider,
+               Algo algo,
+               ConflatingObserver algoDelivery) {
+        this.symbol = symbol;
+        this.tradingDay = notNull(tradingDay);
+        this.positionManager = notNull(positionManager);
+        this.broker = notNull(broker);
+        this.provider = notNull(provider);
+        this.algo = notNull(algo);
+        this.algoDelivery = algoDelivery;
+    }
+
+    /**
+     * Starts delivering market data to the algo on a thread of its own, if it is conflated. Until then the trading day
+     * notifies the algo directly, so a warm-up replay is fully delivered before orders are enabled again.
+     */
+    void startDelivery() {
+        if (algoDelivery != null) {
+            algoDelivery.start();
+        }
+    }
+
+    void startLive() {
+        startDelivery();
+        tradingDay.getHeartBeat().start(Instant.now());
+        provider.startRequest(true);
+    }
+
+    void exitPosition(String reason) {
+        if (algo instanceof TradingAlgo) {
+            ((TradingAlgo) algo).exitPosition(reason);
+        }
+    }
+
+    void stop() {
+        provider.stopRequest();
+        if (algoDelivery != null) {
+            algoDelivery.stop();
+        }
+        broker.disconnect();
+    }
+
+    String getSymbol() {
+        return symbol;
+    }
+
+    TradingDay getTradingDay() {
+        return tradingDay;
+    }
+
+    PositionManager getPositionManager() {
+        return positionManager;
+    }
+
+    Broker getBroker() {
+        return broker;
+    }
+
+    MarketDataProvider getProvider() {
+        return provider;
+    }
+
+    Algo getAlgo() {
+        return algo;
+    }
+}
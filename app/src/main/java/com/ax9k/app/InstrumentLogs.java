@@ -0,0 +1,83 @@
+package com.ax9k.app;
+
+import com.ax9k.core.marketmodel.TradingDay;
+import com.ax9k.core.time.Time;
+import com.ax9k.utils.logging.AsynchronousAppender;
+import com.ax9k.utils.logging.EventLogLayout;
+import com.ax9k.utils.logging.LogIndex;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.FileAppender;
+import org.apache.logging.log4j.core.config.AppenderRef;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+
+import static java.lang.String.format;
+
+/**
+ * Sends the market data of each additional contract to its own log files, such as {@code temp/HHI_BookStates.log},
+ * so that they can be recycled like the main contract's logs, and indexes every contract's logs at the end of the day.
+ */
+final class InstrumentLogs {
+    private static final Logger ERROR_LOG = LogManager.getLogger("error");
+    private static final String INDEXED_LOGS = "*{BookStates,MarketTrades}.log";
+
+    private InstrumentLogs() {
+        throw new AssertionError("InstrumentLogs is not instantiable");
+    }
+
+    static void route(String symbol) {
+        var context = (LoggerContext) LogManager.getContext(false);
+        Configuration configuration = context.getConfiguration();
+
+        route(configuration, TradingDay.BOOK_LOGGER_NAME, symbol, "BookStates");
+        route(configuration, TradingDay.TRADE_LOGGER_NAME, symbol, "MarketTrades");
+        route(configuration, TradingDay.BAR_LOGGER_NAME, symbol, "Bar");
+        context.updateLoggers();
+    }
+
+    /**
+     * Writes a {@link LogIndex} sidecar next to each book state and trade log in the directory, so that replays can
+     * seek straight to a time window.
+     */
+    static void index(Path directory) {
+        ZoneId zone = Time.schedule().getTimeZone();
+        try (DirectoryStream<Path> logs = Files.newDirectoryStream(directory, INDEXED_LOGS)) {
+            for (Path log : logs) {
+                LogIndex.build(log, LogIndex.DEFAULT_TIME_PROPERTY, zone).write(LogIndex.sidecarOf(log));
+            }
+        } catch (IOException | UncheckedIOException e) {
+            ERROR_LOG.warn("Could not index market data logs in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static void route(Configuration configuration, String baseLogger, String symbol, String fileName) {
+        String loggerName = TradingDay.instrumentLoggerName(baseLogger, symbol);
+        Appender file = FileAppender.newBuilder()
+                                    .withName(loggerName)
+                                    .withFileName(format("temp/%s_%s.log", symbol, fileName))
+                                    .withLayout(EventLogLayout.createLayout())
+                                    .withAppend(false)
+                                    .build();
+        file.start();
+        Appender appender = new AsynchronousAppender(file);
+        appender.start();
+        configuration.addAppender(appender);
+
+        AppenderRef[] references = { AppenderRef.createAppenderRef(appender.getName(), null, null) };
+        LoggerConfig logger = LoggerConfig.createLogger(false, Level.INFO, loggerName, "true",
+                                                        references, null, configuration, null);
+        logger.addAppender(appender, null, null);
+        configuration.addLogger(loggerName, logger);
+    }
+}
@@ -0,0 +1,131 @@
+package com.ax9k.app;
+
+import com.ax9k.utils.path.PathLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notBlank;
+
+/**
+ * The settings of the additional contracts hosted next to the main one, read from a properties file such as:
+ * <pre>
+ * symbols=HHI,MHI
+ * HHI.broker.contractFile=s3://ax9k/contracts/HHI.json
+ * HHI.provider.clientId=2
+ * HHI.algo.stopBuffer=40
+ * HHI.risk.maxPosition=2
+ * </pre>
+ * Each contract's broker, provider, algo and risk manager configurations are the main ones, overridden by the
+ * properties under its symbol. Time is global, so every contract must follow the main contract's trading schedule.
+ */
+final class InstrumentSettings {
+    private static final String SYMBOLS = "symbols";
+
+    private final String symbol;
+    private final Map<String, String> brokerProperties = new HashMap<>();
+    private final Map<String, String> providerProperties = new HashMap<>();
+    private final Map<String, String> algoProperties = new HashMap<>();
+    private final Map<String, String> riskManagerProperties = new HashMap<>();
+
+    private InstrumentSettings(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * The main contract, configured by the command line alone.
+     */
+    static InstrumentSettings main() {
+        return new InstrumentSettings(null);
+    }
+
+    static List<InstrumentSettings> load(String location) {
+        Path localCopy = PathLoader.load(location);
+        try (InputStream stream = Files.newInputStream(localCopy)) {
+            Properties properties = new Properties();
+            properties.load(stream);
+            return parse(properties);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading instruments file: " + localCopy, e);
+        }
+    }
+
+    static List<InstrumentSettings> parse(Properties properties) {
+        String symbols = notBlank(properties.getProperty(SYMBOLS, ""),
+                                  "'%s' must list the additional symbols", SYMBOLS);
+
+        List<InstrumentSettings> result = new ArrayList<>();
+        for (String symbol : symbols.split(",")) {
+            InstrumentSettings settings = new InstrumentSettings(notBlank(symbol.trim(), "blank symbol"));
+            isTrue(result.stream().noneMatch(other -> other.symbol.equals(settings.symbol)),
+                   "duplicate symbol: %s", settings.symbol);
+            result.add(settings);
+        }
+
+        for (String key : properties.stringPropertyNames()) {
+            if (key.equals(SYMBOLS)) {
+                continue;
+            }
+            int symbolEnd = key.indexOf('.');
+            int groupEnd = key.indexOf('.', symbolEnd + 1);
+            isTrue(symbolEnd > 0 && groupEnd > symbolEnd, "expected '<symbol>.<group>.<property>': %s", key);
+
+            String symbol = key.substring(0, symbolEnd);
+            InstrumentSettings settings = result.stream()
+                                                .filter(candidate -> candidate.symbol.equals(symbol))
+                                                .findFirst()
+                                                .orElseThrow(() -> new IllegalArgumentException(
+                                                        "property for unlisted symbol: " + key));
+            settings.group(key.substring(symbolEnd + 1, groupEnd))
+                    .put(key.substring(groupEnd + 1), properties.getProperty(key));
+        }
+        return result;
+    }
+
+    private Map<String, String> group(String name) {
+        switch (name) {
+            case "broker":
+                return brokerProperties;
+            case "provider":
+                return providerProperties;
+            case "algo":
+                return algoProperties;
+            case "risk":
+                return riskManagerProperties;
+            default:
+                throw new IllegalArgumentException("unknown property group '" + name + "' for symbol " + symbol);
+        }
+    }
+
+    /**
+     * @return the symbol, or {@code null} for the main contract
+     */
+    String getSymbol() {
+        return symbol;
+    }
+
+    Map<String, String> getBrokerProperties() {
+        return brokerProperties;
+    }
+
+    Map<String, String> getProviderProperties() {
+        return providerProperties;
+    }
+
+    Map<String, String> getAlgoProperties() {
+        return algoProperties;
+    }
+
+    Map<String, String> getRiskManagerProperties() {
+        return riskManagerProperties;
+    }
+}
@@ -2,16 +2,25 @@ package com.ax9k.app;
 
 import com.ax9k.algo.Algo;
 import com.ax9k.algo.AlgoFactory;
+import com.ax9k.algo.features.StandardFeatures;
 import com.ax9k.algo.trading.TradingAlgo;
 import com.ax9k.app.contract.JsonContract;
+import com.ax9k.app.sweep.ParameterSweep;
 import com.ax9k.backtesting.AutoFillBroker;
+import com.ax9k.backtesting.LogRecycler;
+import com.ax9k.backtesting.LogRecyclerFactory;
+import com.ax9k.backtesting.RecordedDay;
 import com.ax9k.broker.Broker;
 import com.ax9k.broker.BrokerCallbackReceiver;
 import com.ax9k.broker.BrokerFactory;
+import com.ax9k.core.checkpoint.Checkpointable;
+import com.ax9k.core.checkpoint.Checkpointer;
+import com.ax9k.core.marketmodel.ConflatingObserver;
 import com.ax9k.core.marketmodel.Contract;
 import com.ax9k.core.marketmodel.TradingDay;
 import com.ax9k.core.time.Time;
 import com.ax9k.core.time.TimestampedLayout;
+import com.ax9k.positionmanager.OrderReceiver;
 import com.ax9k.positionmanager.PositionManager;
 import com.ax9k.positionmanager.StandardPositionManagerFactory;
 import com.ax9k.provider.MarketDataProvider;
@@ -26,6 +35,7 @@ import com.ax9k.utils.logging.SlackAppender;
 import com.ax9k.utils.path.PathLoader;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Option;
+import org.apache.commons.lang3.time.StopWatch;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.Appender;
@@ -36,30 +46,50 @@ import org.apache.logging.log4j.core.layout.PatternLayout;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Observer;
+import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 import static com.ax9k.app.SupportedOptions.ALGO_NAME;
 import static com.ax9k.app.SupportedOptions.ALGO_PROPERTIES;
+import static com.ax9k.app.SupportedOptions.BATCH_ID;
 import static com.ax9k.app.SupportedOptions.BROKER_NAME;
 import static com.ax9k.app.SupportedOptions.BROKER_PROPERTIES;
+import static com.ax9k.app.SupportedOptions.CHECKPOINT;
+import static com.ax9k.app.SupportedOptions.CONFLATE_BOOKS;
 import static com.ax9k.app.SupportedOptions.DONT_COPY_LOGS;
 import static com.ax9k.app.SupportedOptions.EXIT_BETWEEN_TRADING_SESSIONS;
+import static com.ax9k.app.SupportedOptions.INSTRUMENTS;
+import static com.ax9k.app.SupportedOptions.PARAMETER_SWEEP;
 import static com.ax9k.app.SupportedOptions.PROVIDER_NAME;
 import static com.ax9k.app.SupportedOptions.PROVIDER_PROPERTIES;
+import static com.ax9k.app.SupportedOptions.REPORT_STORE;
 import static com.ax9k.app.SupportedOptions.REST_SERVICE;
+import static com.ax9k.app.SupportedOptions.RESULT_CACHE;
 import static com.ax9k.app.SupportedOptions.RISK_MANAGER_CONFIG;
 import static com.ax9k.app.SupportedOptions.SLACK_ERROR_LOG;
 import static com.ax9k.app.SupportedOptions.TESTING_MODE;
 import static com.ax9k.app.SupportedOptions.TRAINING_CONFIG;
+import static com.ax9k.app.SupportedOptions.WARM_UP_LOGS;
+import static com.ax9k.utils.config.Configurations.withOverrides;
 import static java.lang.String.format;
 
 public class Main {
@@ -111,38 +141,43 @@ public class Main {
             errorLog.error(output.toString());
         });
 
-        var tradingDay = new TradingDay();
-
-        Configuration riskManagerConfig =
-                loadConfigurationFile(commandLine, RISK_MANAGER_CONFIG);
-        PositionManager positionManager = new StandardPositionManagerFactory()
-                .create(riskManagerConfig,
-                        backTesting,
-                        commandLine.hasOption(EXIT_BETWEEN_TRADING_SESSIONS.getLongOpt()));
-
-        Broker broker = createBroker(commandLine, tradingDay, positionManager.getBrokerCallbackReceiver());
-        LOGGER.info("Found Broker implementation: {}", broker.getClass().getName());
-
-        positionManager.getOrderReceiver().initialiseBroker(broker);
-        broker.connect();
-        positionManager.getPositionReporter().getContractMultiplier();
-
-        Configuration providerConfig = loadConfigurationOptions(commandLine, PROVIDER_PROPERTIES);
-        MarketDataProvider provider = loadService(MarketDataProviderFactory.class, commandLine, PROVIDER_NAME)
-                .create(tradingDay, providerConfig);
-        LOGGER.info("Found MarketDataProvider implementation: {}", provider.getClass().getName());
+        if (commandLine.hasOption(PARAMETER_SWEEP.getLongOpt())) {
+            runParameterSweep(commandLine);
+            removeAppendersFromRootLogger(startupAppenders);
+            return;
+        }
 
-        Configuration algoConfig = loadConfigurationOptions(commandLine, ALGO_PROPERTIES);
-        Algo algo = loadService(AlgoFactory.class, commandLine, ALGO_NAME)
-                .create(positionManager,
-                        tradingDay,
-                        algoConfig,
-                        provider.getExtraDataTypes());
-        LOGGER.info("Found Algo implementation: {}", algo.getClass().getName());
+        Instrument mainInstrument = createInstrument(commandLine, InstrumentSettings.main());
+        TradingDay tradingDay = mainInstrument.getTradingDay();
+        PositionManager positionManager = mainInstrument.getPositionManager();
+        Broker broker = mainInstrument.getBroker();
+        MarketDataProvider provider = mainInstrument.getProvider();
+        Algo algo = mainInstrument.getAlgo();
+
+        List<Instrument> additionalInstruments = createAdditionalInstruments(commandLine);
+
+        ResultCache resultCache = createResultCache(commandLine, provider);
+        if (resultCache != null) {
+            Optional<ReportRecord> cachedRecord = resultCache.load(Paths.get("temp"));
+            if (cachedRecord.isPresent()) {
+                reportCachedResult(commandLine, cachedRecord.get(), provider);
+                mainInstrument.stop();
+                removeAppendersFromRootLogger(startupAppenders);
+                return;
+            }
+        }
 
-        tradingDay.addObserver(algo);
-        tradingDay.setBookUpdateConsumer(positionManager.getMarketDataProviderCallbackReceiver()::updateBookValues);
+        Checkpointer checkpointer = createCheckpointer(commandLine, tradingDay, positionManager, algo);
+        if (commandLine.hasOption(WARM_UP_LOGS.getLongOpt())) {
+            if (checkpointer != null && checkpointer.isRestored()) {
+                LOGGER.info("Not warming up from logs, as state was restored from a checkpoint");
+            } else {
+                warmUp(commandLine.getOptionValue(WARM_UP_LOGS.getLongOpt()), tradingDay, positionManager);
+            }
+        }
+        mainInstrument.startDelivery();
 
+        AtomicBoolean replayCompleted = new AtomicBoolean();
         Runnable shutDownProcedure = () -> {
             Set<Appender> shutdownAppenders = addFileAndSlackAppendersToRootLogger();
 
@@ -150,29 +185,51 @@ public class Main {
             LOGGER.info("Shutting Down ...");
             LOGGER.info("=======================================================");
 
-            if (algo instanceof TradingAlgo) {
-                ((TradingAlgo) algo).exitPosition("AX9k is shutting down.");
-            }
+            mainInstrument.exitPosition("AX9k is shutting down.");
+            additionalInstruments.forEach(instrument -> instrument.exitPosition("AX9k is shutting down."));
 
             LOGGER.info(algo);
             LOGGER.info(positionManager.getPositionReporter());
             LOGGER.info(tradingDay);
 
-            String symbol = provider.getSymbol();
-            Configuration trainingConfig = loadConfigurationFile(commandLine, TRAINING_CONFIG);
-            var training = new TrainingPhase(commandLine, trainingConfig, provider.getDate(), symbol);
-
-            training.run();
-            if (!commandLine.hasOption(DONT_COPY_LOGS.getLongOpt())) {
-                var report = new EndOfDayReport(commandLine,
-                                                positionManager.getPositionReporter(),
-                                                algo,
-                                                provider,
-                                                tradingDay);
-                report.upload();
+            runTrainingPhase(commandLine, provider);
+            var record = new ReportRecord(commandLine.getOptionValue(BATCH_ID.getLongOpt()),
+                                          positionManager.getPositionReporter(),
+                                          algo,
+                                          provider,
+                                          tradingDay);
+            if (resultCache != null) {
+                if (replayCompleted.get()) {
+                    resultCache.save(record, Paths.get("temp"));
+                } else {
+                    LOGGER.warn("Not caching the result, as the replay of {} did not complete", provider.getSource());
+                }
+            }
+            if (!backTesting) {
+                InstrumentLogs.index(Paths.get("temp"));
+            }
+            List<ReportRecord> records = new ArrayList<>();
+            records.add(record);
+            for (Instrument instrument : additionalInstruments) {
+                records.add(new ReportRecord(commandLine.getOptionValue(BATCH_ID.getLongOpt()),
+                                             instrument.getPositionManager().getPositionReporter(),
+                                             instrument.getAlgo(),
+                                             instrument.getProvider(),
+                                             instrument.getTradingDay()));
+            }
+            CompletableFuture<Void> publishing =
+                    CompletableFuture.runAsync(() -> publishReports(commandLine, records));
+            mainInstrument.stop();
+            additionalInstruments.forEach(Instrument::stop);
+            if (checkpointer != null) {
+                checkpointer.stop();
+                checkpointer.save();
+            }
+            try {
+                publishing.join();
+            } catch (CompletionException e) {
+                LOGGER.error("Could not publish end-of-day reports", e.getCause());
             }
-            provider.stopRequest();
-            broker.disconnect();
 
             LOGGER.info("=======================================================");
             LOGGER.info("**SHUTDOWN**");
@@ -193,6 +250,7 @@ public class Main {
         if (!backTesting) {
             tradingDay.getHeartBeat().start(Instant.now());
         }
+        additionalInstruments.forEach(Instrument::startLive);
 
         if (backTesting) {
             Thread shutDown = new Thread(shutDownProcedure);
@@ -207,6 +265,258 @@ public class Main {
         removeAppendersFromRootLogger(startupAppenders);
 
         provider.startRequest(true);
+        replayCompleted.set(true);
+    }
+
+    private static void runTrainingPhase(CommandLine commandLine, MarketDataProvider provider) {
+        Configuration trainingConfig = loadConfigurationFile(commandLine, TRAINING_CONFIG);
+        new TrainingPhase(commandLine, trainingConfig, provider.getDate(), provider.getSymbol()).run();
+    }
+
+    private static ResultCache createResultCache(CommandLine commandLine, MarketDataProvider provider) {
+        if (!commandLine.hasOption(RESULT_CACHE.getLongOpt())) {
+            return null;
+        }
+        if (!backTesting) {
+            LOGGER.warn("The result cache is not used in live mode");
+            return null;
+        }
+        if (!(provider instanceof LogRecycler)) {
+            LOGGER.warn("The result cache requires the LogRecycler provider. Found: {}", provider.getClass().getName());
+            return null;
+        }
+
+        return ResultCache.create(Paths.get(commandLine.getOptionValue(RESULT_CACHE.getLongOpt())),
+                                  commandLine,
+                                  ((LogRecycler) provider).getInputFiles());
+    }
+
+    /**
+     * Publishes a cached backtest result as if the day had just been replayed: its feature logs are already back in
+     * place, so training data is generated from them, and the report is stored and uploaded under this run's batch.
+     */
+    private static void reportCachedResult(CommandLine commandLine, ReportRecord cached, MarketDataProvider provider) {
+        LOGGER.info("=======================================================");
+        LOGGER.info("Reusing cached result. Not replaying {}", provider.getSource());
+        LOGGER.info("=======================================================");
+
+        runTrainingPhase(commandLine, provider);
+        publishReports(commandLine, List.of(cached.forBatch(commandLine.getOptionValue(BATCH_ID.getLongOpt()))));
+    }
+
+    /**
+     * Stores every record in the local report store and uploads the first, the main contract's, to S3 and the
+     * database. At shut down this runs alongside stopping the instruments and saving the checkpoint, so their
+     * teardown does not wait on the S3 and database round trips.
+     */
+    private static void publishReports(CommandLine commandLine, List<ReportRecord> records) {
+        if (commandLine.hasOption(REPORT_STORE.getLongOpt())) {
+            storeReport(Paths.get(commandLine.getOptionValue(REPORT_STORE.getLongOpt())), records);
+        }
+        if (!commandLine.hasOption(DONT_COPY_LOGS.getLongOpt())) {
+            new EndOfDayReport(commandLine, records.get(0)).upload();
+        }
+    }
+
+    private static Checkpointer createCheckpointer(CommandLine commandLine,
+                                                  TradingDay tradingDay,
+                                                  PositionManager positionManager,
+                                                  Algo algo) {
+        if (!commandLine.hasOption(CHECKPOINT.getLongOpt())) {
+            return null;
+        }
+        if (backTesting) {
+            LOGGER.warn("Checkpoints are not used in testing mode");
+            return null;
+        }
+
+        Duration interval = Duration.ofSeconds(Long.getLong("ax9k.checkpoint.intervalSeconds", 60));
+        var checkpointer = new Checkpointer(Paths.get(commandLine.getOptionValue(CHECKPOINT.getLongOpt())), interval);
+        checkpointer.register("tradingDay", tradingDay);
+        checkpointer.register("algo", algo);
+        StandardFeatures.getResultStores().forEach((name, stores) -> checkpointer.register("features." + name, stores));
+        if (positionManager instanceof Checkpointable) {
+            checkpointer.register("positionManager", (Checkpointable) positionManager);
+        }
+
+        checkpointer.restore(Time.currentDate());
+        tradingDay.addObserver(checkpointer);
+        return checkpointer;
+    }
+
+    private static void storeReport(Path store, List<ReportRecord> records) {
+        try {
+            new ReportStore(store).append(records);
+        } catch (UncheckedIOException e) {
+            LOGGER.error("Could not store end-of-day reports: {}", records, e);
+        }
+    }
+
+    private static List<Instrument> createAdditionalInstruments(CommandLine commandLine) {
+        if (!commandLine.hasOption(INSTRUMENTS.getLongOpt())) {
+            return List.of();
+        }
+        if (backTesting) {
+            throw new IllegalArgumentException("Additional instruments can only be hosted in live mode, as every " +
+                                               "backtest drives the global time");
+        }
+
+        List<Instrument> result = new ArrayList<>();
+        String location = commandLine.getOptionValue(INSTRUMENTS.getLongOpt());
+        for (InstrumentSettings settings : InstrumentSettings.load(location)) {
+            InstrumentLogs.route(settings.getSymbol());
+            result.add(createInstrument(commandLine, settings));
+        }
+        return result;
+    }
+
+    private static Instrument createInstrument(CommandLine commandLine, InstrumentSettings settings) {
+        String symbol = settings.getSymbol();
+        var tradingDay = new TradingDay(symbol);
+
+        Configuration riskManagerConfig = withOverrides(loadConfigurationFile(commandLine, RISK_MANAGER_CONFIG),
+                                                        settings.getRiskManagerProperties());
+        PositionManager positionManager = new StandardPositionManagerFactory()
+                .create(riskManagerConfig,
+                        backTesting,
+                        commandLine.hasOption(EXIT_BETWEEN_TRADING_SESSIONS.getLongOpt()));
+
+        Configuration brokerConfig = withOverrides(loadConfigurationOptions(commandLine, BROKER_PROPERTIES),
+                                                   settings.getBrokerProperties());
+        Broker broker = createBroker(commandLine,
+                                     brokerConfig,
+                                     tradingDay,
+                                     positionManager.getBrokerCallbackReceiver());
+        LOGGER.info("Found Broker implementation: {}", broker.getClass().getName());
+
+        positionManager.getOrderReceiver().initialiseBroker(broker);
+        broker.connect();
+        positionManager.getPositionReporter().getContractMultiplier();
+
+        Configuration providerConfig = withOverrides(loadConfigurationOptions(commandLine, PROVIDER_PROPERTIES),
+                                                     settings.getProviderProperties());
+        MarketDataProvider provider = loadService(MarketDataProviderFactory.class, commandLine, PROVIDER_NAME)
+                .create(tradingDay, providerConfig);
+        LOGGER.info("Found MarketDataProvider implementation: {}", provider.getClass().getName());
+
+        Configuration algoConfig = withOverrides(loadConfigurationOptions(commandLine, ALGO_PROPERTIES),
+                                                 settings.getAlgoProperties());
+        Algo algo = loadService(AlgoFactory.class, commandLine, ALGO_NAME)
+                .create(positionManager,
+                        tradingDay,
+                        algoConfig,
+                        provider.getExtraDataTypes());
+        LOGGER.info("Found Algo implementation: {}", algo.getClass().getName());
+
+        ConflatingObserver algoDelivery = null;
+        if (!commandLine.hasOption(CONFLATE_BOOKS.getLongOpt())) {
+            tradingDay.addObserver(algo);
+        } else if (backTesting) {
+            LOGGER.warn("Order books are not conflated in testing mode");
+            tradingDay.addObserver(algo);
+        } else {
+            algoDelivery = new ConflatingObserver(symbol != null ? "algo-" + symbol : "algo", algo);
+            tradingDay.addObserver(algoDelivery);
+        }
+        tradingDay.setBookUpdateConsumer(positionManager.getMarketDataProviderCallbackReceiver()::updateBookValues);
+
+        if (symbol != null) {
+            LOGGER.info("Hosting additional instrument {}", symbol);
+        }
+        return new Instrument(symbol, tradingDay, positionManager, broker, provider, algo, algoDelivery);
+    }
+
+    private static void warmUp(String logFiles, TradingDay tradingDay, PositionManager positionManager) {
+        if (backTesting) {
+            LOGGER.warn("Warm-up logs are not used in testing mode");
+            return;
+        }
+
+        String[] paths = logFiles.split(",");
+        if (paths.length < 2 || paths.length > 3) {
+            throw new IllegalArgumentException("Warm-up logs must be given as 'bookLog,tradeLog[,barLog]': " +
+                                               logFiles);
+        }
+        Map<String, String> logs = new HashMap<>();
+        logs.put("bookLog", paths[0].trim());
+        logs.put("tradeLog", paths[1].trim());
+        if (paths.length == 3) {
+            logs.put("barLog", paths[2].trim());
+        }
+
+        var recycler = (LogRecycler) new LogRecyclerFactory().create(tradingDay, Configurations.load(logs));
+        RecordedDay day = recycler.record();
+        if (!day.getDate().equals(Time.currentDate())) {
+            LOGGER.warn("Not warming up from logs of {}. Trading day: {}", day.getDate(), Time.currentDate());
+            return;
+        }
+
+        OrderReceiver orderReceiver = positionManager.getOrderReceiver();
+        StopWatch stopWatch = StopWatch.createStarted();
+        orderReceiver.setOrdersEnabled(false);
+        Time.setReplaying(true);
+        try {
+            day.replayWithoutClosing(tradingDay);
+        } finally {
+            Time.setReplaying(false);
+            orderReceiver.setOrdersEnabled(true);
+        }
+        LOGGER.info("Warmed up with {} events from {} in {} ms",
+                    day.getEventCount(), day.getSource(), stopWatch.getTime());
+    }
+
+    private static void runParameterSweep(CommandLine commandLine) {
+        if (!backTesting) {
+            throw new IllegalArgumentException("Parameter sweeps can only be run in testing mode");
+        }
+
+        Configuration brokerConfig = loadConfigurationOptions(commandLine, BROKER_PROPERTIES);
+        brokerConfig.requireOptions("slippage", "contractFile");
+        Contract contract = JsonContract.fromFile(PathLoader.load(brokerConfig.get("contractFile")));
+        Time.setTradingSchedule(contract.getTradingSchedule());
+        int slippage = brokerConfig.get("slippage", Integer.class);
+
+        Configuration providerConfig = loadConfigurationOptions(commandLine, PROVIDER_PROPERTIES);
+        MarketDataProvider provider = loadService(MarketDataProviderFactory.class, commandLine, PROVIDER_NAME)
+                .create(new TradingDay(), providerConfig);
+        if (!(provider instanceof LogRecycler)) {
+            throw new IllegalArgumentException(
+                    "Parameter sweeps require the LogRecycler provider. Found: " + provider.getClass().getName()
+            );
+        }
+        RecordedDay day = ((LogRecycler) provider).record();
+        LOGGER.info("Recorded {} events from {} for {}", day.getEventCount(), day.getSource(), day.getDate());
+
+        AlgoFactory algoFactory = loadService(AlgoFactory.class, commandLine, ALGO_NAME);
+        Collection<Class<?>> extraDataTypes = provider.getExtraDataTypes();
+        boolean exitBetweenTradingSessions = commandLine.hasOption(EXIT_BETWEEN_TRADING_SESSIONS.getLongOpt());
+
+        ParameterSweep sweep = ParameterSweep.load(commandLine.getOptionValue(PARAMETER_SWEEP.getLongOpt()),
+                                                   loadConfigurationOptions(commandLine, ALGO_PROPERTIES),
+                                                   loadConfigurationFile(commandLine, RISK_MANAGER_CONFIG));
+        sweep.run((algoConfig, riskManagerConfig) -> {
+            var tradingDay = new TradingDay();
+            PositionManager positionManager = new StandardPositionManagerFactory()
+                    .create(riskManagerConfig, true, exitBetweenTradingSessions);
+
+            var broker = new AutoFillBroker(contract, positionManager.getBrokerCallbackReceiver(), slippage);
+            positionManager.getOrderReceiver().initialiseBroker(broker);
+            broker.connect();
+            positionManager.getPositionReporter().getContractMultiplier();
+
+            Algo algo = algoFactory.create(positionManager, tradingDay, algoConfig, extraDataTypes);
+            tradingDay.addObserver(algo);
+            tradingDay.addObserver(broker);
+            tradingDay.setBookUpdateConsumer(positionManager.getMarketDataProviderCallbackReceiver()::updateBookValues);
+
+            day.replay(tradingDay);
+
+            if (algo instanceof TradingAlgo) {
+                ((TradingAlgo) algo).exitPosition("the parameter sweep run is complete");
+                broker.update(tradingDay, null);
+            }
+            return positionManager.getPositionReporter();
+        });
     }
 
     private static void configureErrorLog(CommandLine commandLine) {
@@ -241,9 +551,9 @@ public class Main {
     }
 
     private static Broker createBroker(CommandLine commandLine,
+                                       Configuration configuration,
                                        TradingDay tradingDay,
                                        BrokerCallbackReceiver brokerCallbackReceiver) {
-        Configuration configuration = loadConfigurationOptions(commandLine, BROKER_PROPERTIES);
 
         Contract contract = null;
         if (configuration.hasOption("contractFile")) {
@@ -0,0 +1,226 @@
+package com.ax9k.app;
+
+import com.ax9k.algo.Algo;
+import com.ax9k.core.marketmodel.TradingDay;
+import com.ax9k.positionmanager.PositionReporter;
+import com.ax9k.positionmanager.TradeStatistics;
+import com.ax9k.provider.MarketDataProvider;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+final class ReportRecord {
+    static final String TSV_HEADER =
+            "batchId\talgoName\tsource\tdate\tcreatedTimestamp\tpnl\tnetPnl\tgrossPnl\ttradingFees\tmaxPnl\tminPnl\t" +
+            "maxDrawdown\tstopCount\ttrades\twinningTrades\tlosingTrades\tlongestLosingStreak\troundTrips\t" +
+            "averageTradeSeconds\texposureSeconds\tmarketHigh\tmarketLow";
+    private static final int COLUMNS = TSV_HEADER.split("\t").length;
+
+    private final String batchId;
+    private final String algoName;
+    private final String source;
+    private final LocalDate date;
+    private final Instant createdTimestamp;
+    private final double pnl;
+    private final double netPnl;
+    private final double grossPnl;
+    private final double tradingFees;
+    private final double maxPnl;
+    private final double minPnl;
+    private final double maxDrawdown;
+    private final int hitStopCount;
+    private final int tradeCount;
+    private final int winningTrades;
+    private final int losingTrades;
+    private final int longestLosingStreak;
+    private final int roundTrips;
+    private final long averageTradeSeconds;
+    private final long exposureSeconds;
+    private final double dailyTradeHigh;
+    private final double dailyTradeLow;
+
+    ReportRecord(String batchId,
+                 PositionReporter positionReporter,
+                 Algo algo,
+                 MarketDataProvider provider,
+                 TradingDay tradingDay) {
+        this.batchId = notNull(batchId);
+        algoName = algo.getAlgoName();
+        source = provider.getSource();
+        date = provider.getDate();
+        createdTimestamp = Instant.now();
+        TradeStatistics statistics = positionReporter.getStatistics();
+        pnl = statistics.getPnl();
+        netPnl = positionReporter.getNetPnl();
+        grossPnl = positionReporter.getGrossPnl();
+        tradingFees = positionReporter.getTradingFees();
+        maxPnl = statistics.getDailyHighestPnl();
+        minPnl = statistics.getDailyLowestPnl();
+        maxDrawdown = statistics.getMaxDrawdown();
+        hitStopCount = statistics.getHitStopCount();
+        tradeCount = statistics.getTradeCount();
+        winningTrades = statistics.getWinningTrades();
+        losingTrades = statistics.getLosingTrades();
+        longestLosingStreak = statistics.getLongestLosingStreak();
+        roundTrips = statistics.getRoundTrips();
+        averageTradeSeconds = statistics.getAverageTradeDuration().getSeconds();
+        exposureSeconds = statistics.getExposureTime().getSeconds();
+        dailyTradeHigh = tradingDay.getDailyTradeHigh();
+        dailyTradeLow = tradingDay.getDailyTradeLow();
+    }
+
+    private ReportRecord(String[] columns) {
+        int i = 0;
+        batchId = columns[i++];
+        algoName = columns[i++];
+        source = columns[i++];
+        date = LocalDate.parse(columns[i++]);
+        createdTimestamp = Instant.parse(columns[i++]);
+        pnl = Double.parseDouble(columns[i++]);
+        netPnl = Double.parseDouble(columns[i++]);
+        grossPnl = Double.parseDouble(columns[i++]);
+        tradingFees = Double.parseDouble(columns[i++]);
+        maxPnl = Double.parseDouble(columns[i++]);
+        minPnl = Double.parseDouble(columns[i++]);
+        maxDrawdown = Double.parseDouble(columns[i++]);
+        hitStopCount = Integer.parseInt(columns[i++]);
+        tradeCount = Integer.parseInt(columns[i++]);
+        winningTrades = Integer.parseInt(columns[i++]);
+        losingTrades = Integer.parseInt(columns[i++]);
+        longestLosingStreak = Integer.parseInt(columns[i++]);
+        roundTrips = Integer.parseInt(columns[i++]);
+        averageTradeSeconds = Long.parseLong(columns[i++]);
+        exposureSeconds = Long.parseLong(columns[i++]);
+        dailyTradeHigh = Double.parseDouble(columns[i++]);
+        dailyTradeLow = Double.parseDouble(columns[i]);
+    }
+
+    static ReportRecord parse(String tsvRow) {
+        String[] columns = tsvRow.split("\t", -1);
+        isTrue(columns.length == COLUMNS, "expected %s columns but found %s: %s", COLUMNS, columns.length, tsvRow);
+        return new ReportRecord(columns);
+    }
+
+    /**
+     * @return a copy of this record, as if it had just been created for the given batch
+     */
+    ReportRecord forBatch(String batchId) {
+        String[] columns = toTsvRow().split("\t", -1);
+        columns[0] = text(notNull(batchId));
+        columns[4] = Instant.now().toString();
+        return new ReportRecord(columns);
+    }
+
+    String toTsvRow() {
+        return String.join("\t",
+                           text(batchId),
+                           text(algoName),
+                           text(source),
+                           date.toString(),
+                           createdTimestamp.toString(),
+                           String.valueOf(pnl),
+                           String.valueOf(netPnl),
+                           String.valueOf(grossPnl),
+                           String.valueOf(tradingFees),
+                           String.valueOf(maxPnl),
+                           String.valueOf(minPnl),
+                           String.valueOf(maxDrawdown),
+                           String.valueOf(hitStopCount),
+                           String.valueOf(tradeCount),
+                           String.valueOf(winningTrades),
+                           String.valueOf(losingTrades),
+                           String.valueOf(longestLosingStreak),
+                           String.valueOf(roundTrips),
+                           String.valueOf(averageTradeSeconds),
+                           String.valueOf(exposureSeconds),
+                           String.valueOf(dailyTradeHigh),
+                           String.valueOf(dailyTradeLow));
+    }
+
+    private static String text(String value) {
+        return value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    String getBatchId() {
+        return batchId;
+    }
+
+    String getAlgoName() {
+        return algoName;
+    }
+
+    String getSource() {
+        return source;
+    }
+
+    LocalDate getDate() {
+        return date;
+    }
+
+    Instant getCreatedTimestamp() {
+        return createdTimestamp;
+    }
+
+    double getPnl() {
+        return pnl;
+    }
+
+    double getNetPnl() {
+        return netPnl;
+    }
+
+    double getMaxPnl() {
+        return maxPnl;
+    }
+
+    double getMinPnl() {
+        return minPnl;
+    }
+
+    int getHitStopCount() {
+        return hitStopCount;
+    }
+
+    int getTradeCount() {
+        return tradeCount;
+    }
+
+    int getWinningTrades() {
+        return winningTrades;
+    }
+
+    int getLosingTrades() {
+        return losingTrades;
+    }
+
+    double getDailyTradeHigh() {
+        return dailyTradeHigh;
+    }
+
+    double getDailyTradeLow() {
+        return dailyTradeLow;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(batchId, algoName, date, createdTimestamp);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) { return true; }
+        if (other == null || getClass() != other.getClass()) { return false; }
+        ReportRecord that = (ReportRecord) other;
+        return toTsvRow().equals(that.toTsvRow());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s %s: PnL %.2f, %d trades (%d won, %d lost)",
+                             batchId, algoName, date, pnl, tradeCount, winningTrades, losingTrades);
+    }
+}
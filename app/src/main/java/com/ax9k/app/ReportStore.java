@@ -0,0 +1,113 @@
+package com.ax9k.app;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Keeps end-of-day report records in a local tab-separated file, so that many runs can be compared without
+ * going to S3 or the database.
+ * <p>
+ * Appends take an exclusive file lock, so several backtests may share one store. A record replaces any earlier
+ * record of the same batch, algo and date, like the database table does.
+ */
+final class ReportStore {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final Path file;
+
+    ReportStore(Path file) {
+        this.file = notNull(file).toAbsolutePath();
+    }
+
+    synchronized void append(Collection<ReportRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        StringBuilder rows = new StringBuilder();
+        for (ReportRecord record : records) {
+            rows.append(record.toTsvRow()).append('\n');
+        }
+
+        try {
+            Files.createDirectories(file.getParent());
+            try (FileChannel channel = FileChannel.open(file, CREATE, WRITE, APPEND);
+                 var lock = channel.lock()) {
+                if (channel.size() == 0) {
+                    rows.insert(0, ReportRecord.TSV_HEADER + '\n');
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(rows.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error appending to report store: " + file, e);
+        }
+        LOGGER.info("Stored {} report records in {}", records.size(), file);
+    }
+
+    /**
+     * @param from      first date to include, or {@code null} for no lower bound
+     * @param to        last date to include, or {@code null} for no upper bound
+     * @param algoName  algo to include, or {@code null} for all algos
+     * @param batchId   batch to include, or {@code null} for all batches
+     * @return the latest record of each matching batch, algo and date, in the order they were last stored
+     */
+    synchronized List<ReportRecord> query(LocalDate from, LocalDate to, String algoName, String batchId) {
+        if (!Files.isRegularFile(file)) {
+            return List.of();
+        }
+
+        Map<String, ReportRecord> latest = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                ReportRecord record = ReportRecord.parse(line);
+                if (matches(record, from, to, algoName, batchId)) {
+                    String key = record.getBatchId() + '\t' + record.getAlgoName() + '\t' + record.getDate();
+                    latest.remove(key);
+                    latest.put(key, record);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading report store: " + file, e);
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    private static boolean matches(ReportRecord record,
+                                   LocalDate from,
+                                   LocalDate to,
+                                   String algoName,
+                                   String batchId) {
+        return (from == null || !record.getDate().isBefore(from)) &&
+               (to == null || !record.getDate().isAfter(to)) &&
+               (algoName == null || algoName.equals(record.getAlgoName())) &&
+               (batchId == null || batchId.equals(record.getBatchId()));
+    }
+}
@@ -0,0 +1,307 @@
+package com.ax9k.app;
+
+import com.ax9k.utils.path.PathLoader;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.Option;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.ax9k.app.SupportedOptions.BATCH_ID;
+import static com.ax9k.app.SupportedOptions.CONFIG_FILE;
+import static com.ax9k.app.SupportedOptions.DONT_COPY_LOGS;
+import static com.ax9k.app.SupportedOptions.OUTPUT_BUCKET;
+import static com.ax9k.app.SupportedOptions.OUTPUT_PATH;
+import static com.ax9k.app.SupportedOptions.PROVIDER_PROPERTIES;
+import static com.ax9k.app.SupportedOptions.REPORT_STORE;
+import static com.ax9k.app.SupportedOptions.REST_SERVICE;
+import static com.ax9k.app.SupportedOptions.RESULT_CACHE;
+import static com.ax9k.app.SupportedOptions.SLACK_ERROR_LOG;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.apache.commons.lang3.Validate.notBlank;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Keeps the results of backtests in a local directory, so that rerunning a backtest with the same input logs,
+ * configuration and code returns its end-of-day report and feature logs without replaying the day.
+ * <p>
+ * Results are filed under a SHA-256 fingerprint of the input logs, the command line, the contents of any files its
+ * values name and the jars and class directories the application runs from. Options that only say where results go,
+ * such as the batch id, are left out. Each result is written under a temporary name and moved into place, so runs
+ * sharing a cache never see a partial result.
+ */
+final class ResultCache {
+    static final List<String> RESULT_LOGS = List.of("Features.log", "PeriodicFeatures.log", "OurTrades.log");
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String REPORT_FILE = "report.tsv";
+    private static final Set<Option> OUTPUT_OPTIONS = Set.of(BATCH_ID,
+                                                             CONFIG_FILE,
+                                                             DONT_COPY_LOGS,
+                                                             OUTPUT_BUCKET,
+                                                             OUTPUT_PATH,
+                                                             REPORT_STORE,
+                                                             REST_SERVICE,
+                                                             RESULT_CACHE,
+                                                             SLACK_ERROR_LOG);
+    private static final String S3_SCHEME = "s3://";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path entry;
+    private final String fingerprint;
+
+    ResultCache(Path directory, String fingerprint) {
+        this.fingerprint = notBlank(fingerprint);
+        entry = notNull(directory).toAbsolutePath().resolve(fingerprint);
+    }
+
+    /**
+     * @param inputFiles the local copies of the logs being replayed. Provider options naming files are represented
+     *                   by these, so that large logs are not read twice.
+     */
+    static ResultCache create(Path directory, CommandLine commandLine, Collection<Path> inputFiles) {
+        String fingerprint = fingerprint(commandLine, inputFiles, codeLocations());
+        LOGGER.info("Backtest fingerprint: {}", fingerprint);
+        return new ResultCache(directory, fingerprint);
+    }
+
+    static String fingerprint(CommandLine commandLine,
+                              Collection<Path> inputFiles,
+                              Collection<Path> codeLocations) {
+        MessageDigest digest = sha256();
+
+        List<String> options = new ArrayList<>();
+        for (Option option : commandLine.getOptions()) {
+            if (!isOutputOption(option)) {
+                options.add(describe(option));
+            }
+        }
+        options.sort(Comparator.naturalOrder());
+        for (String option : options) {
+            update(digest, option);
+        }
+
+        for (Path input : inputFiles) {
+            update(digest, input.getFileName().toString());
+            updateWithContents(digest, input);
+        }
+
+        for (Path location : codeLocations) {
+            updateWithMetadata(digest, location);
+        }
+        return toHex(digest.digest());
+    }
+
+    private static boolean isOutputOption(Option option) {
+        return OUTPUT_OPTIONS.stream().anyMatch(output -> sameOption(output, option));
+    }
+
+    private static boolean sameOption(Option first, Option second) {
+        return first.getLongOpt() != null ?
+               first.getLongOpt().equals(second.getLongOpt()) :
+               first.getOpt().equals(second.getOpt());
+    }
+
+    private static String describe(Option option) {
+        String identifier = option.getLongOpt() != null ? option.getLongOpt() : option.getOpt();
+        String[] values = option.getValues();
+        if (values == null) {
+            return identifier;
+        }
+
+        boolean providerOption = sameOption(PROVIDER_PROPERTIES, option);
+        MessageDigest fileContents = sha256();
+        StringBuilder result = new StringBuilder(identifier);
+        for (String value : values) {
+            result.append('\t').append(value);
+            Path file = providerOption ? null : toLocalFile(value);
+            if (file != null) {
+                updateWithContents(fileContents, file);
+                result.append('\t').append(toHex(fileContents.digest()));
+            }
+        }
+        return result.toString();
+    }
+
+    private static Path toLocalFile(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.startsWith(S3_SCHEME)) {
+            return PathLoader.load(value);
+        }
+        try {
+            Path result = Paths.get(value);
+            return Files.isRegularFile(result) ? result : null;
+        } catch (InvalidPathException notAPath) {
+            return null;
+        }
+    }
+
+    private static Collection<Path> codeLocations() {
+        String separator = File.pathSeparator;
+        return Stream.of(System.getProperty("jdk.module.path", ""), System.getProperty("java.class.path", ""))
+                     .flatMap(path -> Stream.of(path.split(separator)))
+                     .filter(location -> !location.isEmpty())
+                     .map(Paths::get)
+                     .collect(Collectors.toList());
+    }
+
+    Optional<ReportRecord> load(Path logDirectory) {
+        Path report = entry.resolve(REPORT_FILE);
+        if (!Files.isRegularFile(report)) {
+            LOGGER.info("No cached result for {}", fingerprint);
+            return Optional.empty();
+        }
+
+        try {
+            ReportRecord record = ReportRecord.parse(Files.readAllLines(report, StandardCharsets.UTF_8).get(0));
+            for (String log : RESULT_LOGS) {
+                Path cached = entry.resolve(log);
+                if (Files.isRegularFile(cached)) {
+                    Files.copy(cached, logDirectory.resolve(log), REPLACE_EXISTING);
+                }
+            }
+            LOGGER.info("Using cached result {}: {}", fingerprint, record);
+            return Optional.of(record);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Ignoring unreadable cached result {}: {}", entry, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Call only once the whole day has been replayed. A run interrupted part way, whose shutdown hook still reports
+     * on it, would otherwise leave a truncated result to be reused.
+     */
+    void save(ReportRecord record, Path logDirectory) {
+        if (Files.isDirectory(entry)) {
+            return;
+        }
+
+        Path temporary = null;
+        try {
+            Files.createDirectories(entry.getParent());
+            temporary = Files.createTempDirectory(entry.getParent(), fingerprint + ".");
+            Files.write(temporary.resolve(REPORT_FILE),
+                        List.of(record.toTsvRow()),
+                        StandardCharsets.UTF_8);
+            for (String log : RESULT_LOGS) {
+                Path output = logDirectory.resolve(log);
+                if (Files.isRegularFile(output)) {
+                    Files.copy(output, temporary.resolve(log));
+                }
+            }
+            moveIntoPlace(temporary);
+            LOGGER.info("Cached result {} in {}", fingerprint, entry);
+        } catch (IOException | UncheckedIOException e) {
+            LOGGER.error("Could not cache result {} in {}", fingerprint, entry, e);
+        } finally {
+            deleteQuietly(temporary);
+        }
+    }
+
+    private void moveIntoPlace(Path temporary) throws IOException {
+        try {
+            Files.move(temporary, entry, ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, entry);
+        } catch (IOException e) {
+            if (!Files.isDirectory(entry)) {
+                throw e;
+            }
+            LOGGER.info("Result {} was cached by another run", fingerprint);
+        }
+    }
+
+    private static void deleteQuietly(Path directory) {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException | UncheckedIOException e) {
+            LOGGER.warn("Could not delete {}: {}", directory, e.toString());
+        }
+    }
+
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError("SHA-256 is required of every JVM", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+
+    private static void updateWithContents(MessageDigest digest, Path file) {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream input = Files.newInputStream(file)) {
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error fingerprinting file: " + file, e);
+        }
+        update(digest, "");
+    }
+
+    /**
+     * Code is identified by the names, sizes and modification times of its files, as hashing every jar on each run
+     * would cost more than it saves.
+     */
+    private static void updateWithMetadata(MessageDigest digest, Path location) {
+        if (!Files.exists(location)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(location)) {
+            List<Path> sorted = files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            for (Path file : sorted) {
+                update(digest, String.join("\t",
+                                           file.toString(),
+                                           String.valueOf(Files.size(file)),
+                                           Files.getLastModifiedTime(file).toString()));
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalStateException("Error fingerprinting code at: " + location, e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder result = new StringBuilder(bytes.length * 2);
+        for (byte value : bytes) {
+            result.append(Character.forDigit((value >> 4) & 0xF, 16)).append(Character.forDigit(value & 0xF, 16));
+        }
+        return result.toString();
+    }
+}
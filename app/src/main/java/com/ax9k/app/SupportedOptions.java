@@ -20,6 +20,13 @@ class SupportedOptions {
     static final Option EXIT_BETWEEN_TRADING_SESSIONS;
     static final Option CONFIG_FILE;
     static final Option RISK_MANAGER_CONFIG;
+    static final Option PARAMETER_SWEEP;
+    static final Option CHECKPOINT;
+    static final Option WARM_UP_LOGS;
+    static final Option REPORT_STORE;
+    static final Option INSTRUMENTS;
+    static final Option RESULT_CACHE;
+    static final Option CONFLATE_BOOKS;
 
     static final Option TRAIN;
     static final Option TRAINING_CONFIG;
@@ -152,6 +159,62 @@ class SupportedOptions {
                                     .required(false)
                                     .build();
 
+        PARAMETER_SWEEP = Option.builder()
+                                .hasArg(true)
+                                .desc("backtest every parameter set in the given search space file and rank the " +
+                                      "results")
+                                .longOpt("parameter-sweep")
+                                .required(false)
+                                .build();
+
+        CHECKPOINT = Option.builder()
+                           .hasArg(true)
+                           .desc("periodically save the trading day, feature and position state to the given file, " +
+                                 "and restore it on a restart later the same trading day")
+                           .longOpt("checkpoint")
+                           .required(false)
+                           .build();
+
+        WARM_UP_LOGS = Option.builder()
+                             .hasArg(true)
+                             .desc("before going live, replay today's logs recorded so far, given as " +
+                                   "'bookLog,tradeLog[,barLog]', with orders disabled")
+                             .longOpt("warm-up-logs")
+                             .required(false)
+                             .build();
+
+        REPORT_STORE = Option.builder()
+                             .hasArg(true)
+                             .desc("append the end-of-day report to the given local file, which can be shared by " +
+                                   "many runs")
+                             .longOpt("report-store")
+                             .required(false)
+                             .build();
+
+        INSTRUMENTS = Option.builder()
+                            .hasArg(true)
+                            .desc("host additional contracts in this process, as described by the given properties " +
+                                  "file, each with its own trading day, position manager, broker, provider and algo")
+                            .longOpt("instruments")
+                            .required(false)
+                            .build();
+
+        RESULT_CACHE = Option.builder()
+                             .hasArg(true)
+                             .desc("in testing mode, reuse the results of an earlier backtest with the same input " +
+                                   "logs, configuration and code from the given local directory, or add them to it")
+                             .longOpt("result-cache")
+                             .required(false)
+                             .build();
+
+        CONFLATE_BOOKS = Option.builder()
+                               .hasArg(false)
+                               .desc("in live mode, deliver market data to the algo on a thread of its own, dropping " +
+                                     "order books superseded while the algo is busy")
+                               .longOpt("conflate-books")
+                               .required(false)
+                               .build();
+
         TRAIN = Option.builder()
                       .hasArg(false)
                       .desc("generate training data using the default settings")
@@ -274,6 +337,13 @@ class SupportedOptions {
         options.addOption(EXIT_BETWEEN_TRADING_SESSIONS);
         options.addOption(SLACK_ERROR_LOG);
         options.addOption(RISK_MANAGER_CONFIG);
+        options.addOption(PARAMETER_SWEEP);
+        options.addOption(CHECKPOINT);
+        options.addOption(WARM_UP_LOGS);
+        options.addOption(REPORT_STORE);
+        options.addOption(INSTRUMENTS);
+        options.addOption(RESULT_CACHE);
+        options.addOption(CONFLATE_BOOKS);
 
         options.addOption(TRAIN);
         options.addOption(TRAINING_CONFIG);
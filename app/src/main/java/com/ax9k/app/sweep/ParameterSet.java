@@ -0,0 +1,62 @@
+package com.ax9k.app.sweep;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.util.stream.Collectors.joining;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * One point in a {@link SearchSpace}: a value for every dimension, keyed by its prefixed name.
+ */
+final class ParameterSet {
+    private final Map<String, String> values;
+
+    ParameterSet(Map<String, String> values) {
+        this.values = Collections.unmodifiableMap(new LinkedHashMap<>(notNull(values)));
+    }
+
+    Map<String, String> getAlgoProperties() {
+        return withPrefix(SearchSpace.ALGO_PREFIX);
+    }
+
+    Map<String, String> getRiskManagerProperties() {
+        return withPrefix(SearchSpace.RISK_MANAGER_PREFIX);
+    }
+
+    private Map<String, String> withPrefix(String prefix) {
+        Map<String, String> result = new LinkedHashMap<>();
+        values.forEach((name, value) -> {
+            if (name.startsWith(prefix)) {
+                result.put(name.substring(prefix.length()), value);
+            }
+        });
+        return result;
+    }
+
+    Map<String, String> getValues() {
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) { return true; }
+        if (o == null || getClass() != o.getClass()) { return false; }
+        ParameterSet that = (ParameterSet) o;
+        return Objects.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(values);
+    }
+
+    @Override
+    public String toString() {
+        return values.entrySet().stream()
+                     .map(entry -> entry.getKey() + '=' + entry.getValue())
+                     .collect(joining(" "));
+    }
+}
@@ -0,0 +1,131 @@
+package com.ax9k.app.sweep;
+
+import com.ax9k.algo.features.StandardFeatures;
+import com.ax9k.positionmanager.PositionReporter;
+import com.ax9k.utils.config.Configuration;
+import com.ax9k.utils.path.PathLoader;
+import org.apache.commons.lang3.time.StopWatch;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static com.ax9k.utils.config.Configurations.withOverrides;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Backtests every parameter set of a {@link SearchSpace} and ranks the results by net PnL.
+ * <p>
+ * Runs one parameter set at a time, because every backtest drives the global {@link com.ax9k.core.time.Time}, and
+ * clears the running results of the standard features before each, so no backtest starts from the last one's.
+ */
+public final class ParameterSweep {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final Logger ERROR_LOG = LogManager.getLogger("error");
+    private static final Path RESULTS_FILE = Paths.get("temp", "ParameterSweep.csv");
+    private static final int LOGGED_RESULTS = 10;
+
+    private final SearchSpace searchSpace;
+    private final Configuration algoConfig;
+    private final Configuration riskManagerConfig;
+
+    ParameterSweep(SearchSpace searchSpace, Configuration algoConfig, Configuration riskManagerConfig) {
+        this.searchSpace = notNull(searchSpace);
+        this.algoConfig = notNull(algoConfig);
+        this.riskManagerConfig = notNull(riskManagerConfig);
+    }
+
+    /**
+     * @param searchSpaceLocation properties file describing the {@link SearchSpace}
+     * @param algoConfig          base algo configuration, overridden by the {@code algo.} dimensions
+     * @param riskManagerConfig   base risk manager configuration, overridden by the {@code risk.} dimensions
+     */
+    public static ParameterSweep load(String searchSpaceLocation,
+                                      Configuration algoConfig,
+                                      Configuration riskManagerConfig) {
+        Path localCopy = PathLoader.load(notNull(searchSpaceLocation));
+        try (InputStream stream = Files.newInputStream(localCopy)) {
+            Properties properties = new Properties();
+            properties.load(stream);
+            return new ParameterSweep(SearchSpace.parse(properties), algoConfig, riskManagerConfig);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error parsing search space file: " + localCopy, e);
+        }
+    }
+
+    public void run(Backtest backtest) {
+        List<SweepResult> results = backtestAll(backtest);
+        results.sort(SweepResult.BEST_FIRST);
+        logBestResults(results);
+        writeResults(results);
+    }
+
+    /**
+     * @return the results of the parameter sets that completed, in search order
+     */
+    List<SweepResult> backtestAll(Backtest backtest) {
+        List<ParameterSet> parameterSets = searchSpace.parameterSets();
+        LOGGER.info("Starting {} search over {} parameter sets in {} dimensions",
+                    searchSpace.getMode(), parameterSets.size(), searchSpace.getDimensionCount());
+
+        List<SweepResult> results = new ArrayList<>(parameterSets.size());
+        StopWatch stopWatch = StopWatch.createStarted();
+        for (int i = 0; i < parameterSets.size(); i++) {
+            ParameterSet parameters = parameterSets.get(i);
+            StandardFeatures.clearResultStores();
+            try {
+                PositionReporter reporter = backtest.run(withOverrides(algoConfig, parameters.getAlgoProperties()),
+                                                         withOverrides(riskManagerConfig,
+                                                                       parameters.getRiskManagerProperties()));
+                SweepResult result = new SweepResult(parameters, reporter);
+                results.add(result);
+                LOGGER.info("Parameter set {}/{}: {}", i + 1, parameterSets.size(), result);
+            } catch (RuntimeException e) {
+                ERROR_LOG.error("Parameter set {}/{} failed: {}", i + 1, parameterSets.size(), parameters, e);
+            }
+        }
+        LOGGER.info("Parameter sweep finished in {}. {} of {} parameter sets completed.",
+                    stopWatch, results.size(), parameterSets.size());
+        return results;
+    }
+
+    private static void logBestResults(List<SweepResult> results) {
+        for (int i = 0; i < Math.min(LOGGED_RESULTS, results.size()); i++) {
+            LOGGER.info("#{}: {}", i + 1, results.get(i));
+        }
+    }
+
+    private static void writeResults(List<SweepResult> results) {
+        try {
+            Files.createDirectories(RESULTS_FILE.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(RESULTS_FILE)) {
+                writer.write(SweepResult.CSV_HEADER);
+                writer.newLine();
+                for (int i = 0; i < results.size(); i++) {
+                    writer.write(results.get(i).toCsvRow(i + 1));
+                    writer.newLine();
+                }
+            }
+            LOGGER.info("Parameter sweep results written to: {}", RESULTS_FILE.toAbsolutePath());
+        } catch (IOException e) {
+            ERROR_LOG.error("Could not write parameter sweep results to: {}", RESULTS_FILE, e);
+        }
+    }
+
+    /**
+     * Runs a complete backtest of the recorded day with the given configurations.
+     */
+    @FunctionalInterface
+    public interface Backtest {
+        PositionReporter run(Configuration algoConfig, Configuration riskManagerConfig);
+    }
+}
@@ -0,0 +1,213 @@
+package com.ax9k.app.sweep;
+
+import com.ax9k.utils.config.Configuration;
+import com.ax9k.utils.config.Configurations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notEmpty;
+
+/**
+ * The parameter sets to try in a {@link ParameterSweep}, read from a properties file such as:
+ * <pre>
+ * search=random
+ * samples=50
+ * algo.stopLossTicks=5,10,20
+ * algo.entryThreshold=0.5..2.0:0.25
+ * risk.max_position=1..5
+ * </pre>
+ * Each {@code algo.} or {@code risk.} key is a dimension over an algo {@link Configuration} key or a
+ * {@code RiskManager} limit. Values are either a comma-separated list or an inclusive {@code min..max} range with an
+ * optional {@code :step}. Integer ranges default to a step of one; ranges without a step in a random search are
+ * sampled uniformly.
+ */
+final class SearchSpace {
+    static final String ALGO_PREFIX = "algo.";
+    static final String RISK_MANAGER_PREFIX = "risk.";
+
+    private static final int MAX_GRID_SIZE = 10_000;
+    private static final int MAX_DRAWS_PER_SAMPLE = 100;
+    private static final String RANGE_SEPARATOR = "..";
+    private static final char STEP_SEPARATOR = ':';
+
+    private final List<Dimension> dimensions;
+    private final Mode mode;
+    private final int samples;
+    private final long seed;
+
+    private SearchSpace(List<Dimension> dimensions, Mode mode, int samples, long seed) {
+        this.dimensions = notEmpty(dimensions, "search space has no algo. or risk. dimensions");
+        this.mode = mode;
+        this.samples = samples;
+        this.seed = seed;
+    }
+
+    static SearchSpace parse(Properties properties) {
+        Configuration options = Configurations.load(properties);
+        Mode mode = options.getOptional("search", Mode.GRID);
+        int samples = options.getOptional("samples", 100);
+        long seed = options.getOptional("seed", 0L);
+        isTrue(samples > 0, "samples must be positive: %s", samples);
+
+        Map<String, String> sortedDimensions = new TreeMap<>();
+        properties.stringPropertyNames().stream()
+                  .filter(name -> name.startsWith(ALGO_PREFIX) || name.startsWith(RISK_MANAGER_PREFIX))
+                  .forEach(name -> sortedDimensions.put(name, properties.getProperty(name).trim()));
+
+        List<Dimension> dimensions = new ArrayList<>(sortedDimensions.size());
+        sortedDimensions.forEach((name, specification) -> dimensions.add(Dimension.parse(name, specification, mode)));
+        return new SearchSpace(dimensions, mode, samples, seed);
+    }
+
+    List<ParameterSet> parameterSets() {
+        return mode == Mode.GRID ? grid() : randomSamples();
+    }
+
+    private List<ParameterSet> grid() {
+        long size = 1;
+        for (Dimension dimension : dimensions) {
+            size *= dimension.values.size();
+            isTrue(size <= MAX_GRID_SIZE,
+                   "grid has more than %d parameter sets, use search=random instead", MAX_GRID_SIZE);
+        }
+
+        List<ParameterSet> result = new ArrayList<>((int) size);
+        int[] indices = new int[dimensions.size()];
+        for (int i = 0; i < size; i++) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int d = 0; d < indices.length; d++) {
+                Dimension dimension = dimensions.get(d);
+                values.put(dimension.name, dimension.values.get(indices[d]));
+            }
+            result.add(new ParameterSet(values));
+
+            for (int d = indices.length - 1; d >= 0; d--) {
+                if (++indices[d] < dimensions.get(d).values.size()) {
+                    break;
+                }
+                indices[d] = 0;
+            }
+        }
+        return result;
+    }
+
+    private List<ParameterSet> randomSamples() {
+        Random random = new Random(seed);
+        Set<ParameterSet> result = new LinkedHashSet<>(samples);
+        for (int draws = 0; result.size() < samples && draws < samples * MAX_DRAWS_PER_SAMPLE; draws++) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (Dimension dimension : dimensions) {
+                values.put(dimension.name, dimension.sample(random));
+            }
+            result.add(new ParameterSet(values));
+        }
+        return new ArrayList<>(result);
+    }
+
+    int getDimensionCount() {
+        return dimensions.size();
+    }
+
+    Mode getMode() {
+        return mode;
+    }
+
+    enum Mode {
+        GRID, RANDOM
+    }
+
+    private static final class Dimension {
+        private final String name;
+        private final List<String> values;
+        private final BigDecimal min;
+        private final BigDecimal max;
+
+        private Dimension(String name, List<String> values, BigDecimal min, BigDecimal max) {
+            this.name = name;
+            this.values = values;
+            this.min = min;
+            this.max = max;
+        }
+
+        private static Dimension parse(String name, String specification, Mode mode) {
+            int rangeIndex = specification.indexOf(RANGE_SEPARATOR);
+            if (rangeIndex < 0) {
+                List<String> values = Arrays.stream(specification.split(","))
+                                            .map(String::trim)
+                                            .filter(value -> !value.isEmpty())
+                                            .distinct()
+                                            .collect(toList());
+                notEmpty(values, "no values given for %s", name);
+                return new Dimension(name, values, null, null);
+            }
+
+            int stepIndex = specification.indexOf(STEP_SEPARATOR, rangeIndex);
+            BigDecimal min = number(name, specification.substring(0, rangeIndex));
+            BigDecimal max = number(name, stepIndex < 0 ?
+                                          specification.substring(rangeIndex + RANGE_SEPARATOR.length()) :
+                                          specification.substring(rangeIndex + RANGE_SEPARATOR.length(), stepIndex));
+            isTrue(min.compareTo(max) <= 0, "%s range minimum is greater than its maximum: %s", name, specification);
+
+            BigDecimal step;
+            if (stepIndex >= 0) {
+                step = number(name, specification.substring(stepIndex + 1));
+            } else if (isInteger(min) && isInteger(max)) {
+                step = BigDecimal.ONE;
+            } else if (mode == Mode.RANDOM) {
+                return new Dimension(name, null, min, max);
+            } else {
+                throw new IllegalArgumentException(
+                        format("%s needs a step to be used in a grid search: %s", name, specification)
+                );
+            }
+            isTrue(step.signum() > 0, "%s step must be positive: %s", name, specification);
+
+            List<String> values = new ArrayList<>();
+            for (BigDecimal value = min; value.compareTo(max) <= 0; value = value.add(step)) {
+                values.add(toPlainString(value));
+                isTrue(values.size() <= MAX_GRID_SIZE, "%s range has too many steps: %s", name, specification);
+            }
+            return new Dimension(name, values, null, null);
+        }
+
+        private static BigDecimal number(String name, String value) {
+            try {
+                return new BigDecimal(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(format("Invalid %s range value: '%s'", name, value), e);
+            }
+        }
+
+        private static boolean isInteger(BigDecimal value) {
+            return value.signum() == 0 || value.stripTrailingZeros().scale() <= 0;
+        }
+
+        /* Integers must not gain a decimal point, or Integer-typed configuration options will not parse them. */
+        private static String toPlainString(BigDecimal value) {
+            return isInteger(value) ?
+                   value.toBigInteger().toString() :
+                   value.stripTrailingZeros().toPlainString();
+        }
+
+        private String sample(Random random) {
+            if (values != null) {
+                return values.get(random.nextInt(values.size()));
+            }
+            double range = max.subtract(min).doubleValue();
+            return Double.toString(min.doubleValue() + random.nextDouble() * range);
+        }
+    }
+}
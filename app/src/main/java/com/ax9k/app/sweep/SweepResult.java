@@ -0,0 +1,77 @@
+package com.ax9k.app.sweep;
+
+import com.ax9k.positionmanager.PositionReporter;
+
+import java.util.Comparator;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+final class SweepResult {
+    static final Comparator<SweepResult> BEST_FIRST = Comparator.comparingDouble(SweepResult::getNetPnl)
+                                                                .thenComparingDouble(SweepResult::getDailyLowestPnl)
+                                                                .reversed();
+    static final String CSV_HEADER =
+            "rank,netPnl,grossPnl,tradingFees,tradeCount,winningTrades,losingTrades,longestLosingStreak," +
+            "dailyHighestPnl,dailyLowestPnl,parameters";
+
+    private final ParameterSet parameters;
+    private final double netPnl;
+    private final double grossPnl;
+    private final double tradingFees;
+    private final int tradeCount;
+    private final int winningTrades;
+    private final int losingTrades;
+    private final int longestLosingStreak;
+    private final double dailyHighestPnl;
+    private final double dailyLowestPnl;
+
+    SweepResult(ParameterSet parameters, PositionReporter reporter) {
+        this.parameters = notNull(parameters);
+        netPnl = reporter.getNetPnl();
+        grossPnl = reporter.getGrossPnl();
+        tradingFees = reporter.getTradingFees();
+        tradeCount = reporter.getTradeCount();
+        winningTrades = reporter.getWinningTrades();
+        losingTrades = reporter.getLosingTrades();
+        longestLosingStreak = reporter.getLongestLosingStreak();
+        dailyHighestPnl = reporter.getDailyHighestPnl();
+        dailyLowestPnl = reporter.getDailyLowestPnl();
+    }
+
+    String toCsvRow(int rank) {
+        return String.join(",",
+                           String.valueOf(rank),
+                           String.valueOf(netPnl),
+                           String.valueOf(grossPnl),
+                           String.valueOf(tradingFees),
+                           String.valueOf(tradeCount),
+                           String.valueOf(winningTrades),
+                           String.valueOf(losingTrades),
+                           String.valueOf(longestLosingStreak),
+                           String.valueOf(dailyHighestPnl),
+                           String.valueOf(dailyLowestPnl),
+                           '"' + parameters.toString() + '"');
+    }
+
+    ParameterSet getParameters() {
+        return parameters;
+    }
+
+    double getNetPnl() {
+        return netPnl;
+    }
+
+    double getDailyLowestPnl() {
+        return dailyLowestPnl;
+    }
+
+    int getTradeCount() {
+        return tradeCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("net PnL %.2f, %d trades (%d won, %d lost), lowest PnL %.2f: %s",
+                             netPnl, tradeCount, winningTrades, losingTrades, dailyLowestPnl, parameters);
+    }
+}
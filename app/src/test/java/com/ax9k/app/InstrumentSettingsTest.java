@@ -0,0 +1,71 @@
+package com.ax9k.app;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InstrumentSettingsTest {
+    private static Properties properties(String... keysAndValues) {
+        Properties result = new Properties();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            result.setProperty(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return result;
+    }
+
+    @Test
+    void shouldRequireSymbols() {
+        assertThrows(IllegalArgumentException.class, () -> InstrumentSettings.parse(properties()));
+    }
+
+    @Test
+    void shouldRejectDuplicateSymbols() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> InstrumentSettings.parse(properties("symbols", "HHI, HHI")));
+    }
+
+    @Test
+    void shouldRejectPropertyOfUnlistedSymbol() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> InstrumentSettings.parse(properties("symbols", "HHI", "MHI.algo.stopBuffer", "40")));
+    }
+
+    @Test
+    void shouldRejectUnknownGroup() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> InstrumentSettings.parse(properties("symbols", "HHI", "HHI.trader.name", "x")));
+    }
+
+    @Nested
+    class WhenParsed {
+        private final List<InstrumentSettings> settings =
+                InstrumentSettings.parse(properties("symbols", "HHI, MHI",
+                                                    "HHI.broker.contractFile", "HHI.json",
+                                                    "HHI.provider.clientId", "2",
+                                                    "HHI.algo.stopBuffer", "40",
+                                                    "MHI.risk.maxPosition", "2"));
+
+        @Test
+        void shouldKeepSymbolOrder() {
+            assertEquals("HHI", settings.get(0).getSymbol());
+            assertEquals("MHI", settings.get(1).getSymbol());
+        }
+
+        @Test
+        void shouldGroupPropertiesBySymbol() {
+            InstrumentSettings hhi = settings.get(0);
+
+            assertEquals(Map.of("contractFile", "HHI.json"), hhi.getBrokerProperties());
+            assertEquals(Map.of("clientId", "2"), hhi.getProviderProperties());
+            assertEquals(Map.of("stopBuffer", "40"), hhi.getAlgoProperties());
+            assertEquals(Map.of(), hhi.getRiskManagerProperties());
+            assertEquals(Map.of("maxPosition", "2"), settings.get(1).getRiskManagerProperties());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.ax9k.app;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportStoreTest {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2018, 6, 1);
+    private static final LocalDate SECOND_DAY = LocalDate.of(2018, 6, 4);
+
+    private Path file;
+    private ReportStore testStore;
+
+    private static ReportRecord record(String batchId, String algoName, LocalDate date, double pnl) {
+        return ReportRecord.parse(String.join("\t", batchId, algoName, "HSI", date.toString(),
+                                              "2018-06-05T00:00:00Z", String.valueOf(pnl),
+                                              "0", "0", "0", "0", "0", "0", "0", "4", "3", "1", "1", "2", "60",
+                                              "120", "0", "0"));
+    }
+
+    @BeforeEach
+    void initialiseStore() throws IOException {
+        file = Files.createTempDirectory("report-store-test").resolve("reports.tsv");
+        testStore = new ReportStore(file);
+    }
+
+    @Test
+    void shouldReturnNothingWhenEmpty() {
+        assertTrue(testStore.query(null, null, null, null).isEmpty());
+    }
+
+    @Nested
+    class WhenRecordsAreAppended {
+        private final ReportRecord firstDay = record("batch1", "momentum", FIRST_DAY, 10);
+        private final ReportRecord secondDay = record("batch1", "momentum", SECOND_DAY, -5);
+        private final ReportRecord otherAlgo = record("batch1", "ml", FIRST_DAY, 3);
+        private final ReportRecord otherBatch = record("batch2", "momentum", FIRST_DAY, 7);
+
+        @BeforeEach
+        void append() {
+            testStore.append(List.of(firstDay, secondDay, otherAlgo));
+            testStore.append(List.of(otherBatch));
+        }
+
+        @Test
+        void shouldWriteHeaderOnce() throws IOException {
+            List<String> lines = Files.readAllLines(file);
+
+            assertEquals(ReportRecord.TSV_HEADER, lines.get(0));
+            assertEquals(5, lines.size());
+        }
+
+        @Test
+        void shouldReadBackEveryRecord() {
+            assertEquals(List.of(firstDay, secondDay, otherAlgo, otherBatch),
+                         new ReportStore(file).query(null, null, null, null));
+        }
+
+        @Test
+        void shouldQueryByDateAlgoAndBatch() {
+            assertEquals(List.of(firstDay, otherAlgo), testStore.query(FIRST_DAY, FIRST_DAY, null, "batch1"));
+            assertEquals(List.of(firstDay, otherBatch), testStore.query(null, FIRST_DAY, "momentum", null));
+            assertEquals(List.of(secondDay), testStore.query(SECOND_DAY, null, null, null));
+        }
+
+        @Test
+        void shouldReplaceEarlierRecordOfSameRun() {
+            ReportRecord rerun = record("batch1", "momentum", FIRST_DAY, 12);
+
+            testStore.append(List.of(rerun));
+
+            assertEquals(List.of(secondDay, otherAlgo, rerun), testStore.query(null, null, null, "batch1"));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.ax9k.app;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.ParseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultCacheTest {
+    private static final String ROW = String.join("\t", "batch1", "momentum", "HSI", "2018-06-01",
+                                                  "2018-06-05T00:00:00Z", "10.0", "0", "0", "0", "0", "0", "0",
+                                                  "0", "4", "3", "1", "1", "2", "60", "120", "0", "0");
+
+    private Path directory;
+    private Path bookLog;
+    private Path tradeLog;
+
+    private static CommandLine parse(String... arguments) throws ParseException {
+        return new DefaultParser().parse(SupportedOptions.allSupportedOptions(), arguments);
+    }
+
+    @BeforeEach
+    void createLogs() throws IOException {
+        directory = Files.createTempDirectory("result-cache-test");
+        bookLog = Files.write(directory.resolve("BookStates.log"), List.of("2018-06-01", "{}"));
+        tradeLog = Files.write(directory.resolve("MarketTrades.log"), List.of("2018-06-01", "{}"));
+    }
+
+    private String fingerprint(CommandLine commandLine) {
+        return ResultCache.fingerprint(commandLine, List.of(bookLog, tradeLog), List.of());
+    }
+
+    @Nested
+    class WhenFingerprinting {
+        @Test
+        void shouldIgnoreWhereResultsGo() throws ParseException {
+            String first = fingerprint(parse("-t", "--batch-id", "first", "-Aperiod=5"));
+            String second = fingerprint(parse("-t", "--batch-id", "second", "-Aperiod=5", "--report-store", "x.tsv",
+                                              "--dont-copy-logs"));
+
+            assertEquals(first, second);
+        }
+
+        @Test
+        void shouldNotDependOnOptionOrder() throws ParseException {
+            assertEquals(fingerprint(parse("--batch-id", "1", "-Aperiod=5", "-Bslippage=1")),
+                         fingerprint(parse("-Bslippage=1", "-Aperiod=5", "--batch-id", "1")));
+        }
+
+        @Test
+        void shouldChangeWithConfiguration() throws ParseException {
+            assertNotEquals(fingerprint(parse("--batch-id", "1", "-Aperiod=5")),
+                            fingerprint(parse("--batch-id", "1", "-Aperiod=6")));
+        }
+
+        @Test
+        void shouldChangeWithInputLogs() throws ParseException, IOException {
+            CommandLine commandLine = parse("--batch-id", "1");
+            String before = fingerprint(commandLine);
+
+            Files.write(tradeLog, List.of("2018-06-01", "{\"price\":1}"));
+
+            assertNotEquals(before, fingerprint(commandLine));
+        }
+
+        @Test
+        void shouldChangeWithContentsOfConfigurationFiles() throws ParseException, IOException {
+            Path riskConfig = Files.write(directory.resolve("risk.properties"), List.of("maxPosition=1"));
+            CommandLine commandLine = parse("--batch-id", "1", "--risk-manager-config", riskConfig.toString());
+            String before = fingerprint(commandLine);
+
+            Files.write(riskConfig, List.of("maxPosition=2"));
+
+            assertNotEquals(before, fingerprint(commandLine));
+        }
+
+        @Test
+        void shouldChangeWithCode() throws ParseException, IOException {
+            CommandLine commandLine = parse("--batch-id", "1");
+            Path jar = Files.write(directory.resolve("algo.jar"), List.of("v1"));
+            String before = ResultCache.fingerprint(commandLine, List.of(bookLog), List.of(jar));
+
+            Files.write(jar, List.of("v2.0"));
+
+            assertNotEquals(before, ResultCache.fingerprint(commandLine, List.of(bookLog), List.of(jar)));
+        }
+    }
+
+    @Nested
+    class WhenCaching {
+        private Path logDirectory;
+        private ResultCache testCache;
+
+        @BeforeEach
+        void initialiseCache() throws IOException {
+            logDirectory = Files.createDirectories(directory.resolve("temp"));
+            testCache = new ResultCache(directory.resolve("cache"), "abc123");
+        }
+
+        @Test
+        void shouldMissWhenNothingIsCached() {
+            assertFalse(testCache.load(logDirectory).isPresent());
+        }
+
+        @Test
+        void shouldRestoreReportAndFeatureLogs() throws IOException {
+            Files.write(logDirectory.resolve("Features.log"), List.of("{\"eventTime\":\"09:15:00\"}"));
+            testCache.save(ReportRecord.parse(ROW), logDirectory);
+            Files.delete(logDirectory.resolve("Features.log"));
+
+            Optional<ReportRecord> result = new ResultCache(directory.resolve("cache"), "abc123").load(logDirectory);
+
+            assertTrue(result.isPresent());
+            assertEquals(ReportRecord.parse(ROW), result.get());
+            assertEquals(List.of("{\"eventTime\":\"09:15:00\"}"),
+                         Files.readAllLines(logDirectory.resolve("Features.log")));
+        }
+
+        @Test
+        void shouldKeepFirstResult() {
+            testCache.save(ReportRecord.parse(ROW), logDirectory);
+            testCache.save(ReportRecord.parse(ROW.replace("10.0", "-3.0")), logDirectory);
+
+            assertEquals(ReportRecord.parse(ROW), testCache.load(logDirectory).orElseThrow());
+        }
+
+        @Test
+        void shouldReportCachedResultUnderNewBatch() {
+            testCache.save(ReportRecord.parse(ROW), logDirectory);
+
+            ReportRecord result = testCache.load(logDirectory).orElseThrow().forBatch("batch2");
+
+            assertEquals("batch2", result.getBatchId());
+            assertEquals(10.0, result.getPnl());
+        }
+    }
+}
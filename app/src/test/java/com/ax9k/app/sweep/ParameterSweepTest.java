@@ -0,0 +1,80 @@
+package com.ax9k.app.sweep;
+
+import com.ax9k.algo.features.Feature;
+import com.ax9k.algo.features.Parameters;
+import com.ax9k.algo.features.StandardFeatures;
+import com.ax9k.core.event.Event;
+import com.ax9k.core.history.BasicHistory;
+import com.ax9k.core.history.History;
+import com.ax9k.positionmanager.PositionReporter;
+import com.ax9k.utils.config.Configuration;
+import com.ax9k.utils.config.Configurations;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParameterSweepTest {
+    private static final Feature<Price> PRICE = price -> price.value;
+    private static final double[] PRICES = { 100, 102, 101, 105, 104, 108 };
+
+    private static ParameterSweep sweep(String... keysAndValues) {
+        Properties properties = new Properties();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            properties.setProperty(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return new ParameterSweep(SearchSpace.parse(properties), Configurations.empty(), Configurations.empty());
+    }
+
+    private static PositionReporter backtestMovingAverage(Configuration algoConfig, Configuration ignored) {
+        int periods = algoConfig.get("periods", Integer::parseInt);
+        History<Price> history = new BasicHistory<>();
+        double result = 0;
+        for (int i = 0; i < PRICES.length; i++) {
+            history.record(new Price(Instant.ofEpochSecond(i), PRICES[i]));
+            result = StandardFeatures.EXPONENTIAL_WEIGHTED_MOVING_AVERAGE.calculate(PRICE,
+                                                                                    history.asSource(periods),
+                                                                                    Parameters.NONE);
+        }
+
+        PositionReporter reporter = mock(PositionReporter.class);
+        when(reporter.getNetPnl()).thenReturn(result);
+        return reporter;
+    }
+
+    private static List<Double> netPnls(List<SweepResult> results) {
+        return results.stream().map(SweepResult::getNetPnl).collect(toList());
+    }
+
+    @Test
+    void shouldProduceIdenticalResultsWhenRunningTheSameParameterSetTwice() {
+        ParameterSweep sweep = sweep("algo.periods", "3");
+
+        List<Double> first = netPnls(sweep.backtestAll(ParameterSweepTest::backtestMovingAverage));
+        List<Double> second = netPnls(sweep.backtestAll(ParameterSweepTest::backtestMovingAverage));
+
+        assertEquals(1, first.size());
+        assertEquals(first, second);
+    }
+
+    private static final class Price implements Event {
+        private final Instant timestamp;
+        private final double value;
+
+        private Price(Instant timestamp, double value) {
+            this.timestamp = timestamp;
+            this.value = value;
+        }
+
+        @Override
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.ax9k.app.sweep;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchSpaceTest {
+    private static SearchSpace searchSpace(String... keysAndValues) {
+        Properties properties = new Properties();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            properties.setProperty(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return SearchSpace.parse(properties);
+    }
+
+    private static List<String> values(List<ParameterSet> parameterSets, String name) {
+        return parameterSets.stream().map(set -> set.getValues().get(name)).collect(toList());
+    }
+
+    @Test
+    void shouldRejectSearchSpaceWithoutDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> searchSpace("search", "grid"));
+    }
+
+    @Nested
+    class WhenGridSearching {
+        @Test
+        void shouldTryEveryCombination() {
+            List<ParameterSet> sets = searchSpace("algo.a", "1,2,3", "risk.max_position", "1..2").parameterSets();
+
+            assertEquals(6, sets.size());
+            assertEquals(List.of("1", "1", "2", "2", "3", "3"), values(sets, "algo.a"));
+            assertEquals(List.of("1", "2", "1", "2", "1", "2"), values(sets, "risk.max_position"));
+        }
+
+        @Test
+        void shouldStepThroughDecimalRangesExactly() {
+            List<ParameterSet> sets = searchSpace("algo.threshold", "0.1..0.3:0.1").parameterSets();
+
+            assertEquals(List.of("0.1", "0.2", "0.3"), values(sets, "algo.threshold"));
+        }
+
+        @Test
+        void shouldKeepIntegerValuesParseableAsIntegers() {
+            List<ParameterSet> sets = searchSpace("risk.max_position", "2.0..4.0:1.0").parameterSets();
+
+            assertEquals(List.of("2", "3", "4"), values(sets, "risk.max_position"));
+        }
+
+        @Test
+        void shouldRequireStepForDecimalRanges() {
+            assertThrows(IllegalArgumentException.class, () -> searchSpace("algo.threshold", "0.5..1.5"));
+        }
+
+        @Test
+        void shouldRejectOversizedGrid() {
+            SearchSpace space = searchSpace("algo.a", "1..1000", "algo.b", "1..1000");
+
+            assertThrows(IllegalArgumentException.class, space::parameterSets);
+        }
+    }
+
+    @Nested
+    class WhenRandomSearching {
+        @Test
+        void shouldDrawDistinctSamples() {
+            List<ParameterSet> sets = searchSpace("search", "random", "samples", "20",
+                                                  "algo.a", "1..100", "risk.min_pnl", "-1000,-500").parameterSets();
+
+            assertEquals(20, sets.size());
+            assertEquals(20, sets.stream().distinct().count());
+        }
+
+        @Test
+        void shouldStopWhenSpaceIsExhausted() {
+            List<ParameterSet> sets = searchSpace("search", "random", "samples", "50", "algo.a", "1,2,3")
+                    .parameterSets();
+
+            assertEquals(3, sets.size());
+        }
+
+        @Test
+        void shouldSampleContinuousRangesWithinBounds() {
+            List<ParameterSet> sets = searchSpace("search", "random", "samples", "10", "algo.threshold", "0.5..1.5")
+                    .parameterSets();
+
+            values(sets, "algo.threshold").stream()
+                                           .map(Double::parseDouble)
+                                           .forEach(value -> assertTrue(value >= 0.5 && value <= 1.5));
+        }
+
+        @Test
+        void shouldBeReproducibleForSameSeed() {
+            String[] options = { "search", "random", "seed", "7", "samples", "5", "algo.a", "1..100" };
+
+            assertEquals(searchSpace(options).parameterSets(), searchSpace(options).parameterSets());
+        }
+    }
+
+    @Nested
+    class WhenSplittingParameters {
+        @Test
+        void shouldSeparateAlgoAndRiskManagerProperties() {
+            ParameterSet set = searchSpace("algo.a", "1", "risk.max_position", "3").parameterSets().get(0);
+
+            assertEquals(Map.of("a", "1"), set.getAlgoProperties());
+            assertEquals(Map.of("max_position", "3"), set.getRiskManagerProperties());
+        }
+    }
+}
@@ -3,12 +3,11 @@ package com.ax9k.backtesting;
 import com.ax9k.core.marketmodel.bar.OhlcvBar;
 import com.ax9k.utils.json.JsonUtils;
 
-import java.io.BufferedReader;
 import java.util.function.Function;
 
-class BarLogRecycler implements Function<BufferedReader, OhlcvBar> {
+class BarLogRecycler implements Function<String, OhlcvBar> {
     @Override
-    public OhlcvBar apply(BufferedReader lines) {
-        return JsonUtils.readLines(lines, OhlcvBar.class);
+    public OhlcvBar apply(String jsonObject) {
+        return JsonUtils.readString(jsonObject, OhlcvBar.class);
     }
 }
@@ -4,86 +4,172 @@ import com.ax9k.core.event.Event;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 
 import static org.apache.commons.lang3.Validate.notNull;
 
+/**
+ * Replays timestamped events decoded from text input, one record at a time.
+ * <p>
+ * Input is read in large blocks into a reusable buffer and split into records without reading any line twice.
+ * The next decoded event is held in a lookahead slot so callers can replay up to a point in time. Records that fail
+ * to decode are logged and skipped.
+ */
 public final class EventReplay<T extends Event> {
     private static final Logger LOGGER = LogManager.getLogger();
+    private static final Pattern OBJECT_END = Pattern.compile("^}[,]?[\\s]*$");
+    private static final String OBJECT_START = "{";
+    private static final int BUFFER_SIZE = 1 << 16;
 
-    private final Function<BufferedReader, T> parser;
-    private final BufferedReader lines;
+    private final Function<String, T> parser;
+    private final Reader input;
+    private final boolean multiLineObjects;
     private final long delayNanos;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder line = new StringBuilder(256);
+    private final StringBuilder object = new StringBuilder(256);
 
-    private T next;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
 
-    private T lastEvent;
+    private T next;
 
-    private EventReplay(Function<BufferedReader, T> parser, BufferedReader lines, Duration replayTimeDelay) {
+    private EventReplay(Function<String, T> parser,
+                        Reader input,
+                        boolean multiLineObjects,
+                        Duration replayTimeDelay) {
         this.parser = notNull(parser, "EventReplay parser");
-        this.lines = notNull(lines, "EventReplay lines");
+        this.input = notNull(input, "EventReplay input");
+        this.multiLineObjects = multiLineObjects;
         this.delayNanos = notNull(replayTimeDelay, "EventReplay replayTimeDelay").toNanos();
 
         next = readNext();
     }
 
-    public static <T extends Event> EventReplay<T> of(Function<BufferedReader, T> parser, BufferedReader lines) {
-        return new EventReplay<>(parser, lines, Duration.ZERO);
+    public static <T extends Event> EventReplay<T> ofSingleLineEvents(Function<String, T> parser, Reader input) {
+        return new EventReplay<>(parser, input, false, Duration.ZERO);
     }
 
-    public static <T extends Event> EventReplay<T> of(Function<BufferedReader, T> parser,
-                                                      BufferedReader lines,
-                                                      Duration replayTimeDelay) {
-        return new EventReplay<>(parser, lines, replayTimeDelay);
+    public static <T extends Event> EventReplay<T> ofSingleLineEvents(Function<String, T> parser,
+                                                                      Reader input,
+                                                                      Duration replayTimeDelay) {
+        return new EventReplay<>(parser, input, false, replayTimeDelay);
     }
 
-    public static <T extends Event> EventReplay<T> ofSingleLineEvents(Function<String, T> parser,
-                                                                      BufferedReader lines) {
-        return new EventReplay<>(singleLineParser(parser), lines, Duration.ZERO);
+    /**
+     * Replays JSON objects that are either one per line or pretty-printed, opening with a line holding only
+     * <code>{</code> and closing with a line holding only <code>}</code> or <code>},</code>.
+     */
+    public static <T extends Event> EventReplay<T> ofJsonEvents(Function<String, T> parser,
+                                                                Reader input,
+                                                                Duration replayTimeDelay) {
+        return new EventReplay<>(parser, input, true, replayTimeDelay);
     }
 
-    private static <T> Function<BufferedReader, T> singleLineParser(Function<String, T> parser) {
-        return reader -> {
+    private T readNext() {
+        String record;
+        while ((record = readRecord()) != null) {
             try {
-                return parser.apply(reader.readLine());
-            } catch (IOException readError) {
-                throw new UncheckedIOException("Could not read input lines", readError);
+                return parser.apply(record);
+            } catch (IllegalStateException | IllegalArgumentException | NullPointerException invalidRecord) {
+                LOGGER.warn(invalidRecord.getMessage());
             }
-        };
+        }
+        return null;
     }
 
-    public static <T extends Event> EventReplay<T> ofSingleLineEvents(Function<String, T> parser,
-                                                                      BufferedReader lines,
-                                                                      Duration replayTimeDelay) {
-        return new EventReplay<>(singleLineParser(parser), lines, replayTimeDelay);
+    private String readRecord() {
+        if (!readLine()) {
+            return null;
+        }
+        if (!multiLineObjects || !isObjectStart()) {
+            return line.toString();
+        }
+
+        object.setLength(0);
+        object.append(OBJECT_START);
+        while (readLine()) {
+            String trimmed = line.toString().trim();
+            object.append(trimmed);
+            if (OBJECT_END.matcher(trimmed).matches()) {
+                return object.toString();
+            }
+        }
+        LOGGER.warn("Incomplete JSON object: {}", object);
+        return null;
     }
 
-    private static <T extends Comparable<T>> boolean greaterOrEqualTo(T one, T two) {
-        return one.compareTo(two) >= 0;
+    private boolean isObjectStart() {
+        int start = 0;
+        int end = line.length();
+        while (start < end && Character.isWhitespace(line.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        return end - start == 1 && line.charAt(start) == '{';
     }
 
-    private T readNext() {
-        try {
-            lines.mark(10_000);
-            String nextLine = lines.readLine();
-            if (nextLine == null) {
-                return null;
+    /**
+     * Reads the next line, without its terminator, into {@link #line}.
+     *
+     * @return {@code false} at the end of the input
+     */
+    private boolean readLine() {
+        line.setLength(0);
+        while (true) {
+            if (position == limit && !fill()) {
+                return line.length() > 0;
             }
-            lines.reset();
+            int start = position;
+            while (position < limit) {
+                char current = buffer[position];
+                if (current == '\n') {
+                    line.append(buffer, start, position - start);
+                    position++;
+                    trimCarriageReturn();
+                    return true;
+                }
+                position++;
+            }
+            line.append(buffer, start, position - start);
+        }
+    }
 
-            try {
-                return parser.apply(lines);
-            } catch (IllegalStateException | IllegalArgumentException | NullPointerException invalidLine) {
-                LOGGER.warn(invalidLine.getMessage());
-                return readNext();
+    private void trimCarriageReturn() {
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(length - 1);
+        }
+    }
+
+    private boolean fill() {
+        if (endOfInput) {
+            return false;
+        }
+        try {
+            int read;
+            do {
+                read = input.read(buffer, 0, BUFFER_SIZE);
+            } while (read == 0);
+            if (read < 0) {
+                endOfInput = true;
+                return false;
             }
+            position = 0;
+            limit = read;
+            return true;
         } catch (IOException readError) {
             throw new UncheckedIOException("Could not read input lines", readError);
         }
@@ -104,18 +190,22 @@ public final class EventReplay<T extends Event> {
 
     public List<T> replayUntil(Instant currentTimestamp) {
         List<T> result = new ArrayList<>();
-        while (hasMoreEvents() && greaterOrEqualTo(currentTimestamp, offset(nextTimestamp()))) {
-            result.add(next);
-            next = readNext();
-        }
+        replayUntil(currentTimestamp, result::add);
         return result;
     }
 
-    private Instant offset(Instant timestamp) {
-        return timestamp.plusNanos(delayNanos);
-    }
-
-    private Instant nextTimestamp() {
-        return next.getTimestamp();
+    /**
+     * Hands every event due at the given time to the target, in order, without collecting them first.
+     */
+    public void replayUntil(Instant currentTimestamp, Consumer<? super T> target) {
+        if (next == null) {
+            return;
+        }
+        Instant cutoff = delayNanos == 0 ? currentTimestamp : currentTimestamp.minusNanos(delayNanos);
+        while (next != null && next.getTimestamp().compareTo(cutoff) <= 0) {
+            T event = next;
+            next = readNext();
+            target.accept(event);
+        }
     }
 }
@@ -28,9 +28,10 @@ public class FileLoaderFactory implements MarketDataProviderFactory {
         }
 
         ProcessingMode mode = ProcessingMode.fromOptionValue(configuration.getOptional("process"));
+        ReplaySpeed speed = ReplaySpeed.fromOptionValue(configuration.getOptional("replaySpeed"));
         File inputFile = findInputFile(configuration);
 
-        return new LocalFileLoader(tradingDay, inputFile, mode);
+        return new LocalFileLoader(tradingDay, inputFile, mode, speed);
     }
 
     private File findInputFile(Configuration configuration) {
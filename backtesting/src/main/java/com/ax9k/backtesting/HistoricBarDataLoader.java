@@ -1,5 +1,6 @@
 package com.ax9k.backtesting;
 
+import com.ax9k.core.marketmodel.bar.BarAggregator;
 import com.ax9k.core.marketmodel.bar.OhlcvBar;
 import com.ax9k.utils.s3.S3Downloader;
 import org.apache.logging.log4j.LogManager;
@@ -51,7 +52,7 @@ class HistoricBarDataLoader {
             lines.readLine();
             return EventReplay.ofSingleLineEvents(new CsvOhlcvParser(),
                                                   lines,
-                                                  OhlcvBarAggregator.INPUT_BAR_PERIOD_LENGTH);
+                                                  BarAggregator.FIVE_SECONDS);
         } catch (IOException e) {
             throw new UncheckedIOException("Error opening local file copy", e);
         }
@@ -3,18 +3,19 @@ package com.ax9k.backtesting;
 import com.ax9k.core.marketmodel.MarketEvent;
 import com.ax9k.core.marketmodel.Milestone;
 import com.ax9k.core.marketmodel.TradingDay;
+import com.ax9k.core.marketmodel.bar.BarAggregator;
 import com.ax9k.core.marketmodel.bar.OhlcvBar;
 import com.ax9k.core.time.Time;
 import com.ax9k.provider.MarketDataProvider;
 import com.ax9k.utils.config.Configuration;
 import com.ax9k.utils.config.Configurations;
+import com.ax9k.utils.logging.ImmutableObjectMessage;
 import org.apache.commons.lang3.time.StopWatch;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -25,40 +26,45 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
-import java.util.zip.GZIPInputStream;
 
 import static com.ax9k.core.marketmodel.StandardMilestone.wrap;
 
 class LocalFileLoader implements MarketDataProvider {
     private static final Logger LOGGER = LogManager.getLogger();
     private static final Logger ERROR_LOG = LogManager.getLogger("error");
+    private static final Logger BARS_LOGGER = LogManager.getLogger("barLogger");
 
     private final TradingDay tradingDay;
     private final FileEventProcessor eventProcessor;
     private final File inputFile;
-    private final OhlcvBarAggregator aggregator;
+    private final BarAggregator aggregator;
     private final Consumer<OhlcvBar> sendCompleteBarEvent;
     private final int counterCheckpoint;
     private final int maxLineLimit;
+    private final ReplaySpeed speed;
+    private final Consumer<Instant> pacer;
 
     private EventReplay<OhlcvBar> barEvents;
     private LocalDate fileDate;
     private boolean triedLoadingBars;
 
     LocalFileLoader(TradingDay tradingDay, String path, ProcessingMode mode) {
-        this(tradingDay, new File(path).getAbsoluteFile(), mode);
+        this(tradingDay, new File(path).getAbsoluteFile(), mode, ReplaySpeed.max());
     }
 
-    LocalFileLoader(TradingDay tradingDay, File inputFile, ProcessingMode mode) {
+    LocalFileLoader(TradingDay tradingDay, File inputFile, ProcessingMode mode, ReplaySpeed speed) {
         this.tradingDay = tradingDay;
         this.inputFile = inputFile;
-        aggregator = new OhlcvBarAggregator();
+        this.speed = speed;
+        pacer = speed::await;
+        aggregator = new BarAggregator(BarAggregator.FIVE_SECONDS,
+                                       (period, completeBar) -> tradingDay.bar(completeBar),
+                                       BarAggregator.ONE_MINUTE);
         eventProcessor = new FileEventProcessor(tradingDay, mode);
         sendCompleteBarEvent = barEvent -> {
-            OhlcvBar completeBar = aggregator.aggregateData(barEvent);
-            if (completeBar != null) {
-                tradingDay.bar(completeBar);
-            }
+            speed.await(barEvent.getTimestamp());
+            BARS_LOGGER.info(new ImmutableObjectMessage(barEvent));
+            aggregator.aggregate(barEvent);
         };
 
         Configuration config = Configurations.load(LoadProperties.getPropertiesFile());
@@ -89,13 +95,7 @@ class LocalFileLoader implements MarketDataProvider {
     }
 
     private InputStream openFileStream() throws IOException {
-        InputStream result = new FileInputStream(inputFile);
-
-        if (inputFile.getName().endsWith(".gz")) {
-            result = new GZIPInputStream(result);
-        }
-
-        return result;
+        return ReadAheadInputStream.open(inputFile.toPath());
     }
 
     private void parseLines(BufferedReader lineBuffer) throws IOException {
@@ -117,7 +117,7 @@ class LocalFileLoader implements MarketDataProvider {
                         tradingDay.setTradingDayDate(fileDate);
                         Milestone marketOpen = Time.schedule().marketOpen().getStart();
                         tradingDay.getHeartBeat()
-                                  .setLastHeartBeat(addDate(marketOpen, fileDate));
+                                  .startVirtual(addDate(marketOpen, fileDate));
                     }
                     MarketEvent marketEvent = MarketEventParser.parse(line);
 
@@ -130,11 +130,10 @@ class LocalFileLoader implements MarketDataProvider {
                         triedLoadingBars = true;
                     }
                     if (barEvents != null) {
-                        barEvents.replayUntil(marketEvent.getEventTimestamp())
-                                 .forEach(sendCompleteBarEvent);
+                        barEvents.replayUntil(marketEvent.getEventTimestamp(), sendCompleteBarEvent);
                     }
 
-                    tradingDay.getHeartBeat().massageHeart(marketEvent.getEventTimestamp());
+                    advanceTo(marketEvent.getEventTimestamp());
                     eventProcessor.processExchangeMessage(marketEvent);
                     loopCounter++;
                     counter++;
@@ -158,7 +157,17 @@ class LocalFileLoader implements MarketDataProvider {
         if (marketClose == null) {
             marketClose = wrap(LocalTime.of(23, 59));
         }
-        tradingDay.getHeartBeat().massageHeart(addDate(marketClose, fileDate));
+        advanceTo(addDate(marketClose, fileDate));
+        speed.logSummary();
+    }
+
+    private void advanceTo(Instant timestamp) {
+        if (!speed.isPaced()) {
+            tradingDay.getHeartBeat().advanceTo(timestamp);
+            return;
+        }
+        tradingDay.getHeartBeat().advanceTo(timestamp, pacer);
+        speed.await(timestamp);
     }
 
     private static Instant addDate(Milestone milestone, LocalDate date) {
@@ -5,11 +5,13 @@ import com.ax9k.core.marketmodel.BidAsk;
 import com.ax9k.core.marketmodel.Milestone;
 import com.ax9k.core.marketmodel.Trade;
 import com.ax9k.core.marketmodel.TradingDay;
+import com.ax9k.core.marketmodel.bar.BarAggregator;
 import com.ax9k.core.marketmodel.bar.OhlcvBar;
 import com.ax9k.core.marketmodel.orderbook.OrderBook;
 import com.ax9k.core.marketmodel.orderbook.OrderBookLevel;
 import com.ax9k.core.time.Time;
 import com.ax9k.provider.MarketDataProvider;
+import com.ax9k.utils.logging.LogIndex;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -21,10 +23,10 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.UncheckedIOException;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -35,7 +37,6 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
-import java.util.zip.GZIPInputStream;
 
 import static com.ax9k.core.marketmodel.BidAsk.ASK;
 import static com.ax9k.core.marketmodel.BidAsk.BID;
@@ -51,36 +52,52 @@ public class LogRecycler implements MarketDataProvider {
     private final TradingDay tradingDay;
     private final BufferedReader bookLines;
     private final BufferedReader tradeLines;
+    private final Reader barLines;
     private final EventReplay<OhlcvBar> barEvents;
-    private final OhlcvBarAggregator aggregator;
     private final LocalDate date;
     private final String source;
+    private final ReplaySpeed speed;
+    private final LocalTime windowStart;
+    private final LocalTime windowEnd;
+    private final List<Path> inputFiles;
     private boolean tradesPrettyPrinted;
     private boolean booksPrettyPrinted;
-    private Consumer<OhlcvBar> sendCompleteBarEvent;
 
     LogRecycler(TradingDay tradingDay,
                 Path bookLog,
                 Path tradeLog,
-                Path barLog) {
+                Path barLog,
+                ReplaySpeed speed,
+                LocalTime windowStart,
+                LocalTime windowEnd) {
         source = bookLog.getFileName().toString();
         this.tradingDay = tradingDay;
+        this.speed = speed;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        inputFiles = barLog != null ? List.of(bookLog, tradeLog, barLog) : List.of(bookLog, tradeLog);
+
+        Reader openedBars = null;
+        BufferedReader openedBooks = null;
+        BufferedReader openedTrades = null;
+        try {
+            openedBars = barLog != null ? createReader(barLog) : null;
+            openedBooks = createBuffer(bookLog);
+            openedTrades = createBuffer(tradeLog);
+        } catch (IOException unhandleable) {
+            closeAll(openedBars, openedBooks, openedTrades);
+            throw new UncheckedIOException("Error opening input file", unhandleable);
+        }
+        barLines = openedBars;
+        bookLines = openedBooks;
+        tradeLines = openedTrades;
 
         try {
-            barEvents = barLog != null ? EventReplay.of(new BarLogRecycler(),
-                                                        createBuffer(barLog),
-                                                        OhlcvBarAggregator.INPUT_BAR_PERIOD_LENGTH) :
+            barEvents = barLines != null ? EventReplay.ofJsonEvents(new BarLogRecycler(),
+                                                                    barLines,
+                                                                    BarAggregator.FIVE_SECONDS) :
                         null;
-            aggregator = new OhlcvBarAggregator();
-            sendCompleteBarEvent = barEvent -> {
-                OhlcvBar completeBar = aggregator.aggregateData(barEvent);
-                if (completeBar != null) {
-                    tradingDay.bar(completeBar);
-                }
-            };
-
-            bookLines = createBuffer(bookLog);
-            tradeLines = createBuffer(tradeLog);
+
             String booksDate = bookLines.readLine();
             String tradesDate = tradeLines.readLine();
 
@@ -97,28 +114,76 @@ public class LogRecycler implements MarketDataProvider {
 
             date = LocalDate.parse(booksDate);
         } catch (IOException unhandleable) {
+            closeInputs();
             throw new UncheckedIOException("Error opening input file", unhandleable);
+        } catch (RuntimeException invalidInput) {
+            closeInputs();
+            throw invalidInput;
         }
     }
 
+    /**
+     * Closes the logs, which also stops any threads still reading them ahead. A replay ending early, such as at the
+     * end of its window, would otherwise leave those threads blocked, each holding its buffers.
+     */
+    private void closeInputs() {
+        closeAll(barLines, bookLines, tradeLines);
+    }
+
+    private static void closeAll(Reader... readers) {
+        for (Reader reader : readers) {
+            if (reader == null) {
+                continue;
+            }
+            try {
+                reader.close();
+            } catch (IOException e) {
+                LOGGER.warn("Error closing log: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads only the indexed records around the replay window, if there is one, keeping the date line.
+     */
     private BufferedReader createBuffer(Path file) throws IOException {
-        if (!file.toString().endsWith("gz")) {
-            return Files.newBufferedReader(file);
+        if (windowStart == null && windowEnd == null) {
+            return new BufferedReader(createReader(file));
+        }
+        LogIndex index = LogIndex.load(file, LogIndex.DEFAULT_TIME_PROPERTY, Time.schedule().getTimeZone());
+        InputStream log = ReadAheadInputStream.open(file);
+        try {
+            InputStream window = index.window(log,
+                                              onDate(index.getDate(), windowStart),
+                                              onDate(index.getDate(), windowEnd));
+            return new BufferedReader(new InputStreamReader(window, StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
         }
+    }
 
-        InputStream stream = Files.newInputStream(file, StandardOpenOption.READ);
-        GZIPInputStream unzipper = new GZIPInputStream(stream);
-        InputStreamReader reader = new InputStreamReader(unzipper);
-        return new BufferedReader(reader);
+    private Reader createReader(Path file) throws IOException {
+        return new InputStreamReader(ReadAheadInputStream.open(file), StandardCharsets.UTF_8);
     }
 
     private static Instant addDate(Milestone milestone, LocalDate date) {
         return Time.internationalise(LocalDateTime.of(date, milestone.getTime()));
     }
 
-    private void parseLogs() throws IOException {
+    private static Instant onDate(LocalDate date, LocalTime time) {
+        return time != null ? Time.internationalise(LocalDateTime.of(date, time)) : null;
+    }
+
+    private void parseLogs(ReplayTarget target) throws IOException {
         Milestone marketOpen = Time.schedule().marketOpen().getStart();
-        tradingDay.getHeartBeat().setLastHeartBeat(addDate(marketOpen, date));
+        Instant start = addDate(marketOpen, date);
+        Instant firstEvent = onDate(date, windowStart);
+        Instant lastEvent = onDate(date, windowEnd);
+        if (firstEvent != null && firstEvent.isAfter(start)) {
+            start = firstEvent;
+        }
+        target.start(start);
 
         Instant lastEventTimestamp;
         Trade currentTrade = nextTrade();
@@ -126,20 +191,26 @@ public class LogRecycler implements MarketDataProvider {
         Counter eventCounter = new Counter();
         Counter checkpointCounter = new Counter(COUNTER_CHECKPOINT);
 
+        Consumer<OhlcvBar> sendBar = target::bar;
+
         StopWatch stopWatch = StopWatch.createStarted();
         while ((currentBook = nextBook()) != null) {
             lastEventTimestamp = currentBook.getTimestamp();
+            if (firstEvent != null && lastEventTimestamp.isBefore(firstEvent)) {
+                continue;
+            }
+            if (lastEvent != null && lastEventTimestamp.isAfter(lastEvent)) {
+                break;
+            }
 
             if (barEvents != null) {
-                barEvents.replayUntil(lastEventTimestamp)
-                         .forEach(sendCompleteBarEvent);
+                barEvents.replayUntil(lastEventTimestamp, sendBar);
             }
 
-            tradingDay.getHeartBeat().massageHeart(lastEventTimestamp);
             if (currentTrade != null && currentTrade.getTimestamp().equals(lastEventTimestamp)) {
-                tradingDay.trade(currentTrade, currentBook);
+                target.trade(currentTrade, currentBook);
             } else {
-                tradingDay.orderBook(currentBook);
+                target.orderBook(currentBook);
             }
 
             if (checkpointCounter.checkpointReached()) {
@@ -149,7 +220,7 @@ public class LogRecycler implements MarketDataProvider {
                 double totalMemory = Runtime.getRuntime().totalMemory();
                 double usedMemory = totalMemory - Runtime.getRuntime().freeMemory();
                 LOGGER.info("Checkpoint. Last event: {}. Events processed: {}@{}/sec. {}/{} MB memory in use.",
-                            tradingDay.getLocalisedLastEventTime(),
+                            Time.localiseTime(lastEventTimestamp),
                             eventCounter.getCount(),
                             rate,
                             toMegabytes(usedMemory),
@@ -164,7 +235,7 @@ public class LogRecycler implements MarketDataProvider {
         if (marketClose == null) {
             marketClose = wrap(LocalTime.of(23, 59));
         }
-        tradingDay.getHeartBeat().massageHeart(addDate(marketClose, date));
+        target.end(addDate(marketClose, date));
     }
 
     private long toMegabytes(double bytes) {
@@ -294,12 +365,30 @@ public class LogRecycler implements MarketDataProvider {
     @Override
     public void startRequest(boolean delayUntilMarketOpen) {
         try {
-            parseLogs();
+            parseLogs(new TradingDayReplay(tradingDay, speed));
         } catch (IOException unhandleable) {
             throw new UncheckedIOException(unhandleable);
+        } finally {
+            closeInputs();
         }
     }
 
+    /**
+     * Decodes the whole day into memory instead of replaying it, so it can be replayed any number of times without
+     * parsing the logs again. Consumes and closes the input, so cannot be combined with {@link #startRequest(boolean)}.
+     */
+    public RecordedDay record() {
+        var recorder = new RecordedDay.Recorder(date, source);
+        try {
+            parseLogs(recorder);
+        } catch (IOException unhandleable) {
+            throw new UncheckedIOException(unhandleable);
+        } finally {
+            closeInputs();
+        }
+        return recorder.build();
+    }
+
     @Override
     public void stopRequest() {
     }
@@ -316,4 +405,11 @@ public class LogRecycler implements MarketDataProvider {
     public String getSymbol() {
         return source;
     }
+
+    /**
+     * @return the local copies of the book, trade and, if given, bar logs being replayed
+     */
+    public List<Path> getInputFiles() {
+        return inputFiles;
+    }
 }
@@ -14,6 +14,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalTime;
 import java.util.Optional;
 import java.util.regex.Pattern;
 
@@ -36,6 +37,9 @@ public class LogRecyclerFactory implements MarketDataProviderFactory {
     private static final String BOOK_LOG_OPTION = "bookLog";
     private static final String TRADE_LOG_OPTION = "tradeLog";
     private static final String BAR_LOG_OPTION = "barLog";
+    private static final String SPEED_OPTION = "replaySpeed";
+    private static final String WINDOW_START_OPTION = "windowStart";
+    private static final String WINDOW_END_OPTION = "windowEnd";
     private static final String SEPARATOR = ",";
     private static final Path NO_PATH = null;
     private static final int BOOK_LOG_INDEX = 0;
@@ -59,7 +63,10 @@ public class LogRecyclerFactory implements MarketDataProviderFactory {
         return new LogRecycler(tradingDay,
                                logFiles[BOOK_LOG_INDEX],
                                logFiles[TRADE_LOG_INDEX],
-                               logFiles[BAR_LOG_INDEX]);
+                               logFiles[BAR_LOG_INDEX],
+                               ReplaySpeed.fromOptionValue(configuration.getOptional(SPEED_OPTION)),
+                               configuration.getOptional(WINDOW_START_OPTION, LocalTime::parse).orElse(null),
+                               configuration.getOptional(WINDOW_END_OPTION, LocalTime::parse).orElse(null));
     }
 
     private static boolean notAllLogFilesProvided(Configuration configuration) {
@@ -0,0 +1,193 @@
+package com.ax9k.backtesting;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.GZIPInputStream;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Reads a source stream ahead on its own thread into a bounded queue of byte chunks, so that expensive decoding
+ * such as gzip inflation overlaps with the replay consuming it.
+ * <p>
+ * Chunks are recycled between the two threads, so steady-state reading allocates nothing. Not thread-safe: a single
+ * consumer must read it.
+ */
+final class ReadAheadInputStream extends InputStream {
+    private static final ThreadFactory THREAD_FACTORY = new BasicThreadFactory.Builder()
+            .namingPattern("read-ahead-%s")
+            .daemon(true)
+            .build();
+    private static final int CHUNK_SIZE = 1 << 18;
+    private static final int QUEUED_CHUNKS = 8;
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+    private static final Chunk END = new Chunk(0);
+
+    private final InputStream source;
+    private final BlockingQueue<Chunk> filled;
+    private final BlockingQueue<Chunk> empty;
+    private final Thread reader;
+
+    private volatile IOException failure;
+    private Chunk current;
+    private int position;
+    private boolean ended;
+    private boolean closed;
+
+    ReadAheadInputStream(InputStream source) {
+        this(source, CHUNK_SIZE, QUEUED_CHUNKS);
+    }
+
+    ReadAheadInputStream(InputStream source, int chunkSize, int queuedChunks) {
+        isTrue(chunkSize > 0 && queuedChunks > 0, "chunk size and count must be positive");
+        this.source = notNull(source);
+        filled = new ArrayBlockingQueue<>(queuedChunks + 2);
+        empty = new ArrayBlockingQueue<>(queuedChunks + 1);
+        for (int i = 0; i < queuedChunks + 1; i++) {
+            empty.add(new Chunk(chunkSize));
+        }
+        reader = THREAD_FACTORY.newThread(this::readAhead);
+        reader.start();
+    }
+
+    /**
+     * Opens the file for reading, inflating it ahead on another thread if it is gzipped.
+     */
+    static InputStream open(Path file) throws IOException {
+        InputStream stream = Files.newInputStream(file);
+        if (!file.toString().endsWith("gz")) {
+            return stream;
+        }
+        try {
+            return new ReadAheadInputStream(new GZIPInputStream(stream, GZIP_BUFFER_SIZE));
+        } catch (IOException | RuntimeException e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    private void readAhead() {
+        try {
+            while (true) {
+                Chunk chunk = empty.take();
+                chunk.length = 0;
+                int read = 0;
+                while (chunk.length < chunk.data.length &&
+                       (read = source.read(chunk.data, chunk.length, chunk.data.length - chunk.length)) >= 0) {
+                    chunk.length += read;
+                }
+                if (chunk.length > 0) {
+                    filled.put(chunk);
+                }
+                if (read < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (RuntimeException e) {
+            failure = new IOException(e);
+        } catch (InterruptedException closing) {
+            return;
+        }
+        try {
+            filled.put(END);
+        } catch (InterruptedException closing) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextChunkReady()) {
+            return -1;
+        }
+        return current.data[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!nextChunkReady()) {
+            return -1;
+        }
+        int count = Math.min(length, current.length - position);
+        System.arraycopy(current.data, position, bytes, offset, count);
+        position += count;
+        return count;
+    }
+
+    private boolean nextChunkReady() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (current != null && position < current.length) {
+            return true;
+        }
+        if (ended) {
+            return false;
+        }
+        if (current != null) {
+            empty.add(current);
+            current = null;
+        }
+
+        Chunk next;
+        try {
+            next = filled.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for input");
+        }
+        if (next == END) {
+            ended = true;
+            if (failure != null) {
+                throw new IOException("Error reading ahead", failure);
+            }
+            return false;
+        }
+        current = next;
+        position = 0;
+        return true;
+    }
+
+    @Override
+    public int available() {
+        return current == null ? 0 : current.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        reader.interrupt();
+        try {
+            reader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        source.close();
+    }
+
+    private static final class Chunk {
+        private final byte[] data;
+        private int length;
+
+        private Chunk(int size) {
+            data = new byte[size];
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ax9k.backtesting;
+
+import com.ax9k.core.event.Event;
+import com.ax9k.core.marketmodel.Trade;
+import com.ax9k.core.marketmodel.TradingDay;
+import com.ax9k.core.marketmodel.bar.OhlcvBar;
+import com.ax9k.core.marketmodel.orderbook.OrderBook;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.commons.lang3.Validate.notNull;
+import static org.apache.commons.lang3.Validate.validState;
+
+/**
+ * A day of {@link LogRecycler} input, decoded once and held in memory so it can be replayed into any number of
+ * {@link TradingDay} instances.
+ * <p>
+ * Events are kept in their original order. A trade is stored immediately before the book it was recorded with.
+ */
+public final class RecordedDay {
+    private final LocalDate date;
+    private final String source;
+    private final Instant marketOpen;
+    private final Instant marketClose;
+    private final List<Event> events;
+
+    private RecordedDay(Recorder recorder) {
+        date = recorder.date;
+        source = recorder.source;
+        marketOpen = recorder.marketOpen;
+        marketClose = recorder.marketClose;
+        events = Collections.unmodifiableList(recorder.events);
+    }
+
+    /**
+     * Replays every event, in order, into the given {@link TradingDay}. The caller must not replay into more than one
+     * trading day at a time, because each replay drives the global {@link com.ax9k.core.time.Time}.
+     */
+    public void replay(TradingDay tradingDay) {
+        replay(new TradingDayReplay(tradingDay));
+    }
+
+    /**
+     * Replays every event, in order, into the given {@link TradingDay} without advancing it to market close, so that
+     * live events can follow on.
+     */
+    public void replayWithoutClosing(TradingDay tradingDay) {
+        replay(new TradingDayReplay(tradingDay), false);
+    }
+
+    void replay(ReplayTarget target) {
+        replay(target, true);
+    }
+
+    void replay(ReplayTarget target, boolean close) {
+        target.start(marketOpen);
+
+        int size = events.size();
+        for (int i = 0; i < size; i++) {
+            Event event = events.get(i);
+            if (event instanceof OrderBook) {
+                target.orderBook((OrderBook) event);
+            } else if (event instanceof Trade) {
+                target.trade((Trade) event, (OrderBook) events.get(++i));
+            } else {
+                target.bar((OhlcvBar) event);
+            }
+        }
+
+        if (close) {
+            target.end(marketClose);
+        }
+    }
+
+    public int getEventCount() {
+        return events.size();
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    static final class Recorder implements ReplayTarget {
+        private final LocalDate date;
+        private final String source;
+        private final List<Event> events = new ArrayList<>();
+        private Instant marketOpen;
+        private Instant marketClose;
+
+        Recorder(LocalDate date, String source) {
+            this.date = notNull(date);
+            this.source = notNull(source);
+        }
+
+        @Override
+        public void start(Instant marketOpen) {
+            this.marketOpen = notNull(marketOpen);
+        }
+
+        @Override
+        public void bar(OhlcvBar bar) {
+            events.add(bar);
+        }
+
+        @Override
+        public void orderBook(OrderBook book) {
+            events.add(book);
+        }
+
+        @Override
+        public void trade(Trade trade, OrderBook book) {
+            events.add(trade);
+            events.add(book);
+        }
+
+        @Override
+        public void end(Instant marketClose) {
+            this.marketClose = notNull(marketClose);
+        }
+
+        RecordedDay build() {
+            validState(marketOpen != null && marketClose != null, "day has not been fully recorded");
+            return new RecordedDay(this);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.ax9k.backtesting;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+
+/**
+ * Paces a replay against the wall clock: flat out, at exactly real time, or at a multiple of it.
+ * <p>
+ * The first awaited event time is pinned to the wall clock. Every later event is held back until as much wall time
+ * has passed as event time, divided by the speed. A replay that cannot keep up is never held back, but the largest
+ * lag is kept so that soak tests can report it.
+ */
+final class ReplaySpeed {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String MAX = "max";
+    private static final String REAL_TIME = "realtime";
+
+    private final double multiplier;
+
+    private Instant simulatedStart;
+    private long wallStartNanos;
+    private long maxLagNanos;
+
+    private ReplaySpeed(double multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    static ReplaySpeed max() {
+        return new ReplaySpeed(0);
+    }
+
+    static ReplaySpeed times(double multiplier) {
+        isTrue(multiplier > 0, "replay speed must be positive: %s", multiplier);
+        return new ReplaySpeed(multiplier);
+    }
+
+    static ReplaySpeed fromOptionValue(Optional<?> value) {
+        return fromOptionValue(value.orElse(null));
+    }
+
+    /**
+     * @param value {@code max}, {@code realtime} or a multiple of real time such as {@code 10} or {@code 10x}.
+     *              Flat out when {@code null}.
+     */
+    static ReplaySpeed fromOptionValue(Object value) {
+        if (value == null) {
+            return max();
+        }
+        String identifier = value.toString().trim().toLowerCase();
+
+        if (identifier.equals(MAX)) {
+            return max();
+        } else if (identifier.equals(REAL_TIME)) {
+            return times(1);
+        }
+        if (identifier.endsWith("x")) {
+            identifier = identifier.substring(0, identifier.length() - 1);
+        }
+        try {
+            return times(Double.parseDouble(identifier));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("replay speed must be 'max', 'realtime' or a multiple: " + value, e);
+        }
+    }
+
+    boolean isPaced() {
+        return multiplier > 0;
+    }
+
+    /**
+     * Blocks until the wall clock has caught up with the given event time.
+     */
+    void await(Instant simulatedTime) {
+        if (multiplier == 0) {
+            return;
+        }
+        if (simulatedStart == null) {
+            simulatedStart = simulatedTime;
+            wallStartNanos = System.nanoTime();
+            return;
+        }
+
+        long simulatedNanos = Duration.between(simulatedStart, simulatedTime).toNanos();
+        long deadline = wallStartNanos + (long) (simulatedNanos / multiplier);
+        long remaining = deadline - System.nanoTime();
+        if (remaining < 0) {
+            maxLagNanos = Math.max(maxLagNanos, -remaining);
+            return;
+        }
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while pacing replay");
+            }
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    Duration getMaxLag() {
+        return Duration.ofNanos(maxLagNanos);
+    }
+
+    void logSummary() {
+        if (isPaced()) {
+            LOGGER.info("Replayed at {}. Largest lag behind the replay clock: {}", this, getMaxLag());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return multiplier == 0 ? MAX : multiplier + "x";
+    }
+}
@@ -0,0 +1,22 @@
+package com.ax9k.backtesting;
+
+import com.ax9k.core.marketmodel.Trade;
+import com.ax9k.core.marketmodel.bar.OhlcvBar;
+import com.ax9k.core.marketmodel.orderbook.OrderBook;
+
+import java.time.Instant;
+
+/**
+ * Receives a day of decoded log events in the order {@link LogRecycler} reads them.
+ */
+interface ReplayTarget {
+    void start(Instant marketOpen);
+
+    void bar(OhlcvBar bar);
+
+    void orderBook(OrderBook book);
+
+    void trade(Trade trade, OrderBook book);
+
+    void end(Instant marketClose);
+}
@@ -0,0 +1,76 @@
+package com.ax9k.backtesting;
+
+import com.ax9k.core.marketmodel.Trade;
+import com.ax9k.core.marketmodel.TradingDay;
+import com.ax9k.core.marketmodel.bar.BarAggregator;
+import com.ax9k.core.marketmodel.bar.OhlcvBar;
+import com.ax9k.core.marketmodel.orderbook.OrderBook;
+import com.ax9k.utils.logging.ImmutableObjectMessage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Instant;
+import java.util.function.Consumer;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+final class TradingDayReplay implements ReplayTarget {
+    private static final Logger BARS_LOGGER = LogManager.getLogger("barLogger");
+
+    private final TradingDay tradingDay;
+    private final BarAggregator aggregator;
+    private final ReplaySpeed speed;
+    private final Consumer<Instant> pacer;
+
+    TradingDayReplay(TradingDay tradingDay) {
+        this(tradingDay, ReplaySpeed.max());
+    }
+
+    TradingDayReplay(TradingDay tradingDay, ReplaySpeed speed) {
+        this.tradingDay = notNull(tradingDay);
+        this.speed = notNull(speed);
+        pacer = speed::await;
+        aggregator = new BarAggregator(BarAggregator.FIVE_SECONDS,
+                                       (period, completeBar) -> tradingDay.bar(completeBar),
+                                       BarAggregator.ONE_MINUTE);
+    }
+
+    @Override
+    public void start(Instant marketOpen) {
+        tradingDay.getHeartBeat().startVirtual(marketOpen);
+    }
+
+    @Override
+    public void bar(OhlcvBar bar) {
+        speed.await(bar.getTimestamp());
+        BARS_LOGGER.info(new ImmutableObjectMessage(bar));
+        aggregator.aggregate(bar);
+    }
+
+    @Override
+    public void orderBook(OrderBook book) {
+        advanceTo(book.getTimestamp());
+        tradingDay.orderBook(book);
+    }
+
+    @Override
+    public void trade(Trade trade, OrderBook book) {
+        advanceTo(book.getTimestamp());
+        tradingDay.trade(trade, book);
+    }
+
+    @Override
+    public void end(Instant marketClose) {
+        advanceTo(marketClose);
+        speed.logSummary();
+    }
+
+    private void advanceTo(Instant timestamp) {
+        if (!speed.isPaced()) {
+            tradingDay.getHeartBeat().advanceTo(timestamp);
+            return;
+        }
+        tradingDay.getHeartBeat().advanceTo(timestamp, pacer);
+        speed.await(timestamp);
+    }
+}
@@ -9,7 +9,9 @@ import java.io.BufferedReader;
 import java.io.StringReader;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collector;
 import java.util.stream.IntStream;
@@ -73,7 +75,16 @@ class EventReplayTest {
         private MockEvent(Instant timestamp) {this.timestamp = timestamp;}
 
         private static MockEvent parse(String text) {
-            return new MockEvent(Instant.parse(text));
+            try {
+                return new MockEvent(Instant.parse(text));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        private static MockEvent parseJson(String text) {
+            String value = text.substring(text.indexOf(':') + 1).replaceAll("[\\s\"{},]", "");
+            return parse(value);
         }
 
         @Override
@@ -262,4 +273,44 @@ class EventReplayTest {
             assertEquals(0, newEvents.size());
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class WhenInputHasInvalidLines {
+        @Test
+        void shouldSkipLongRunsOfInvalidLines() {
+            String input = String.join("", Collections.nCopies(100_000, "not a timestamp\n")) + millisAfterEpoch(1);
+            testReplayer = EventReplay.ofSingleLineEvents(MockEvent::parse, new StringReader(input));
+
+            assertArrayEquals(epochMilliRange(1), toTimestampArray(testReplayer.replayAll()));
+        }
+    }
+
+    @Nested
+    class WhenReplayingJsonObjects {
+        @Test
+        void shouldReadSingleLineAndPrettyPrintedObjects() {
+            String input = "{\"t\":\"" + millisAfterEpoch(1) + "\"}\r\n" +
+                           "{\n" +
+                           "  \"t\" : \"" + millisAfterEpoch(2) + "\"\n" +
+                           "},\n" +
+                           "{\"t\":\"" + millisAfterEpoch(3) + "\"}";
+            testReplayer = EventReplay.ofJsonEvents(MockEvent::parseJson, new StringReader(input), Duration.ZERO);
+
+            assertArrayEquals(epochMilliRange(3), toTimestampArray(testReplayer.replayAll()));
+        }
+    }
+
+    @Nested
+    class WhenReplayingToConsumer {
+        @Test
+        void shouldSendEventsAcrossBufferBoundaries() {
+            Instant[] timestamps = epochMilliRange(20_000);
+            testReplayer = EventReplay.ofSingleLineEvents(MockEvent::parse, readingTimestamps(timestamps));
+
+            testReplayer.replayUntil(millisAfterEpoch(19_999), replayedEvents::add);
+
+            assertArrayEquals(epochMilliRange(19_999), toTimestampArray(replayedEvents));
+            assertTrue(testReplayer.hasMoreEvents());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.ax9k.backtesting;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadAheadInputStreamTest {
+    private static final byte[] CONTENT = new byte[100_000];
+
+    static {
+        new Random(42).nextBytes(CONTENT);
+    }
+
+    private static byte[] readFully(InputStream input) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[777];
+        int read;
+        while ((read = input.read(buffer)) >= 0) {
+            result.write(buffer, 0, read);
+        }
+        return result.toByteArray();
+    }
+
+    @Test
+    void shouldReadSourceInOrderAcrossChunks() throws IOException {
+        try (InputStream testStream = new ReadAheadInputStream(new ByteArrayInputStream(CONTENT), 1_000, 2)) {
+            assertArrayEquals(CONTENT, readFully(testStream));
+            assertEquals(-1, testStream.read());
+        }
+    }
+
+    @Test
+    void shouldReportSourceFailureToReader() throws IOException {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("broken");
+            }
+        };
+
+        try (InputStream testStream = new ReadAheadInputStream(failing, 1_000, 2)) {
+            assertThrows(IOException.class, testStream::read);
+        }
+    }
+
+    @Test
+    void shouldRejectReadsAfterClose() throws IOException {
+        InputStream testStream = new ReadAheadInputStream(new ByteArrayInputStream(CONTENT), 1_000, 2);
+        testStream.close();
+
+        assertThrows(IOException.class, testStream::read);
+    }
+
+    @Test
+    void shouldStopReadingAheadWhenClosedBeforeTheEnd() throws IOException {
+        AtomicBoolean sourceClosed = new AtomicBoolean();
+        InputStream source = new ByteArrayInputStream(CONTENT) {
+            @Override
+            public void close() {
+                sourceClosed.set(true);
+            }
+        };
+        InputStream testStream = new ReadAheadInputStream(source, 1_000, 2);
+        testStream.read();
+
+        testStream.close();
+
+        assertTrue(sourceClosed.get());
+    }
+
+    @Nested
+    class WhenOpeningFiles {
+        @Test
+        void shouldInflateGzippedFiles() throws IOException {
+            Path file = Files.createTempFile("content", ".gz");
+            try (GZIPOutputStream output = new GZIPOutputStream(Files.newOutputStream(file))) {
+                output.write(CONTENT);
+            }
+
+            try (InputStream testStream = ReadAheadInputStream.open(file)) {
+                assertArrayEquals(CONTENT, readFully(testStream));
+            }
+        }
+
+        @Test
+        void shouldReadPlainFilesDirectly() throws IOException {
+            Path file = Files.createTempFile("content", ".log");
+            Files.write(file, CONTENT);
+
+            try (InputStream testStream = ReadAheadInputStream.open(file)) {
+                assertArrayEquals(CONTENT, readFully(testStream));
+            }
+        }
+    }
+}
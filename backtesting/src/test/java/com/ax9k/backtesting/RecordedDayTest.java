@@ -0,0 +1,122 @@
+package com.ax9k.backtesting;
+
+import com.ax9k.core.event.EventType;
+import com.ax9k.core.marketmodel.BidAsk;
+import com.ax9k.core.marketmodel.Trade;
+import com.ax9k.core.marketmodel.bar.OhlcvBar;
+import com.ax9k.core.marketmodel.orderbook.OrderBook;
+import com.ax9k.core.marketmodel.orderbook.OrderBookLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecordedDayTest {
+    private static final Instant OPEN = Instant.ofEpochSecond(1_000);
+    private static final Instant CLOSE = Instant.ofEpochSecond(9_000);
+    private static final OhlcvBar BAR = OhlcvBar.of(Instant.ofEpochSecond(1_005), 1, 2, 0, 1, 10);
+    private static final OrderBook FIRST_BOOK = book(1_010);
+    private static final OrderBook SECOND_BOOK = book(1_020);
+    private static final Trade TRADE = new Trade(Instant.ofEpochSecond(1_020), 1, 1, 1, BidAsk.BID);
+
+    private RecordedDay.Recorder recorder;
+
+    private static OrderBook book(long epochSecond) {
+        return new OrderBook(Instant.ofEpochSecond(epochSecond), EventType.UNKNOWN,
+                             new OrderBookLevel[0], new OrderBookLevel[0]);
+    }
+
+    @BeforeEach
+    void initialiseRecorder() {
+        recorder = new RecordedDay.Recorder(LocalDate.EPOCH, "test");
+    }
+
+    @Test
+    void shouldRejectIncompleteRecording() {
+        recorder.start(OPEN);
+
+        assertThrows(IllegalStateException.class, recorder::build);
+    }
+
+    @Nested
+    class WhenReplayed {
+        private RecordedDay testDay;
+
+        @BeforeEach
+        void recordDay() {
+            recorder.start(OPEN);
+            recorder.bar(BAR);
+            recorder.orderBook(FIRST_BOOK);
+            recorder.trade(TRADE, SECOND_BOOK);
+            recorder.end(CLOSE);
+            testDay = recorder.build();
+        }
+
+        @Test
+        void shouldReplayEventsInRecordedOrder() {
+            List<Object> replayed = replay(testDay);
+
+            assertEquals(List.of(OPEN, BAR, FIRST_BOOK, List.of(TRADE, SECOND_BOOK), CLOSE), replayed);
+        }
+
+        @Test
+        void shouldNotEndWhenReplayedWithoutClosing() {
+            List<Object> replayed = replay(testDay, false);
+
+            assertEquals(List.of(OPEN, BAR, FIRST_BOOK, List.of(TRADE, SECOND_BOOK)), replayed);
+        }
+
+        @Test
+        void shouldReplayIdenticallyEveryTime() {
+            assertEquals(replay(testDay), replay(testDay));
+        }
+
+        @Test
+        void shouldCountTradeAndItsBookSeparately() {
+            assertEquals(4, testDay.getEventCount());
+            assertEquals("test", testDay.getSource());
+        }
+
+        private List<Object> replay(RecordedDay day) {
+            return replay(day, true);
+        }
+
+        private List<Object> replay(RecordedDay day, boolean close) {
+            List<Object> replayed = new ArrayList<>();
+            day.replay(new ReplayTarget() {
+                @Override
+                public void start(Instant marketOpen) {
+                    replayed.add(marketOpen);
+                }
+
+                @Override
+                public void bar(OhlcvBar bar) {
+                    replayed.add(bar);
+                }
+
+                @Override
+                public void orderBook(OrderBook book) {
+                    replayed.add(book);
+                }
+
+                @Override
+                public void trade(Trade trade, OrderBook book) {
+                    replayed.add(List.of(trade, book));
+                }
+
+                @Override
+                public void end(Instant marketClose) {
+                    replayed.add(marketClose);
+                }
+            }, close);
+            return replayed;
+        }
+    }
+}
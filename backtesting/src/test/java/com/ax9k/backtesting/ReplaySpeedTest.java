@@ -0,0 +1,75 @@
+package com.ax9k.backtesting;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplaySpeedTest {
+    private static final Instant START = Instant.ofEpochSecond(1_000);
+
+    @Nested
+    class WhenParsed {
+        @Test
+        void shouldDefaultToMaxSpeed() {
+            assertFalse(ReplaySpeed.fromOptionValue((Object) null).isPaced());
+            assertFalse(ReplaySpeed.fromOptionValue("MAX").isPaced());
+        }
+
+        @Test
+        void shouldAcceptRealTimeAndMultiples() {
+            assertEquals("1.0x", ReplaySpeed.fromOptionValue("realtime").toString());
+            assertEquals("10.0x", ReplaySpeed.fromOptionValue("10x").toString());
+            assertEquals("0.5x", ReplaySpeed.fromOptionValue(" 0.5 ").toString());
+        }
+
+        @Test
+        void shouldRejectInvalidSpeeds() {
+            assertThrows(IllegalArgumentException.class, () -> ReplaySpeed.fromOptionValue("fast"));
+            assertThrows(IllegalArgumentException.class, () -> ReplaySpeed.fromOptionValue("0"));
+        }
+    }
+
+    @Nested
+    class WhenPaced {
+        @Test
+        void shouldHoldEventsBackUntilTheirScaledWallTime() {
+            ReplaySpeed speed = ReplaySpeed.times(100);
+            speed.await(START);
+
+            long start = System.nanoTime();
+            speed.await(START.plusSeconds(5));
+            long elapsed = System.nanoTime() - start;
+
+            assertTrue(elapsed >= Duration.ofMillis(45).toNanos(), "elapsed: " + elapsed);
+        }
+
+        @Test
+        void shouldNotWaitForEventsAtMaxSpeed() {
+            ReplaySpeed speed = ReplaySpeed.max();
+            speed.await(START);
+
+            long start = System.nanoTime();
+            speed.await(START.plus(Duration.ofDays(1)));
+
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+        }
+
+        @Test
+        void shouldRecordLagWhenReplayFallsBehind() throws InterruptedException {
+            ReplaySpeed speed = ReplaySpeed.times(1);
+            speed.await(START);
+
+            Thread.sleep(20);
+            speed.await(START.plusMillis(1));
+
+            assertTrue(speed.getMaxLag().compareTo(Duration.ofMillis(15)) >= 0, "lag: " + speed.getMaxLag());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.ax9k.backtesting.AutoFillBroker;
 import com.ax9k.broker.Broker;
 import com.ax9k.broker.BrokerCallbackReceiver;
 import com.ax9k.broker.BrokerFactory;
+import com.ax9k.cex.client.BackPressurePolicy;
 import com.ax9k.cex.client.CexClient;
 import com.ax9k.cex.client.CexContract;
 import com.ax9k.cex.client.ClientRegistry;
@@ -27,7 +28,12 @@ public class CexBrokerFactory implements BrokerFactory {
             byte[] secretKey = configuration.get("secretKey", byte[].class);
             SignatureGenerator signatureGenerator = new SignatureGenerator(apiKey, secretKey);
 
-            client = new CexClient(signatureGenerator);
+            int pipelineCapacity = configuration.getOptional("pipelineCapacity", CexClient.DEFAULT_PIPELINE_CAPACITY);
+            BackPressurePolicy backPressure = configuration.getOptional("pipelineBackPressure",
+                                                                        BackPressurePolicy::fromString)
+                                                           .orElse(BackPressurePolicy.BLOCK);
+
+            client = new CexClient(signatureGenerator, pipelineCapacity, backPressure);
             ClientRegistry.register(pair, client);
         }
 
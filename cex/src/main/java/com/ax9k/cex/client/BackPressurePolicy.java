@@ -0,0 +1,23 @@
+package com.ax9k.cex.client;
+
+/**
+ * What the socket thread does when the message pipeline is full.
+ */
+public enum BackPressurePolicy {
+    /**
+     * Wait until the pipeline worker frees a slot. Stalls the socket read thread, pushing back onto TCP.
+     */
+    BLOCK,
+    /**
+     * Discard the incoming message and count it as dropped.
+     */
+    DROP,
+    /**
+     * Throw an {@link IllegalStateException} on the socket thread.
+     */
+    FAIL;
+
+    public static BackPressurePolicy fromString(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
+}
@@ -10,6 +10,7 @@ import org.java_websocket.handshake.ServerHandshake;
 
 import java.net.URI;
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
@@ -19,6 +20,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 public class CexClient {
+    public static final int DEFAULT_PIPELINE_CAPACITY = 8192;
+
     private static final Logger LOGGER = LogManager.getLogger();
     private static final Logger ERROR_LOG = LogManager.getLogger("error");
     private static final URI CEX_ENDPOINT = URI.create("wss://ws.cex.io/ws/");
@@ -29,36 +32,40 @@ public class CexClient {
     private static final String CONNECTED_MESSAGE = "{\"e\":\"connected\"}";
     private static final String PING_MESSAGE_TYPE = "{\"e\":\"ping\"";
     private static final int KEEP_ALIVE_INTERVAL = 14;
+    private static final int STATISTICS_LOG_INTERVAL = 60;
+    private static final ThreadFactory KEEP_ALIVE_THREAD_FACTORY = new BasicThreadFactory.Builder()
+            .daemon(true)
+            .namingPattern("cex-keep-alive-thread-%s")
+            .uncaughtExceptionHandler(Thread.getDefaultUncaughtExceptionHandler())
+            .build();
 
-    private final ScheduledExecutorService keepAliveExecutor;
     private final Map<Class<?>, Consumer<CexClient>> reconnectionCallbacks = new ConcurrentHashMap<>();
     private final ConcurrentHolder<Boolean> signal = new ConcurrentHolder<>();
     private final ClientResponseDelegator responseHandler = new ClientResponseDelegator(signal);
-    private final HandlerQueue handlerQueue = new HandlerQueue(responseHandler);
-    private final ParserQueue parserQueue = new ParserQueue(handlerQueue);
+    private final MessagePipeline pipeline;
     private final SignatureGenerator signatureGenerator;
 
     private volatile boolean running;
 
     private CexWebSocket socket;
+    private ScheduledExecutorService keepAliveExecutor;
 
     public CexClient(SignatureGenerator signatureGenerator) {
-        this.signatureGenerator = signatureGenerator;
+        this(signatureGenerator, DEFAULT_PIPELINE_CAPACITY, BackPressurePolicy.BLOCK);
+    }
 
-        ThreadFactory keepAliveThreadFactory = new BasicThreadFactory.Builder()
-                .daemon(true)
-                .namingPattern("cex-keep-alive-thread-%s")
-                .uncaughtExceptionHandler(Thread.getDefaultUncaughtExceptionHandler())
-                .build();
-        keepAliveExecutor = Executors.newSingleThreadScheduledExecutor(keepAliveThreadFactory);
+    public CexClient(SignatureGenerator signatureGenerator,
+                     int pipelineCapacity,
+                     BackPressurePolicy backPressurePolicy) {
+        this.signatureGenerator = signatureGenerator;
+        pipeline = new MessagePipeline(responseHandler, pipelineCapacity, backPressurePolicy);
     }
 
     public void disconnect() {
         running = false;
-        keepAliveExecutor.shutdownNow();
+        stopKeepAlive();
         try {
-            handlerQueue.stop();
-            parserQueue.stop();
+            pipeline.stop();
             socket.closeBlocking();
         } catch (InterruptedException e) {
             ERROR_LOG.warn("CexClient connection termination interrupted.");
@@ -80,8 +87,7 @@ public class CexClient {
             return;
         }
 
-        handlerQueue.start();
-        parserQueue.start();
+        pipeline.start();
         socket = new CexWebSocket();
         running = true;
         boolean connected;
@@ -102,10 +108,40 @@ public class CexClient {
         }
 
         responseHandler.registerHandler(GET_BALANCE, NoOpHandler.INSTANCE);
+        startKeepAlive();
+    }
+
+    /**
+     * Each connection gets a fresh executor, as {@link #disconnect()} shuts the previous one down for good and a
+     * reconnection must not leave the old connection's tasks running.
+     */
+    private synchronized void startKeepAlive() {
+        stopKeepAlive();
+        keepAliveExecutor = Executors.newSingleThreadScheduledExecutor(KEEP_ALIVE_THREAD_FACTORY);
         keepAliveExecutor.scheduleAtFixedRate(() -> socket.send(GET_BALANCE_MESSAGE),
                                               KEEP_ALIVE_INTERVAL,
                                               KEEP_ALIVE_INTERVAL,
                                               TimeUnit.SECONDS);
+        keepAliveExecutor.scheduleAtFixedRate(this::logPipelineStatistics,
+                                              STATISTICS_LOG_INTERVAL,
+                                              STATISTICS_LOG_INTERVAL,
+                                              TimeUnit.SECONDS);
+    }
+
+    private synchronized void stopKeepAlive() {
+        if (keepAliveExecutor != null) {
+            keepAliveExecutor.shutdownNow();
+            keepAliveExecutor = null;
+        }
+    }
+
+    private void logPipelineStatistics() {
+        List<StageStatistics> statistics = pipeline.getStatistics();
+        LOGGER.info("Message pipeline (capacity {}): {}", pipeline.getCapacity(), statistics);
+        long dropped = statistics.stream().mapToLong(StageStatistics::getDropped).sum();
+        if (dropped > 0) {
+            ERROR_LOG.warn("CEX message pipeline has dropped {} messages so far.", dropped);
+        }
     }
 
     public void onDisconnectionRecovery(Class<?> callerType, Consumer<CexClient> callback) {
@@ -124,6 +160,10 @@ public class CexClient {
         return running;
     }
 
+    public List<StageStatistics> getPipelineStatistics() {
+        return pipeline.getStatistics();
+    }
+
     private class CexWebSocket extends WebSocketClient {
         CexWebSocket() {
             super(CexClient.CEX_ENDPOINT);
@@ -160,7 +200,7 @@ public class CexClient {
             if (message.startsWith(PING_MESSAGE_TYPE)) {
                 send(PONG_MESSAGE);
             } else if (!message.equals(CONNECTED_MESSAGE)) {
-                parserQueue.processAsync(message);
+                pipeline.submit(message);
             }
         }
 
@@ -0,0 +1,167 @@
+package com.ax9k.cex.client;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Takes raw messages from the socket thread and parses and dispatches them on a single worker thread.
+ * <p>
+ * The socket thread is the only producer and the worker the only consumer of a bounded ring, so a message
+ * crosses exactly one thread boundary and no locks between arriving and reaching its {@link ResponseHandler}.
+ * What happens when the ring is full is decided by the {@link BackPressurePolicy}.
+ */
+final class MessagePipeline {
+    private static final Logger ERROR_LOG = LogManager.getLogger("error");
+
+    private static final int IDLE_SPINS = 200;
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+    private static final long BLOCKED_PARK_NANOS = 50_000;
+
+    private final RingQueue<Received> ring;
+    private final BackPressurePolicy policy;
+    private final ResponseHandler handler;
+    private final Thread worker;
+
+    private final StageStatistics queueStage;
+    private final StageStatistics parseStage = new StageStatistics("parse");
+    private final StageStatistics handleStage = new StageStatistics("handle");
+
+    private volatile boolean running;
+    private volatile boolean workerParked;
+
+    MessagePipeline(ResponseHandler handler, int capacity, BackPressurePolicy policy) {
+        this.handler = notNull(handler);
+        this.policy = notNull(policy);
+        ring = new RingQueue<>(capacity);
+        queueStage = new StageStatistics("queue", ring::size);
+
+        worker = new Thread(this::processMessages, "cex-pipeline-worker-" + hashCode());
+        worker.setUncaughtExceptionHandler(Thread.currentThread().getUncaughtExceptionHandler());
+        worker.setDaemon(true);
+    }
+
+    /**
+     * Must only ever be called from one thread at a time.
+     */
+    void submit(String message) {
+        Received received = new Received(message, System.nanoTime());
+        if (ring.offer(received)) {
+            wakeWorker();
+            return;
+        }
+
+        switch (policy) {
+            case BLOCK:
+                do {
+                    wakeWorker();
+                    LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+                    if (!running) {
+                        return;
+                    }
+                } while (!ring.offer(received));
+                wakeWorker();
+                break;
+            case DROP:
+                queueStage.recordDrop();
+                break;
+            case FAIL:
+                queueStage.recordDrop();
+                throw new IllegalStateException("CEX message pipeline full. Capacity: " + ring.capacity());
+            default:
+                throw new AssertionError("Unhandled back pressure policy: " + policy);
+        }
+    }
+
+    private void wakeWorker() {
+        if (workerParked) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void processMessages() {
+        int idleSpins = 0;
+        while (running) {
+            Received next = ring.poll();
+            if (next == null) {
+                idleSpins = idle(idleSpins);
+                continue;
+            }
+            idleSpins = 0;
+
+            try {
+                process(next);
+            } catch (Exception e) {
+                Thread.getDefaultUncaughtExceptionHandler()
+                      .uncaughtException(Thread.currentThread(), e);
+            }
+        }
+    }
+
+    private int idle(int spins) {
+        if (spins < IDLE_SPINS) {
+            Thread.onSpinWait();
+            return spins + 1;
+        }
+
+        workerParked = true;
+        if (ring.isEmpty() && running) {
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        workerParked = false;
+        return spins;
+    }
+
+    private void process(Received received) {
+        long dequeued = System.nanoTime();
+        queueStage.record(dequeued - received.enqueuedNanos);
+
+        CexResponse response = CexResponse.of(JsonMapper.read(received.message));
+        long parsed = System.nanoTime();
+        parseStage.record(parsed - dequeued);
+
+        handler.ok(response);
+        handleStage.record(System.nanoTime() - parsed);
+    }
+
+    void start() {
+        if (!running) {
+            running = true;
+            worker.start();
+        }
+    }
+
+    void stop() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(1500);
+        } catch (InterruptedException e) {
+            ERROR_LOG.warn("CEX message pipeline shut down interrupted.");
+            Thread.currentThread().interrupt();
+        }
+        ring.clear();
+    }
+
+    List<StageStatistics> getStatistics() {
+        return List.of(queueStage, parseStage, handleStage);
+    }
+
+    int getCapacity() {
+        return ring.capacity();
+    }
+
+    private static final class Received {
+        private final String message;
+        private final long enqueuedNanos;
+
+        private Received(String message, long enqueuedNanos) {
+            this.message = message;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
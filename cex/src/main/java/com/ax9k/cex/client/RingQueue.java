@@ -0,0 +1,97 @@
+package com.ax9k.cex.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+
+/**
+ * Bounded, lock-free queue for exactly one producer thread and exactly one consumer thread.
+ * Capacity is rounded up to the next power of two.
+ */
+final class RingQueue<T> {
+    private final Object[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /* Producer and consumer local copies of the opposing index, to avoid a volatile read per operation */
+    private long cachedHead;
+    private long cachedTail;
+
+    RingQueue(int requestedCapacity) {
+        isTrue(requestedCapacity > 0, "capacity must be positive. Received: %s", requestedCapacity);
+        isTrue(requestedCapacity <= 1 << 30, "capacity too large. Received: %s", requestedCapacity);
+
+        int capacity = Integer.highestOneBit(requestedCapacity);
+        if (capacity < requestedCapacity) {
+            capacity <<= 1;
+        }
+        slots = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Producer side only.
+     *
+     * @return {@code false} if the queue is full and the element was not added
+     */
+    boolean offer(T element) {
+        long currentTail = tail.get();
+        if (currentTail - cachedHead >= slots.length) {
+            cachedHead = head.get();
+            if (currentTail - cachedHead >= slots.length) {
+                return false;
+            }
+        }
+        slots[(int) currentTail & mask] = element;
+        tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Consumer side only.
+     *
+     * @return the oldest element, or {@code null} if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    T poll() {
+        long currentHead = head.get();
+        if (currentHead >= cachedTail) {
+            cachedTail = tail.get();
+            if (currentHead >= cachedTail) {
+                return null;
+            }
+        }
+        int index = (int) currentHead & mask;
+        T element = (T) slots[index];
+        slots[index] = null;
+        head.lazySet(currentHead + 1);
+        return element;
+    }
+
+    /**
+     * Consumer side only, or once both sides have stopped.
+     */
+    void clear() {
+        while (poll() != null) {
+            /* drain */
+        }
+    }
+
+    /**
+     * Safe to call from any thread. The result is a snapshot and may be stale by the time it is read.
+     */
+    int size() {
+        long currentHead = head.get();
+        long currentTail = tail.get();
+        return (int) Math.max(0, currentTail - currentHead);
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,69 @@
+package com.ax9k.cex.client;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+@JsonPropertyOrder({ "name", "depth", "processed", "dropped", "averageLatencyMicros", "maxLatencyMicros" })
+public final class StageStatistics {
+    private static final IntSupplier NO_QUEUE = () -> 0;
+
+    private final String name;
+    private final IntSupplier depth;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    StageStatistics(String name) {
+        this(name, NO_QUEUE);
+    }
+
+    StageStatistics(String name, IntSupplier depth) {
+        this.name = name;
+        this.depth = depth;
+    }
+
+    void record(long latencyNanos) {
+        processed.incrementAndGet();
+        totalLatencyNanos.addAndGet(latencyNanos);
+        maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    void recordDrop() {
+        dropped.incrementAndGet();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getDepth() {
+        return depth.getAsInt();
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public double getAverageLatencyMicros() {
+        long count = processed.get();
+        return count == 0 ? 0 : totalLatencyNanos.get() / (count * 1000d);
+    }
+
+    public double getMaxLatencyMicros() {
+        return maxLatencyNanos.get() / 1000d;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{depth=%d, processed=%d, dropped=%d, avgLatency=%.1fus, maxLatency=%.1fus}",
+                             name, getDepth(), getProcessed(), getDropped(),
+                             getAverageLatencyMicros(), getMaxLatencyMicros());
+    }
+}
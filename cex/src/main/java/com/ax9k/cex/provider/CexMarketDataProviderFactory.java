@@ -1,5 +1,6 @@
 package com.ax9k.cex.provider;
 
+import com.ax9k.cex.client.BackPressurePolicy;
 import com.ax9k.cex.client.CexClient;
 import com.ax9k.cex.client.CexContract;
 import com.ax9k.cex.client.ClientRegistry;
@@ -24,7 +25,12 @@ public class CexMarketDataProviderFactory implements MarketDataProviderFactory {
             byte[] secretKey = configuration.get("secretKey", byte[].class);
             SignatureGenerator signatureGenerator = new SignatureGenerator(apiKey, secretKey);
 
-            client = new CexClient(signatureGenerator);
+            int pipelineCapacity = configuration.getOptional("pipelineCapacity", CexClient.DEFAULT_PIPELINE_CAPACITY);
+            BackPressurePolicy backPressure = configuration.getOptional("pipelineBackPressure",
+                                                                        BackPressurePolicy::fromString)
+                                                           .orElse(BackPressurePolicy.BLOCK);
+
+            client = new CexClient(signatureGenerator, pipelineCapacity, backPressure);
             ClientRegistry.register(pair, client);
         }
 
@@ -0,0 +1,136 @@
+package com.ax9k.cex.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingQueueTest {
+    private RingQueue<Integer> testQueue;
+
+    @BeforeEach
+    void initialiseTestQueue() {
+        testQueue = new RingQueue<>(4);
+    }
+
+    @Test
+    void shouldRoundCapacityUpToPowerOfTwo() {
+        assertEquals(8, new RingQueue<>(5).capacity());
+        assertEquals(4, new RingQueue<>(4).capacity());
+        assertEquals(1, new RingQueue<>(1).capacity());
+    }
+
+    @Test
+    void shouldRejectNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new RingQueue<>(0));
+    }
+
+    @Nested
+    class WhenEmpty {
+        @Test
+        void shouldReturnNullOnPoll() {
+            assertNull(testQueue.poll());
+        }
+
+        @Test
+        void shouldHaveZeroSize() {
+            assertEquals(0, testQueue.size());
+            assertTrue(testQueue.isEmpty());
+        }
+    }
+
+    @Nested
+    class WhenPartiallyFilled {
+        @BeforeEach
+        void addElements() {
+            testQueue.offer(1);
+            testQueue.offer(2);
+        }
+
+        @Test
+        void shouldReturnElementsInInsertionOrder() {
+            assertEquals(1, (int) testQueue.poll());
+            assertEquals(2, (int) testQueue.poll());
+            assertNull(testQueue.poll());
+        }
+
+        @Test
+        void shouldReportSize() {
+            assertEquals(2, testQueue.size());
+        }
+
+        @Test
+        void shouldBeEmptyAfterClear() {
+            testQueue.clear();
+
+            assertTrue(testQueue.isEmpty());
+        }
+    }
+
+    @Nested
+    class WhenFull {
+        @BeforeEach
+        void fillQueue() {
+            for (int i = 0; i < testQueue.capacity(); i++) {
+                assertTrue(testQueue.offer(i));
+            }
+        }
+
+        @Test
+        void shouldRejectOffer() {
+            assertFalse(testQueue.offer(99));
+            assertEquals(testQueue.capacity(), testQueue.size());
+        }
+
+        @Test
+        void shouldAcceptOfferAfterPoll() {
+            testQueue.poll();
+
+            assertTrue(testQueue.offer(99));
+        }
+
+        @Test
+        void shouldKeepOrderAcrossWrapAround() {
+            testQueue.poll();
+            testQueue.poll();
+            testQueue.offer(4);
+            testQueue.offer(5);
+
+            for (int expected = 2; expected <= 5; expected++) {
+                assertEquals(expected, (int) testQueue.poll());
+            }
+        }
+    }
+
+    @Nested
+    class WhenUsedAcrossTwoThreads {
+        @Test
+        void shouldDeliverEveryElementInOrder() throws InterruptedException {
+            int count = 10_000;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < count; i++) {
+                    while (!testQueue.offer(i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            producer.start();
+
+            for (int expected = 0; expected < count; ) {
+                Integer next = testQueue.poll();
+                if (next != null) {
+                    assertEquals(expected++, (int) next);
+                } else {
+                    Thread.yield();
+                }
+            }
+            producer.join();
+            assertTrue(testQueue.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ax9k.core.checkpoint;
+
+import java.io.Serializable;
+
+/**
+ * State that can be saved by a {@link Checkpointer} and restored after a restart.
+ */
+public interface Checkpointable {
+    /**
+     * The result is written out on another thread, so it must not share anything the component still modifies.
+     */
+    Serializable checkpoint();
+
+    /**
+     * Called once, before any events are received.
+     *
+     * @param state a value previously returned by {@link #checkpoint()}
+     */
+    void restore(Serializable state);
+}
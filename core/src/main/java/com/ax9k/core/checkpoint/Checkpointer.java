@@ -0,0 +1,195 @@
+package com.ax9k.core.checkpoint;
+
+import com.ax9k.core.marketmodel.HeartBeatEvent;
+import com.ax9k.core.time.Time;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Periodically saves the state of the registered components to a file, so that a restart later the same trading
+ * day can resume without waiting for histories and lookback windows to fill again.
+ * <p>
+ * State is captured on heartbeats and written out on a background thread. Only the latest checkpoint is kept.
+ */
+public final class Checkpointer implements Observer {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final Logger ERROR_LOG = LogManager.getLogger("error");
+
+    private final Map<String, Checkpointable> components = new LinkedHashMap<>();
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private final ExecutorService writer;
+    private final Path file;
+    private final long intervalNanos;
+
+    private long lastCapture;
+    private boolean restored;
+
+    public Checkpointer(Path file, Duration interval) {
+        this.file = notNull(file, "file").toAbsolutePath();
+        isTrue(!interval.isNegative() && !interval.isZero(), "interval must be positive: %s", interval);
+        intervalNanos = interval.toNanos();
+        lastCapture = System.nanoTime();
+        writer = Executors.newSingleThreadExecutor(new BasicThreadFactory.Builder()
+                                                           .namingPattern("Checkpointer")
+                                                           .daemon(true)
+                                                           .build());
+    }
+
+    public void register(String name, Checkpointable component) {
+        notNull(name, "name");
+        notNull(component, "component");
+        isTrue(!components.containsKey(name), "component already registered: %s", name);
+        components.put(name, component);
+    }
+
+    /**
+     * Restores every registered component from the checkpoint file, if it was written on the given trading day.
+     *
+     * @return whether anything was restored
+     */
+    public boolean restore(LocalDate tradingDate) {
+        if (!Files.isRegularFile(file)) {
+            LOGGER.info("No checkpoint found at {}", file);
+            return false;
+        }
+
+        Snapshot snapshot;
+        try (var input = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(Files.newInputStream(
+                file))))) {
+            snapshot = (Snapshot) input.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            ERROR_LOG.error("Could not read checkpoint {}. Starting without it.", file, e);
+            return false;
+        }
+
+        if (!snapshot.date.equals(tradingDate)) {
+            LOGGER.info("Ignoring checkpoint from {}. Trading day: {}", snapshot.date, tradingDate);
+            return false;
+        }
+
+        for (Map.Entry<String, Checkpointable> component : components.entrySet()) {
+            Serializable state = snapshot.states.get(component.getKey());
+            if (state == null) {
+                LOGGER.warn("Checkpoint has no state for '{}'", component.getKey());
+                continue;
+            }
+            component.getValue().restore(state);
+        }
+        LOGGER.info("Restored checkpoint taken at {}", Time.localise(snapshot.time));
+        return restored = true;
+    }
+
+    public boolean isRestored() {
+        return restored;
+    }
+
+    @Override
+    public void update(Observable tradingDay, Object event) {
+        if (!(event instanceof HeartBeatEvent) || System.nanoTime() - lastCapture < intervalNanos) {
+            return;
+        }
+        if (writing.get()) {
+            return;
+        }
+
+        lastCapture = System.nanoTime();
+        Snapshot snapshot;
+        try {
+            snapshot = capture(((HeartBeatEvent) event).getTimestamp());
+        } catch (RuntimeException e) {
+            ERROR_LOG.error("Could not capture checkpoint. Retrying at the next interval.", e);
+            return;
+        }
+
+        writing.set(true);
+        writer.execute(() -> {
+            try {
+                write(snapshot);
+            } finally {
+                writing.set(false);
+            }
+        });
+    }
+
+    /**
+     * Captures and writes a checkpoint on the calling thread, for example before a planned restart.
+     */
+    public void save() {
+        write(capture(Time.now()));
+    }
+
+    private Snapshot capture(Instant time) {
+        Map<String, Serializable> states = new HashMap<>();
+        for (Map.Entry<String, Checkpointable> component : components.entrySet()) {
+            states.put(component.getKey(), component.getValue().checkpoint());
+        }
+        return new Snapshot(Time.localiseDate(time), time, states);
+    }
+
+    private synchronized void write(Snapshot snapshot) {
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        try {
+            Files.createDirectories(file.getParent());
+            try (var output = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(partial))))) {
+                output.writeObject(snapshot);
+            }
+            Files.move(partial, file, ATOMIC_MOVE, REPLACE_EXISTING);
+            LOGGER.debug("Checkpoint written to {}. Size: {} bytes", file, Files.size(file));
+        } catch (IOException | RuntimeException e) {
+            ERROR_LOG.error("Could not write checkpoint {}", file, e);
+        }
+    }
+
+    public void stop() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Snapshot implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final LocalDate date;
+        private final Instant time;
+        private final HashMap<String, Serializable> states;
+
+        private Snapshot(LocalDate date, Instant time, Map<String, Serializable> states) {
+            this.date = date;
+            this.time = time;
+            this.states = new HashMap<>(states);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.ax9k.core.history;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * An array backed list that can only be appended to. Growing replaces the array rather than changing the old one,
+ * so the entries below a given size never change and a {@link #snapshot()} can share the array instead of copying
+ * it.
+ */
+final class AppendOnlyList<T> extends AbstractList<T> implements RandomAccess {
+    private Object[] elements;
+    private int size;
+
+    AppendOnlyList(int initialCapacity) {
+        elements = new Object[Math.max(initialCapacity, 1)];
+    }
+
+    AppendOnlyList(Collection<? extends T> values) {
+        elements = values.toArray(new Object[Math.max(values.size(), 1)]);
+        size = values.size();
+    }
+
+    @Override
+    public boolean add(T value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size + (size >> 1) + 1);
+        }
+        elements[size++] = value;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) elements[Objects.checkIndex(index, size)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Takes constant time. The result does not change as entries are appended, and once taken under the lock that
+     * guards appending it can be read, or serialised, without the lock.
+     */
+    List<T> snapshot() {
+        return new Snapshot<>(elements, size);
+    }
+
+    private static final class Snapshot<T> extends AbstractList<T> implements RandomAccess, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Object[] elements;
+        private final int size;
+
+        private Snapshot(Object[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            return (T) elements[Objects.checkIndex(index, size)];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        private Object writeReplace() {
+            return new ArrayList<>(this);
+        }
+    }
+}
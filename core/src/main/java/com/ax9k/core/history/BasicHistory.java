@@ -26,13 +26,13 @@ public class BasicHistory<T extends Event> implements History<T> {
     private static final int MAX_HISTORY_SIZE = 600_000;
     private static final int MAX_CACHED_INDICES = 25;
     private final Map<String, Integer> indexCache;
-    private List<T> history;
+    private AppendOnlyList<T> history;
     private Optional<T> latest = empty();
     private Optional<T> previous = empty();
     private Instant lastCachedTimestamp;
 
     public BasicHistory() {
-        history = new ArrayList<>(MAX_HISTORY_SIZE);
+        history = new AppendOnlyList<>(MAX_HISTORY_SIZE);
         indexCache = new HashMap<>(MAX_CACHED_INDICES);
     }
 
@@ -85,8 +85,8 @@ public class BasicHistory<T extends Event> implements History<T> {
         return history.size() - 1;
     }
 
-    private List<T> removeBeforeIndex(int index) {
-        return new ArrayList<>(history.subList(index, history.size()));
+    private AppendOnlyList<T> removeBeforeIndex(int index) {
+        return new AppendOnlyList<>(history.subList(index, history.size()));
     }
 
     @Override
@@ -231,11 +231,52 @@ public class BasicHistory<T extends Event> implements History<T> {
         return new FilteredIteratorSource<>(history, index, filter, numberOfEntries);
     }
 
+    @Override
+    public List<T> snapshot() {
+        return history.snapshot();
+    }
+
     @Override
     public Stream<T> stream() {
         return history.stream();
     }
 
+    /* Entries are recorded in time order, so the start of the range can be found by binary search. */
+    @Override
+    public List<T> between(Instant fromInclusive, Instant toExclusive, int limit) {
+        requireNonNull(fromInclusive, "fromInclusive");
+        requireNonNull(toExclusive, "toExclusive");
+        requirePositive(limit);
+
+        List<T> entries = history;
+        int size = entries.size();
+        int index = firstIndexNotBefore(entries, size, fromInclusive);
+
+        List<T> result = new ArrayList<>(Math.min(limit, size - index));
+        for (; index < size && result.size() < limit; index++) {
+            T datum = entries.get(index);
+            if (!datum.getTimestamp().isBefore(toExclusive)) {
+                break;
+            }
+            result.add(datum);
+        }
+        return result;
+    }
+
+    private static <T extends Event> int firstIndexNotBefore(List<T> entries, int size, Instant timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entries.get(middle).getTimestamp().isBefore(timestamp)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
     public int getSize() {
         return history.size();
     }
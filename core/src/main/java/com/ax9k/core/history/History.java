@@ -3,7 +3,9 @@ package com.ax9k.core.history;
 import com.ax9k.core.event.Event;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -31,5 +33,17 @@ public interface History<T extends Event> extends Iterable<T> {
 
     Stream<T> stream();
 
+    /**
+     * @return the entries recorded so far, unaffected by later recording. Cheap enough to take while holding the lock
+     * that guards recording, and safe to read without it afterwards.
+     */
+    List<T> snapshot();
+
+    /**
+     * @return up to {@code limit} of the earliest entries with timestamps from {@code fromInclusive} up to
+     * {@code toExclusive}, in order
+     */
+    List<T> between(Instant fromInclusive, Instant toExclusive, int limit);
+
     int getSize();
 }
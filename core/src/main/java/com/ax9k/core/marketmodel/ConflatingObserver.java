@@ -0,0 +1,185 @@
+package com.ax9k.core.marketmodel;
+
+import com.ax9k.core.marketmodel.orderbook.OrderBook;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+import static org.apache.commons.lang3.Validate.validState;
+
+/**
+ * Delivers the events of a trading day to an observer, such as an algo, on a thread of its own, so that a slow
+ * observer does not hold up the market data feed.
+ * <p>
+ * When the observer falls behind, waiting order books are conflated: a book is dropped if a newer one arrives before
+ * it is delivered. Trades, bars, heartbeats and other events are all delivered, in order, so the observer sees every
+ * trade and then the latest book. If that still leaves too many events waiting, notifying blocks until the observer
+ * catches up. The trading day itself is always current, so an observer reading it during a delivery sees the latest
+ * state.
+ * <p>
+ * Until {@link #start() started}, events are delivered directly on the notifying thread. Replaying a warm-up before
+ * starting therefore leaves nothing queued once the replay returns.
+ */
+public final class ConflatingObserver implements Observer {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final Logger ERROR_LOG = LogManager.getLogger("error");
+    private static final int DEFAULT_CAPACITY = 100_000;
+
+    private final Observer target;
+    private final Thread deliverer;
+    private final Lock lock = new ReentrantLock();
+    private final Condition eventsWaiting = lock.newCondition();
+    private final Condition spaceAvailable = lock.newCondition();
+    private final Deque<Object> pending = new ArrayDeque<>();
+    private final int capacity;
+
+    private volatile boolean started;
+    private boolean stopped;
+    private Observable source;
+    private OrderBook latestBook;
+    private long conflatedBooks;
+    private long deliveredEvents;
+
+    public ConflatingObserver(String name, Observer target) {
+        this(name, target, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the number of events that may wait for delivery before notifying blocks
+     */
+    public ConflatingObserver(String name, Observer target, int capacity) {
+        isTrue(capacity > 0, "capacity must be positive: %s", capacity);
+        this.target = notNull(target);
+        this.capacity = capacity;
+        ThreadFactory threadFactory = new BasicThreadFactory.Builder()
+                .namingPattern(notNull(name) + "-delivery-%s")
+                .daemon(true)
+                .build();
+        deliverer = threadFactory.newThread(this::deliver);
+    }
+
+    /**
+     * Must not be called while another thread is notifying this observer.
+     */
+    public void start() {
+        started = true;
+        deliverer.start();
+    }
+
+    /**
+     * Stops delivering. Events still waiting, and any notified afterwards, are dropped.
+     */
+    public void stop() {
+        deliverer.interrupt();
+        try {
+            deliverer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            stopped = true;
+            pending.clear();
+            spaceAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        LOGGER.info("Stopped delivering to {}. Delivered {} events, conflated {} books",
+                    target.getClass().getSimpleName(), getDeliveredEvents(), getConflatedBooks());
+    }
+
+    @Override
+    public void update(Observable observable, Object event) {
+        if (!started) {
+            target.update(observable, event);
+            return;
+        }
+
+        lock.lock();
+        try {
+            validState(source == null || source == observable, "can only deliver the events of one observable");
+            source = observable;
+            if (event instanceof OrderBook) {
+                if (latestBook != null && pending.removeLastOccurrence(latestBook)) {
+                    conflatedBooks++;
+                }
+                latestBook = (OrderBook) event;
+            }
+            while (pending.size() >= capacity && !stopped) {
+                spaceAvailable.await();
+            }
+            if (stopped) {
+                return;
+            }
+            pending.addLast(event);
+            eventsWaiting.signal();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while waiting to queue {} for {}", event, target.getClass().getSimpleName());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void deliver() {
+        try {
+            while (true) {
+                Object event = nextEvent();
+                try {
+                    target.update(source, event);
+                } catch (RuntimeException e) {
+                    ERROR_LOG.error("Error delivering {} to {}", event, target.getClass().getSimpleName(), e);
+                }
+            }
+        } catch (InterruptedException stopping) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Object nextEvent() throws InterruptedException {
+        lock.lock();
+        try {
+            while (pending.isEmpty()) {
+                eventsWaiting.await();
+            }
+            Object event = pending.removeFirst();
+            if (event == latestBook) {
+                latestBook = null;
+            }
+            deliveredEvents++;
+            spaceAvailable.signal();
+            return event;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getConflatedBooks() {
+        lock.lock();
+        try {
+            return conflatedBooks;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDeliveredEvents() {
+        lock.lock();
+        try {
+            return deliveredEvents;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
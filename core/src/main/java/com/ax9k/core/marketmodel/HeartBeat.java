@@ -16,6 +16,15 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 
+import static org.apache.commons.lang3.Validate.validState;
+
+/**
+ * Emits a {@link HeartBeatEvent} every period.
+ * <p>
+ * Live, beats come from a scheduled thread started with {@link #start(Instant)}. Replays instead use virtual time,
+ * started with {@link #startVirtual(Instant)}: the replay loop calls {@link #advanceTo(Instant)} with each event's
+ * timestamp and every beat whose period ends before it is emitted inline, on the replay thread.
+ */
 public final class HeartBeat {
     private static final Logger ERROR_LOG = LogManager.getLogger("error");
     private static final Logger LOGGER = LogManager.getRootLogger();
@@ -28,6 +37,7 @@ public final class HeartBeat {
 
     private ScheduledExecutorService executor;
     private volatile boolean running;
+    private volatile boolean virtual;
 
     private long lastKnownTotalMemoryMb;
 
@@ -47,6 +57,7 @@ public final class HeartBeat {
         lock.lock();
         try {
             lastHeartBeat.set(periodStart);
+            virtual = false;
             scheduleBeat();
             running = true;
         } finally {
@@ -54,6 +65,20 @@ public final class HeartBeat {
         }
     }
 
+    /**
+     * Switches to virtual time, without a beat thread. Beats are then only emitted by {@link #advanceTo(Instant)}.
+     */
+    public void startVirtual(Instant periodStart) {
+        lock.lock();
+        try {
+            validState(!running, "heart beat thread is already running");
+            lastHeartBeat.set(periodStart);
+            virtual = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     private void scheduleBeat() {
         long periodNanos = period.get().toNanos();
 
@@ -62,13 +87,13 @@ public final class HeartBeat {
                 .build();
 
         executor = Executors.newSingleThreadScheduledExecutor(factory);
-        executor.scheduleAtFixedRate(this::beat,
+        executor.scheduleAtFixedRate(this::scheduledBeat,
                                      periodNanos,
                                      periodNanos,
                                      TimeUnit.NANOSECONDS);
     }
 
-    private void beat() {
+    private void scheduledBeat() {
         checkMemoryUsage();
         Instant timestamp = lastHeartBeat.updateAndGet(this::advanceTimestamp);
         target.accept(timestamp);
@@ -89,19 +114,41 @@ public final class HeartBeat {
     public void stop() {
         lock.lock();
         try {
-            executor.shutdownNow();
+            if (executor != null) {
+                executor.shutdownNow();
+            }
             running = false;
         } finally {
             lock.unlock();
         }
     }
 
-    public void massageHeart(Instant eventTimestamp) {
-        while (advanceTimestamp(lastHeartBeat.get()).isBefore(eventTimestamp)) {
-            beat();
+    /**
+     * Emits, in order, every virtual beat whose period ends before the given event time.
+     */
+    public void advanceTo(Instant eventTimestamp) {
+        advanceTo(eventTimestamp, time -> {});
+    }
+
+    /**
+     * Like {@link #advanceTo(Instant)}, handing each beat's time to {@code beforeBeat} first so that a paced replay
+     * can hold the beat back until its wall-clock time.
+     */
+    public void advanceTo(Instant eventTimestamp, Consumer<Instant> beforeBeat) {
+        checkVirtual();
+        Duration currentPeriod = period.get();
+        Instant nextBeat;
+        while ((nextBeat = lastHeartBeat.get().plus(currentPeriod)).isBefore(eventTimestamp)) {
+            beforeBeat.accept(nextBeat);
+            lastHeartBeat.set(nextBeat);
+            target.accept(nextBeat);
         }
     }
 
+    private void checkVirtual() {
+        validState(virtual, "heart beat is not in virtual time");
+    }
+
     public void setDuration(Duration period) {
         lock.lock();
         try {
@@ -135,6 +182,10 @@ public final class HeartBeat {
         return running;
     }
 
+    public boolean isVirtual() {
+        return virtual;
+    }
+
     @Override
     public String toString() {
         return JsonUtils.toPrettyJsonString(this);
@@ -7,12 +7,14 @@ import com.ax9k.utils.json.JsonUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
+import java.io.Serializable;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
 @JsonPropertyOrder("eventTime")
-public final class Trade implements Event {
+public final class Trade implements Event, Serializable {
+    private static final long serialVersionUID = 1L;
     public static final Trade EMPTY = new Trade(Instant.EPOCH, 0, 0, 0, BidAsk.NONE);
 
     private final Instant timestamp;
@@ -1,9 +1,11 @@
 package com.ax9k.core.marketmodel;
 
+import com.ax9k.core.checkpoint.Checkpointable;
 import com.ax9k.core.event.Event;
 import com.ax9k.core.event.EventType;
 import com.ax9k.core.history.BasicHistory;
 import com.ax9k.core.history.History;
+import com.ax9k.core.marketmodel.bar.BarAggregator;
 import com.ax9k.core.marketmodel.bar.OhlcvBar;
 import com.ax9k.core.marketmodel.orderbook.OrderBook;
 import com.ax9k.core.time.Time;
@@ -16,14 +18,17 @@ import org.apache.commons.lang3.Validate;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.Serializable;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Observable;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
@@ -32,18 +37,24 @@ import static com.ax9k.core.event.EventType.UNKNOWN;
 import static java.util.stream.Collectors.toMap;
 
 @JsonPropertyOrder({ "tradingDayDate", "ready", "lastEventTime" })
-public class TradingDay extends Observable implements MarketDataReceiver {
+public class TradingDay extends Observable implements MarketDataReceiver, Checkpointable {
     private static final Logger LOGGER = LogManager.getLogger();
-    private static final Logger DATA_LOGGER = LogManager.getLogger("dataLogger");
-    private static final Logger TRADE_LOGGER = LogManager.getLogger("tradeLogger");
-    private static final Logger BARS_LOGGER = LogManager.getLogger("barLogger");
+    public static final String BOOK_LOGGER_NAME = "dataLogger";
+    public static final String TRADE_LOGGER_NAME = "tradeLogger";
+    public static final String BAR_LOGGER_NAME = "barLogger";
     private static final History EMPTY_HISTORY = new BasicHistory();
 
     private final Lock lock = new ReentrantLock();
+    private final String symbol;
+    private final Logger dataLogger;
+    private final Logger tradeLogger;
+    private final Logger barsLogger;
     private final History<Trade> trades = new BasicHistory<>();
     private final History<OrderBook> books = new BasicHistory<>();
     private final History<OhlcvBar> bars = new BasicHistory<>();
+    private final BarAggregator longerBars = new BarAggregator(BarAggregator.ONE_MINUTE);
     private final Map<Class<? extends Event>, History<Event>> extraData = new HashMap<>();
+    private final AtomicLong stateVersion = new AtomicLong();
     private EventType lastEventType = UNKNOWN;
     private Instant lastProcessedTimeStamp = Instant.EPOCH;
     private Trade lastTrade;
@@ -62,11 +73,33 @@ public class TradingDay extends Observable implements MarketDataReceiver {
     };
 
     public TradingDay() {
+        this(null);
+    }
+
+    /**
+     * For hosting several contracts in one process. The market data of a trading day with a symbol is logged to
+     * child loggers named after the symbol, such as {@code dataLogger.HHI}.
+     *
+     * @param symbol the contract traded, or {@code null} for the only contract in the process
+     */
+    public TradingDay(String symbol) {
+        this.symbol = symbol;
+        dataLogger = LogManager.getLogger(instrumentLoggerName(BOOK_LOGGER_NAME, symbol));
+        tradeLogger = LogManager.getLogger(instrumentLoggerName(TRADE_LOGGER_NAME, symbol));
+        barsLogger = LogManager.getLogger(instrumentLoggerName(BAR_LOGGER_NAME, symbol));
         lastTrade = Trade.EMPTY;
         currentBook = OrderBook.EMPTY;
         lastBar = OhlcvBar.EMPTY;
     }
 
+    public static String instrumentLoggerName(String baseName, String symbol) {
+        return symbol == null ? baseName : baseName + '.' + symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
     public void setBookUpdateConsumer(BiConsumer<Double, Double> bookUpdateConsumer) {
         this.bookUpdateConsumer = bookUpdateConsumer;
     }
@@ -137,12 +170,12 @@ public class TradingDay extends Observable implements MarketDataReceiver {
             this.tradingDayDate = tradingDayDate;
 
             if (!tradesDateLogged) {
-                TRADE_LOGGER.info(tradingDayDate);
+                tradeLogger.info(tradingDayDate);
                 tradesDateLogged = true;
             }
 
             if (!booksDateLogged) {
-                DATA_LOGGER.info(tradingDayDate);
+                dataLogger.info(tradingDayDate);
                 booksDateLogged = true;
             }
         } finally {
@@ -230,6 +263,34 @@ public class TradingDay extends Observable implements MarketDataReceiver {
         }
     }
 
+    /**
+     * @param period {@link BarAggregator#ONE_MINUTE} or any period previously registered with
+     *               {@link #addBarPeriod(Duration)}
+     */
+    @JsonIgnore
+    public History<OhlcvBar> getBarHistory(Duration period) {
+        lock.lock();
+        try {
+            return period.equals(BarAggregator.ONE_MINUTE) ? bars : longerBars.getHistory(period);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Builds bars of the given period, a multiple of one minute, from the one minute bars received from now on.
+     */
+    public void addBarPeriod(Duration period) {
+        lock.lock();
+        try {
+            if (!period.equals(BarAggregator.ONE_MINUTE) && !longerBars.hasTimeframe(period)) {
+                longerBars.addTimeframe(period);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public int getBarHistorySize() {
         lock.lock();
         try {
@@ -293,12 +354,73 @@ public class TradingDay extends Observable implements MarketDataReceiver {
         }
     }
 
+    /**
+     * Captures the trade, book and bar histories. Extra data and longer bars are not included; longer bars are
+     * rebuilt from the restored one minute bars. The histories are snapshots rather than copies, so the lock on the
+     * market data path is only held for a moment.
+     */
+    @Override
+    public Serializable checkpoint() {
+        lock.lock();
+        try {
+            return new State(tradingDayDate,
+                             trades.snapshot(),
+                             books.snapshot(),
+                             bars.snapshot(),
+                             dailyTradeHigh,
+                             dailyTradeLow,
+                             dailyTradeCount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void restore(Serializable checkpoint) {
+        State state = (State) checkpoint;
+        lock.lock();
+        try {
+            setTradingDayDate(state.date);
+            state.trades.forEach(trades::record);
+            state.books.forEach(books::record);
+            for (OhlcvBar bar : state.bars) {
+                bars.record(bar);
+                longerBars.aggregate(bar);
+            }
+            lastTrade = trades.getLatest().orElse(lastTrade);
+            currentBook = books.getLatest().orElse(currentBook);
+            lastBar = bars.getLatest().orElse(lastBar);
+            dailyTradeHigh = state.dailyTradeHigh;
+            dailyTradeLow = state.dailyTradeLow;
+            dailyTradeCount = state.dailyTradeCount;
+        } finally {
+            lock.unlock();
+        }
+        LOGGER.info("Restored {} trades, {} books and {} bars",
+                    state.trades.size(), state.books.size(), state.bars.size());
+    }
+
     @Override
     public void trade(Trade trade) {
         recordTrade(trade);
         sendEventNotification(trade);
     }
 
+    /**
+     * Counts the events fully processed so far, observers included. Anything derived from the trading day or its
+     * observers since a given version is still current while this value is unchanged.
+     */
+    @JsonIgnore
+    public long getStateVersion() {
+        return stateVersion.get();
+    }
+
+    @Override
+    public void notifyObservers(Object event) {
+        super.notifyObservers(event);
+        stateVersion.incrementAndGet();
+    }
+
     private void sendEventNotification(Event event) {
         lock.lock();
         try {
@@ -320,7 +442,7 @@ public class TradingDay extends Observable implements MarketDataReceiver {
         } finally {
             lock.unlock();
         }
-        TRADE_LOGGER.info(new ImmutableObjectMessage(trade));
+        tradeLogger.info(new ImmutableObjectMessage(trade));
     }
 
     private void updateTradeData(Trade trade) {
@@ -362,7 +484,7 @@ public class TradingDay extends Observable implements MarketDataReceiver {
         bookUpdateConsumer.accept(bid0, ask0);
         notifyObservers(book);
 
-        DATA_LOGGER.info(new ImmutableObjectMessage(book));
+        dataLogger.info(new ImmutableObjectMessage(book));
     }
 
     private void updateBookData(OrderBook book) {
@@ -416,6 +538,7 @@ public class TradingDay extends Observable implements MarketDataReceiver {
         lock.lock();
         try {
             bars.record(bar);
+            longerBars.aggregate(bar);
             lastBar = bar;
             lastEventType = EventType.OHLCV_BAR;
             lastProcessedTimeStamp = Instant.now();
@@ -423,7 +546,7 @@ public class TradingDay extends Observable implements MarketDataReceiver {
         } finally {
             lock.unlock();
         }
-        BARS_LOGGER.info(new ImmutableObjectMessage(bar));
+        barsLogger.info(new ImmutableObjectMessage(bar));
         notifyObservers(bar);
     }
 
@@ -446,4 +569,32 @@ public class TradingDay extends Observable implements MarketDataReceiver {
         }
         notifyObservers(data);
     }
-}
\ No newline at end of file
+
+    private static final class State implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final LocalDate date;
+        private final List<Trade> trades;
+        private final List<OrderBook> books;
+        private final List<OhlcvBar> bars;
+        private final double dailyTradeHigh;
+        private final double dailyTradeLow;
+        private final int dailyTradeCount;
+
+        private State(LocalDate date,
+                      List<Trade> trades,
+                      List<OrderBook> books,
+                      List<OhlcvBar> bars,
+                      double dailyTradeHigh,
+                      double dailyTradeLow,
+                      int dailyTradeCount) {
+            this.date = date;
+            this.trades = trades;
+            this.books = books;
+            this.bars = bars;
+            this.dailyTradeHigh = dailyTradeHigh;
+            this.dailyTradeLow = dailyTradeLow;
+            this.dailyTradeCount = dailyTradeCount;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.ax9k.core.marketmodel.bar;
+
+import com.ax9k.core.history.BasicHistory;
+import com.ax9k.core.history.History;
+import com.ax9k.core.marketmodel.Trade;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Builds OHLCV bars for any number of timeframes in a single pass over trades or smaller bars.
+ * <p>
+ * Each timeframe keeps a running open, high, low, close and volume, so an input costs a constant amount of work per
+ * timeframe and no allocation until a bar completes. Bar periods are aligned to multiples of their length since the
+ * epoch, which is equivalent to local clock alignment for any period that divides an hour in whole-hour time zones.
+ * <p>
+ * A bar is completed either by an input that reaches the end of its period, by the first input belonging to a later
+ * period, or by {@link #advanceTo(Instant)}. The first period seen by a timeframe is discarded if it started before
+ * the first input, since it cannot be complete. The timestamp of a completed bar is that of its last input.
+ * <p>
+ * Not thread-safe.
+ */
+public final class BarAggregator {
+    public static final Duration FIVE_SECONDS = Duration.ofSeconds(5);
+    public static final Duration ONE_MINUTE = Duration.ofMinutes(1);
+    public static final Duration FIVE_MINUTES = Duration.ofMinutes(5);
+    public static final Duration FIFTEEN_MINUTES = Duration.ofMinutes(15);
+
+    private static final long MILLIS_PER_DAY = Duration.ofDays(1).toMillis();
+    private static final long NO_PERIOD = Long.MIN_VALUE;
+    private static final BiConsumer<Duration, OhlcvBar> NO_LISTENER = (period, bar) -> {};
+
+    private final long inputPeriodMillis;
+    private final BiConsumer<Duration, OhlcvBar> onCompleteBar;
+    private final List<Timeframe> timeframes = new ArrayList<>();
+
+    /**
+     * @param inputPeriod   length of the bars passed to {@link #aggregate(OhlcvBar)}
+     * @param outputPeriods timeframes to build. More can be added later with {@link #addTimeframe(Duration)}
+     */
+    public BarAggregator(Duration inputPeriod, Duration... outputPeriods) {
+        this(inputPeriod, NO_LISTENER, outputPeriods);
+    }
+
+    /**
+     * @param inputPeriod   length of the bars passed to {@link #aggregate(OhlcvBar)}
+     * @param onCompleteBar called with the timeframe and the bar every time a bar completes
+     * @param outputPeriods timeframes to build. More can be added later with {@link #addTimeframe(Duration)}
+     */
+    public BarAggregator(Duration inputPeriod,
+                         BiConsumer<Duration, OhlcvBar> onCompleteBar,
+                         Duration... outputPeriods) {
+        notNull(inputPeriod, "inputPeriod");
+        isTrue(!inputPeriod.isNegative(), "inputPeriod cannot be negative: %s", inputPeriod);
+        inputPeriodMillis = inputPeriod.toMillis();
+        this.onCompleteBar = notNull(onCompleteBar, "onCompleteBar");
+
+        for (Duration period : outputPeriods) {
+            addTimeframe(period);
+        }
+    }
+
+    public void addTimeframe(Duration period) {
+        notNull(period, "period");
+        long periodMillis = period.toMillis();
+        isTrue(periodMillis > 0, "bar period must be positive: %s", period);
+        isTrue(MILLIS_PER_DAY % periodMillis == 0, "bar period must divide a day evenly: %s", period);
+        isTrue(inputPeriodMillis == 0 || periodMillis % inputPeriodMillis == 0,
+               "bar period %s is not a multiple of the input period %s", period, Duration.ofMillis(inputPeriodMillis));
+        isTrue(!hasTimeframe(period), "bar period already registered: %s", period);
+
+        timeframes.add(new Timeframe(period));
+    }
+
+    public boolean hasTimeframe(Duration period) {
+        return find(period) != null;
+    }
+
+    public List<Duration> getTimeframes() {
+        List<Duration> result = new ArrayList<>(timeframes.size());
+        for (Timeframe timeframe : timeframes) {
+            result.add(timeframe.period);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public History<OhlcvBar> getHistory(Duration period) {
+        Timeframe timeframe = find(period);
+        isTrue(timeframe != null, "bar period not registered: %s", period);
+        return timeframe.history;
+    }
+
+    private Timeframe find(Duration period) {
+        for (Timeframe timeframe : timeframes) {
+            if (timeframe.period.equals(period)) {
+                return timeframe;
+            }
+        }
+        return null;
+    }
+
+    public void aggregate(OhlcvBar bar) {
+        Instant timestamp = bar.getTimestamp();
+        for (Timeframe timeframe : timeframes) {
+            timeframe.accept(timestamp, inputPeriodMillis,
+                             bar.getOpen(), bar.getHigh(), bar.getLow(), bar.getClose(), bar.getVolume());
+        }
+    }
+
+    public void aggregate(Trade trade) {
+        Instant timestamp = trade.getTimestamp();
+        double price = trade.getPrice();
+        for (Timeframe timeframe : timeframes) {
+            timeframe.accept(timestamp, 0, price, price, price, price, trade.getQuantity());
+        }
+    }
+
+    /**
+     * Completes every bar whose period ended at or before {@code time}. Useful when input is sparse, for example
+     * bars built from trades, and completion should not have to wait for the next input.
+     */
+    public void advanceTo(Instant time) {
+        long millis = time.toEpochMilli();
+        for (Timeframe timeframe : timeframes) {
+            timeframe.completeIfEnded(millis);
+        }
+    }
+
+    private final class Timeframe {
+        private final Duration period;
+        private final long periodMillis;
+        private final History<OhlcvBar> history = new BasicHistory<>();
+
+        private long periodStart = NO_PERIOD;
+        private boolean started;
+        private boolean partial;
+
+        private Instant lastTimestamp;
+        private double open, high, low, close, volume;
+
+        private Timeframe(Duration period) {
+            this.period = period;
+            periodMillis = period.toMillis();
+        }
+
+        private void accept(Instant timestamp, long spanMillis,
+                            double open, double high, double low, double close, double volume) {
+            long startMillis = timestamp.toEpochMilli();
+            long inputPeriodStart = Math.floorDiv(startMillis, periodMillis) * periodMillis;
+
+            if (periodStart != NO_PERIOD && inputPeriodStart != periodStart) {
+                if (inputPeriodStart < periodStart) {
+                    return;
+                }
+                complete();
+            }
+
+            if (periodStart == NO_PERIOD) {
+                periodStart = inputPeriodStart;
+                partial = !started && startMillis - inputPeriodStart >= max(spanMillis, 1);
+                started = true;
+                this.open = open;
+                this.high = high;
+                this.low = low;
+                this.volume = 0;
+            } else {
+                this.high = max(this.high, high);
+                this.low = min(this.low, low);
+            }
+            this.close = close;
+            this.volume += volume;
+            lastTimestamp = timestamp;
+
+            if (spanMillis > 0 && startMillis + spanMillis >= periodStart + periodMillis) {
+                complete();
+            }
+        }
+
+        private void completeIfEnded(long timeMillis) {
+            if (periodStart != NO_PERIOD && timeMillis >= periodStart + periodMillis) {
+                complete();
+            }
+        }
+
+        private void complete() {
+            if (!partial) {
+                OhlcvBar bar = OhlcvBar.of(lastTimestamp, open, high, low, close, volume);
+                history.record(bar);
+                onCompleteBar.accept(period, bar);
+            }
+            periodStart = NO_PERIOD;
+            partial = false;
+            lastTimestamp = null;
+        }
+    }
+}
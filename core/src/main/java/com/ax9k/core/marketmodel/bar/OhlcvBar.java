@@ -9,6 +9,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.io.Serializable;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -19,7 +20,8 @@ import static java.lang.Math.min;
 import static org.apache.commons.lang3.Validate.notNull;
 
 @JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.NON_PRIVATE)
-public final class OhlcvBar implements Event {
+public final class OhlcvBar implements Event, Serializable {
+    private static final long serialVersionUID = 1L;
     public static final OhlcvBar EMPTY = new OhlcvBar(Instant.EPOCH, Instant.EPOCH, 0, 0, 0, 0, 0);
 
     private final Instant eventTimestamp, createdTimestamp;
@@ -9,6 +9,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.JsonRootName;
 
+import java.io.Serializable;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -18,7 +19,8 @@ import static org.apache.commons.lang3.Validate.notNull;
 
 @JsonRootName("orderBook")
 @JsonPropertyOrder({ "eventTime", "bids", "asks" })
-public final class OrderBook implements Event {
+public final class OrderBook implements Event, Serializable {
+    private static final long serialVersionUID = 1L;
     public static final OrderBook EMPTY = new OrderBook();
 
     private static final double NOT_CALCULATED = -999;
@@ -4,8 +4,11 @@ import com.ax9k.utils.json.JsonUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonRootName;
 
+import java.io.Serializable;
+
 @JsonRootName("orderBookLevel")
-public final class OrderBookLevel implements Comparable<OrderBookLevel> {
+public final class OrderBookLevel implements Comparable<OrderBookLevel>, Serializable {
+    private static final long serialVersionUID = 1L;
     public static final OrderBookLevel EMPTY = new OrderBookLevel(0.0, 0.0);
     private final double price;
     private final double quantity;
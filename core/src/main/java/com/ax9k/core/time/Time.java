@@ -20,6 +20,7 @@ public final class Time {
     private static final AtomicReference<Instant> lastEvent = new AtomicReference<>(Instant.EPOCH);
 
     private static Boolean live;
+    private static volatile boolean replaying;
     private static TradingSchedule schedule;
     private static ZoneId timeZone;
 
@@ -41,6 +42,13 @@ public final class Time {
         timeZone = notNull(tradingSchedule.getTimeZone());
     }
 
+    /**
+     * While replaying recorded events in live mode, the time follows the events, as it does in testing mode.
+     */
+    public static void setReplaying(boolean replayingRecordedEvents) {
+        replaying = replayingRecordedEvents;
+    }
+
     public static void update(Instant timestamp) {
         lastEvent.set(timestamp);
     }
@@ -50,7 +58,7 @@ public final class Time {
     }
 
     public static Instant now() {
-        if (live == Boolean.TRUE) {
+        if (live == Boolean.TRUE && !replaying) {
             return Instant.now();
         }
         return lastEvent.get();
@@ -5,6 +5,7 @@ module com.ax9k.core {
     exports com.ax9k.core.history;
     exports com.ax9k.core.time;
     exports com.ax9k.core.event;
+    exports com.ax9k.core.checkpoint;
 
     requires com.ax9k.utils;
 
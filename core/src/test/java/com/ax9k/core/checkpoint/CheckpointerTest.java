@@ -0,0 +1,121 @@
+package com.ax9k.core.checkpoint;
+
+import com.ax9k.core.marketmodel.BidAsk;
+import com.ax9k.core.marketmodel.StandardTradingSchedule;
+import com.ax9k.core.marketmodel.Trade;
+import com.ax9k.core.marketmodel.TradingDay;
+import com.ax9k.core.marketmodel.bar.OhlcvBar;
+import com.ax9k.core.time.Time;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CheckpointerTest {
+    private static final Instant NOW = Instant.parse("2018-06-01T02:00:00Z");
+    private static final LocalDate TODAY = LocalDate.of(2018, 6, 1);
+
+    private Path file;
+    private TradingDay tradingDay;
+    private Counter counter;
+
+    @BeforeEach
+    void initialiseComponents() throws IOException {
+        Time.setTradingSchedule(StandardTradingSchedule.wrap(List.of(), ZoneOffset.ofHours(8)));
+        Time.update(NOW);
+        file = Files.createTempDirectory("checkpoint-test").resolve("checkpoint");
+        tradingDay = new TradingDay();
+        counter = new Counter();
+    }
+
+    private Checkpointer checkpointer(TradingDay tradingDay, Counter counter) {
+        var result = new Checkpointer(file, Duration.ofMinutes(1));
+        result.register("tradingDay", tradingDay);
+        result.register("counter", counter);
+        return result;
+    }
+
+    @Test
+    void shouldNotRestoreWithoutCheckpoint() {
+        assertFalse(checkpointer(tradingDay, counter).restore(TODAY));
+    }
+
+    @Nested
+    class WhenSaved {
+        @BeforeEach
+        void save() {
+            tradingDay.trade(new Trade(NOW.minusSeconds(2), 10, 1, 1, BidAsk.BID));
+            tradingDay.trade(new Trade(NOW.minusSeconds(1), 12, 2, 2, BidAsk.ASK));
+            tradingDay.bar(OhlcvBar.of(NOW, 10, 12, 10, 12, 3));
+            counter.value = 7;
+
+            checkpointer(tradingDay, counter).save();
+        }
+
+        @Test
+        void shouldRestoreTradingDay() {
+            var restoredDay = new TradingDay();
+
+            assertTrue(checkpointer(restoredDay, new Counter()).restore(TODAY));
+            assertEquals(2, restoredDay.getTradeHistorySize());
+            assertEquals(1, restoredDay.getBarHistorySize());
+            assertEquals(tradingDay.getLastTrade(), restoredDay.getLastTrade());
+            assertEquals(tradingDay.getDailyTradeHigh(), restoredDay.getDailyTradeHigh());
+            assertEquals(tradingDay.getDailyTradeCount(), restoredDay.getDailyTradeCount());
+        }
+
+        @Test
+        void shouldRestoreOtherComponents() {
+            var restoredCounter = new Counter();
+
+            checkpointer(new TradingDay(), restoredCounter).restore(TODAY);
+
+            assertEquals(7, restoredCounter.value);
+        }
+
+        @Test
+        void shouldIgnoreCheckpointFromAnotherDay() {
+            var restoredCounter = new Counter();
+
+            assertFalse(checkpointer(new TradingDay(), restoredCounter).restore(TODAY.plusDays(1)));
+            assertNull(restoredCounter.restored);
+        }
+
+        @Test
+        void shouldIgnoreCorruptCheckpoint() throws IOException {
+            Files.write(file, "corrupt".getBytes());
+
+            assertFalse(checkpointer(new TradingDay(), new Counter()).restore(TODAY));
+        }
+    }
+
+    private static final class Counter implements Checkpointable {
+        private int value;
+        private Serializable restored;
+
+        @Override
+        public Serializable checkpoint() {
+            return value;
+        }
+
+        @Override
+        public void restore(Serializable state) {
+            restored = state;
+            value = (Integer) state;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ax9k.core.history;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AppendOnlyListTest {
+    private final AppendOnlyList<String> testList = new AppendOnlyList<>(1);
+
+    @Test
+    void shouldKeepSnapshotWhenGrowing() {
+        testList.add("a");
+        List<String> snapshot = testList.snapshot();
+
+        for (int i = 0; i < 10; i++) {
+            testList.add("b" + i);
+        }
+
+        assertEquals(List.of("a"), snapshot);
+        assertEquals(11, testList.size());
+        assertEquals("b9", testList.get(10));
+    }
+
+    @Test
+    void shouldNotReadPastSnapshotSize() {
+        testList.add("a");
+        List<String> snapshot = testList.snapshot();
+        testList.add("b");
+
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(1));
+    }
+
+    @Test
+    void shouldSerialiseSnapshotAsList() throws IOException, ClassNotFoundException {
+        testList.add("a");
+        testList.add("b");
+
+        var buffer = new ByteArrayOutputStream();
+        try (var output = new ObjectOutputStream(buffer)) {
+            output.writeObject(testList.snapshot());
+        }
+        Object result;
+        try (var input = new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray()))) {
+            result = input.readObject();
+        }
+
+        assertEquals(new ArrayList<>(List.of("a", "b")), result);
+    }
+}
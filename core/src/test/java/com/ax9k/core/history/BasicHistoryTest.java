@@ -123,6 +123,62 @@ class BasicHistoryTest {
         }
     }
 
+    @Nested
+    class WhenQueryingTimeRange {
+        @BeforeEach
+        void fillHistory() {
+            testHistory = fillHistoryWithMillisAfterEpoch(1, 2, 3, 4, 4, 4, 5, 6, 7, 8, 9, 10);
+        }
+
+        private List<Event> between(int fromMillis, int toMillis, int limit) {
+            return testHistory.between(Instant.ofEpochMilli(fromMillis), Instant.ofEpochMilli(toMillis), limit);
+        }
+
+        @Test
+        void shouldIncludeStartAndExcludeEnd() {
+            assertEquals(listWithMillisAfterEpoch(4, 4, 4, 5), between(4, 6, 100));
+        }
+
+        @Test
+        void shouldReturnEarliestEntriesUpToLimit() {
+            assertEquals(listWithMillisAfterEpoch(3, 4), between(3, 11, 2));
+        }
+
+        @Test
+        void shouldReturnNothingOutsideHistory() {
+            assertTrue(between(11, 20, 100).isEmpty());
+            assertTrue(between(0, 1, 100).isEmpty());
+        }
+
+        @Test
+        void shouldAcceptUnboundedRange() {
+            assertEquals(12, testHistory.between(Instant.MIN, Instant.MAX, Integer.MAX_VALUE).size());
+        }
+    }
+
+    @Nested
+    class WhenSnapshotting {
+        @BeforeEach
+        void fillHistory() {
+            testHistory = fillHistoryWithMillisAfterEpoch(1, 2, 3);
+        }
+
+        @Test
+        void shouldContainEntriesRecordedSoFar() {
+            assertEquals(listWithMillisAfterEpoch(1, 2, 3), testHistory.snapshot());
+        }
+
+        @Test
+        void shouldNotChangeWhenMoreAreRecorded() {
+            List<Event> snapshot = testHistory.snapshot();
+
+            MockEvent.streamWithMillisAfterEpoch(4, 5).forEach(testHistory::record);
+
+            assertEquals(listWithMillisAfterEpoch(1, 2, 3), snapshot);
+            assertEquals(listWithMillisAfterEpoch(1, 2, 3, 4, 5), testHistory.snapshot());
+        }
+    }
+
     @Nested
     class WhenConvertingWholeValidHistoryToSource {
         @BeforeEach
@@ -0,0 +1,187 @@
+package com.ax9k.core.marketmodel;
+
+import com.ax9k.core.event.EventType;
+import com.ax9k.core.marketmodel.orderbook.OrderBook;
+import com.ax9k.core.marketmodel.orderbook.OrderBookLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Observable;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConflatingObserverTest {
+    private final Observable source = new Observable();
+    private final BlockingQueue<Object> delivered = new LinkedBlockingQueue<>();
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    private ConflatingObserver testObserver;
+
+    private static OrderBook book(long second) {
+        return new OrderBook(Instant.ofEpochSecond(second),
+                             EventType.UNKNOWN,
+                             new OrderBookLevel[] { OrderBookLevel.EMPTY },
+                             new OrderBookLevel[] { OrderBookLevel.EMPTY });
+    }
+
+    private static Trade trade(long second) {
+        return new Trade(Instant.ofEpochSecond(second), 100, 1, 0, BidAsk.NONE);
+    }
+
+    @BeforeEach
+    void startObserver() {
+        testObserver = new ConflatingObserver("test", (observable, event) -> {
+            delivered.add(event);
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        testObserver.start();
+    }
+
+    @AfterEach
+    void stopObserver() {
+        released.countDown();
+        testObserver.stop();
+    }
+
+    private Object nextDelivered() throws InterruptedException {
+        Object result = delivered.poll(5, TimeUnit.SECONDS);
+        if (result == null) {
+            throw new AssertionError("nothing delivered");
+        }
+        return result;
+    }
+
+    @Test
+    void shouldDeliverEveryEventWhenKeepingUp() throws InterruptedException {
+        released.countDown();
+        OrderBook first = book(1);
+        OrderBook second = book(2);
+
+        testObserver.update(source, first);
+        assertSame(first, nextDelivered());
+        testObserver.update(source, second);
+        assertSame(second, nextDelivered());
+
+        assertEquals(0, testObserver.getConflatedBooks());
+    }
+
+    @Test
+    void shouldOnlyDeliverEventsOfOneObservable() {
+        testObserver.update(source, trade(1));
+
+        assertThrows(IllegalStateException.class, () -> testObserver.update(new Observable(), trade(2)));
+    }
+
+    @Test
+    void shouldDeliverOnNotifyingThreadUntilStarted() {
+        Thread[] deliveringThread = new Thread[1];
+        ConflatingObserver unstarted = new ConflatingObserver("unstarted", (observable, event) -> {
+            deliveringThread[0] = Thread.currentThread();
+            delivered.add(event);
+        });
+        Trade trade = trade(1);
+
+        unstarted.update(source, trade);
+
+        assertSame(trade, delivered.poll());
+        assertSame(Thread.currentThread(), deliveringThread[0]);
+    }
+
+    @Nested
+    class WhenFull {
+        private ConflatingObserver boundedObserver;
+
+        @BeforeEach
+        void fillQueue() throws InterruptedException {
+            boundedObserver = new ConflatingObserver("bounded", (observable, event) -> {
+                delivered.add(event);
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, 1);
+            boundedObserver.start();
+
+            boundedObserver.update(source, trade(1));
+            nextDelivered();
+            boundedObserver.update(source, trade(2));
+        }
+
+        @AfterEach
+        void stopBoundedObserver() {
+            released.countDown();
+            boundedObserver.stop();
+        }
+
+        @Test
+        void shouldBlockNotifyingUntilObserverCatchesUp() throws InterruptedException {
+            Trade blockedTrade = trade(3);
+            Thread notifier = new Thread(() -> boundedObserver.update(source, blockedTrade));
+            notifier.start();
+
+            notifier.join(200);
+            assertTrue(notifier.isAlive());
+
+            released.countDown();
+            notifier.join(5_000);
+            assertFalse(notifier.isAlive());
+            nextDelivered();
+            assertSame(blockedTrade, nextDelivered());
+        }
+    }
+
+    @Nested
+    class WhenFallingBehind {
+        private final OrderBook busyBook = book(1);
+        private final OrderBook staleBook = book(2);
+        private final Trade firstTrade = trade(3);
+        private final OrderBook supersededBook = book(4);
+        private final Trade secondTrade = trade(5);
+        private final OrderBook latestBook = book(6);
+
+        @BeforeEach
+        void queueBurst() throws InterruptedException {
+            testObserver.update(source, busyBook);
+            assertSame(busyBook, nextDelivered());
+
+            for (Object event : List.of(staleBook, firstTrade, supersededBook, secondTrade, latestBook)) {
+                testObserver.update(source, event);
+            }
+            released.countDown();
+        }
+
+        @Test
+        void shouldDeliverEveryTradeAndOnlyTheLatestBook() throws InterruptedException {
+            assertSame(firstTrade, nextDelivered());
+            assertSame(secondTrade, nextDelivered());
+            assertSame(latestBook, nextDelivered());
+        }
+
+        @Test
+        void shouldCountConflatedBooks() throws InterruptedException {
+            for (int i = 0; i < 3; i++) {
+                nextDelivered();
+            }
+
+            assertEquals(2, testObserver.getConflatedBooks());
+            assertEquals(4, testObserver.getDeliveredEvents());
+        }
+    }
+}
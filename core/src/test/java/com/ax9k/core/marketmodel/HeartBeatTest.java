@@ -0,0 +1,83 @@
+package com.ax9k.core.marketmodel;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeartBeatTest {
+    private static final Instant OPEN = Instant.ofEpochSecond(1_000);
+
+    private List<Instant> beats;
+    private HeartBeat testHeartBeat;
+
+    @BeforeEach
+    void initialiseHeartBeat() {
+        beats = new ArrayList<>();
+        testHeartBeat = new HeartBeat(Duration.ofSeconds(5), beats::add);
+    }
+
+    @Test
+    void shouldNotAdvanceOutsideVirtualTime() {
+        assertThrows(IllegalStateException.class, () -> testHeartBeat.advanceTo(OPEN));
+    }
+
+    @Nested
+    class WhenVirtual {
+        @BeforeEach
+        void startVirtual() {
+            testHeartBeat.startVirtual(OPEN);
+        }
+
+        @Test
+        void shouldNotRunBeatThread() {
+            assertTrue(testHeartBeat.isVirtual());
+            assertFalse(testHeartBeat.isRunning());
+        }
+
+        @Test
+        void shouldBeatForEveryPeriodEndingBeforeEvent() {
+            testHeartBeat.advanceTo(OPEN.plusSeconds(16));
+
+            assertEquals(List.of(OPEN.plusSeconds(5), OPEN.plusSeconds(10), OPEN.plusSeconds(15)), beats);
+            assertEquals(OPEN.plusSeconds(15), testHeartBeat.getLastHeartBeat());
+        }
+
+        @Test
+        void shouldNotBeatForEventOnPeriodBoundary() {
+            testHeartBeat.advanceTo(OPEN.plusSeconds(5));
+
+            assertEquals(List.of(), beats);
+        }
+
+        @Test
+        void shouldNotBeatAgainForEarlierEvents() {
+            testHeartBeat.advanceTo(OPEN.plusSeconds(11));
+            testHeartBeat.advanceTo(OPEN.plusSeconds(7));
+
+            assertEquals(2, beats.size());
+        }
+
+        @Test
+        void shouldHandEachBeatToCallbackBeforeEmittingIt() {
+            List<Object> calls = new ArrayList<>();
+            testHeartBeat = new HeartBeat(Duration.ofSeconds(5), calls::add);
+            testHeartBeat.startVirtual(OPEN);
+
+            testHeartBeat.advanceTo(OPEN.plusSeconds(11), beat -> calls.add("before " + beat));
+
+            assertEquals(List.of("before " + OPEN.plusSeconds(5), OPEN.plusSeconds(5),
+                                 "before " + OPEN.plusSeconds(10), OPEN.plusSeconds(10)),
+                         calls);
+        }
+    }
+}
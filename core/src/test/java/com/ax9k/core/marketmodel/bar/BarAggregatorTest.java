@@ -0,0 +1,259 @@
+package com.ax9k.core.marketmodel.bar;
+
+import com.ax9k.core.history.History;
+import com.ax9k.core.marketmodel.BidAsk;
+import com.ax9k.core.marketmodel.Trade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SuppressWarnings("OptionalGetWithoutIsPresent")
+class BarAggregatorTest {
+    private static final int DUMMY = 2000;
+    private static final Duration INPUT_PERIOD_LENGTH = BarAggregator.FIVE_SECONDS;
+    private static final Duration OUTPUT_PERIOD_LENGTH = BarAggregator.ONE_MINUTE;
+
+    private BarAggregator testAggregator;
+    private History<OhlcvBar> completeAggregatedBars;
+    private List<Duration> completedPeriods;
+
+    private static Instant timestamp(int hours, int minutes) {
+        return timestamp(hours, minutes, 0);
+    }
+
+    private static Instant timestamp(int hours, int minutes, int seconds) {
+        LocalTime time = LocalTime.of(hours, minutes, seconds);
+        return LocalDateTime.of(LocalDate.EPOCH, time).atZone(ZoneOffset.ofHours(8)).toInstant();
+    }
+
+    @BeforeEach
+    void initialiseAggregator() {
+        completedPeriods = new ArrayList<>();
+        testAggregator = new BarAggregator(INPUT_PERIOD_LENGTH,
+                                           (period, bar) -> completedPeriods.add(period),
+                                           OUTPUT_PERIOD_LENGTH);
+        completeAggregatedBars = testAggregator.getHistory(OUTPUT_PERIOD_LENGTH);
+    }
+
+    private void aggregateDummyBars(Instant startTime, Instant endTime) {
+        aggregateBars(startTime, endTime, DUMMY, DUMMY, DUMMY, DUMMY);
+    }
+
+    private void aggregateBars(Instant startTime, Instant endTime,
+                               double open, double high, double low, double close) {
+        Instant currentTime = startTime;
+        testAggregator.aggregate(OhlcvBar.of(currentTime, open, high, low, DUMMY, 1));
+        currentTime = currentTime.plus(INPUT_PERIOD_LENGTH);
+
+        while (currentTime.isBefore(endTime)) {
+            testAggregator.aggregate(OhlcvBar.of(currentTime, DUMMY, high - 1, low + 1, DUMMY, 1));
+            currentTime = currentTime.plus(INPUT_PERIOD_LENGTH);
+        }
+
+        testAggregator.aggregate(OhlcvBar.of(currentTime, DUMMY, high - 1, low + 1, close, 1));
+    }
+
+    @Test
+    void shouldRejectPeriodNotMultipleOfInputPeriod() {
+        assertThrows(IllegalArgumentException.class, () -> testAggregator.addTimeframe(Duration.ofSeconds(7)));
+    }
+
+    @Test
+    void shouldRejectDuplicatePeriod() {
+        assertThrows(IllegalArgumentException.class, () -> testAggregator.addTimeframe(OUTPUT_PERIOD_LENGTH));
+    }
+
+    @Test
+    void shouldRejectUnregisteredHistory() {
+        assertThrows(IllegalArgumentException.class, () -> testAggregator.getHistory(BarAggregator.FIVE_MINUTES));
+    }
+
+    @Nested
+    class WhenNew {
+        @Test
+        void historyShouldBeEmpty() {
+            assertEquals(0, completeAggregatedBars.getSize());
+            assertTrue(completeAggregatedBars.isEmpty());
+        }
+    }
+
+    @Nested
+    class WhenLessThanOneFullPeriodElapsed {
+        @BeforeEach
+        void simulateOneHalfPeriod() {
+            Instant start = timestamp(10, 0, 5);
+            aggregateDummyBars(start, start.plus(OUTPUT_PERIOD_LENGTH.dividedBy(2)));
+        }
+
+        @Test
+        void historyShouldHaveNoCompleteBars() {
+            assertEquals(0, completeAggregatedBars.getSize());
+            assertTrue(completedPeriods.isEmpty());
+        }
+    }
+
+    @Nested
+    class WhenStartedPartWayThroughPeriod {
+        @BeforeEach
+        void simulateRestOfPeriodAndNextPeriod() {
+            aggregateDummyBars(timestamp(10, 0, 30), timestamp(10, 0, 55));
+            aggregateDummyBars(timestamp(10, 1), timestamp(10, 1, 55));
+        }
+
+        @Test
+        void shouldDiscardIncompleteFirstPeriod() {
+            assertEquals(1, completeAggregatedBars.getSize());
+            assertEquals(timestamp(10, 1, 55), completeAggregatedBars.getLatest().get().getTimestamp());
+        }
+    }
+
+    @Nested
+    class WhenOneFullPeriodPassed {
+        private static final double EXPECTED_OPEN = 4, EXPECTED_HIGH = 5000, EXPECTED_LOW = -1, EXPECTED_CLOSE = 8;
+
+        private final Instant endTime = timestamp(9, 15, 55);
+
+        @BeforeEach
+        void simulateOneFullPeriod() {
+            aggregateBars(timestamp(9, 15), endTime, EXPECTED_OPEN, EXPECTED_HIGH, EXPECTED_LOW, EXPECTED_CLOSE);
+        }
+
+        @Test
+        void historyShouldHaveOneCompleteBar() {
+            assertEquals(1, completeAggregatedBars.getSize());
+        }
+
+        @Test
+        void shouldNotifyListener() {
+            assertEquals(List.of(OUTPUT_PERIOD_LENGTH), completedPeriods);
+        }
+
+        @Test
+        void periodShouldEndWithCorrectTimestamp() {
+            assertEquals(endTime, completeAggregatedBars.getLatest().get().getTimestamp());
+        }
+
+        @Test
+        void shouldRecordCorrectPrices() {
+            OhlcvBar bar = completeAggregatedBars.getLatest().get();
+            assertEquals(EXPECTED_OPEN, bar.getOpen());
+            assertEquals(EXPECTED_HIGH, bar.getHigh());
+            assertEquals(EXPECTED_LOW, bar.getLow());
+            assertEquals(EXPECTED_CLOSE, bar.getClose());
+        }
+
+        @Test
+        void periodShouldBeComposedOfCorrectNumberOfInputBars() {
+            long eventsInOutputPeriod = OUTPUT_PERIOD_LENGTH.dividedBy(INPUT_PERIOD_LENGTH);
+            assertEquals(eventsInOutputPeriod, completeAggregatedBars.getLatest().get().getVolume());
+        }
+    }
+
+    @Nested
+    class WhenLargeDelayOccursBetweenTwoFullPeriods {
+        private static final double EXPECTED_FIRST_OPEN = 84, EXPECTED_SECOND_OPEN = 31;
+        private static final double EXPECTED_FIRST_CLOSE = 9_866, EXPECTED_SECOND_CLOSE = 14_566;
+
+        private final Instant firstPeriodEnd = timestamp(11, 59, 55);
+        private final Instant secondPeriodEnd = timestamp(13, 0, 55);
+
+        @BeforeEach
+        void simulateTwoFullPeriods() {
+            aggregateBars(timestamp(11, 59), firstPeriodEnd,
+                          EXPECTED_FIRST_OPEN, 1_026_821, 3, EXPECTED_FIRST_CLOSE);
+            aggregateBars(timestamp(13, 0), secondPeriodEnd,
+                          EXPECTED_SECOND_OPEN, 200_000, -12_212, EXPECTED_SECOND_CLOSE);
+        }
+
+        @Test
+        void historyShouldHaveTwoCompleteBars() {
+            assertEquals(2, completeAggregatedBars.getSize());
+        }
+
+        @Test
+        void shouldRecordBothPeriods() {
+            OhlcvBar first = completeAggregatedBars.getPrevious().get();
+            OhlcvBar second = completeAggregatedBars.getLatest().get();
+
+            assertEquals(firstPeriodEnd, first.getTimestamp());
+            assertEquals(EXPECTED_FIRST_OPEN, first.getOpen());
+            assertEquals(EXPECTED_FIRST_CLOSE, first.getClose());
+            assertEquals(secondPeriodEnd, second.getTimestamp());
+            assertEquals(EXPECTED_SECOND_OPEN, second.getOpen());
+            assertEquals(EXPECTED_SECOND_CLOSE, second.getClose());
+        }
+
+        @Test
+        void bothBarsShouldBeComposedOfSameNumberOfInputBars() {
+            assertEquals(completeAggregatedBars.getPrevious().get().getVolume(),
+                         completeAggregatedBars.getLatest().get().getVolume());
+        }
+    }
+
+    @Nested
+    class WhenAggregatingSeveralTimeframes {
+        private History<OhlcvBar> fiveMinuteBars;
+
+        @BeforeEach
+        void simulateTenMinutes() {
+            testAggregator.addTimeframe(BarAggregator.FIVE_MINUTES);
+            fiveMinuteBars = testAggregator.getHistory(BarAggregator.FIVE_MINUTES);
+            aggregateDummyBars(timestamp(9, 15), timestamp(9, 24, 55));
+        }
+
+        @Test
+        void shouldBuildEveryTimeframeInOnePass() {
+            assertEquals(10, completeAggregatedBars.getSize());
+            assertEquals(2, fiveMinuteBars.getSize());
+        }
+
+        @Test
+        void longerBarsShouldContainAllInputBars() {
+            long eventsInOutputPeriod = BarAggregator.FIVE_MINUTES.dividedBy(INPUT_PERIOD_LENGTH);
+            assertEquals(eventsInOutputPeriod, fiveMinuteBars.getLatest().get().getVolume());
+        }
+    }
+
+    @Nested
+    class WhenAggregatingTrades {
+        @BeforeEach
+        void initialiseTradeAggregator() {
+            testAggregator = new BarAggregator(Duration.ZERO, OUTPUT_PERIOD_LENGTH);
+            completeAggregatedBars = testAggregator.getHistory(OUTPUT_PERIOD_LENGTH);
+
+            testAggregator.aggregate(new Trade(timestamp(9, 15, 0), 10, 1, 0, BidAsk.NONE));
+            testAggregator.aggregate(new Trade(timestamp(9, 15, 20), 12, 2, 0, BidAsk.NONE));
+            testAggregator.aggregate(new Trade(timestamp(9, 15, 40), 9, 3, 0, BidAsk.NONE));
+        }
+
+        @Test
+        void shouldNotCompleteBarBeforePeriodEnds() {
+            assertEquals(0, completeAggregatedBars.getSize());
+        }
+
+        @Test
+        void shouldCompleteBarWhenTimeAdvances() {
+            testAggregator.advanceTo(timestamp(9, 16));
+
+            OhlcvBar bar = completeAggregatedBars.getLatest().get();
+            assertEquals(10, bar.getOpen());
+            assertEquals(12, bar.getHigh());
+            assertEquals(9, bar.getLow());
+            assertEquals(9, bar.getClose());
+            assertEquals(6, bar.getVolume());
+        }
+    }
+}
@@ -209,9 +209,17 @@ public abstract class IbClient extends EWrapperAdapter {
             } catch (IOException e) {
                 error(e);
             }
+            onMessagesProcessed();
         }
     }
 
+    /**
+     * Called on the message processing thread each time every message currently queued by the reader has been
+     * dispatched. Subclasses can use it to publish state built up from a burst of related callbacks.
+     */
+    protected void onMessagesProcessed() {
+    }
+
     @Override
     public void error(Exception e) {
         ERROR_LOG.error("IB Error. Client ID: {}, Exception: {}, Message: {}",
@@ -4,66 +4,104 @@ import com.ax9k.core.marketmodel.BidAsk;
 
 import java.time.Instant;
 
+/**
+ * Pairs the separate price and size halves of an IB depth message into a single level change before handing it
+ * to the {@link LevelUpdateEventConsumer}. Deletions carry no price or size and are passed on immediately, after
+ * any half-received change.
+ * <p>
+ * Only updates to the same level and side are paired. Inserts shift the levels below them, so a change of operation
+ * or a second insert flushes the pending change first rather than merging into it.
+ * <p>
+ * Publishing the resulting book is left to the caller, which knows when a batch of depth messages is complete and
+ * must {@link #flush()} the last change of the batch before publishing.
+ */
 class DepthMessageProcessor {
     private static final int UNINITIALISED = -999;
 
     private final LevelUpdateEventConsumer updateCallback;
-    private final Runnable onUpdateEvent;
 
     private int lastLevel;
     private BidAsk lastSide;
     private Instant lastTimestamp;
+    private DepthOperation lastOperation;
 
     private double lastPrice;
     private double lastQuantity;
 
     private int eventCount;
 
-    DepthMessageProcessor(LevelUpdateEventConsumer updateCallback, Runnable onUpdateEvent) {
+    DepthMessageProcessor(LevelUpdateEventConsumer updateCallback) {
         this.updateCallback = updateCallback;
-        this.onUpdateEvent = onUpdateEvent;
+        resetValues();
     }
 
-    void processUpdate(Instant timestamp, int level, BidAsk side, double price, double quantity) {
-        if (isNewEvent(level, side)) {
-            sendUpdateEvent(lastTimestamp, lastLevel, lastSide, lastPrice, lastQuantity);
-            updateValues(timestamp, level, side, price, quantity);
+    void processUpdate(Instant timestamp, DepthOperation operation, int level, BidAsk side,
+                       double price, double quantity) {
+        if (operation == DepthOperation.DELETE) {
+            flushPending();
+            updateCallback.send(timestamp, DepthOperation.DELETE, level, side, 0, 0);
+            return;
+        }
+
+        if (isNewEvent(operation, level, side)) {
+            flushPending();
+            updateValues(timestamp, operation, level, side, price, quantity);
             return;
         }
 
         price = price > 0 ? price : lastPrice;
         quantity = quantity > 0 ? quantity : lastQuantity;
         if (isSecondEvent()) {
-            sendUpdateEvent(timestamp, level, side, price, quantity);
-            resetValues();
+            sendUpdateEvent(timestamp, lastOperation, level, side, price, quantity);
         } else {
-            updateValues(timestamp, level, side, price, quantity);
+            updateValues(timestamp, operation, level, side, price, quantity);
         }
     }
 
-    private boolean isNewEvent(int level, BidAsk side) {
-        if (lastLevel == UNINITIALISED || lastSide == null) {
+    /**
+     * Passes on any change still waiting for its other half, so that a complete batch leaves nothing pending.
+     */
+    void flush() {
+        flushPending();
+    }
+
+    private void flushPending() {
+        if (!isUninitialised()) {
+            sendUpdateEvent(lastTimestamp, lastOperation, lastLevel, lastSide, lastPrice, lastQuantity);
+        }
+    }
+
+    private boolean isNewEvent(DepthOperation operation, int level, BidAsk side) {
+        if (isUninitialised()) {
             return false;
         }
-        return level != lastLevel || side != lastSide;
+        return level != lastLevel || side != lastSide ||
+               operation != lastOperation || operation == DepthOperation.INSERT;
+    }
+
+    private boolean isUninitialised() {
+        return lastLevel == UNINITIALISED || lastSide == null;
     }
 
-    private void sendUpdateEvent(Instant timeStamp, int level, BidAsk side, double price, double quantity) {
-        updateCallback.send(timeStamp, level, side, price, (int) quantity);
+    private void sendUpdateEvent(Instant timeStamp, DepthOperation operation, int level, BidAsk side,
+                                 double price, double quantity) {
+        updateCallback.send(timeStamp, operation, level, side, price, (int) quantity);
         resetValues();
-        onUpdateEvent.run();
     }
 
     private void resetValues() {
         lastSide = null;
         lastLevel = UNINITIALISED;
+        lastOperation = null;
         lastPrice = lastQuantity = 0;
         eventCount = 0;
     }
 
-    private void updateValues(Instant timestamp, int level, BidAsk side, double price, double quantity) {
+    private void updateValues(Instant timestamp, DepthOperation operation, int level, BidAsk side,
+                              double price, double quantity) {
         lastSide = side;
         lastLevel = level;
+        lastOperation = operation;
         lastPrice = price;
         lastQuantity = quantity;
         lastTimestamp = timestamp;
@@ -0,0 +1,32 @@
+package com.ax9k.interactivebrokers.provider;
+
+/**
+ * The {@code operation} argument of IB's {@code updateMktDepth} callback.
+ */
+public enum DepthOperation {
+    /**
+     * Insert a new level, shifting the existing level and everything below it one place deeper.
+     */
+    INSERT,
+    /**
+     * Overwrite the level in place.
+     */
+    UPDATE,
+    /**
+     * Remove the level, shifting everything below it one place up.
+     */
+    DELETE;
+
+    public static DepthOperation fromCode(int code) {
+        switch (code) {
+            case 0:
+                return INSERT;
+            case 1:
+                return UPDATE;
+            case 2:
+                return DELETE;
+            default:
+                throw new IllegalArgumentException("unsupported market depth operation: " + code);
+        }
+    }
+}
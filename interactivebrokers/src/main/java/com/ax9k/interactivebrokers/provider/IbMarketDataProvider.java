@@ -1,18 +1,21 @@
 package com.ax9k.interactivebrokers.provider;
 
-import com.ax9k.core.event.EventType;
 import com.ax9k.core.marketmodel.BidAsk;
 import com.ax9k.core.marketmodel.MarketDataReceiver;
 import com.ax9k.core.marketmodel.Phase;
+import com.ax9k.core.marketmodel.TradingDay;
+import com.ax9k.core.marketmodel.bar.BarAggregator;
 import com.ax9k.core.marketmodel.bar.OhlcvBar;
 import com.ax9k.core.marketmodel.orderbook.OrderBook;
 import com.ax9k.core.time.Time;
 import com.ax9k.interactivebrokers.client.IbClient;
 import com.ax9k.provider.MarketDataProvider;
+import com.ax9k.utils.logging.ImmutableObjectMessage;
 import com.ib.client.TickAttr;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 
@@ -30,14 +33,14 @@ public class IbMarketDataProvider extends IbClient implements MarketDataProvider
     private static final int MARKET_DEPTH_REQUEST = 200;
     private static final int BAR_REQUEST = 30_001;
     private static final int BOOK_DEPTH = 5;
-    private static final int CLEAR_ORDER = 2;
     private static final int KNOWN_LAG = 0; //TODO record time offset between when we get stuff from IB
 
+    private final Logger barsLogger;
     private final MarketDataReceiver receiver;
     private final IbOrderBook orderBook;
     private final TransactionMessageProcessor transactionMessageProcessor;
     private final DepthMessageProcessor depthMessageProcessor;
-    private final OhlcvBarAggregator aggregator;
+    private final BarAggregator aggregator;
 
     private OrderBook lastCompleteBook;
     private Phase lastPhase;
@@ -50,16 +53,23 @@ public class IbMarketDataProvider extends IbClient implements MarketDataProvider
                          int clientId) {
         super(gatewayHost, gatewayPort, clientId * 10 + 1, exchange, contractId);
         this.receiver = receiver;
+        String symbol = receiver instanceof TradingDay ? ((TradingDay) receiver).getSymbol() : null;
+        barsLogger = LogManager.getLogger(TradingDay.instrumentLoggerName(TradingDay.BAR_LOGGER_NAME, symbol));
         orderBook = new IbOrderBook(BOOK_DEPTH);
         transactionMessageProcessor = new TransactionMessageProcessor(this.receiver::trade);
-        depthMessageProcessor = new DepthMessageProcessor(this.orderBook::directBookUpdate,
-                                                          this::updateTradingDay);
-        aggregator = new OhlcvBarAggregator();
+        depthMessageProcessor = new DepthMessageProcessor(this.orderBook::apply);
+        aggregator = new BarAggregator(Duration.ofSeconds(BAR_PERIOD_SECONDS),
+                                       this::sendUpdate,
+                                       BarAggregator.ONE_MINUTE);
     }
 
-    private void updateTradingDay() {
-        lastCompleteBook = orderBook.toImmutableOrderBook(EventType.ADD_ORDER);
-        receiver.orderBook(lastCompleteBook);
+    @Override
+    protected void onMessagesProcessed() {
+        depthMessageProcessor.flush();
+        if (orderBook.hasUnpublishedChanges()) {
+            lastCompleteBook = orderBook.toImmutableOrderBook();
+            receiver.orderBook(lastCompleteBook);
+        }
     }
 
     @Override
@@ -129,14 +139,12 @@ public class IbMarketDataProvider extends IbClient implements MarketDataProvider
         OhlcvBar latestData = OhlcvBar.of(timestamp, open, high, low, close, volume);
 
         LOGGER.info("Received bar: {}", latestData);
+        barsLogger.info(new ImmutableObjectMessage(latestData));
 
-        OhlcvBar completeBar = aggregator.aggregateData(latestData);
-        if (completeBar != null) {
-            sendUpdate(completeBar);
-        }
+        aggregator.aggregate(latestData);
     }
 
-    private void sendUpdate(OhlcvBar bar) {
+    private void sendUpdate(Duration period, OhlcvBar bar) {
         LOGGER.info("Sending {} ...", bar);
         receiver.bar(bar);
     }
@@ -189,20 +197,13 @@ public class IbMarketDataProvider extends IbClient implements MarketDataProvider
             refreshBarSubscription();
         }
 
-        //insert (0), update (1) or remove (2).
-        //TODO this isnt quite right.. 0 means shuffle everything down.  2 means delete JUST that row and shuffle
-        // others up.
-        if (operation == CLEAR_ORDER) {
-            LOGGER.trace("Clear Orders");
-            orderBook.clearLevel(position, decodeSide(side));
-            lastCompleteBook = orderBook.toImmutableOrderBook(EventType.DELETE_ORDER);
-            receiver.orderBook(lastCompleteBook);
-        } else {
-            LOGGER.trace("TradingDay Update. Level: {}, Side: {}, Values: {}@{}", position, decodeSide(side), size,
-                         price
-            );
-            depthMessageProcessor.processUpdate(timestamp, position, decodeSide(side), price, size);
-        }
+        /* Changes are applied to the book in place and published once the current batch of messages is done */
+        depthMessageProcessor.processUpdate(timestamp,
+                                            DepthOperation.fromCode(operation),
+                                            position,
+                                            decodeSide(side),
+                                            price,
+                                            size);
     }
 
     private void refreshBarSubscription() {
@@ -10,59 +10,159 @@ import java.util.Arrays;
 
 import static com.ax9k.core.marketmodel.BidAsk.ASK;
 
+/**
+ * Mutable depth book maintained in place from IB {@code updateMktDepth} deltas.
+ * <p>
+ * Prices and sizes live in primitive arrays. {@link OrderBookLevel} instances are only created when an immutable
+ * book is requested, and only for levels that changed since the previous request; unchanged levels are shared
+ * with the previously published book.
+ */
 public class IbOrderBook {
-    private final OrderBookLevel[] askLevels;
-    private final OrderBookLevel[] bidLevels;
+    private final Side asks;
+    private final Side bids;
 
     private Instant timestamp;
+    private EventType lastChangeType = EventType.UNKNOWN;
+    private boolean changed;
 
     public IbOrderBook(int depth) {
         timestamp = Instant.EPOCH;
-        askLevels = new OrderBookLevel[depth];
-        bidLevels = new OrderBookLevel[depth];
-        Arrays.fill(bidLevels, OrderBookLevel.EMPTY);
-        Arrays.fill(askLevels, OrderBookLevel.EMPTY);
+        asks = new Side(depth);
+        bids = new Side(depth);
+    }
+
+    public void apply(Instant timestamp, DepthOperation operation, int levelIndex, BidAsk side,
+                      double price, double quantity) {
+        switch (operation) {
+            case INSERT:
+                insertLevel(timestamp, levelIndex, side, price, quantity);
+                break;
+            case UPDATE:
+                directBookUpdate(timestamp, levelIndex, side, price, quantity);
+                break;
+            case DELETE:
+                this.timestamp = timestamp;
+                deleteLevel(levelIndex, side);
+                break;
+            default:
+                throw new AssertionError("Unhandled depth operation: " + operation);
+        }
     }
 
     public void directBookUpdate(Instant timestamp, int levelIndex, BidAsk side, double price, double quantity) {
         this.timestamp = timestamp;
-        var newLevel = new OrderBookLevel(price, quantity);
-        if (side == ASK) {
-            askLevels[levelIndex] = newLevel;
-        } else {
-            bidLevels[levelIndex] = newLevel;
-        }
+        sideOf(side).set(levelIndex, price, quantity);
+        recordChange(EventType.MODIFY_ORDER);
     }
 
-    public void clearLevel(int level, BidAsk side) {
-        if (side == ASK) {
-            askLevels[level] = OrderBookLevel.EMPTY;
-        } else {
-            bidLevels[level] = OrderBookLevel.EMPTY;
-        }
+    public void insertLevel(Instant timestamp, int levelIndex, BidAsk side, double price, double quantity) {
+        this.timestamp = timestamp;
+        sideOf(side).insert(levelIndex, price, quantity);
+        recordChange(EventType.ADD_ORDER);
+    }
+
+    public void deleteLevel(int levelIndex, BidAsk side) {
+        sideOf(side).delete(levelIndex);
+        recordChange(EventType.DELETE_ORDER);
+    }
+
+    private Side sideOf(BidAsk side) {
+        return side == ASK ? asks : bids;
+    }
+
+    private void recordChange(EventType type) {
+        lastChangeType = type;
+        changed = true;
+    }
+
+    /**
+     * @return {@code true} if the book has been modified since the last call to {@link #toImmutableOrderBook()}
+     */
+    public boolean hasUnpublishedChanges() {
+        return changed;
     }
 
     public Instant getTimestamp() {
         return timestamp;
     }
 
+    public OrderBook toImmutableOrderBook() {
+        return toImmutableOrderBook(lastChangeType);
+    }
+
     public OrderBook toImmutableOrderBook(EventType type) {
-        return new OrderBook(timestamp, type, askLevels, bidLevels);
+        changed = false;
+        return new OrderBook(timestamp, type, asks.levels(), bids.levels());
     }
 
     public double getBidPrice(int level) {
-        return bidLevels[level].getPrice();
+        return bids.prices[level];
     }
 
     public double getBidSize(int level) {
-        return bidLevels[level].getQuantity();
+        return bids.quantities[level];
     }
 
     public double getAskPrice(int level) {
-        return askLevels[level].getPrice();
+        return asks.prices[level];
     }
 
     public double getAskSize(int level) {
-        return askLevels[level].getQuantity();
+        return asks.quantities[level];
+    }
+
+    private static final class Side {
+        private final double[] prices;
+        private final double[] quantities;
+        private final OrderBookLevel[] published;
+
+        private Side(int depth) {
+            prices = new double[depth];
+            quantities = new double[depth];
+            published = new OrderBookLevel[depth];
+            Arrays.fill(published, OrderBookLevel.EMPTY);
+        }
+
+        private void set(int index, double price, double quantity) {
+            prices[index] = price;
+            quantities[index] = quantity;
+        }
+
+        private void insert(int index, double price, double quantity) {
+            int last = prices.length - 1;
+            if (index < last) {
+                System.arraycopy(prices, index, prices, index + 1, last - index);
+                System.arraycopy(quantities, index, quantities, index + 1, last - index);
+            }
+            set(index, price, quantity);
+        }
+
+        private void delete(int index) {
+            int last = prices.length - 1;
+            if (index < last) {
+                System.arraycopy(prices, index + 1, prices, index, last - index);
+                System.arraycopy(quantities, index + 1, quantities, index, last - index);
+            }
+            set(last, 0, 0);
+        }
+
+        /**
+         * Returns the levels array used for publication. It is safe to hand out because {@link OrderBook}
+         * copies it, and the {@link OrderBookLevel} elements themselves are immutable.
+         */
+        private OrderBookLevel[] levels() {
+            for (int i = 0; i < published.length; i++) {
+                OrderBookLevel current = published[i];
+                if (Double.compare(current.getPrice(), prices[i]) != 0 ||
+                    Double.compare(current.getQuantity(), quantities[i]) != 0) {
+                    published[i] = isEmpty(i) ? OrderBookLevel.EMPTY : new OrderBookLevel(prices[i], quantities[i]);
+                }
+            }
+            return published;
+        }
+
+        private boolean isEmpty(int index) {
+            return prices[index] == 0 && quantities[index] == 0;
+        }
     }
-}
\ No newline at end of file
+}
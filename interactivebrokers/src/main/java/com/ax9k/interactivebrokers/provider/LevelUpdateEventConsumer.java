@@ -5,5 +5,5 @@ import com.ax9k.core.marketmodel.BidAsk;
 import java.time.Instant;
 
 public interface LevelUpdateEventConsumer {
-    void send(Instant timeStamp, int level, BidAsk side, double price, int quantity);
+    void send(Instant timeStamp, DepthOperation operation, int level, BidAsk side, double price, int quantity);
 }
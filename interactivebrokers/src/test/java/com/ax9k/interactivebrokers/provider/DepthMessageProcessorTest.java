@@ -13,6 +13,9 @@ import java.time.Instant;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import static com.ax9k.interactivebrokers.provider.DepthOperation.DELETE;
+import static com.ax9k.interactivebrokers.provider.DepthOperation.INSERT;
+import static com.ax9k.interactivebrokers.provider.DepthOperation.UPDATE;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -51,20 +54,20 @@ class DepthMessageProcessorTest {
     @BeforeEach
     void initialiseProcessor() {
         mockConsumer = mock(LevelUpdateEventConsumer.class);
-        mockProcessor = new DepthMessageProcessor(mockConsumer, () -> {});
+        mockProcessor = new DepthMessageProcessor(mockConsumer);
 
         result = new IbOrderBook(5);
-        testProcessor = new DepthMessageProcessor(result::directBookUpdate, () -> {});
+        testProcessor = new DepthMessageProcessor(result::apply);
     }
 
     private void setAskLevel(int level, OrderBookLevel value) {
-        testProcessor.processUpdate(Instant.EPOCH, level, BidAsk.ASK, value.getPrice(), 0);
-        testProcessor.processUpdate(Instant.EPOCH, level, BidAsk.ASK, 0, value.getQuantity());
+        testProcessor.processUpdate(Instant.EPOCH, UPDATE, level, BidAsk.ASK, value.getPrice(), 0);
+        testProcessor.processUpdate(Instant.EPOCH, UPDATE, level, BidAsk.ASK, 0, value.getQuantity());
     }
 
     private void setBidLevel(int level, OrderBookLevel value) {
-        testProcessor.processUpdate(Instant.EPOCH, level, BidAsk.BID, value.getPrice(), 0);
-        testProcessor.processUpdate(Instant.EPOCH, level, BidAsk.BID, 0, value.getQuantity());
+        testProcessor.processUpdate(Instant.EPOCH, UPDATE, level, BidAsk.BID, value.getPrice(), 0);
+        testProcessor.processUpdate(Instant.EPOCH, UPDATE, level, BidAsk.BID, 0, value.getQuantity());
     }
 
     private void assertCallbackSentOnce(int level, BidAsk side, double price, double quantity) {
@@ -72,7 +75,7 @@ class DepthMessageProcessorTest {
     }
 
     private void assertCallbackSent(VerificationMode times, int level, BidAsk side, double price, double quantity) {
-        verify(mockConsumer, times).send(TIME_STAMP, level, side, price, (int) quantity);
+        verify(mockConsumer, times).send(TIME_STAMP, UPDATE, level, side, price, (int) quantity);
     }
 
     private void assertCallbackNeverSent(int level, BidAsk side, double price, double quantity) {
@@ -83,12 +86,12 @@ class DepthMessageProcessorTest {
     class WhenProcessedSingleValidEvent {
         @Test
         void shouldProcessWithoutError() {
-            mockProcessor.processUpdate(TIME_STAMP, 0, BidAsk.ASK, 0, 0);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 0, BidAsk.ASK, 0, 0);
         }
 
         @Test
         void shouldNotSendCallback() {
-            mockProcessor.processUpdate(TIME_STAMP, 0, BidAsk.ASK, 30000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 0, BidAsk.ASK, 30000, 3);
             assertCallbackNeverSent(0, BidAsk.ASK, 30000, 3);
         }
     }
@@ -97,20 +100,20 @@ class DepthMessageProcessorTest {
     class WhenProcessingMultipleSimilarEvents {
         @Test
         void shouldProcessWithoutError() {
-            mockProcessor.processUpdate(TIME_STAMP, 0, BidAsk.ASK, 30000, 3);
-            mockProcessor.processUpdate(TIME_STAMP, 0, BidAsk.ASK, 30000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 0, BidAsk.ASK, 30000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 0, BidAsk.ASK, 30000, 3);
         }
 
         @Test
         void shouldNotSendCallbackAfterOneEvent() {
-            mockProcessor.processUpdate(TIME_STAMP, 0, BidAsk.ASK, 30000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 0, BidAsk.ASK, 30000, 3);
             assertCallbackNeverSent(0, BidAsk.ASK, 30000, 3);
         }
 
         @Test
         void shouldSendCallbackAfterTwoEvents() {
-            mockProcessor.processUpdate(TIME_STAMP, 0, BidAsk.ASK, 30000, 3);
-            mockProcessor.processUpdate(TIME_STAMP, 0, BidAsk.ASK, 30000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 0, BidAsk.ASK, 30000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 0, BidAsk.ASK, 30000, 3);
 
             assertCallbackSentOnce(0, BidAsk.ASK, 30000, 3);
         }
@@ -120,16 +123,16 @@ class DepthMessageProcessorTest {
     class WhenProcessingMultipleDissimilarEvents {
         @Test
         void shouldProcessWithoutError() {
-            mockProcessor.processUpdate(TIME_STAMP, 0, BidAsk.ASK, 30000, 3);
-            mockProcessor.processUpdate(TIME_STAMP, 1, BidAsk.ASK, 10000, 5);
-            mockProcessor.processUpdate(TIME_STAMP, 1, BidAsk.BID, 15000, 5);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 0, BidAsk.ASK, 30000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 1, BidAsk.ASK, 10000, 5);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 1, BidAsk.BID, 15000, 5);
         }
 
         @Test
         void shouldSendCallbackAfterLevelsDiffer() {
-            mockProcessor.processUpdate(TIME_STAMP, 0, BidAsk.ASK, 30000, 3);
-            mockProcessor.processUpdate(TIME_STAMP, 1, BidAsk.ASK, 30000, 3);
-            mockProcessor.processUpdate(TIME_STAMP, 2, BidAsk.ASK, 30000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 0, BidAsk.ASK, 30000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 1, BidAsk.ASK, 30000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 2, BidAsk.ASK, 30000, 3);
 
             assertCallbackSentOnce(0, BidAsk.ASK, 30000, 3);
             assertCallbackSentOnce(1, BidAsk.ASK, 30000, 3);
@@ -137,9 +140,9 @@ class DepthMessageProcessorTest {
 
         @Test
         void shouldSendCallbackAfterSidesDiffer() {
-            mockProcessor.processUpdate(TIME_STAMP, 0, BidAsk.ASK, 15000, 1);
-            mockProcessor.processUpdate(TIME_STAMP, 0, BidAsk.BID, 15000, 1);
-            mockProcessor.processUpdate(TIME_STAMP, 0, BidAsk.ASK, 15000, 1);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 0, BidAsk.ASK, 15000, 1);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 0, BidAsk.BID, 15000, 1);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 0, BidAsk.ASK, 15000, 1);
 
             assertCallbackSentOnce(0, BidAsk.ASK, 15000, 1);
             assertCallbackSentOnce(0, BidAsk.BID, 15000, 1);
@@ -147,9 +150,9 @@ class DepthMessageProcessorTest {
 
         @Test
         void shouldNotSendCallbackAfterPricesDiffer() {
-            mockProcessor.processUpdate(TIME_STAMP, 2, BidAsk.ASK, 10000, 3);
-            mockProcessor.processUpdate(TIME_STAMP, 2, BidAsk.ASK, 15000, 3);
-            mockProcessor.processUpdate(TIME_STAMP, 2, BidAsk.ASK, 10000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 2, BidAsk.ASK, 10000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 2, BidAsk.ASK, 15000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 2, BidAsk.ASK, 10000, 3);
 
             assertCallbackSentOnce(2, BidAsk.ASK, 15000, 3);
             assertCallbackNeverSent(2, BidAsk.ASK, 10000, 3);
@@ -157,9 +160,9 @@ class DepthMessageProcessorTest {
 
         @Test
         void shouldNotSendCallbackAfterQuantitiesDiffer() {
-            mockProcessor.processUpdate(TIME_STAMP, 2, BidAsk.ASK, 17000, 3);
-            mockProcessor.processUpdate(TIME_STAMP, 2, BidAsk.ASK, 17000, 7);
-            mockProcessor.processUpdate(TIME_STAMP, 2, BidAsk.ASK, 17000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 2, BidAsk.ASK, 17000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 2, BidAsk.ASK, 17000, 7);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 2, BidAsk.ASK, 17000, 3);
 
             assertCallbackSentOnce(2, BidAsk.ASK, 17000, 7);
             assertCallbackNeverSent(2, BidAsk.ASK, 17000, 3);
@@ -205,4 +208,116 @@ class DepthMessageProcessorTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class WhenProcessingInsertion {
+        @Test
+        void shouldNotMergeSecondInsertIntoFirst() {
+            mockProcessor.processUpdate(TIME_STAMP, INSERT, 0, BidAsk.ASK, 30000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, INSERT, 0, BidAsk.ASK, 29000, 4);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 4, BidAsk.ASK, 31000, 1);
+
+            verify(mockConsumer, ONCE).send(TIME_STAMP, INSERT, 0, BidAsk.ASK, 30000, 3);
+            verify(mockConsumer, ONCE).send(TIME_STAMP, INSERT, 0, BidAsk.ASK, 29000, 4);
+        }
+
+        @Test
+        void shouldNotMergeInsertIntoUpdate() {
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 0, BidAsk.ASK, 30000, 3);
+            mockProcessor.processUpdate(TIME_STAMP, INSERT, 0, BidAsk.ASK, 29000, 4);
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 4, BidAsk.ASK, 31000, 1);
+
+            assertCallbackSentOnce(0, BidAsk.ASK, 30000, 3);
+            verify(mockConsumer, ONCE).send(TIME_STAMP, INSERT, 0, BidAsk.ASK, 29000, 4);
+        }
+
+        @Test
+        void shouldKeepBothInsertedLevelsInBook() {
+            testProcessor.processUpdate(Instant.EPOCH, INSERT, 0, BidAsk.ASK, 5001, 2);
+            testProcessor.processUpdate(Instant.EPOCH, INSERT, 0, BidAsk.ASK, 5000, 1);
+            testProcessor.processUpdate(Instant.EPOCH, DELETE, 4, BidAsk.BID, 0, 0);
+
+            assertEquals(5000, result.getAskPrice(0));
+            assertEquals(1, result.getAskSize(0));
+            assertEquals(5001, result.getAskPrice(1));
+            assertEquals(2, result.getAskSize(1));
+        }
+
+        @Test
+        void shouldShiftLevelUpdatedBeforeInsert() {
+            setAskLevel(0, new OrderBookLevel(5001, 2));
+            testProcessor.processUpdate(Instant.EPOCH, INSERT, 0, BidAsk.ASK, 5000, 1);
+            testProcessor.processUpdate(Instant.EPOCH, DELETE, 4, BidAsk.BID, 0, 0);
+
+            assertEquals(5000, result.getAskPrice(0));
+            assertEquals(5001, result.getAskPrice(1));
+            assertEquals(2, result.getAskSize(1));
+        }
+    }
+
+    @Nested
+    class WhenBatchEnds {
+        private OrderBook publish() {
+            testProcessor.flush();
+            return result.hasUnpublishedChanges() ? result.toImmutableOrderBook(EventType.UNKNOWN) : null;
+        }
+
+        @Test
+        void shouldPublishBatchWithSingleInsert() {
+            testProcessor.processUpdate(Instant.EPOCH, INSERT, 0, BidAsk.ASK, 5000, 1);
+
+            OrderBook published = publish();
+
+            assertEquals(new OrderBookLevel(5000, 1), published.getAsks()[0]);
+        }
+
+        @Test
+        void shouldPublishBatchWithSingleUpdate() {
+            testProcessor.processUpdate(Instant.EPOCH, UPDATE, 0, BidAsk.BID, 4999, 2);
+
+            OrderBook published = publish();
+
+            assertEquals(new OrderBookLevel(4999, 2), published.getBids()[0]);
+        }
+
+        @Test
+        void shouldPublishLastChangeOfBatch() {
+            setAskLevel(0, new OrderBookLevel(5000, 1));
+            testProcessor.processUpdate(Instant.EPOCH, INSERT, 0, BidAsk.ASK, 4999, 3);
+
+            OrderBook published = publish();
+
+            assertEquals(new OrderBookLevel(4999, 3), published.getAsks()[0]);
+            assertEquals(new OrderBookLevel(5000, 1), published.getAsks()[1]);
+        }
+
+        @Test
+        void shouldNotSendFlushedChangeTwice() {
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 0, BidAsk.ASK, 30000, 3);
+
+            mockProcessor.flush();
+            mockProcessor.flush();
+
+            assertCallbackSentOnce(0, BidAsk.ASK, 30000, 3);
+        }
+    }
+
+    @Nested
+    class WhenProcessingDeletion {
+        @Test
+        void shouldSendDeletionImmediately() {
+            mockProcessor.processUpdate(TIME_STAMP, DELETE, 3, BidAsk.BID, 0, 0);
+
+            verify(mockConsumer, ONCE).send(TIME_STAMP, DELETE, 3, BidAsk.BID, 0, 0);
+        }
+
+        @Test
+        void shouldFlushHalfReceivedUpdateFirst() {
+            mockProcessor.processUpdate(TIME_STAMP, UPDATE, 1, BidAsk.BID, 15000, 2);
+            mockProcessor.processUpdate(TIME_STAMP, DELETE, 3, BidAsk.BID, 0, 0);
+
+            assertCallbackSentOnce(1, BidAsk.BID, 15000, 2);
+            verify(mockConsumer, ONCE).send(TIME_STAMP, DELETE, 3, BidAsk.BID, 0, 0);
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.ax9k.interactivebrokers.provider;
 
+import com.ax9k.core.event.EventType;
+import com.ax9k.core.marketmodel.orderbook.OrderBook;
+import com.ax9k.core.marketmodel.orderbook.OrderBookLevel;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -9,6 +13,9 @@ import static com.ax9k.core.marketmodel.BidAsk.ASK;
 import static com.ax9k.core.marketmodel.BidAsk.BID;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class IbOrderBookTest {
     private final IbOrderBook testBook = new IbOrderBook(10);
@@ -81,4 +88,96 @@ class IbOrderBookTest {
             assertBidLevel0Equals(testBook, 4, 2);
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class WhenInsertingLevel {
+        @BeforeEach
+        void fillTopLevels() {
+            testBook.directBookUpdate(Instant.EPOCH, 0, BID, 100, 1);
+            testBook.directBookUpdate(Instant.EPOCH, 1, BID, 99, 2);
+        }
+
+        @Test
+        void shouldShiftExistingLevelsDown() {
+            testBook.insertLevel(Instant.EPOCH, 0, BID, 101, 3);
+
+            assertBidLevelEquals(testBook, 0, 3, 101);
+            assertBidLevelEquals(testBook, 1, 1, 100);
+            assertBidLevelEquals(testBook, 2, 2, 99);
+        }
+
+        @Test
+        void shouldDropDeepestLevel() {
+            for (int i = 0; i < 10; i++) {
+                testBook.insertLevel(Instant.EPOCH, 0, ASK, 200 - i, 1);
+            }
+            testBook.insertLevel(Instant.EPOCH, 0, ASK, 150, 1);
+
+            assertAskLevelEquals(testBook, 0, 1, 150);
+            assertAskLevelEquals(testBook, 9, 1, 199);
+        }
+    }
+
+    @Nested
+    class WhenDeletingLevel {
+        @BeforeEach
+        void fillTopLevels() {
+            testBook.directBookUpdate(Instant.EPOCH, 0, ASK, 100, 1);
+            testBook.directBookUpdate(Instant.EPOCH, 1, ASK, 101, 2);
+            testBook.directBookUpdate(Instant.EPOCH, 2, ASK, 102, 3);
+        }
+
+        @Test
+        void shouldShiftDeeperLevelsUp() {
+            testBook.deleteLevel(0, ASK);
+
+            assertAskLevelEquals(testBook, 0, 2, 101);
+            assertAskLevelEquals(testBook, 1, 3, 102);
+            assertAskLevelEquals(testBook, 2, 0, 0);
+        }
+
+        @Test
+        void shouldClearDeepestLevel() {
+            testBook.deleteLevel(9, ASK);
+
+            assertAskLevelEquals(testBook, 9, 0, 0);
+            assertAskLevelEquals(testBook, 0, 1, 100);
+        }
+    }
+
+    @Nested
+    class WhenPublishing {
+        @Test
+        void shouldReportChangesUntilPublished() {
+            assertFalse(testBook.hasUnpublishedChanges());
+
+            testBook.directBookUpdate(Instant.EPOCH, 0, BID, 100, 1);
+            assertTrue(testBook.hasUnpublishedChanges());
+
+            testBook.toImmutableOrderBook();
+            assertFalse(testBook.hasUnpublishedChanges());
+        }
+
+        @Test
+        void shouldReuseUnchangedLevels() {
+            testBook.directBookUpdate(Instant.EPOCH, 0, BID, 100, 1);
+            testBook.directBookUpdate(Instant.EPOCH, 1, BID, 99, 1);
+            OrderBook first = testBook.toImmutableOrderBook();
+
+            testBook.directBookUpdate(Instant.EPOCH, 1, BID, 98, 4);
+            OrderBook second = testBook.toImmutableOrderBook();
+
+            assertSame(first.getBids()[0], second.getBids()[0]);
+            assertEquals(new OrderBookLevel(98, 4), second.getBids()[1]);
+            assertEquals(new OrderBookLevel(99, 1), first.getBids()[1]);
+        }
+
+        @Test
+        void shouldUseLastChangeType() {
+            testBook.directBookUpdate(Instant.EPOCH, 0, BID, 100, 1);
+            testBook.deleteLevel(0, BID);
+
+            assertEquals(EventType.DELETE_ORDER, testBook.toImmutableOrderBook().getType());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.ax9k.positionmanager;
 
 import com.ax9k.broker.BrokerCallbackReceiver;
 import com.ax9k.core.marketmodel.BidAsk;
+import com.ax9k.core.time.Time;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -63,7 +64,9 @@ class BrokerCallbackReceiverImpl implements BrokerCallbackReceiver {
 
             state.setLastTrade(lastOrder);
 
-            filledOrders.forEach(this::updateDailyStats);
+            TradeStatistics statistics = state.getStatistics();
+            filledOrders.forEach(statistics::orderFilled);
+            statistics.positionChanged(fillTimestamp, state.getCurrentPosition().hasPosition());
 
             if (lastOrder.getSide() == BidAsk.ASK) {
                 logger.info("Received a SELL callback: {}@{}. Order ID: {}, PnL: {}, Expected PnL: {}",
@@ -85,25 +88,6 @@ class BrokerCallbackReceiverImpl implements BrokerCallbackReceiver {
         }
     }
 
-    private void updateDailyStats(Order filledOrder) {
-        state.increaseTradeCount();
-        if (filledOrder.getPositionAction() == Order.PositionAction.EXIT) {
-            state.setPnl(state.getPnl() + filledOrder.getOrderPnl());
-            if (state.getPnl() < state.getDailyLowestPnl()) {
-                state.setDailyLowestPnl(state.getPnl());
-            }
-            if (state.getPnl() > state.getDailyHighestPnl()) {
-                state.setDailyHighestPnl(state.getPnl());
-            }
-
-            if (filledOrder.getOrderPnl() >= 0) {
-                state.increaseWinningTrades();
-            } else {
-                state.increaseLosingTrades();
-            }
-        }
-    }
-
     @Override
     public void orderCancelled(int orderId) {
         lock.lock();
@@ -150,6 +134,7 @@ class BrokerCallbackReceiverImpl implements BrokerCallbackReceiver {
                                                                                    entryPrice,
                                                                                    state.getContractMultiplier());
                 state.setLastTrade(initialOrder);
+                state.getStatistics().positionChanged(Time.now(), state.getCurrentPosition().hasPosition());
             }
             logger.info("New position: {}, entry price: {}", position, entryPrice);
         } finally {
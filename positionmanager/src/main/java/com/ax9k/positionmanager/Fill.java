@@ -1,8 +1,10 @@
 package com.ax9k.positionmanager;
 
+import java.io.Serializable;
 import java.time.Instant;
 
-final class Fill {
+final class Fill implements Serializable {
+    private static final long serialVersionUID = 1L;
     final static Fill EMPTY = new Fill(0, 0, Instant.EPOCH);
 
     private final double quantity;
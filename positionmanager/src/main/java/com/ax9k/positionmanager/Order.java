@@ -10,6 +10,7 @@ import org.apache.commons.lang3.Validate;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.Serializable;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -24,7 +25,8 @@ import static org.apache.commons.lang3.Validate.notNull;
                            "orderCreationDelay", "fillDelay", "totalDelay", "side",
                            "positionAction", "orderedQuantity", "orderedPrice", "filledQuantity"
                    })
-public class Order {
+public class Order implements Serializable {
+    private static final long serialVersionUID = 1L;
     static final Order EMPTY = new Order("DUMMY-ORDER",
                                          Instant.EPOCH,
                                          null,
@@ -56,7 +58,8 @@ public class Order {
     private final Deque<Fill> fills = new ArrayDeque<>();
     private final Instant recordedTimestamp;
     private final Instant sentTimestamp;
-    private final Event triggeringEvent;
+    /* Not kept in checkpoints, as events of any type can trigger an order */
+    private final transient Event triggeringEvent;
     private final BidAsk side;
     private final Order.Type type;
     private final String id;
@@ -120,8 +123,37 @@ public class Order {
                              Duration.ZERO;
     }
 
+    private Order(Order other) {
+        source = other.source;
+        recordedTimestamp = other.recordedTimestamp;
+        sentTimestamp = other.sentTimestamp;
+        triggeringEvent = other.triggeringEvent;
+        id = other.id;
+        orderedPrice = other.orderedPrice;
+        orderedQuantity = other.orderedQuantity;
+        side = other.side;
+        type = other.type;
+        positionAction = other.positionAction;
+        contractMultiplier = other.contractMultiplier;
+        orderCreationDelay = other.orderCreationDelay;
+        fills.addAll(other.fills);
+        lastFill = other.lastFill;
+        filledQuantity = other.filledQuantity;
+        enterPositionPrice = other.enterPositionPrice;
+        exitPositionPrice = other.exitPositionPrice;
+        orderPnl = other.orderPnl;
+        stopPrice = other.stopPrice;
+    }
+
+    /**
+     * @return a copy that later fills of this order do not change, for checkpoints
+     */
+    Order copy() {
+        return new Order(this);
+    }
+
     @JsonIgnore
-    Instant getRecordedTimestamp() {
+    public Instant getRecordedTimestamp() {
         return recordedTimestamp;
     }
 
@@ -15,6 +15,12 @@ public interface OrderReceiver {
 
     void initialiseBroker(Broker broker);
 
+    /**
+     * While disabled, orders, exits and cancellations are ignored and buy and sell return {@code -1}. Enabled by
+     * default.
+     */
+    void setOrdersEnabled(boolean ordersEnabled);
+
     //  boolean isExitingPosition();
 
     String getLastRiskManagerRejectReason();
@@ -19,6 +19,7 @@ public class OrderReceiverImpl implements OrderReceiver {
     private final RiskManager riskManager;
     private final Lock lock;
     private Broker broker;
+    private boolean ordersEnabled = true;
 
     OrderReceiverImpl(PositionManagerStateUpdater state,
                       RiskManager riskManager,
@@ -42,11 +43,26 @@ public class OrderReceiverImpl implements OrderReceiver {
         }
     }
 
+    @Override
+    public void setOrdersEnabled(boolean ordersEnabled) {
+        lock.lock();
+        try {
+            this.ordersEnabled = ordersEnabled;
+            logger.info("Orders {}", ordersEnabled ? "enabled" : "disabled");
+        } finally {
+            lock.unlock();
+        }
+    }
+
     @Override
     public void exitPosition(String source) {
         lock.lock();
         try {
             checkReady();
+            if (!ordersEnabled) {
+                logger.debug("Orders disabled. Ignored instruction to exit position from {}", source);
+                return;
+            }
             if (isExitingPosition()) {
                 return;
             }
@@ -81,6 +97,10 @@ public class OrderReceiverImpl implements OrderReceiver {
         lock.lock();
         try {
             checkReady();
+            if (!ordersEnabled) {
+                logger.debug("Orders disabled. Ignored instruction to cancel pending orders from {}", source);
+                return;
+            }
             logger.info("Instructed to cancel all pending orders by {}", source);
             broker.cancelAllPendingOrders();
             state.resetPendingSellOrders();
@@ -137,7 +157,10 @@ public class OrderReceiverImpl implements OrderReceiver {
         lock.lock();
         try {
             checkReady();
-            if (state.getBid0() <= 0d) {
+            if (!ordersEnabled) {
+                logger.debug("Orders disabled. Ignored SELL order for {}", quantity);
+                return -1;
+            } else if (state.getBid0() <= 0d) {
                 ERROR_LOG.error("Cannot sell with invalid bid0 value of: {}", state.getBid0());
                 return -1;
             } else if (!riskManager.canSell()) {
@@ -157,7 +180,10 @@ public class OrderReceiverImpl implements OrderReceiver {
         lock.lock();
         try {
             checkReady();
-            if (state.getAsk0() <= 0d) {
+            if (!ordersEnabled) {
+                logger.debug("Orders disabled. Ignored BUY order for {}", quantity);
+                return -1;
+            } else if (state.getAsk0() <= 0d) {
                 ERROR_LOG.error("Cannot buy with invalid ask0 value of: {}", state.getAsk0());
                 return -1;
             } else if (!riskManager.canBuy()) {
@@ -10,11 +10,17 @@ import org.apache.commons.lang3.Validate;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.Serializable;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.ax9k.positionmanager.Order.PositionAction.ENTER;
 import static com.ax9k.positionmanager.Order.PositionAction.EXIT;
@@ -29,10 +35,17 @@ public class Position {
     private static final Logger OUR_TRADE_LOGGER = LogManager.getLogger("ourTradeLogger");
 
     private final Map<String, List<Order>> orders = new HashMap<>(1000);
-
-    private Order latestOrder;
-    private double contractPosition;
-    private double enterPositionPrice;
+    private final AtomicLong ordersVersion = new AtomicLong();
+    /*
+     * Sorted by recorded time, which the windowed searches rely on. Copied on write, so readers can search it without
+     * locking. Orders are far rarer than reads.
+     */
+    private volatile List<Map.Entry<String, List<Order>>> ordersInTimeOrder = List.of();
+
+    /* Volatile so the market data thread can mark the position to market without taking the position manager lock. */
+    private volatile Order latestOrder;
+    private volatile double contractPosition;
+    private volatile double enterPositionPrice;
     private boolean positionInitialised;
 
     List<Order> fillOrder(Instant fillTimestamp, int orderId, double avgFillPrice, double quantity) {
@@ -48,6 +61,7 @@ public class Position {
         }
 
         boolean successfulFill = fill(toFill, orderId, fillTimestamp, avgFillPrice, quantity);
+        ordersVersion.incrementAndGet();
 
         if (successfulFill) {
             if (isExitAndEnterTrade(toFill)) {
@@ -114,6 +128,8 @@ public class Position {
             ERROR_LOG.error("Cannot cancel order. No orders under ID: {}", orderId);
         } else {
             orders.remove(id);
+            removeFromTimeOrder(id);
+            ordersVersion.incrementAndGet();
             return toCancel.get(0);
         }
         return null;
@@ -122,7 +138,7 @@ public class Position {
     public Order initialisePosition(double position, double entryPrice, int contractMultiplier) {
         Order initialOrder = makeInitialOrder(position, entryPrice, contractMultiplier);
         this.enterPositionPrice = entryPrice;
-        orders.put(initialOrder.getId(), List.of(initialOrder));
+        putOrders(initialOrder.getId(), List.of(initialOrder));
         positionInitialised = true;
 
         OUR_TRADE_LOGGER.info(initialOrder);
@@ -203,7 +219,7 @@ public class Position {
             newOrders = List.of(order);
         }
 
-        orders.put(id, newOrders);
+        putOrders(id, newOrders);
     }
 
     private Order makeSellMarketOrder(String source,
@@ -232,6 +248,29 @@ public class Position {
         );
     }
 
+    private void putOrders(String id, List<Order> newOrders) {
+        List<Order> replaced = orders.put(id, newOrders);
+        List<Map.Entry<String, List<Order>>> updated = new ArrayList<>(ordersInTimeOrder);
+        if (replaced != null) {
+            updated.removeIf(entry -> entry.getKey().equals(id));
+        }
+        /* Usually the newest, but the wall clock can step back while trading live */
+        Instant recorded = newOrders.get(0).getRecordedTimestamp();
+        int index = updated.size();
+        while (index > 0 && recordedTimestamp(updated.get(index - 1)).isAfter(recorded)) {
+            index--;
+        }
+        updated.add(index, Map.entry(id, newOrders));
+        ordersInTimeOrder = Collections.unmodifiableList(updated);
+        ordersVersion.incrementAndGet();
+    }
+
+    private void removeFromTimeOrder(String id) {
+        List<Map.Entry<String, List<Order>>> updated = new ArrayList<>(ordersInTimeOrder);
+        updated.removeIf(entry -> entry.getKey().equals(id));
+        ordersInTimeOrder = Collections.unmodifiableList(updated);
+    }
+
     private boolean sellingIntoNewPosition(double quantity) {
         return contractPosition > 0 && quantity > contractPosition;
     }
@@ -285,7 +324,7 @@ public class Position {
             newOrders = List.of(order);
         }
 
-        orders.put(id, newOrders);
+        putOrders(id, newOrders);
     }
 
     private boolean buyingIntoNewPosition(double quantity) {
@@ -329,6 +368,92 @@ public class Position {
                 .count();
     }
 
+    /**
+     * Equivalent to {@code getTradeCount(period) > limit} for a period starting at {@code earliestExclusive}, but only
+     * looks at the order recorded {@code limit + 1} orders ago, so it takes constant time however busy the day is.
+     */
+    boolean hasMoreOrdersAfter(Instant earliestExclusive, int limit) {
+        List<Map.Entry<String, List<Order>>> entries = ordersInTimeOrder;
+        int index = entries.size() - limit - 1;
+        return index >= 0 && recordedTimestamp(entries.get(index)).isAfter(earliestExclusive);
+    }
+
+    /**
+     * Changes whenever an order is added, filled or cancelled, or the broker reports a new contract position.
+     */
+    @JsonIgnore
+    public long getOrdersVersion() {
+        return ordersVersion.get();
+    }
+
+    /**
+     * @return up to {@code limit} of the earliest orders recorded from {@code fromInclusive} up to
+     * {@code toExclusive}, keyed by ID as in {@link #getOrdersJson()}, in time order
+     */
+    public Map<String, List<Order>> getOrdersBetween(Instant fromInclusive, Instant toExclusive, int limit) {
+        List<Map.Entry<String, List<Order>>> entries = ordersInTimeOrder;
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (recordedTimestamp(entries.get(middle)).isBefore(fromInclusive)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        Map<String, List<Order>> result = new LinkedHashMap<>();
+        for (int i = low; i < entries.size() && result.size() < limit; i++) {
+            Map.Entry<String, List<Order>> entry = entries.get(i);
+            if (!recordedTimestamp(entry).isBefore(toExclusive)) {
+                break;
+            }
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    private static Instant recordedTimestamp(Map.Entry<String, List<Order>> entry) {
+        return entry.getValue().get(0).getRecordedTimestamp();
+    }
+
+    /**
+     * Orders go on changing as they fill, so they are copied. The copies can be serialised without holding the lock.
+     */
+    State checkpoint() {
+        LinkedHashMap<String, List<Order>> ordersInOrder = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Order>> entry : ordersInTimeOrder) {
+            List<Order> copies = new ArrayList<>(entry.getValue().size());
+            for (Order order : entry.getValue()) {
+                copies.add(order.copy());
+            }
+            ordersInOrder.put(entry.getKey(), copies);
+        }
+        return new State(ordersInOrder, contractPosition, enterPositionPrice);
+    }
+
+    /**
+     * Restores the order history, keeping any orders recorded since startup. The position itself is only restored if
+     * the broker has not reported it yet, as the broker's position is always current.
+     */
+    void restore(State state) {
+        List<Map.Entry<String, List<Order>>> updated = new ArrayList<>(ordersInTimeOrder);
+        for (Map.Entry<String, List<Order>> entry : state.orders.entrySet()) {
+            if (orders.putIfAbsent(entry.getKey(), entry.getValue()) == null) {
+                updated.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        updated.sort(Comparator.comparing(Position::recordedTimestamp));
+        ordersInTimeOrder = Collections.unmodifiableList(updated);
+        ordersVersion.incrementAndGet();
+
+        if (!positionInitialised) {
+            contractPosition = state.contractPosition;
+            enterPositionPrice = state.enterPositionPrice;
+        }
+    }
+
     @JsonIgnore
     public String getOrdersJson() {
         return JsonUtils.toPrettyJsonString(orders);
@@ -353,7 +478,10 @@ public class Position {
     }
 
     public void setContractPosition(double quantity) {
-        contractPosition = quantity;
+        if (quantity != contractPosition) {
+            contractPosition = quantity;
+            ordersVersion.incrementAndGet();
+        }
     }
 
     public boolean isLong() {
@@ -399,4 +527,18 @@ public class Position {
     public String toString() {
         return JsonUtils.toPrettyJsonString(this);
     }
+
+    static final class State implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final LinkedHashMap<String, List<Order>> orders;
+        private final double contractPosition;
+        private final double enterPositionPrice;
+
+        private State(LinkedHashMap<String, List<Order>> orders, double contractPosition, double enterPositionPrice) {
+            this.orders = orders;
+            this.contractPosition = contractPosition;
+            this.enterPositionPrice = enterPositionPrice;
+        }
+    }
 }
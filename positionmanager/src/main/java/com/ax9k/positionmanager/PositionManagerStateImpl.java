@@ -7,6 +7,7 @@ import com.ax9k.utils.json.JsonUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.apache.commons.lang3.Validate;
 
+import java.io.Serializable;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,28 +18,22 @@ public class PositionManagerStateImpl implements PositionReporter, PositionManag
 
     private final Position currentPosition = new Position();
     private final HashMap<Phase, Double> sessionPnls = new HashMap<>();
+    private final TradeStatistics statistics = new TradeStatistics();
 
     private OrderReceiver orderReceiver;
     private Order lastTrade = Order.EMPTY;
 
     private int pendingBuyOrderCount;
     private int pendingSellOrderCount;
-    private boolean isExitingPosition;
+    private volatile boolean isExitingPosition;
 
     private double brokerRealisedPnl;
     private double brokerUnrealisedPnl;
     private double brokerDailyPnl;
-    private int winningTrades = 0;
-    private int losingTrades = 0;
-    private int losingStreak = 0;
-    private int longestLosingStreak = 0;
-    private int tradeCount;
-    private double pnl;
-    private double dailyLowestPnl = 0;
-    private double dailyHighestPnl = 0;
-
-    private double bid0;
-    private double ask0;
+
+    /* Only written by the market data thread, which does not take the position manager lock. */
+    private volatile double bid0;
+    private volatile double ask0;
 
     public String getContractLocalSymbol() {
         return orderReceiver.getContractLocalSymbol();
@@ -60,12 +55,12 @@ public class PositionManagerStateImpl implements PositionReporter, PositionManag
 
     @Override
     public int getWinningTrades() {
-        return winningTrades;
+        return statistics.getWinningTrades();
     }
 
     @Override
     public int getLosingTrades() {
-        return losingTrades;
+        return statistics.getLosingTrades();
     }
 
     @Override
@@ -80,17 +75,12 @@ public class PositionManagerStateImpl implements PositionReporter, PositionManag
 
     @Override
     public double getGrossPnl() {
-        return pnl;
-    }
-
-    @Override
-    public void setPnl(double pnl) {
-        this.pnl = pnl;
+        return statistics.getPnl();
     }
 
     @Override
     public double getTradingFees() {
-        return getCostPerTrade() * tradeCount;
+        return getCostPerTrade() * statistics.getTradeCount();
     }
 
     @Override
@@ -140,27 +130,22 @@ public class PositionManagerStateImpl implements PositionReporter, PositionManag
 
     @Override
     public double getDailyLowestPnl() {
-        return dailyLowestPnl;
-    }
-
-    @Override
-    public void setDailyLowestPnl(double dailyLowestPnl) {
-        this.dailyLowestPnl = dailyLowestPnl;
+        return statistics.getDailyLowestPnl();
     }
 
     @Override
     public double getDailyHighestPnl() {
-        return dailyHighestPnl;
+        return statistics.getDailyHighestPnl();
     }
 
     @Override
-    public void setDailyHighestPnl(double dailyHighestPnl) {
-        this.dailyHighestPnl = dailyHighestPnl;
+    public int getTradeCount() {
+        return statistics.getTradeCount();
     }
 
     @Override
-    public int getTradeCount() {
-        return tradeCount;
+    public TradeStatistics getStatistics() {
+        return statistics;
     }
 
     @Override
@@ -307,42 +292,65 @@ public class PositionManagerStateImpl implements PositionReporter, PositionManag
         return orderReceiver.getContractMultiplier();
     }
 
-    @Override
-    public void increaseTradeCount() {
-        tradeCount++;
-    }
-
-    @Override
-    public void increaseLosingTrades() {
-        losingTrades++;
-        increaseLosingStreak();
-    }
-
-    private void increaseLosingStreak() {
-        losingStreak++;
-        if (losingStreak > longestLosingStreak) {
-            longestLosingStreak = losingStreak;
-        }
-    }
-
     @Override
     public int getLongestLosingStreak() {
-        return longestLosingStreak;
-    }
-
-    @Override
-    public void increaseWinningTrades() {
-        winningTrades++;
-        losingStreak = 0;
+        return statistics.getLongestLosingStreak();
     }
 
     @Override
     public int getLosingStreak() {
-        return losingStreak;
+        return statistics.getLosingStreak();
+    }
+
+    State checkpoint() {
+        HashMap<String, Double> sessionPnlsByName = new HashMap<>();
+        sessionPnls.forEach((phase, sessionPnl) -> sessionPnlsByName.put(phase.getName(), sessionPnl));
+        return new State(this, sessionPnlsByName, currentPosition.checkpoint());
+    }
+
+    /**
+     * Restores the PnL, trade statistics and order history. Pending order counts are not restored, as orders pending
+     * when the checkpoint was taken are resolved by the broker in the meantime.
+     */
+    void restore(State state) {
+        currentPosition.restore(state.position);
+        for (Phase phase : Time.schedule().getPhases()) {
+            Double sessionPnl = state.sessionPnls.get(phase.getName());
+            if (sessionPnl != null) {
+                sessionPnls.put(phase, sessionPnl);
+            }
+        }
+        lastTrade = state.lastTrade;
+        brokerRealisedPnl = state.brokerRealisedPnl;
+        brokerUnrealisedPnl = state.brokerUnrealisedPnl;
+        brokerDailyPnl = state.brokerDailyPnl;
+        statistics.restore(state.statistics);
     }
 
     @Override
     public String toString() {
         return JsonUtils.toPrettyJsonString(this);
     }
+
+    static final class State implements Serializable {
+        private static final long serialVersionUID = 2L;
+
+        private final HashMap<String, Double> sessionPnls;
+        private final Position.State position;
+        private final Order lastTrade;
+        private final double brokerRealisedPnl;
+        private final double brokerUnrealisedPnl;
+        private final double brokerDailyPnl;
+        private final TradeStatistics statistics;
+
+        private State(PositionManagerStateImpl state, HashMap<String, Double> sessionPnls, Position.State position) {
+            this.sessionPnls = sessionPnls;
+            this.position = position;
+            lastTrade = state.lastTrade.copy();
+            brokerRealisedPnl = state.brokerRealisedPnl;
+            brokerUnrealisedPnl = state.brokerUnrealisedPnl;
+            brokerDailyPnl = state.brokerDailyPnl;
+            statistics = state.statistics.copy();
+        }
+    }
 }
@@ -14,22 +14,10 @@ public interface PositionManagerStateUpdater extends PositionReporter {
 
     void setBrokerDailyPnl(double brokerDailyPnl);
 
-    void setDailyLowestPnl(double dailyLowestPnl);
-
-    void setDailyHighestPnl(double dailyHighestPnl);
-
-    void setPnl(double pnl);
-
     void recordEndOfSessionPnL(Phase tradingSession);
 
     void setTopOfBook(double bid0, double ask0);
 
-    void increaseTradeCount();
-
-    void increaseLosingTrades();
-
-    void increaseWinningTrades();
-
     void increasePendingSellOrders();
 
     void decreasePendingSellOrders();
@@ -65,4 +65,6 @@ public interface PositionReporter {
     double getCostPerTrade();
 
     double getTradingFees();
+
+    TradeStatistics getStatistics();
 }
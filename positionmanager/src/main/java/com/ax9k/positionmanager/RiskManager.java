@@ -1,10 +1,14 @@
 package com.ax9k.positionmanager;
 
+import com.ax9k.core.marketmodel.BidAsk;
+import com.ax9k.core.time.Time;
 import com.ax9k.utils.config.Configuration;
 
 import java.time.Duration;
 
 class RiskManager {
+    private static final Duration TRADE_RATE_PERIOD = Duration.ofMinutes(5);
+
     private final int maxPendingOrders;
     private final int maxPendingBuyLimit;
     private final int maxPendingSellLimit;
@@ -36,93 +40,49 @@ class RiskManager {
     }
 
     boolean canBuy() {
-        return belowMaxPosition() && belowMaxPendingBuyLimit() && belowMaxLosingStreak() &&
-               (positionManager.getCurrentPosition().isShort() || underDailyTradeLimit()) &&
-               (positionManager.getCurrentPosition().isShort() || under5minTradeLimit()) &&
-               (positionManager.getCurrentPosition().isShort() || aboveMinPnl()) &&
-               (positionManager.getCurrentPosition().isShort() || belowMaxPendingOrderLimit());
-    }
-
-    private boolean belowMaxLosingStreak() {
-        if (positionManager.getLosingStreak() > maxLosingStreak) {
-            lastRejectionReason = RejectionReason.ABOVE_MAX_LOSING_STREAK;
-            return false;
-        }
-        return true;
-    }
-
-    private boolean belowMaxPosition() {
-        if (positionManager.getCurrentPosition().getContractPosition() >= maxPosition) {
-            lastRejectionReason = RejectionReason.ABOVE_MAX_POSITION;
-            return false;
-        }
-        return true;
-    }
-
-    private boolean belowMaxPendingBuyLimit() {
-        if (positionManager.getPendingBuyOrderCount() >= maxPendingBuyLimit) {
-            lastRejectionReason = RejectionReason.ABOVE_PENDING_BUY_LIMIT;
-            return false;
-        }
-        return true;
-    }
-
-    private boolean underDailyTradeLimit() {
-        if (positionManager.getTradeCount() >= maxTotalDailyTrades) {
-            lastRejectionReason = RejectionReason.OVER_DAILY_TRADE_LIMIT;
-            return false;
-        }
-        return true;
-    }
-
-    private boolean under5minTradeLimit() {
-
-        if (positionManager.getTradeCount(Duration.ofMinutes(5)) > maxTradesFiveMinutes) {
-            lastRejectionReason = RejectionReason.OVER_5_MIN_TRADE_LIMIT;
-            return false;
-        }
-        return true;
-    }
-
-    private boolean aboveMinPnl() {
-        if (positionManager.getPnl() < minPnl) {
-            lastRejectionReason = RejectionReason.UNDER_MIN_PNL;
-            return false;
-        }
-        return true;
-    }
-
-    private boolean belowMaxPendingOrderLimit() {
-        if (positionManager.getPendingBuyOrderCount() >= maxPendingOrders ||
-            positionManager.getPendingSellOrderCount() >= maxPendingOrders) {
-            lastRejectionReason = RejectionReason.ABOVE_PENDING_LIMIT;
-            return false;
-        }
-        return true;
+        return canPlace(BidAsk.BID);
     }
 
     boolean canSell() {
-        return aboveMinPosition() && belowMaxPendingSellLimit() && belowMaxLosingStreak() &&
-               (positionManager.getCurrentPosition().isLong() || underDailyTradeLimit()) &&
-               (positionManager.getCurrentPosition().isLong() || under5minTradeLimit()) &&
-               (positionManager.getCurrentPosition().isLong() || aboveMinPnl()) &&
-               (positionManager.getCurrentPosition().isLong() || belowMaxPendingOrderLimit());
-    }
-
-    private boolean aboveMinPosition() {
-        if (positionManager.getCurrentPosition().getContractPosition() <= minPosition) {
-            lastRejectionReason = RejectionReason.BELOW_MIN_POSITION;
-            return false;
-        }
-        return true;
+        return canPlace(BidAsk.ASK);
     }
 
-    private boolean belowMaxPendingSellLimit() {
-        if (positionManager.getPendingSellOrderCount() >= maxPendingSellLimit) {
-            lastRejectionReason = RejectionReason.ABOVE_PENDING_SELL_LIMIT;
-            return false;
+    /**
+     * Checks every limit for an order on the given side, in the order the limits have always been checked, recording
+     * the first one broken. Each check reads a value that is kept up to date as orders are placed and filled, so the
+     * gate takes constant time. Orders that reduce the position skip the daily trade, trade rate, PnL and total
+     * pending order checks, so a position can always be closed.
+     */
+    boolean canPlace(BidAsk side) {
+        boolean buying = side == BidAsk.BID;
+        Position position = positionManager.getCurrentPosition();
+        double contractPosition = position.getContractPosition();
+        boolean reducing = buying ? contractPosition < 0 : contractPosition > 0;
+        int pendingBuys = positionManager.getPendingBuyOrderCount();
+        int pendingSells = positionManager.getPendingSellOrderCount();
+
+        RejectionReason reason;
+        if (buying ? contractPosition >= maxPosition : contractPosition <= minPosition) {
+            reason = buying ? RejectionReason.ABOVE_MAX_POSITION : RejectionReason.BELOW_MIN_POSITION;
+        } else if (buying ? pendingBuys >= maxPendingBuyLimit : pendingSells >= maxPendingSellLimit) {
+            reason = buying ? RejectionReason.ABOVE_PENDING_BUY_LIMIT : RejectionReason.ABOVE_PENDING_SELL_LIMIT;
+        } else if (positionManager.getLosingStreak() > maxLosingStreak) {
+            reason = RejectionReason.ABOVE_MAX_LOSING_STREAK;
+        } else if (reducing) {
+            return true;
+        } else if (positionManager.getTradeCount() >= maxTotalDailyTrades) {
+            reason = RejectionReason.OVER_DAILY_TRADE_LIMIT;
+        } else if (position.hasMoreOrdersAfter(Time.now().minus(TRADE_RATE_PERIOD), maxTradesFiveMinutes)) {
+            reason = RejectionReason.OVER_5_MIN_TRADE_LIMIT;
+        } else if (positionManager.getPnl() < minPnl) {
+            reason = RejectionReason.UNDER_MIN_PNL;
+        } else if (pendingBuys >= maxPendingOrders || pendingSells >= maxPendingOrders) {
+            reason = RejectionReason.ABOVE_PENDING_LIMIT;
+        } else {
+            return true;
         }
-        return true;
+        lastRejectionReason = reason;
+        return false;
     }
 
     String getLastRejectionReason() {
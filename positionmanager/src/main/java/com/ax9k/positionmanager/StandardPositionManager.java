@@ -1,6 +1,7 @@
 package com.ax9k.positionmanager;
 
 import com.ax9k.broker.BrokerCallbackReceiver;
+import com.ax9k.core.checkpoint.Checkpointable;
 import com.ax9k.core.marketmodel.Phase;
 import com.ax9k.core.time.Time;
 import com.ax9k.utils.compare.ComparableUtils;
@@ -9,13 +10,14 @@ import com.ax9k.utils.json.JsonUtils;
 import com.fasterxml.jackson.annotation.JsonRootName;
 import org.apache.logging.log4j.Logger;
 
+import java.io.Serializable;
 import java.time.Duration;
 import java.time.LocalTime;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @JsonRootName("positionManager")
-public class StandardPositionManager implements PositionManager, MarketDataProviderCallbackReceiver {
+public class StandardPositionManager implements PositionManager, MarketDataProviderCallbackReceiver, Checkpointable {
     private static final Duration TWO_MINUTES = Duration.ofMinutes(2);
 
     private final Lock lock = new ReentrantLock();
@@ -26,6 +28,10 @@ public class StandardPositionManager implements PositionManager, MarketDataProvi
     private final OrderReceiver orderReceiver;
     private final boolean exitBetweenTradingSessions;
 
+    /* Only used by the market data thread. */
+    private int contractMultiplier;
+    private Phase lastRecordedSession;
+
     StandardPositionManager(Configuration riskManagerConfiguration, Logger logger, boolean exitBetweenTradingSessions) {
         this.logger = logger;
         this.exitBetweenTradingSessions = exitBetweenTradingSessions;
@@ -49,38 +55,78 @@ public class StandardPositionManager implements PositionManager, MarketDataProvi
         return this;
     }
 
+    /**
+     * Called by the market data thread on every book update, so it does not take the lock unless it has to act. The
+     * position, PnL and exit flags it reads are published by the lock holders, and the top of book, contract
+     * multiplier and last recorded session are only written by this thread. A decision to exit or to record a session
+     * is checked again under the lock, so a stale read can only delay an exit until the next book.
+     */
+    @Override
     public void updateBookValues(double bid0, double ask0) {
-        lock.lock();
-        try {
-
-            Phase currentPhase = Time.currentPhase();
-            state.setTopOfBook(bid0, ask0);
-            if (!state.isExitingPosition() &&
-                !state.hasPendingOrders() &&
-                state.validBook() &&
-                state.getCurrentPosition().hasPosition() &&
-                state.getUnrealisedPnL() < riskManager.getMinPnL()) {
-
-                logger.info("Exiting position because unrealised PnL equals {}, which is less than the acceptable " +
-                            "minimum of {}. Position value at entry: {}",
-                            state.getUnrealisedPnL(),
-                            riskManager.getMinPnL(),
-                            getPositionReporter().getCurrentPosition().getValueAtEntry());
-                orderReceiver.exitPosition("POSITION_MANAGER");
-            } else if (tradingSessionEnding(currentPhase)) {
-                if (exitBetweenTradingSessions && state.getCurrentPosition().hasPosition() &&
-                    !state.isExitingPosition()) {
-                    logger.info("Exiting position of {} because phase {} is about to end.",
-                                state.getCurrentPosition().getContractPosition(),
-                                currentPhase);
+        state.setTopOfBook(bid0, ask0);
+        Phase currentPhase = Time.currentPhase();
+        if (belowMinPnl()) {
+            lock.lock();
+            try {
+                if (belowMinPnl()) {
+                    logger.info("Exiting position because unrealised PnL equals {}, which is less than the " +
+                                "acceptable minimum of {}. Position value at entry: {}",
+                                unrealisedPnl(),
+                                riskManager.getMinPnL(),
+                                state.getCurrentPosition().getValueAtEntry());
                     orderReceiver.exitPosition("POSITION_MANAGER");
                 }
-
-                if (!state.getPnlsAtEndOfSessions().containsKey(currentPhase)) {
-                    state.recordEndOfSessionPnL(currentPhase);
-                    logger.info("PnL at end of phase {}: {}", currentPhase, state.getPnl());
+            } finally {
+                lock.unlock();
+            }
+        } else if (tradingSessionEnding(currentPhase)) {
+            if (exitBetweenTradingSessions && holdingPosition()) {
+                lock.lock();
+                try {
+                    if (holdingPosition()) {
+                        logger.info("Exiting position of {} because phase {} is about to end.",
+                                    state.getCurrentPosition().getContractPosition(),
+                                    currentPhase);
+                        orderReceiver.exitPosition("POSITION_MANAGER");
+                    }
+                } finally {
+                    lock.unlock();
                 }
             }
+
+            if (currentPhase != lastRecordedSession) {
+                recordEndOfSessionPnl(currentPhase);
+            }
+        }
+    }
+
+    private boolean belowMinPnl() {
+        return holdingPosition() &&
+               !state.hasPendingOrders() &&
+               state.validBook() &&
+               unrealisedPnl() < riskManager.getMinPnL();
+    }
+
+    private boolean holdingPosition() {
+        return !state.isExitingPosition() && state.getCurrentPosition().hasPosition();
+    }
+
+    private double unrealisedPnl() {
+        if (contractMultiplier == 0) {
+            contractMultiplier = orderReceiver.getContractMultiplier();
+        }
+        return state.getPnl() +
+               state.getCurrentPosition().getUnrealisedPnL(state.getBid0(), state.getAsk0(), contractMultiplier);
+    }
+
+    private void recordEndOfSessionPnl(Phase tradingSession) {
+        lock.lock();
+        try {
+            if (!state.getPnlsAtEndOfSessions().containsKey(tradingSession)) {
+                state.recordEndOfSessionPnL(tradingSession);
+                logger.info("PnL at end of phase {}: {}", tradingSession, state.getPnl());
+            }
+            lastRecordedSession = tradingSession;
         } finally {
             lock.unlock();
         }
@@ -90,6 +136,29 @@ public class StandardPositionManager implements PositionManager, MarketDataProvi
         return state;
     }
 
+    /**
+     * Only copies the state while the lock is held. The copy is serialised later, without it.
+     */
+    @Override
+    public Serializable checkpoint() {
+        lock.lock();
+        try {
+            return state.checkpoint();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void restore(Serializable checkpoint) {
+        lock.lock();
+        try {
+            state.restore((PositionManagerStateImpl.State) checkpoint);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     private boolean tradingSessionEnding(Phase currentPhase) {
         if (!currentPhase.isTradingSession()) {
             return false;
@@ -0,0 +1,195 @@
+package com.ax9k.positionmanager;
+
+import com.ax9k.core.time.Time;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Daily trading statistics, kept up to date as fills arrive so that reading any of them is constant time.
+ * <p>
+ * Updated by the position manager while it holds its lock, apart from the stop count, which algos increment
+ * atomically under their own locks. Every value is published on its own, so readers need no lock, but two values read
+ * one after the other may come from different fills.
+ */
+public final class TradeStatistics implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private volatile double pnl;
+    private volatile double dailyHighestPnl;
+    private volatile double dailyLowestPnl;
+    private volatile double maxDrawdown;
+    private volatile int tradeCount;
+    private volatile int winningTrades;
+    private volatile int losingTrades;
+    private volatile int losingStreak;
+    private volatile int longestLosingStreak;
+    private final AtomicInteger hitStopCount = new AtomicInteger();
+    private volatile int roundTrips;
+    private volatile Duration totalTradeDuration = Duration.ZERO;
+    private volatile Duration longestTradeDuration = Duration.ZERO;
+    private volatile Instant positionOpened;
+
+    TradeStatistics() {
+    }
+
+    private TradeStatistics(TradeStatistics other) {
+        copy(other);
+    }
+
+    void orderFilled(Order filledOrder) {
+        tradeCount++;
+        if (filledOrder.getPositionAction() != Order.PositionAction.EXIT) {
+            return;
+        }
+
+        double orderPnl = filledOrder.getOrderPnl();
+        double newPnl = pnl + orderPnl;
+        pnl = newPnl;
+        if (newPnl < dailyLowestPnl) {
+            dailyLowestPnl = newPnl;
+        }
+        if (newPnl > dailyHighestPnl) {
+            dailyHighestPnl = newPnl;
+        }
+        if (dailyHighestPnl - newPnl > maxDrawdown) {
+            maxDrawdown = dailyHighestPnl - newPnl;
+        }
+
+        if (orderPnl >= 0) {
+            winningTrades++;
+            losingStreak = 0;
+        } else {
+            losingTrades++;
+            int streak = losingStreak + 1;
+            losingStreak = streak;
+            if (streak > longestLosingStreak) {
+                longestLosingStreak = streak;
+            }
+        }
+    }
+
+    /**
+     * Starts or ends a round trip, once a fill has opened or closed the position.
+     */
+    void positionChanged(Instant timestamp, boolean hasPosition) {
+        Instant opened = positionOpened;
+        if (hasPosition && opened == null) {
+            positionOpened = timestamp;
+        } else if (!hasPosition && opened != null) {
+            Duration duration = Duration.between(opened, timestamp);
+            roundTrips++;
+            totalTradeDuration = totalTradeDuration.plus(duration);
+            if (duration.compareTo(longestTradeDuration) > 0) {
+                longestTradeDuration = duration;
+            }
+            positionOpened = null;
+        }
+    }
+
+    /**
+     * For algos to count the times their stop price was hit. Safe to call from any thread.
+     */
+    public void stopHit() {
+        hitStopCount.incrementAndGet();
+    }
+
+    public double getPnl() {
+        return pnl;
+    }
+
+    public double getDailyHighestPnl() {
+        return dailyHighestPnl;
+    }
+
+    public double getDailyLowestPnl() {
+        return dailyLowestPnl;
+    }
+
+    /**
+     * The largest fall of the realised PnL from its daily high.
+     */
+    public double getMaxDrawdown() {
+        return maxDrawdown;
+    }
+
+    public double getDrawdown() {
+        return dailyHighestPnl - pnl;
+    }
+
+    public int getTradeCount() {
+        return tradeCount;
+    }
+
+    public int getWinningTrades() {
+        return winningTrades;
+    }
+
+    public int getLosingTrades() {
+        return losingTrades;
+    }
+
+    public int getLosingStreak() {
+        return losingStreak;
+    }
+
+    public int getLongestLosingStreak() {
+        return longestLosingStreak;
+    }
+
+    public int getHitStopCount() {
+        return hitStopCount.get();
+    }
+
+    /**
+     * The number of times a position was opened and closed again.
+     */
+    public int getRoundTrips() {
+        return roundTrips;
+    }
+
+    public Duration getAverageTradeDuration() {
+        int count = roundTrips;
+        return count == 0 ? Duration.ZERO : totalTradeDuration.dividedBy(count);
+    }
+
+    public Duration getLongestTradeDuration() {
+        return longestTradeDuration;
+    }
+
+    /**
+     * The total time spent in a position today, including the position currently held.
+     */
+    public Duration getExposureTime() {
+        Duration closed = totalTradeDuration;
+        Instant opened = positionOpened;
+        return opened == null ? closed : closed.plus(Duration.between(opened, Time.now()));
+    }
+
+    TradeStatistics copy() {
+        return new TradeStatistics(this);
+    }
+
+    void restore(TradeStatistics other) {
+        copy(other);
+    }
+
+    private void copy(TradeStatistics other) {
+        pnl = other.pnl;
+        dailyHighestPnl = other.dailyHighestPnl;
+        dailyLowestPnl = other.dailyLowestPnl;
+        maxDrawdown = other.maxDrawdown;
+        tradeCount = other.tradeCount;
+        winningTrades = other.winningTrades;
+        losingTrades = other.losingTrades;
+        losingStreak = other.losingStreak;
+        longestLosingStreak = other.longestLosingStreak;
+        hitStopCount.set(other.hitStopCount.get());
+        roundTrips = other.roundTrips;
+        totalTradeDuration = other.totalTradeDuration;
+        longestTradeDuration = other.longestTradeDuration;
+        positionOpened = other.positionOpened;
+    }
+}
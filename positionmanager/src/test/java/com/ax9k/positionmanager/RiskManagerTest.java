@@ -0,0 +1,197 @@
+package com.ax9k.positionmanager;
+
+import com.ax9k.broker.OrderRecord;
+import com.ax9k.core.time.Time;
+import com.ax9k.positionmanager.RiskManager.RejectionReason;
+import com.ax9k.utils.config.Configurations;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RiskManagerTest {
+    private static final Instant NOW = Instant.parse("2018-06-01T02:00:00Z");
+    private static final Duration TRADE_RATE_PERIOD = Duration.ofMinutes(5);
+    private static final int MAX_TRADES_FIVE_MINUTES = 3;
+
+    private final PositionReporter reporter = mock(PositionReporter.class);
+    private Position position;
+    private RiskManager testManager;
+    private int nextOrderId;
+
+    private void recordOrderAt(Instant timestamp) {
+        Time.update(timestamp);
+        position.addBuyOrder(new OrderRecord(timestamp, ++nextOrderId), "test", null, 1, 100, 0, 1);
+        Time.update(NOW);
+    }
+
+    private void recordOrdersSecondsAgo(long... secondsAgo) {
+        for (long seconds : secondsAgo) {
+            recordOrderAt(NOW.minusSeconds(seconds));
+        }
+    }
+
+    private void assertRejected(boolean placed, RejectionReason expected) {
+        assertFalse(placed);
+        assertEquals(expected.toString(), testManager.getLastRejectionReason());
+    }
+
+    @BeforeEach
+    void initialiseManager() {
+        Time.update(NOW);
+        position = new Position();
+        when(reporter.getCurrentPosition()).thenReturn(position);
+        testManager = new RiskManager(reporter, Configurations.load(Map.of("max_pending_orders", 1,
+                                                                           "max_position", 5,
+                                                                           "min_position", -5,
+                                                                           "max_trades_5_minutes",
+                                                                           MAX_TRADES_FIVE_MINUTES,
+                                                                           "max_total_daily_trades", 10,
+                                                                           "min_pnl", -100,
+                                                                           "max_losing_streak", 3)));
+    }
+
+    @Nested
+    class WhenWithinEveryLimit {
+        @Test
+        void shouldAllowBothSides() {
+            assertTrue(testManager.canBuy());
+            assertTrue(testManager.canSell());
+            assertEquals(RejectionReason.NOT_REJECTED.toString(), testManager.getLastRejectionReason());
+        }
+
+        @Test
+        void shouldAllowReducingPositionOverDailyTradeLimit() {
+            position.setContractPosition(-1);
+            when(reporter.getTradeCount()).thenReturn(10);
+
+            assertTrue(testManager.canBuy());
+        }
+    }
+
+    @Nested
+    class WhenOverALimit {
+        @Test
+        void shouldRejectBuyingAtMaxPosition() {
+            position.setContractPosition(5);
+
+            assertRejected(testManager.canBuy(), RejectionReason.ABOVE_MAX_POSITION);
+        }
+
+        @Test
+        void shouldRejectSellingAtMinPosition() {
+            position.setContractPosition(-5);
+
+            assertRejected(testManager.canSell(), RejectionReason.BELOW_MIN_POSITION);
+        }
+
+        @Test
+        void shouldRejectBuyingOverPendingBuyLimit() {
+            when(reporter.getPendingBuyOrderCount()).thenReturn(1);
+
+            assertRejected(testManager.canBuy(), RejectionReason.ABOVE_PENDING_BUY_LIMIT);
+        }
+
+        @Test
+        void shouldRejectSellingOverPendingSellLimit() {
+            when(reporter.getPendingSellOrderCount()).thenReturn(1);
+
+            assertRejected(testManager.canSell(), RejectionReason.ABOVE_PENDING_SELL_LIMIT);
+        }
+
+        @Test
+        void shouldRejectOverMaxLosingStreak() {
+            when(reporter.getLosingStreak()).thenReturn(4);
+
+            assertRejected(testManager.canBuy(), RejectionReason.ABOVE_MAX_LOSING_STREAK);
+        }
+
+        @Test
+        void shouldRejectOverDailyTradeLimit() {
+            when(reporter.getTradeCount()).thenReturn(10);
+
+            assertRejected(testManager.canBuy(), RejectionReason.OVER_DAILY_TRADE_LIMIT);
+        }
+
+        @Test
+        void shouldRejectOverFiveMinuteTradeLimit() {
+            recordOrdersSecondsAgo(240, 180, 120, 60);
+
+            assertRejected(testManager.canSell(), RejectionReason.OVER_5_MIN_TRADE_LIMIT);
+        }
+
+        @Test
+        void shouldRejectUnderMinPnl() {
+            when(reporter.getPnl()).thenReturn(-101.0);
+
+            assertRejected(testManager.canBuy(), RejectionReason.UNDER_MIN_PNL);
+        }
+
+        @Test
+        void shouldRejectOverPendingLimitOnTheOtherSide() {
+            when(reporter.getPendingSellOrderCount()).thenReturn(1);
+
+            assertRejected(testManager.canBuy(), RejectionReason.ABOVE_PENDING_LIMIT);
+        }
+    }
+
+    @Nested
+    class WhenCountingRecentOrders {
+        private void assertSameAsTradeCount() {
+            Instant earliest = NOW.minus(TRADE_RATE_PERIOD);
+            for (int limit = 0; limit <= MAX_TRADES_FIVE_MINUTES + 2; limit++) {
+                assertEquals(position.getTradeCount(TRADE_RATE_PERIOD) > limit,
+                             position.hasMoreOrdersAfter(earliest, limit),
+                             "limit " + limit);
+            }
+        }
+
+        @Test
+        void shouldMatchTradeCountWithoutOrders() {
+            assertSameAsTradeCount();
+        }
+
+        @Test
+        void shouldMatchTradeCountWhenOrdersEqualTheLimit() {
+            recordOrdersSecondsAgo(200, 100, 10);
+
+            assertEquals(MAX_TRADES_FIVE_MINUTES, position.getTradeCount(TRADE_RATE_PERIOD));
+            assertSameAsTradeCount();
+            assertTrue(testManager.canBuy());
+        }
+
+        @Test
+        void shouldMatchTradeCountWhenOrdersExceedTheLimitByOne() {
+            recordOrdersSecondsAgo(200, 150, 100, 10);
+
+            assertEquals(MAX_TRADES_FIVE_MINUTES + 1, position.getTradeCount(TRADE_RATE_PERIOD));
+            assertSameAsTradeCount();
+        }
+
+        @Test
+        void shouldNotCountOrdersRecordedExactlyAtThePeriodStart() {
+            recordOrdersSecondsAgo(600, 300, 100, 50, 10);
+
+            assertEquals(3, position.getTradeCount(TRADE_RATE_PERIOD));
+            assertSameAsTradeCount();
+            assertTrue(testManager.canBuy());
+        }
+
+        @Test
+        void shouldMatchTradeCountWhenOrdersAreRecordedOutOfOrder() {
+            recordOrdersSecondsAgo(10, 600, 100, 400, 50, 301, 299);
+
+            assertEquals(4, position.getTradeCount(TRADE_RATE_PERIOD));
+            assertSameAsTradeCount();
+        }
+    }
+}
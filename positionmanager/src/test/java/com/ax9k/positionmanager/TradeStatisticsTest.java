@@ -0,0 +1,190 @@
+package com.ax9k.positionmanager;
+
+import com.ax9k.core.marketmodel.BidAsk;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TradeStatisticsTest {
+    private static final double ENTER_PRICE = 100;
+
+    private TradeStatistics testStatistics;
+
+    private static Order exit(double exitPrice) {
+        Order order = new Order("test",
+                                Instant.EPOCH,
+                                null,
+                                null,
+                                "1",
+                                exitPrice,
+                                1,
+                                BidAsk.ASK,
+                                Order.Type.MARKET_ORDER,
+                                Order.PositionAction.EXIT,
+                                1,
+                                ENTER_PRICE,
+                                -1);
+        order.fillAll(Instant.EPOCH, exitPrice);
+        return order;
+    }
+
+    private void closeTrades(double... pnls) {
+        for (double pnl : pnls) {
+            testStatistics.orderFilled(exit(ENTER_PRICE + pnl));
+        }
+    }
+
+    @BeforeEach
+    void initialiseStatistics() {
+        testStatistics = new TradeStatistics();
+    }
+
+    @Nested
+    class WhenClosingTrades {
+        @Test
+        void shouldCountWinningAndLosingTrades() {
+            closeTrades(5, -2, 0, -1);
+
+            assertEquals(4, testStatistics.getTradeCount());
+            assertEquals(2, testStatistics.getWinningTrades());
+            assertEquals(2, testStatistics.getLosingTrades());
+        }
+
+        @Test
+        void shouldEndLosingStreakOnWinningTrade() {
+            closeTrades(-1, -1, -1, 2, -1);
+
+            assertEquals(1, testStatistics.getLosingStreak());
+            assertEquals(3, testStatistics.getLongestLosingStreak());
+        }
+
+        @Test
+        void shouldTrackDailyHighestAndLowestPnl() {
+            closeTrades(-3, 10, -4);
+
+            assertEquals(3, testStatistics.getPnl());
+            assertEquals(7, testStatistics.getDailyHighestPnl());
+            assertEquals(-3, testStatistics.getDailyLowestPnl());
+            assertEquals(4, testStatistics.getMaxDrawdown());
+            assertEquals(4, testStatistics.getDrawdown());
+        }
+
+        @Test
+        void shouldOnlyCountEnteringTrades() {
+            Order enter = new Order("test", Instant.EPOCH, null, null, "2", ENTER_PRICE, 1, BidAsk.BID,
+                                    Order.Type.MARKET_ORDER, Order.PositionAction.ENTER, 1, 0, -1);
+            enter.fillAll(Instant.EPOCH, ENTER_PRICE);
+
+            testStatistics.orderFilled(enter);
+
+            assertEquals(1, testStatistics.getTradeCount());
+            assertEquals(0, testStatistics.getWinningTrades());
+            assertEquals(0, testStatistics.getLosingTrades());
+            assertEquals(0, testStatistics.getPnl());
+        }
+    }
+
+    @Nested
+    class WhenHoldingPositions {
+        @Test
+        void shouldTrackRoundTripDurations() {
+            testStatistics.positionChanged(Instant.ofEpochSecond(0), true);
+            testStatistics.positionChanged(Instant.ofEpochSecond(10), false);
+            testStatistics.positionChanged(Instant.ofEpochSecond(20), true);
+            testStatistics.positionChanged(Instant.ofEpochSecond(50), false);
+
+            assertEquals(2, testStatistics.getRoundTrips());
+            assertEquals(Duration.ofSeconds(20), testStatistics.getAverageTradeDuration());
+            assertEquals(Duration.ofSeconds(30), testStatistics.getLongestTradeDuration());
+        }
+
+        @Test
+        void shouldIgnoreChangesThatKeepThePosition() {
+            testStatistics.positionChanged(Instant.ofEpochSecond(0), true);
+            testStatistics.positionChanged(Instant.ofEpochSecond(5), true);
+            testStatistics.positionChanged(Instant.ofEpochSecond(10), false);
+            testStatistics.positionChanged(Instant.ofEpochSecond(15), false);
+
+            assertEquals(1, testStatistics.getRoundTrips());
+            assertEquals(Duration.ofSeconds(10), testStatistics.getLongestTradeDuration());
+        }
+    }
+
+    @Nested
+    class WhenHittingStops {
+        @Test
+        void shouldCountStopsHitFromManyThreads() throws InterruptedException {
+            Thread[] threads = new Thread[4];
+            for (int i = 0; i < threads.length; i++) {
+                threads[i] = new Thread(() -> {
+                    for (int j = 0; j < 1_000; j++) {
+                        testStatistics.stopHit();
+                    }
+                });
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertEquals(4_000, testStatistics.getHitStopCount());
+        }
+    }
+
+    @Nested
+    class WhenCopying {
+        @BeforeEach
+        void recordActivity() {
+            closeTrades(4, -1, -2);
+            testStatistics.positionChanged(Instant.ofEpochSecond(0), true);
+            testStatistics.positionChanged(Instant.ofEpochSecond(8), false);
+            testStatistics.stopHit();
+        }
+
+        private void assertSameStatistics(TradeStatistics expected, TradeStatistics actual) {
+            assertEquals(expected.getPnl(), actual.getPnl());
+            assertEquals(expected.getDailyHighestPnl(), actual.getDailyHighestPnl());
+            assertEquals(expected.getDailyLowestPnl(), actual.getDailyLowestPnl());
+            assertEquals(expected.getMaxDrawdown(), actual.getMaxDrawdown());
+            assertEquals(expected.getTradeCount(), actual.getTradeCount());
+            assertEquals(expected.getWinningTrades(), actual.getWinningTrades());
+            assertEquals(expected.getLosingTrades(), actual.getLosingTrades());
+            assertEquals(expected.getLosingStreak(), actual.getLosingStreak());
+            assertEquals(expected.getLongestLosingStreak(), actual.getLongestLosingStreak());
+            assertEquals(expected.getHitStopCount(), actual.getHitStopCount());
+            assertEquals(expected.getRoundTrips(), actual.getRoundTrips());
+            assertEquals(expected.getLongestTradeDuration(), actual.getLongestTradeDuration());
+        }
+
+        @Test
+        void shouldCopyEveryValue() {
+            assertSameStatistics(testStatistics, testStatistics.copy());
+        }
+
+        @Test
+        void shouldNotChangeCopyWhenOriginalChanges() {
+            TradeStatistics copy = testStatistics.copy();
+
+            closeTrades(-5);
+            testStatistics.stopHit();
+
+            assertEquals(1, copy.getPnl());
+            assertEquals(3, copy.getTradeCount());
+            assertEquals(1, copy.getHitStopCount());
+        }
+
+        @Test
+        void shouldRestoreEveryValue() {
+            TradeStatistics restored = new TradeStatistics();
+
+            restored.restore(testStatistics);
+
+            assertSameStatistics(testStatistics, restored);
+        }
+    }
+}
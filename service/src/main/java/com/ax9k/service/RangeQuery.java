@@ -0,0 +1,146 @@
+package com.ax9k.service;
+
+import com.ax9k.core.time.Time;
+import spark.Request;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * The {@code from}, {@code to} and {@code limit} parameters of a paged request.
+ * <p>
+ * Times are either ISO-8601 instants or local times of the current trading day. {@code from} is inclusive and
+ * {@code to} exclusive, and {@code skip} passes over that many entries stamped exactly {@code from}. A page holds the
+ * earliest matching entries and, if more remain, {@code nextFrom} and {@code nextSkip} cursors to pass as the next
+ * request's {@code from} and {@code skip}, so entries sharing a timestamp are neither repeated nor missed.
+ */
+final class RangeQuery {
+    private static final String FROM = "from";
+    private static final String TO = "to";
+    private static final String LIMIT = "limit";
+    private static final String SKIP = "skip";
+    private static final int DEFAULT_LIMIT = 500;
+    private static final int MAX_LIMIT = 10_000;
+
+    private final Instant from;
+    private final Instant to;
+    private final int limit;
+    private final int skip;
+
+    RangeQuery(Instant from, Instant to, int limit, int skip) {
+        this.from = from;
+        this.to = to;
+        this.limit = limit;
+        this.skip = skip;
+    }
+
+    static boolean isRequested(Request request) {
+        return request.queryParams(FROM) != null ||
+               request.queryParams(TO) != null ||
+               request.queryParams(LIMIT) != null ||
+               request.queryParams(SKIP) != null;
+    }
+
+    static RangeQuery parse(Request request) {
+        Instant from = parseTime(FROM, request.queryParams(FROM), Instant.MIN);
+        Instant to = parseTime(TO, request.queryParams(TO), Instant.MAX);
+        int limit = parseLimit(request.queryParams(LIMIT));
+        int skip = parseSkip(request.queryParams(SKIP));
+        return new RangeQuery(from, to, limit, skip);
+    }
+
+    private static Instant parseTime(String name, String value, Instant defaultValue) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+
+        try {
+            return value.indexOf('T') >= 0 ? Instant.parse(value) : Time.todayAt(LocalTime.parse(value));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(format("Invalid '%s' time: %s", name, value), e);
+        }
+    }
+
+    private static int parseLimit(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_LIMIT;
+        }
+
+        try {
+            int limit = Integer.parseInt(value.trim());
+            if (limit > 0 && limit <= MAX_LIMIT) {
+                return limit;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(format("Invalid 'limit': %s. Must be from 1 to %d", value, MAX_LIMIT));
+    }
+
+    private static int parseSkip(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return 0;
+        }
+
+        try {
+            int skip = Integer.parseInt(value.trim());
+            if (skip >= 0 && skip <= Integer.MAX_VALUE - MAX_LIMIT - 1) {
+                return skip;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(format("Invalid 'skip': %s. Must not be negative", value));
+    }
+
+    Instant getFrom() {
+        return from;
+    }
+
+    Instant getTo() {
+        return to;
+    }
+
+    /**
+     * Enough to skip, fill the page, and have the first entry of the next page become the cursor.
+     */
+    int getFetchSize() {
+        return skip + limit + 1;
+    }
+
+    /**
+     * @param fetched   at most {@link #getFetchSize()} entries from {@code from}, in time order
+     * @param timestamp time of an entry
+     * @param view      what to output for the entries on the page
+     */
+    <T> Map<String, Object> page(List<T> fetched, Function<T, Instant> timestamp, Function<List<T>, ?> view) {
+        int skipped = 0;
+        while (skipped < skip && skipped < fetched.size() && timestamp.apply(fetched.get(skipped)).equals(from)) {
+            skipped++;
+        }
+        List<T> remaining = fetched.subList(skipped, fetched.size());
+        boolean more = remaining.size() > limit;
+        List<T> entries = more ? remaining.subList(0, limit) : remaining;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("results", view.apply(entries));
+        if (more) {
+            Instant nextFrom = timestamp.apply(remaining.get(limit));
+            int nextSkip = nextFrom.equals(from) ? skipped : 0;
+            for (int i = entries.size() - 1; i >= 0 && timestamp.apply(entries.get(i)).equals(nextFrom); i--) {
+                nextSkip++;
+            }
+            result.put("nextFrom", nextFrom.toString());
+            result.put("nextSkip", nextSkip);
+        } else {
+            result.put("nextFrom", null);
+            result.put("nextSkip", null);
+        }
+        return result;
+    }
+}
@@ -1,14 +1,19 @@
 package com.ax9k.service;
 
 import com.ax9k.algo.Algo;
+import com.ax9k.algo.PeriodicFeatureResult;
+import com.ax9k.algo.PeriodicFeatureUpdates;
 import com.ax9k.algo.trading.TradingAlgo;
 import com.ax9k.broker.Broker;
 import com.ax9k.core.marketmodel.TradingDay;
 import com.ax9k.core.time.Time;
 import com.ax9k.positionmanager.OrderReceiver;
+import com.ax9k.positionmanager.Position;
 import com.ax9k.positionmanager.PositionManager;
 import com.ax9k.positionmanager.PositionReporter;
 import com.ax9k.provider.MarketDataProvider;
+import com.ax9k.service.UpdateStream.Source;
+import com.ax9k.service.UpdateStream.Topic;
 import com.ax9k.service.paths.Paths;
 import com.ax9k.utils.json.JsonUtils;
 import org.apache.logging.log4j.LogManager;
@@ -23,9 +28,19 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 
 import static java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 import static spark.Spark.before;
 import static spark.Spark.exception;
 import static spark.Spark.get;
@@ -48,8 +63,10 @@ public final class RestService {
     private final Algo algo;
     private final MarketDataProvider provider;
     private final Broker broker;
+    private final SnapshotCache responseCache = SnapshotCache.fromSystemProperties();
     private Instant startTime;
     private String logFileDirectoryPath;
+    private UpdateStream updateStream;
 
     public RestService(Runnable shutDownProcedure,
                        PositionManager positionManager,
@@ -145,9 +162,33 @@ public final class RestService {
 
         get(Paths.SHUT_DOWN, this::shutDown);
 
+        updateStream = UpdateStream.fromSystemProperties(streamSources());
+        updateStream.start();
+
         startTime = Instant.now();
     }
 
+    private Map<Topic, Source> streamSources() {
+        Map<Topic, Source> sources = new EnumMap<>(Topic.class);
+        sources.put(Topic.CURRENT_BOOK, Source.of(tradingDay::getStateVersion, tradingDay::getCurrentBook));
+        sources.put(Topic.MARKET_LAST_TRADE, Source.of(tradingDay::getStateVersion, tradingDay::getLastTrade));
+        sources.put(Topic.LATEST_BAR, Source.of(tradingDay::getStateVersion, tradingDay::getLatestBar));
+        sources.put(Topic.FEATURES, Source.of(algo::getFeaturesVersion, algo::getFeaturesJson));
+        sources.put(Topic.POSITION, Source.of(this::getPositionVersion, () -> positionReporter));
+        return sources;
+    }
+
+    /*
+     * Orders and fills change everything but the unrealised PnL, which follows the market only while a position
+     * is held. The orders version fills the high bits and the market version the low bits, so either changing
+     * changes the result.
+     */
+    private long getPositionVersion() {
+        Position position = positionReporter.getCurrentPosition();
+        long marketVersion = position.getContractPosition() != 0 ? tradingDay.getStateVersion() : 0;
+        return position.getOrdersVersion() << 32 | marketVersion & 0xFFFF_FFFFL;
+    }
+
     private static String findLogFileDirectory() {
         Path workingDir = java.nio.file.Paths.get(System.getProperty("user.dir"));
 
@@ -214,7 +255,47 @@ public final class RestService {
     }
 
     private String sendPeriodicFeatures(Request request, Response response) {
-        return json(response, algo.getPeriodicUpdates());
+        if (!RangeQuery.isRequested(request)) {
+            return cachedJson(response, Paths.PERIODIC_FEATURES, algo.getPeriodicUpdates().getVersion(),
+                              () -> algo.getPeriodicUpdates().toString());
+        }
+
+        PeriodicFeatureUpdates updates = algo.getPeriodicUpdates();
+        Set<Duration> periods;
+        RangeQuery query;
+        try {
+            String period = request.queryParams("period");
+            periods = period != null ? Set.of(Duration.parse(period)) : updates.getPeriodSet();
+            query = RangeQuery.parse(request);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return badRequest(response, e.getMessage());
+        }
+
+        Map<String, Object> pages = new TreeMap<>();
+        for (Duration period : periods) {
+            if (!updates.hasPeriod(period)) {
+                return badRequest(response, "No periodic features for period: " + period);
+            }
+            List<PeriodicFeatureResult> results = updates.getHistory(period)
+                                                         .between(query.getFrom(), query.getTo(),
+                                                                  query.getFetchSize());
+            pages.put(period.toString(), query.page(results, PeriodicFeatureResult::getTimestamp,
+                                                    page -> page.stream()
+                                                                .map(PeriodicFeatureResult::getFeatures)
+                                                                .collect(toList())));
+        }
+        response.header("Content-Type", "application/json");
+        return JsonUtils.toPrettyJsonString(pages);
+    }
+
+    private static String badRequest(Response response, String reason) {
+        response.status(BAD_REQUEST);
+        return BAD_REQUEST + " " + reason;
+    }
+
+    private String cachedJson(Response response, String path, long version, Supplier<String> serialiser) {
+        response.header("Content-Type", "application/json");
+        return responseCache.get(path, version, serialiser);
     }
 
     private String sendProviderJson(Request request, Response response) {
@@ -255,16 +336,13 @@ public final class RestService {
     }
 
     private String sendAsksJson(Request request, Response response) {
-        return json(response, tradingDay.getCurrentBook().getAsks());
-    }
-
-    private static String json(Response response, Object[] content) {
-        response.header("Content-Type", "application/json");
-        return JsonUtils.toPrettyJsonString(content);
+        return cachedJson(response, Paths.ASKS, tradingDay.getStateVersion(),
+                          () -> JsonUtils.toPrettyJsonString(tradingDay.getCurrentBook().getAsks()));
     }
 
     private String sendBidsJson(Request request, Response response) {
-        return json(response, tradingDay.getCurrentBook().getBids());
+        return cachedJson(response, Paths.BIDS, tradingDay.getStateVersion(),
+                          () -> JsonUtils.toPrettyJsonString(tradingDay.getCurrentBook().getBids()));
     }
 
     private String sendPositionManagerJson(Request request, Response response) {
@@ -289,8 +367,7 @@ public final class RestService {
     }
 
     private String sendAlgoJson(Request request, Response response) {
-        response.header("Content-Type", "application/json");
-        return algo.toString();
+        return json(response, algo);
     }
 
     private String sendLatestBarJson(Request request, Response response) {
@@ -298,11 +375,32 @@ public final class RestService {
     }
 
     private String sendTradingDayJson(Request request, Response response) {
-        return json(response, tradingDay);
+        return cachedJson(response, Paths.TRADING_DAY, tradingDay.getStateVersion(), tradingDay::toString);
     }
 
     private String sendOrdersJson(Request request, Response response) {
-        return json(response, positionReporter.getCurrentPosition().getOrdersJson());
+        Position position = positionReporter.getCurrentPosition();
+        if (!RangeQuery.isRequested(request)) {
+            return cachedJson(response, Paths.ORDERS, position.getOrdersVersion(), position::getOrdersJson);
+        }
+
+        RangeQuery query;
+        try {
+            query = RangeQuery.parse(request);
+        } catch (IllegalArgumentException e) {
+            return badRequest(response, e.getMessage());
+        }
+
+        var orders = new ArrayList<>(position.getOrdersBetween(query.getFrom(), query.getTo(), query.getFetchSize())
+                                             .entrySet());
+        Map<String, Object> page = query.page(orders,
+                                              entry -> entry.getValue().get(0).getRecordedTimestamp(),
+                                              entries -> entries.stream().collect(toMap(Map.Entry::getKey,
+                                                                                        Map.Entry::getValue,
+                                                                                        (first, second) -> first,
+                                                                                        LinkedHashMap::new)));
+        response.header("Content-Type", "application/json");
+        return JsonUtils.toPrettyJsonString(page);
     }
 
     private String sendMarketLastTradeJson(Request request, Response response) {
@@ -374,6 +472,7 @@ public final class RestService {
     }
 
     public void stop() {
+        updateStream.stop();
         Spark.stop();
     }
 
@@ -413,4 +512,12 @@ public final class RestService {
     public String getLogFilesDirectory() {
         return logFileDirectoryPath;
     }
+
+    public int getStreamPort() {
+        return updateStream.getPort();
+    }
+
+    public int getStreamClientCount() {
+        return updateStream.getClientCount();
+    }
 }
@@ -0,0 +1,57 @@
+package com.ax9k.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Serialised responses for the read-only REST paths, each tagged with the state version it was serialised at.
+ * <p>
+ * A response is serialised again only once its version has changed, so any number of requests between two state
+ * changes cost one serialisation. Concurrent requests for a stale entry wait for a single serialisation rather than
+ * each doing their own. Entries also expire after a maximum age, so values derived from the clock, or from state
+ * without a version, are never older than that.
+ */
+final class SnapshotCache {
+    static final String MAX_AGE_PROPERTY = "ax9k.rest.cacheMaxAgeMillis";
+
+    private static final long DEFAULT_MAX_AGE_MILLIS = 1000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long maxAgeNanos;
+
+    SnapshotCache(Duration maxAge) {
+        maxAgeNanos = maxAge.toNanos();
+    }
+
+    static SnapshotCache fromSystemProperties() {
+        return new SnapshotCache(Duration.ofMillis(Long.getLong(MAX_AGE_PROPERTY, DEFAULT_MAX_AGE_MILLIS)));
+    }
+
+    /**
+     * @param version    must be read before anything it covers, so a change during serialisation leaves the entry
+     *                   already out of date
+     * @param serialiser produces the response when the cached one is out of date
+     */
+    String get(String key, long version, Supplier<String> serialiser) {
+        Entry entry = entries.computeIfAbsent(key, ignored -> new Entry());
+        synchronized (entry) {
+            long now = System.nanoTime();
+            if (entry.json == null || entry.version != version || now - entry.createdNanos > maxAgeNanos) {
+                entry.json = notNull(serialiser.get());
+                entry.version = version;
+                entry.createdNanos = now;
+            }
+            return entry.json;
+        }
+    }
+
+    private static final class Entry {
+        private String json;
+        private long version;
+        private long createdNanos;
+    }
+}
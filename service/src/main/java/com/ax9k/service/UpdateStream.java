@@ -0,0 +1,288 @@
+package com.ax9k.service;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.java_websocket.WebSocket;
+import org.java_websocket.framing.CloseFrame;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Pushes changes to the dashboard data over a WebSocket, instead of clients polling the REST paths.
+ * <p>
+ * Every topic is read and serialised at most once per interval, however many clients are connected, and only
+ * changed topics are sent. A topic is not even read while its version is unchanged. Each client buffers at most
+ * one message per topic: a client that has not finished receiving the previous updates only gets the latest value
+ * of each topic once it catches up.
+ * <p>
+ * Clients may choose topics with a query parameter, e.g. {@code ws://host:4568/?topics=CURRENT_BOOK,POSITION}.
+ * Messages are of the form {@code {"topic":"CURRENT_BOOK","data":{...}}}.
+ */
+final class UpdateStream {
+    static final String PORT_PROPERTY = "ax9k.stream.port";
+    static final String INTERVAL_PROPERTY = "ax9k.stream.intervalMillis";
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final Logger ERROR_LOG = LogManager.getLogger("error");
+    private static final int DEFAULT_PORT = 4568;
+    private static final long DEFAULT_INTERVAL_MILLIS = 250;
+    private static final int STOP_TIMEOUT_MILLIS = 1000;
+    private static final String TOPICS_PARAMETER = "topics=";
+    private static final Topic[] TOPICS = Topic.values();
+
+    private final Map<Topic, Source> sources;
+    private final Duration interval;
+    private final Server server;
+    private final Map<WebSocket, Client> clients = new ConcurrentHashMap<>();
+    private final long[] lastVersions = new long[TOPICS.length];
+    private final Object[] lastSnapshots = new Object[TOPICS.length];
+    private final String[] lastMessages = new String[TOPICS.length];
+    private ScheduledExecutorService publisher;
+
+    UpdateStream(Map<Topic, Source> sources, int port, Duration interval) {
+        isTrue(sources.keySet().containsAll(EnumSet.allOf(Topic.class)), "missing topic sources: %s", sources);
+        isTrue(!interval.isNegative() && !interval.isZero(), "interval must be positive: %s", interval);
+        this.sources = new EnumMap<>(sources);
+        this.interval = interval;
+        server = new Server(new InetSocketAddress(port));
+    }
+
+    static UpdateStream fromSystemProperties(Map<Topic, Source> sources) {
+        int port = Integer.getInteger(PORT_PROPERTY, DEFAULT_PORT);
+        long intervalMillis = Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL_MILLIS);
+        return new UpdateStream(sources, port, Duration.ofMillis(intervalMillis));
+    }
+
+    void start() {
+        server.setReuseAddr(true);
+        server.start();
+
+        publisher = Executors.newSingleThreadScheduledExecutor(new BasicThreadFactory.Builder()
+                                                                       .namingPattern("REST-Stream")
+                                                                       .daemon(true)
+                                                                       .build());
+        long intervalMillis = interval.toMillis();
+        publisher.scheduleAtFixedRate(this::publish, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        LOGGER.info("Update stream started on port {}. Interval: {}", getPort(), interval);
+    }
+
+    void stop() {
+        if (publisher != null) {
+            publisher.shutdownNow();
+        }
+        try {
+            server.stop(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* Runs on the publisher thread only, so the snapshot arrays and client buffers need no locking. */
+    void publish() {
+        if (clients.isEmpty()) {
+            return;
+        }
+
+        try {
+            for (Topic topic : TOPICS) {
+                String message = nextMessage(topic);
+                if (message != null) {
+                    clients.values().forEach(client -> client.offer(topic, message));
+                }
+            }
+            clients.values().forEach(client -> client.flush(lastMessages));
+        } catch (RuntimeException e) {
+            /* An exception would cancel all further publishing */
+            ERROR_LOG.error("Error publishing stream updates", e);
+        }
+    }
+
+    private String nextMessage(Topic topic) {
+        int index = topic.ordinal();
+        Source source = sources.get(topic);
+        long version = source.version.getAsLong();
+        if (version == lastVersions[index] && lastMessages[index] != null) {
+            return null;
+        }
+        lastVersions[index] = version;
+
+        Object snapshot = source.snapshot.get();
+        if (topic.immutableSnapshots && snapshot == lastSnapshots[index] && lastMessages[index] != null) {
+            return null;
+        }
+        lastSnapshots[index] = snapshot;
+
+        String message = "{\"topic\":\"" + topic + "\",\"data\":" + snapshot + '}';
+        if (message.equals(lastMessages[index])) {
+            return null;
+        }
+        return lastMessages[index] = message;
+    }
+
+    void open(WebSocket connection, ClientHandshake handshake) {
+        Set<Topic> topics;
+        try {
+            topics = parseTopics(handshake.getResourceDescriptor());
+        } catch (IllegalArgumentException e) {
+            connection.close(CloseFrame.POLICY_VALIDATION, e.getMessage());
+            return;
+        }
+        clients.put(connection, new Client(connection, topics));
+        LOGGER.info("Stream client connected from {}. Topics: {}", connection.getRemoteSocketAddress(), topics);
+    }
+
+    static Set<Topic> parseTopics(String resourceDescriptor) {
+        int start = resourceDescriptor != null ? resourceDescriptor.indexOf(TOPICS_PARAMETER) : -1;
+        if (start < 0) {
+            return EnumSet.allOf(Topic.class);
+        }
+
+        start += TOPICS_PARAMETER.length();
+        int end = resourceDescriptor.indexOf('&', start);
+        String value = end < 0 ? resourceDescriptor.substring(start) : resourceDescriptor.substring(start, end);
+
+        Set<Topic> topics = EnumSet.noneOf(Topic.class);
+        for (String name : value.split(",")) {
+            try {
+                topics.add(Topic.valueOf(name.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown topic: " + name, e);
+            }
+        }
+        return topics;
+    }
+
+    void close(WebSocket connection, String reason) {
+        clients.remove(connection);
+        LOGGER.info("Stream client disconnected from {}. Reason: {}", connection.getRemoteSocketAddress(), reason);
+    }
+
+    int getPort() {
+        return server.getPort();
+    }
+
+    int getClientCount() {
+        return clients.size();
+    }
+
+    enum Topic {
+        CURRENT_BOOK(true),
+        MARKET_LAST_TRADE(true),
+        LATEST_BAR(true),
+        FEATURES(false),
+        POSITION(false);
+
+        /* Whether a changed value is always a new object, so an unchanged reference need not be serialised again */
+        private final boolean immutableSnapshots;
+
+        Topic(boolean immutableSnapshots) {
+            this.immutableSnapshots = immutableSnapshots;
+        }
+    }
+
+    static final class Source {
+        private final LongSupplier version;
+        private final Supplier<?> snapshot;
+
+        private Source(LongSupplier version, Supplier<?> snapshot) {
+            this.version = notNull(version);
+            this.snapshot = notNull(snapshot);
+        }
+
+        /**
+         * @param version  changes whenever the value may have changed. Cheap to call: it is read every interval
+         * @param snapshot the current value, read only when the version has changed
+         */
+        static Source of(LongSupplier version, Supplier<?> snapshot) {
+            return new Source(version, snapshot);
+        }
+    }
+
+    private static final class Client {
+        private final WebSocket connection;
+        private final Set<Topic> topics;
+        private final String[] pending = new String[TOPICS.length];
+        private boolean primed;
+
+        private Client(WebSocket connection, Set<Topic> topics) {
+            this.connection = notNull(connection);
+            this.topics = topics;
+        }
+
+        private void offer(Topic topic, String message) {
+            if (topics.contains(topic)) {
+                pending[topic.ordinal()] = message;
+            }
+        }
+
+        private void flush(String[] latestMessages) {
+            if (!primed) {
+                for (Topic topic : topics) {
+                    int index = topic.ordinal();
+                    if (pending[index] == null) {
+                        pending[index] = latestMessages[index];
+                    }
+                }
+                primed = true;
+            }
+
+            if (!connection.isOpen() || connection.hasBufferedData()) {
+                return;
+            }
+
+            for (int i = 0; i < pending.length; i++) {
+                if (pending[i] != null) {
+                    connection.send(pending[i]);
+                    pending[i] = null;
+                }
+            }
+        }
+    }
+
+    private final class Server extends WebSocketServer {
+        private Server(InetSocketAddress address) {
+            super(address);
+        }
+
+        @Override
+        public void onOpen(WebSocket connection, ClientHandshake handshake) {
+            open(connection, handshake);
+        }
+
+        @Override
+        public void onClose(WebSocket connection, int code, String reason, boolean remote) {
+            close(connection, reason);
+        }
+
+        @Override
+        public void onMessage(WebSocket connection, String message) {
+        }
+
+        @Override
+        public void onError(WebSocket connection, Exception error) {
+            ERROR_LOG.error("Update stream error. Client: {}",
+                            connection != null ? connection.getRemoteSocketAddress() : "none", error);
+        }
+
+        @Override
+        public void onStart() {
+        }
+    }
+}
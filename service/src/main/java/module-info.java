@@ -8,8 +8,10 @@ module com.ax9k.service {
     requires com.ax9k.utils;
 
     requires spark.core;
+    requires Java.WebSocket;
 
     requires org.apache.logging.log4j;
+    requires org.apache.commons.lang3;
 
     exports com.ax9k.service;
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.ax9k.service;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RangeQueryTest {
+    private static final int MAX_PAGES = 100;
+
+    private static List<Instant> secondsAfterEpoch(int... seconds) {
+        List<Instant> result = new ArrayList<>(seconds.length);
+        for (int second : seconds) {
+            result.add(Instant.ofEpochSecond(second));
+        }
+        return result;
+    }
+
+    private static List<Instant> between(List<Instant> entries, Instant fromInclusive, int limit) {
+        List<Instant> result = new ArrayList<>();
+        for (Instant entry : entries) {
+            if (!entry.isBefore(fromInclusive) && result.size() < limit) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Instant> pageThrough(List<Instant> entries, int limit) {
+        List<Instant> result = new ArrayList<>();
+        Instant from = Instant.MIN;
+        int skip = 0;
+        for (int pages = 0; pages < MAX_PAGES; pages++) {
+            RangeQuery query = new RangeQuery(from, Instant.MAX, limit, skip);
+            Map<String, Object> page = query.page(between(entries, from, query.getFetchSize()),
+                                                  Function.identity(),
+                                                  Function.identity());
+            result.addAll((List<Instant>) page.get("results"));
+            if (page.get("nextFrom") == null) {
+                return result;
+            }
+            from = Instant.parse((String) page.get("nextFrom"));
+            skip = (Integer) page.get("nextSkip");
+        }
+        throw new AssertionError("paging did not finish");
+    }
+
+    @Test
+    void shouldReturnEveryEntryOnceWhenTimestampsDiffer() {
+        List<Instant> entries = secondsAfterEpoch(1, 2, 3, 4, 5);
+
+        assertEquals(entries, pageThrough(entries, 2));
+    }
+
+    @Test
+    void shouldEndWithoutCursorWhenNothingRemains() {
+        RangeQuery query = new RangeQuery(Instant.MIN, Instant.MAX, 2, 0);
+
+        Map<String, Object> page = query.page(secondsAfterEpoch(1, 2), Function.identity(), Function.identity());
+
+        assertNull(page.get("nextFrom"));
+        assertNull(page.get("nextSkip"));
+    }
+
+    @Nested
+    class WhenTimestampsAreEqual {
+        @Test
+        void shouldNotRepeatEntriesSplitAcrossPages() {
+            List<Instant> entries = secondsAfterEpoch(1, 2, 2, 2, 3);
+
+            assertEquals(entries, pageThrough(entries, 2));
+        }
+
+        @Test
+        void shouldPageThroughMoreEqualEntriesThanTheLimit() {
+            List<Instant> entries = secondsAfterEpoch(1, 1, 1, 1, 1, 1, 1, 2);
+
+            assertEquals(entries, pageThrough(entries, 3));
+        }
+
+        @Test
+        void shouldCountOnlyEntriesAtTheCursorTimeAsSkipped() {
+            RangeQuery query = new RangeQuery(Instant.MIN, Instant.MAX, 3, 0);
+
+            Map<String, Object> page = query.page(secondsAfterEpoch(1, 2, 2, 2), Function.identity(),
+                                                  Function.identity());
+
+            assertEquals(Instant.ofEpochSecond(2).toString(), page.get("nextFrom"));
+            assertEquals(2, page.get("nextSkip"));
+        }
+    }
+}
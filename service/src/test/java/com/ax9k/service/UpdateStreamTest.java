@@ -0,0 +1,159 @@
+package com.ax9k.service;
+
+import com.ax9k.service.UpdateStream.Source;
+import com.ax9k.service.UpdateStream.Topic;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UpdateStreamTest {
+    private final Map<Topic, Long> versions = new EnumMap<>(Topic.class);
+    private final Map<Topic, String> values = new EnumMap<>(Topic.class);
+    private final Map<Topic, Integer> reads = new EnumMap<>(Topic.class);
+    private UpdateStream testStream;
+
+    private static String message(Topic topic, String data) {
+        return "{\"topic\":\"" + topic + "\",\"data\":" + data + '}';
+    }
+
+    private Source source(Topic topic) {
+        return Source.of(() -> versions.get(topic), () -> {
+            reads.merge(topic, 1, Integer::sum);
+            return values.get(topic);
+        });
+    }
+
+    private void change(Topic topic, String value) {
+        versions.merge(topic, 1L, Long::sum);
+        values.put(topic, value);
+    }
+
+    private WebSocket connect(String resourceDescriptor) {
+        WebSocket connection = mock(WebSocket.class);
+        when(connection.isOpen()).thenReturn(true);
+        ClientHandshake handshake = mock(ClientHandshake.class);
+        when(handshake.getResourceDescriptor()).thenReturn(resourceDescriptor);
+        testStream.open(connection, handshake);
+        return connection;
+    }
+
+    @BeforeEach
+    void initialiseStream() {
+        Map<Topic, Source> sources = new EnumMap<>(Topic.class);
+        for (Topic topic : Topic.values()) {
+            versions.put(topic, 0L);
+            values.put(topic, "\"" + topic + "\"");
+            reads.put(topic, 0);
+            sources.put(topic, source(topic));
+        }
+        testStream = new UpdateStream(sources, 0, Duration.ofMillis(250));
+    }
+
+    @Nested
+    class WhenSubscribing {
+        @Test
+        void shouldSubscribeToEveryTopicWithoutParameter() {
+            assertEquals(EnumSet.allOf(Topic.class), UpdateStream.parseTopics("/"));
+            assertEquals(EnumSet.allOf(Topic.class), UpdateStream.parseTopics(null));
+        }
+
+        @Test
+        void shouldSubscribeToListedTopicsOnly() {
+            assertEquals(EnumSet.of(Topic.CURRENT_BOOK, Topic.POSITION),
+                         UpdateStream.parseTopics("/?topics=current_book, POSITION&other=1"));
+        }
+
+        @Test
+        void shouldRejectUnknownTopics() {
+            assertThrows(IllegalArgumentException.class, () -> UpdateStream.parseTopics("/?topics=NEWS"));
+        }
+
+        @Test
+        void shouldOnlySendSubscribedTopics() {
+            WebSocket connection = connect("/?topics=POSITION");
+
+            testStream.publish();
+
+            verify(connection).send(message(Topic.POSITION, values.get(Topic.POSITION)));
+            verify(connection, never()).send(message(Topic.FEATURES, values.get(Topic.FEATURES)));
+        }
+
+        @Test
+        void shouldSendLatestValuesToLateSubscribers() {
+            connect("/?topics=FEATURES");
+            testStream.publish();
+
+            WebSocket lateConnection = connect("/?topics=FEATURES");
+            testStream.publish();
+
+            verify(lateConnection).send(message(Topic.FEATURES, values.get(Topic.FEATURES)));
+        }
+    }
+
+    @Nested
+    class WhenPublishing {
+        private WebSocket connection;
+
+        @BeforeEach
+        void connectClient() {
+            connection = connect("/?topics=FEATURES");
+            testStream.publish();
+        }
+
+        @Test
+        void shouldNotReadTopicsWhoseVersionIsUnchanged() {
+            testStream.publish();
+            testStream.publish();
+
+            assertEquals(1, (int) reads.get(Topic.FEATURES));
+            verify(connection).send(message(Topic.FEATURES, values.get(Topic.FEATURES)));
+        }
+
+        @Test
+        void shouldSendChangedValueOnce() {
+            change(Topic.FEATURES, "{\"ewma\":1.5}");
+
+            testStream.publish();
+            testStream.publish();
+
+            verify(connection).send(message(Topic.FEATURES, "{\"ewma\":1.5}"));
+        }
+
+        @Test
+        void shouldNotSendUnchangedValueWithNewVersion() {
+            change(Topic.FEATURES, values.get(Topic.FEATURES));
+
+            testStream.publish();
+
+            assertEquals(2, (int) reads.get(Topic.FEATURES));
+            verify(connection, times(1)).send(message(Topic.FEATURES, values.get(Topic.FEATURES)));
+        }
+
+        @Test
+        void shouldNotPushAfterClientDisconnects() {
+            testStream.close(connection, "test");
+            change(Topic.FEATURES, "{\"ewma\":2.5}");
+
+            testStream.publish();
+
+            assertEquals(0, testStream.getClientCount());
+            assertEquals(1, (int) reads.get(Topic.FEATURES));
+            verify(connection, never()).send(message(Topic.FEATURES, "{\"ewma\":2.5}"));
+        }
+    }
+}
@@ -18,6 +18,9 @@ class SupportedOptions {
     static final Option PERIODS;
     static final Option TOLERANCE;
     static final Option ALLOW_INVALID_DATA;
+    static final Option WINDOW_START;
+    static final Option WINDOW_END;
+    static final Option TIME_ZONE;
 
     static {
         SOURCE_PATH = Option.builder("p")
@@ -100,6 +103,28 @@ class SupportedOptions {
                           .required(true)
                           .build();
 
+        WINDOW_START = Option.builder()
+                             .hasArg(true)
+                             .desc("the first event time to read from the input file, using its index file")
+                             .longOpt("from")
+                             .required(false)
+                             .build();
+
+        WINDOW_END = Option.builder()
+                           .hasArg(true)
+                           .desc("the event time to stop reading the input file before, using its index file")
+                           .longOpt("to")
+                           .required(false)
+                           .build();
+
+        TIME_ZONE = Option.builder()
+                          .hasArg(true)
+                          .desc("the time zone of the event times, to reuse the index file written when trading. " +
+                                "Defaults to UTC")
+                          .longOpt("time-zone")
+                          .required(false)
+                          .build();
+
         DONT_COPY_LOGS = Option.builder("lx")
                                .hasArg(false)
                                .desc("dont copy the logs to S3")
@@ -122,6 +147,9 @@ class SupportedOptions {
         result.addOption(TARGET_FILTERS);
         result.addOption(ALLOW_INVALID_DATA);
         result.addOption(TOLERANCE);
+        result.addOption(WINDOW_START);
+        result.addOption(WINDOW_END);
+        result.addOption(TIME_ZONE);
         result.addOption(DONT_COPY_LOGS);
         return result;
     }
@@ -3,6 +3,7 @@ package com.ax9k.training;
 import com.ax9k.training.writer.CsvWriter;
 import com.ax9k.training.writer.JsonWriter;
 import com.ax9k.training.writer.Writer;
+import com.ax9k.utils.logging.LogIndex;
 import com.ax9k.utils.s3.S3Downloader;
 import com.ax9k.utils.s3.S3Uploader;
 import org.apache.commons.cli.CommandLine;
@@ -22,7 +23,12 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -42,8 +48,11 @@ import static com.ax9k.training.SupportedOptions.SOURCE_BUCKET;
 import static com.ax9k.training.SupportedOptions.SOURCE_PATH;
 import static com.ax9k.training.SupportedOptions.TARGET_FILTERS;
 import static com.ax9k.training.SupportedOptions.TIME_PROPERTY;
+import static com.ax9k.training.SupportedOptions.TIME_ZONE;
 import static com.ax9k.training.SupportedOptions.TOLERANCE;
 import static com.ax9k.training.SupportedOptions.VALIDATION;
+import static com.ax9k.training.SupportedOptions.WINDOW_END;
+import static com.ax9k.training.SupportedOptions.WINDOW_START;
 import static com.ax9k.training.SupportedOptions.allSupportedOptions;
 import static java.util.Objects.requireNonNull;
 
@@ -68,7 +77,12 @@ public class Trainer {
     private final boolean outputCsv;
     private final boolean filterInvalidData;
     private final boolean copyLogs;
+    private final LocalTime windowStart;
+    private final LocalTime windowEnd;
+    private final ZoneId timeZone;
     private String trainingDataFileSuffix;
+    private Instant windowStartInstant;
+    private Instant windowEndInstant;
 
     private LocalDate date;
 
@@ -102,6 +116,9 @@ public class Trainer {
         this.destinationPath = destinationPath != null ? destinationPath : sourcePath.getParent();
         this.date = date;
         this.trainingDataFileSuffix = trainingDataFileSuffix;
+        windowStart = null;
+        windowEnd = null;
+        timeZone = ZoneOffset.UTC;
     }
 
     private Collection<String> parseProperties(String raw) {
@@ -141,6 +158,14 @@ public class Trainer {
         }
 
         tolerance = Double.parseDouble(arguments.getOptionValue(TOLERANCE.getLongOpt()));
+
+        windowStart = parseTime(arguments.getOptionValue(WINDOW_START.getLongOpt()));
+        windowEnd = parseTime(arguments.getOptionValue(WINDOW_END.getLongOpt()));
+        timeZone = ZoneId.of(arguments.getOptionValue(TIME_ZONE.getLongOpt(), "UTC"));
+    }
+
+    private static LocalTime parseTime(String value) {
+        return value != null ? LocalTime.parse(value) : null;
     }
 
     public static void main(String[] arguments) {
@@ -201,7 +226,7 @@ public class Trainer {
         try (BufferedReader reader = createGzipCapableReader(input);
              BufferedWriter writer = createGzipWriter(trainingOutput)) {
             Writer formatter = outputCsv ? new CsvWriter(writer) : new JsonWriter(writer);
-            Schema schema = new TrainingDataGenerator(
+            TrainingDataGenerator generator = new TrainingDataGenerator(
                     reader,
                     eventTimeProperty,
                     properties,
@@ -210,7 +235,11 @@ public class Trainer {
                     periods,
                     tolerance,
                     filterInvalidData
-            ).generate(formatter);
+            );
+            if (isWindowed()) {
+                generator.setWindow(windowStartInstant, windowEndInstant, timeZone);
+            }
+            Schema schema = generator.generate(formatter);
 
             tempSchemaFile = createTempSchemaFile(schema);
             trainingFileName = formatter.resolveFileName("TrainingData_" + trainingDataFileSuffix, ".gz", date);
@@ -241,10 +270,32 @@ public class Trainer {
         if (file.toString().endsWith(".gz")) {
             stream = new GZIPInputStream(stream);
         }
+        if (isWindowed()) {
+            LogIndex index = LogIndex.load(file, eventTimeProperty, timeZone);
+            resolveWindow(index.getDate());
+            stream = index.window(stream, windowStartInstant, windowEndInstant);
+        }
         InputStreamReader reader = new InputStreamReader(stream);
         return new BufferedReader(reader);
     }
 
+    private boolean isWindowed() {
+        return windowStart != null || windowEnd != null;
+    }
+
+    /**
+     * The window is on the log's date, except that an end at or before the start is on the next day.
+     */
+    private void resolveWindow(LocalDate logDate) {
+        if (windowStart != null) {
+            windowStartInstant = LocalDateTime.of(logDate, windowStart).atZone(timeZone).toInstant();
+        }
+        if (windowEnd != null) {
+            LocalDate endDate = windowStart != null && !windowEnd.isAfter(windowStart) ? logDate.plusDays(1) : logDate;
+            windowEndInstant = LocalDateTime.of(endDate, windowEnd).atZone(timeZone).toInstant();
+        }
+    }
+
     private BufferedWriter createGzipWriter(Path file) throws IOException {
         OutputStream stream = Files.newOutputStream(file);
         stream = new GZIPOutputStream(stream);
@@ -1,6 +1,7 @@
 package com.ax9k.training;
 
 import com.ax9k.training.writer.Writer;
+import com.ax9k.utils.logging.EventTimeline;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
@@ -10,7 +11,10 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeParseException;
 import java.util.Collection;
 import java.util.EnumMap;
@@ -44,6 +48,9 @@ class TrainingDataGenerator {
     private final List<FutureDataBuffer> buffers;
 
     private boolean prettyPrinted;
+    private Instant windowStart;
+    private Instant windowEnd;
+    private ZoneId windowZone;
 
     private Map<Target, Integer> filteredCount;
     private int invalidCount, processedCount;
@@ -88,6 +95,19 @@ class TrainingDataGenerator {
                         .collect(Collectors.toList());
     }
 
+    /**
+     * Only generates data from the events in {@code [start, end)}. The event times of the log are read as times in
+     * the given zone, on the date of its date line.
+     *
+     * @param start the first event time to include, or {@code null} to start at the first event
+     * @param end   the event time to stop before, or {@code null} to read to the end of the log
+     */
+    void setWindow(Instant start, Instant end, ZoneId zone) {
+        windowStart = start;
+        windowEnd = end;
+        windowZone = requireNonNull(zone, "TrainingDataGenerator window zone");
+    }
+
     Schema generate(Writer output) throws IOException {
         requireNonNull(output, "generate output");
 
@@ -98,7 +118,8 @@ class TrainingDataGenerator {
         filteredCount = new EnumMap<>(Target.class);
         processedCount = invalidCount = 0;
 
-        skipDateDeclaration(input, output);
+        LocalDate date = skipDateDeclaration(input, output);
+        EventTimeline timeline = windowZone != null ? new EventTimeline(date, windowZone) : null;
 
         Schema schema = new Schema();
         currentWriter.writeFormatToSchema(schema);
@@ -106,6 +127,15 @@ class TrainingDataGenerator {
         boolean schemaInitialised = false;
         Map<String, Object> current;
         while ((current = readObject(input)) != null) {
+            if (timeline != null) {
+                Instant eventTime = timeline.next((LocalTime) current.get(eventTimeProperty));
+                if (windowEnd != null && !eventTime.isBefore(windowEnd)) {
+                    break;
+                }
+                if (windowStart != null && eventTime.isBefore(windowStart)) {
+                    continue;
+                }
+            }
             if (!schemaInitialised) {
                 initialiseSchema(schema, current);
                 schemaInitialised = true;
@@ -144,7 +174,7 @@ class TrainingDataGenerator {
         return schema;
     }
 
-    private void skipDateDeclaration(BufferedReader input, Writer output) throws IOException {
+    private LocalDate skipDateDeclaration(BufferedReader input, Writer output) throws IOException {
         input.mark(2);
         int character = input.read();
         input.reset();
@@ -156,7 +186,9 @@ class TrainingDataGenerator {
             } else {
                 LOGGER.warn("Training source file is empty or has already been read");
             }
+            return EventTimeline.parseDate(date);
         }
+        return LocalDate.EPOCH;
     }
 
     private Map<String, Object> readObject(BufferedReader reader) throws IOException {
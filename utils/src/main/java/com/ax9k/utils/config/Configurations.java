@@ -35,6 +35,13 @@ public final class Configurations {
         return new PropertiesConfiguration(properties);
     }
 
+    /**
+     * Returns a view of {@code base} in which every option in {@code overrides} takes the overriding value.
+     */
+    public static Configuration withOverrides(Configuration base, Map<String, ?> overrides) {
+        return new OverriddenConfiguration(base, overrides);
+    }
+
     public static Configuration load(String fileLocation) {
         requireNonNull(fileLocation, "Configuration load fileLocation");
         ensureFileIsInSupportedFormat(fileLocation);
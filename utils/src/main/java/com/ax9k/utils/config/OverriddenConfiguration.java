@@ -0,0 +1,50 @@
+package com.ax9k.utils.config;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+final class OverriddenConfiguration implements Configuration {
+    private final Configuration base;
+    private final PropertiesConfiguration overrides;
+
+    OverriddenConfiguration(Configuration base, Map<String, ?> overrides) {
+        this.base = notNull(base);
+        this.overrides = new PropertiesConfiguration(overrides);
+    }
+
+    private OverriddenConfiguration(Configuration base, PropertiesConfiguration overrides) {
+        this.base = base;
+        this.overrides = overrides;
+    }
+
+    @Override
+    public Configuration loadExternalFileFromOptions() {
+        Configuration loadedBase = base.loadExternalFileFromOptions();
+        return loadedBase != base ? new OverriddenConfiguration(loadedBase, overrides) : this;
+    }
+
+    @Override
+    public void requireOptions(String... options) {
+        base.requireOptions(Arrays.stream(options)
+                                  .filter(option -> !overrides.hasOption(option))
+                                  .toArray(String[]::new));
+    }
+
+    @Override
+    public boolean hasOption(String option) {
+        return overrides.hasOption(option) || base.hasOption(option);
+    }
+
+    @Override
+    public <T> Optional<T> getOptional(String option, Class<T> type) {
+        return overrides.hasOption(option) ? overrides.getOptional(option, type) : base.getOptional(option, type);
+    }
+
+    @Override
+    public <T> T get(String option, Class<T> type) {
+        return overrides.hasOption(option) ? overrides.get(option, type) : base.get(option, type);
+    }
+}
@@ -0,0 +1,55 @@
+package com.ax9k.utils.logging;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Turns the event times of a log into instants. A log starts with its date and holds local times only, so a time
+ * more than {@link #ROLLOVER} before the previous one is taken to be on the next day.
+ */
+public final class EventTimeline {
+    /* Logs are in event time order, give or take the order of events arriving together */
+    static final Duration ROLLOVER = Duration.ofHours(12);
+
+    private final ZoneId zone;
+    private LocalDate date;
+    private LocalTime previous;
+
+    public EventTimeline(LocalDate date, ZoneId zone) {
+        this.date = notNull(date);
+        this.zone = notNull(zone);
+    }
+
+    /**
+     * @return the date of a log's date line, or {@link LocalDate#EPOCH} if the line is not a date, so that a log
+     * without one still gets consistent instants
+     */
+    public static LocalDate parseDate(String dateLine) {
+        if (dateLine == null) {
+            return LocalDate.EPOCH;
+        }
+        try {
+            return LocalDate.parse(dateLine.trim());
+        } catch (DateTimeParseException notADate) {
+            return LocalDate.EPOCH;
+        }
+    }
+
+    /**
+     * @param time the time of the next event in the log
+     */
+    public Instant next(LocalTime time) {
+        if (previous != null && time.isBefore(previous) && Duration.between(time, previous).compareTo(ROLLOVER) > 0) {
+            date = date.plusDays(1);
+        }
+        previous = time;
+        return LocalDateTime.of(date, time).atZone(zone).toInstant();
+    }
+}
@@ -0,0 +1,457 @@
+package com.ax9k.utils.logging;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notBlank;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Maps the event times of a JSON event log, such as the book state, trade or feature logs, to the byte offsets of
+ * the records holding them, so that a time window can be read without decoding the day up to it.
+ * <p>
+ * The local event times are turned into instants in the given time zone by an {@link EventTimeline}, so an index
+ * stays in order across midnight. There is an entry for the first record of every {@link #INTERVAL}. Offsets count
+ * uncompressed bytes, so one index serves a log and its gzipped copy. The index is kept in a sidecar file next to the
+ * log: {@code BookStates.log.idx} for both {@code BookStates.log} and {@code BookStates.log.gz}.
+ */
+public final class LogIndex {
+    public static final String DEFAULT_TIME_PROPERTY = "eventTime";
+    public static final Duration INTERVAL = Duration.ofSeconds(10);
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String SIDECAR_SUFFIX = ".idx";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final String FORMAT_HEADER = "ax9k-log-index 2";
+    private static final String SEPARATOR = "\t";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final String timeProperty;
+    private final ZoneId zone;
+    private final LocalDate date;
+    private final List<Entry> entries;
+    private final long eventCount;
+
+    private LogIndex(String timeProperty, ZoneId zone, LocalDate date, List<Entry> entries, long eventCount) {
+        this.timeProperty = timeProperty;
+        this.zone = zone;
+        this.date = date;
+        this.entries = Collections.unmodifiableList(entries);
+        this.eventCount = eventCount;
+    }
+
+    public static Path sidecarOf(Path log) {
+        String name = log.getFileName().toString();
+        if (name.endsWith(GZIP_SUFFIX)) {
+            name = name.substring(0, name.length() - GZIP_SUFFIX.length());
+        }
+        return log.resolveSibling(name + SIDECAR_SUFFIX);
+    }
+
+    /**
+     * Reads the log's sidecar index or, if there is none for the given time property and zone, builds one from the
+     * log and tries to save it for next time.
+     */
+    public static LogIndex load(Path log, String timeProperty, ZoneId zone) {
+        Path sidecar = sidecarOf(log);
+        if (Files.isRegularFile(sidecar)) {
+            try {
+                LogIndex saved = read(sidecar);
+                if (saved.timeProperty.equals(timeProperty) && saved.zone.equals(zone)) {
+                    return saved;
+                }
+                LOGGER.warn("Ignoring index of '{}' in {} in {}: expected '{}' in {}",
+                            saved.timeProperty, saved.zone, sidecar, timeProperty, zone);
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("Ignoring log index {}: {}", sidecar, e.getMessage());
+            }
+        }
+
+        LogIndex result = build(log, timeProperty, zone);
+        try {
+            result.write(sidecar);
+        } catch (UncheckedIOException e) {
+            LOGGER.warn("Could not save log index {}: {}", sidecar, e.getMessage());
+        }
+        return result;
+    }
+
+    public static LogIndex build(Path log, String timeProperty, ZoneId zone) {
+        try (InputStream input = open(log)) {
+            LogIndex result = build(input, timeProperty, zone);
+            LOGGER.info("Indexed {} events of {} in {} entries", result.eventCount, log, result.entries.size());
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error indexing log: " + log, e);
+        }
+    }
+
+    private static InputStream open(Path log) throws IOException {
+        InputStream stream = Files.newInputStream(log);
+        return log.toString().endsWith(GZIP_SUFFIX) ? new GZIPInputStream(stream, BUFFER_SIZE) : stream;
+    }
+
+    /**
+     * Scans the uncompressed log for records holding the time property, without decoding them.
+     */
+    public static LogIndex build(InputStream log, String timeProperty, ZoneId zone) throws IOException {
+        return new Scanner(notBlank(timeProperty), notNull(zone)).scan(log);
+    }
+
+    public static LogIndex read(Path sidecar) {
+        try (BufferedReader lines = Files.newBufferedReader(sidecar, StandardCharsets.UTF_8)) {
+            String[] header = String.valueOf(lines.readLine()).split(SEPARATOR);
+            isTrue(header.length == 5 && header[0].equals(FORMAT_HEADER), "not a current log index: %s", sidecar);
+
+            List<Entry> entries = new ArrayList<>();
+            String line;
+            while ((line = lines.readLine()) != null) {
+                String[] columns = line.split(SEPARATOR);
+                entries.add(new Entry(Instant.parse(columns[0]),
+                                      Long.parseLong(columns[1]),
+                                      Long.parseLong(columns[2])));
+            }
+            return new LogIndex(header[1],
+                                ZoneId.of(header[3]),
+                                LocalDate.parse(header[4]),
+                                entries,
+                                Long.parseLong(header[2]));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading log index: " + sidecar, e);
+        }
+    }
+
+    public void write(Path sidecar) {
+        try (BufferedWriter output = Files.newBufferedWriter(sidecar, StandardCharsets.UTF_8)) {
+            output.write(String.join(SEPARATOR,
+                                     FORMAT_HEADER,
+                                     timeProperty,
+                                     String.valueOf(eventCount),
+                                     zone.getId(),
+                                     date.toString()));
+            output.write('\n');
+            for (Entry entry : entries) {
+                output.write(String.join(SEPARATOR,
+                                         entry.time.toString(),
+                                         String.valueOf(entry.eventCount),
+                                         String.valueOf(entry.offset)));
+                output.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing log index: " + sidecar, e);
+        }
+    }
+
+    /**
+     * Narrows the uncompressed log to the records of a time window. Whatever precedes the first record, such as the
+     * date line, is kept. The window is widened to whole index intervals, so callers needing an exact window must
+     * still check the event times.
+     *
+     * @param log  the uncompressed log, positioned at its start. Closed with the returned stream.
+     * @param from the first event time to include, or {@code null} to start at the first record
+     * @param to   the last event time to include, or {@code null} to read to the end of the log
+     */
+    public InputStream window(InputStream log, Instant from, Instant to) throws IOException {
+        if (entries.isEmpty()) {
+            return log;
+        }
+        long headerLength = entries.get(0).offset;
+        long start = from != null ? floor(from).offset : headerLength;
+        long end = to != null ? offsetAfter(to) : -1;
+
+        byte[] header = new byte[(int) headerLength];
+        int read = log.readNBytes(header, 0, header.length);
+        if (read < header.length) {
+            throw new EOFException("log is shorter than its index");
+        }
+        skipFully(log, start - headerLength);
+
+        InputStream records = end < 0 ? log : new LimitedInputStream(log, Math.max(0, end - start));
+        return new SequenceInputStream(new ByteArrayInputStream(header), records);
+    }
+
+    private static void skipFully(InputStream input, long count) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long skipped = input.skip(remaining);
+            if (skipped > 0) {
+                remaining -= skipped;
+            } else if (input.read() >= 0) {
+                remaining--;
+            } else {
+                throw new EOFException("log is shorter than its index");
+            }
+        }
+    }
+
+    /**
+     * @return the last entry at or before the given time, or the first entry if there is none
+     */
+    public Entry floor(Instant time) {
+        int low = 0;
+        int high = entries.size() - 1;
+        int result = 0;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (entries.get(middle).time.isAfter(time)) {
+                high = middle - 1;
+            } else {
+                result = middle;
+                low = middle + 1;
+            }
+        }
+        return entries.get(result);
+    }
+
+    private long offsetAfter(Instant time) {
+        for (int i = entries.indexOf(floor(time)); i < entries.size(); i++) {
+            if (entries.get(i).time.isAfter(time)) {
+                return entries.get(i).offset;
+            }
+        }
+        return -1;
+    }
+
+    public String getTimeProperty() {
+        return timeProperty;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * @return the date of the log's date line, or {@link LocalDate#EPOCH} if it has none
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    public static final class Entry {
+        private final Instant time;
+        private final long eventCount;
+        private final long offset;
+
+        private Entry(Instant time, long eventCount, long offset) {
+            this.time = time;
+            this.eventCount = eventCount;
+            this.offset = offset;
+        }
+
+        public Instant getTime() {
+            return time;
+        }
+
+        /**
+         * @return the number of events in the log before this one
+         */
+        public long getEventCount() {
+            return eventCount;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        @Override
+        public String toString() {
+            return time + "@" + offset;
+        }
+    }
+
+    private static final class Scanner {
+        private final String timeProperty;
+        private final ZoneId zone;
+        private final byte[] key;
+        private final List<Entry> entries = new ArrayList<>();
+        private byte[] line = new byte[1024];
+        private int lineLength;
+        private long lineStart;
+        private long objectStart = -1;
+        private long eventCount;
+        private LocalDate date;
+        private EventTimeline timeline;
+        private Instant nextEntryTime;
+
+        private Scanner(String timeProperty, ZoneId zone) {
+            this.timeProperty = timeProperty;
+            this.zone = zone;
+            key = ('"' + timeProperty + '"').getBytes(StandardCharsets.UTF_8);
+        }
+
+        private LogIndex scan(InputStream input) throws IOException {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long offset = 0;
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                for (int i = 0; i < read; i++) {
+                    byte current = buffer[i];
+                    if (current == '\n') {
+                        endLine();
+                        lineStart = offset + i + 1;
+                    } else {
+                        append(current);
+                    }
+                }
+                offset += read;
+            }
+            endLine();
+            return new LogIndex(timeProperty, zone, date != null ? date : LocalDate.EPOCH, entries, eventCount);
+        }
+
+        private void append(byte value) {
+            if (lineLength == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            line[lineLength++] = value;
+        }
+
+        private void endLine() {
+            int first = 0;
+            while (first < lineLength && Character.isWhitespace(line[first])) {
+                first++;
+            }
+            if (date == null && first < lineLength) {
+                date = line[first] == '{' ?
+                       LocalDate.EPOCH :
+                       EventTimeline.parseDate(new String(line, first, lineLength - first, StandardCharsets.UTF_8));
+                timeline = new EventTimeline(date, zone);
+            }
+            if (first < lineLength && line[first] == '{') {
+                objectStart = lineStart;
+            }
+
+            LocalTime localTime = findTime();
+            if (localTime != null) {
+                Instant time = timeline.next(localTime);
+                long recordStart = objectStart >= 0 ? objectStart : lineStart;
+                if (nextEntryTime == null || !time.isBefore(nextEntryTime)) {
+                    entries.add(new Entry(time, eventCount, recordStart));
+                    nextEntryTime = time.plus(INTERVAL);
+                }
+                eventCount++;
+                objectStart = -1;
+            }
+            lineLength = 0;
+        }
+
+        private LocalTime findTime() {
+            int keyStart = indexOfKey();
+            if (keyStart < 0) {
+                return null;
+            }
+            int position = keyStart + key.length;
+            while (position < lineLength && (line[position] == ' ' || line[position] == ':')) {
+                position++;
+            }
+            if (position >= lineLength || line[position] != '"') {
+                return null;
+            }
+            int valueStart = ++position;
+            while (position < lineLength && line[position] != '"') {
+                position++;
+            }
+            try {
+                return LocalTime.parse(new String(line, valueStart, position - valueStart, StandardCharsets.US_ASCII));
+            } catch (DateTimeParseException notATime) {
+                return null;
+            }
+        }
+
+        private int indexOfKey() {
+            outer:
+            for (int start = 0; start <= lineLength - key.length; start++) {
+                for (int i = 0; i < key.length; i++) {
+                    if (line[start + i] != key[i]) {
+                        continue outer;
+                    }
+                }
+                return start;
+            }
+            return -1;
+        }
+    }
+
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        private LimitedInputStream(InputStream input, long limit) {
+            super(input);
+            remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int result = super.read();
+            if (result >= 0) {
+                remaining--;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int result = super.read(bytes, offset, (int) Math.min(length, remaining));
+            if (result > 0) {
+                remaining -= result;
+            }
+            return result;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            long result = super.skip(Math.min(count, remaining));
+            remaining -= result;
+            return result;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.ax9k.utils.path;
 
 import com.ax9k.utils.s3.CheckedS3Exception;
+import com.ax9k.utils.s3.S3UrlConnection;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -10,6 +11,7 @@ import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.net.URLConnection;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
@@ -59,9 +61,16 @@ public class PathLoader {
     }
 
     private static Path load(URL url) throws IOException {
+        URLConnection connection = url.openConnection();
+        if (connection instanceof S3UrlConnection) {
+            Path cachedCopy = ((S3UrlConnection) connection).getLocalCopy();
+            LOGGER.info("Using cached copy at: {}", cachedCopy);
+            return cachedCopy;
+        }
+
         String fileName = extractFileName(url);
         Path localCopy = createTempFile(fileName);
-        try (InputStream input = url.openStream();
+        try (InputStream input = connection.getInputStream();
              OutputStream output = Files.newOutputStream(localCopy, WRITE, TRUNCATE_EXISTING)) {
             input.transferTo(output);
             output.flush();
@@ -0,0 +1,23 @@
+package com.ax9k.utils.s3;
+
+import software.amazon.awssdk.core.regions.Region;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * Source of the objects held by {@link S3Cache}. Implemented by {@link S3ObjectStore} and, in tests, by a local
+ * directory.
+ */
+interface ObjectStore {
+    /**
+     * Writes the object to {@code destination}, unless {@code knownVersion} is its current version.
+     *
+     * @param knownVersion version of the cached copy, or {@code null} if there is none
+     * @return the version of the written object, or {@code null} if {@code knownVersion} is still current and nothing
+     * was written
+     */
+    String fetch(String bucket, String key, Optional<Region> region, String knownVersion, OutputStream destination)
+    throws IOException;
+}
@@ -0,0 +1,359 @@
+package com.ax9k.utils.s3;
+
+import com.ax9k.utils.config.Configuration;
+import com.ax9k.utils.config.Configurations;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import software.amazon.awssdk.core.regions.Region;
+
+import java.io.BufferedOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notBlank;
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * Local disk cache of S3 objects, shared by every process on the machine that uses the same directory.
+ * <p>
+ * Object contents are stored under their SHA-256 checksum, which is verified every time a copy is served. While
+ * online, a cached copy is only used after S3 confirms it is still the current version, which costs one conditional
+ * request instead of a download. While offline, cached copies are served without asking S3, and objects that were
+ * never cached cannot be loaded. When the total size of cached objects exceeds the limit, the least recently used
+ * ones are removed.
+ * <p>
+ * The default instance is configured with the system properties {@value #DIRECTORY_PROPERTY},
+ * {@value #MAX_SIZE_PROPERTY} (in MiB) and {@value #OFFLINE_PROPERTY}.
+ * <p>
+ * Paths returned by {@link #get(String, String, Optional)} point into the cache and must not be modified.
+ */
+public final class S3Cache {
+    public static final String DIRECTORY_PROPERTY = "ax9k.s3Cache.directory";
+    public static final String MAX_SIZE_PROPERTY = "ax9k.s3Cache.maxMegabytes";
+    public static final String OFFLINE_PROPERTY = "ax9k.s3Cache.offline";
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final long DEFAULT_MAX_MEGABYTES = 10 * 1024;
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+    private static final String CHECKSUM_ALGORITHM = "SHA-256";
+    private static final String ENTRY_SUFFIX = ".properties";
+
+    private static volatile S3Cache defaultInstance;
+
+    private final Path objects;
+    private final Path entries;
+    private final Path staging;
+    private final long maxBytes;
+    private final boolean offline;
+    private final ObjectStore store;
+
+    public S3Cache(Path directory, long maxBytes, boolean offline) {
+        this(directory, maxBytes, offline, new S3ObjectStore());
+    }
+
+    S3Cache(Path directory, long maxBytes, boolean offline, ObjectStore store) {
+        notNull(directory, "directory");
+        isTrue(maxBytes >= 0, "maxBytes cannot be negative: %s", maxBytes);
+        this.maxBytes = maxBytes;
+        this.offline = offline;
+        this.store = notNull(store, "store");
+
+        objects = directory.resolve("objects");
+        entries = directory.resolve("entries");
+        staging = directory.resolve("staging");
+        try {
+            Files.createDirectories(objects);
+            Files.createDirectories(entries);
+            Files.createDirectories(staging);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create S3 cache directory: " + directory, e);
+        }
+    }
+
+    public static S3Cache getDefault() {
+        S3Cache result = defaultInstance;
+        if (result == null) {
+            synchronized (S3Cache.class) {
+                result = defaultInstance;
+                if (result == null) {
+                    result = defaultInstance = createDefault();
+                }
+            }
+        }
+        return result;
+    }
+
+    private static S3Cache createDefault() {
+        Configuration properties = Configurations.load(System.getProperties());
+        Path directory = properties.getOptional(DIRECTORY_PROPERTY, Path.class)
+                                   .orElseGet(() -> Paths.get(System.getProperty("user.home"), ".ax9k", "s3-cache"));
+        long maxMegabytes = properties.getOptional(MAX_SIZE_PROPERTY, DEFAULT_MAX_MEGABYTES);
+        boolean offline = properties.getOptional(OFFLINE_PROPERTY, false);
+
+        LOGGER.info("S3 cache directory: {}, max size: {} MiB, offline: {}", directory, maxMegabytes, offline);
+        return new S3Cache(directory, maxMegabytes * BYTES_PER_MEGABYTE, offline);
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * @return a verified local copy of the current version of the object. The file name is the last segment of
+     * {@code key}
+     * @throws FileNotFoundException if offline and the object is not cached
+     */
+    public synchronized Path get(String bucket, String key, Optional<Region> region) throws IOException {
+        notBlank(bucket, "bucket");
+        notBlank(key, "key");
+        notNull(region, "region");
+
+        String location = bucket + '/' + key;
+        Path entryFile = entries.resolve(checksum(location) + ENTRY_SUFFIX);
+        Entry entry = Entry.read(entryFile);
+        Path cachedCopy = entry != null ? verifiedCopy(entry) : null;
+
+        if (offline) {
+            if (cachedCopy == null) {
+                throw new FileNotFoundException(format("S3 cache is offline and holds no copy of s3://%s", location));
+            }
+            touch(entryFile);
+            LOGGER.info("Using cached copy of s3://{} without revalidation", location);
+            return cachedCopy;
+        }
+
+        String knownVersion = cachedCopy != null ? entry.version : null;
+        Path download = Files.createTempFile(staging, "download", ".part");
+        try {
+            MessageDigest digest = newDigest();
+            String version;
+            try (OutputStream output = new DigestOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(download)), digest)) {
+                version = store.fetch(bucket, key, region, knownVersion, output);
+            }
+
+            if (version == null) {
+                touch(entryFile);
+                LOGGER.info("Cached copy of s3://{} is current", location);
+                return cachedCopy;
+            }
+
+            Entry downloaded = new Entry(location, fileName(key), version, toHex(digest.digest()),
+                                         Files.size(download));
+            Path target = objects.resolve(downloaded.checksum).resolve(downloaded.fileName);
+            /* Entry first, so that eviction in another process never sees the object as unreferenced */
+            downloaded.write(entryFile, staging);
+            Files.createDirectories(target.getParent());
+            Files.move(download, target, ATOMIC_MOVE, REPLACE_EXISTING);
+            LOGGER.info("Cached s3://{} ({} KiB)", location, downloaded.size / 1024d);
+
+            evictLeastRecentlyUsed(entryFile);
+            return target;
+        } finally {
+            Files.deleteIfExists(download);
+        }
+    }
+
+    private static String fileName(String key) {
+        return key.substring(key.lastIndexOf('/') + 1);
+    }
+
+    private Path verifiedCopy(Entry entry) throws IOException {
+        Path copy = objects.resolve(entry.checksum).resolve(entry.fileName);
+        if (!Files.isRegularFile(copy)) {
+            return null;
+        }
+
+        if (Files.size(copy) == entry.size && entry.checksum.equals(checksum(copy))) {
+            return copy;
+        }
+
+        LOGGER.warn("Discarding corrupt cached copy of s3://{}: {}", entry.location, copy);
+        Files.deleteIfExists(copy);
+        return null;
+    }
+
+    private static void touch(Path entryFile) throws IOException {
+        Files.setLastModifiedTime(entryFile, FileTime.from(Instant.now()));
+    }
+
+    private void evictLeastRecentlyUsed(Path newEntry) throws IOException {
+        Map<Path, Entry> entriesByFile = readEntries();
+        Map<String, Integer> referenceCounts = new HashMap<>();
+        for (Entry entry : entriesByFile.values()) {
+            referenceCounts.merge(entry.checksum, 1, Integer::sum);
+        }
+
+        long totalBytes = 0;
+        for (Path directory : list(objects)) {
+            if (!referenceCounts.containsKey(directory.getFileName().toString())) {
+                deleteObject(directory);
+                continue;
+            }
+            for (Path copy : list(directory)) {
+                totalBytes += Files.size(copy);
+            }
+        }
+
+        List<Path> leastRecentFirst = new ArrayList<>(entriesByFile.keySet());
+        leastRecentFirst.remove(newEntry);
+        leastRecentFirst.sort(Comparator.comparing(S3Cache::lastModified));
+
+        for (Path entryFile : leastRecentFirst) {
+            if (totalBytes <= maxBytes) {
+                break;
+            }
+
+            Entry entry = entriesByFile.get(entryFile);
+            Files.deleteIfExists(entryFile);
+            if (referenceCounts.merge(entry.checksum, -1, Integer::sum) == 0) {
+                deleteObject(objects.resolve(entry.checksum));
+                totalBytes -= entry.size;
+            }
+            LOGGER.info("Evicted s3://{} from the S3 cache", entry.location);
+        }
+    }
+
+    private Map<Path, Entry> readEntries() throws IOException {
+        Map<Path, Entry> result = new HashMap<>();
+        for (Path entryFile : list(entries)) {
+            Entry entry = Entry.read(entryFile);
+            if (entry != null) {
+                result.put(entryFile, entry);
+            }
+        }
+        return result;
+    }
+
+    private static void deleteObject(Path directory) throws IOException {
+        for (Path copy : list(directory)) {
+            Files.deleteIfExists(copy);
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String checksum(String text) {
+        return toHex(newDigest().digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String checksum(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = Files.newInputStream(file)) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError("Every Java platform supports " + CHECKSUM_ALGORITHM, e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder result = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            result.append(Character.forDigit((b >> 4) & 0xF, 16))
+                  .append(Character.forDigit(b & 0xF, 16));
+        }
+        return result.toString();
+    }
+
+    private static final class Entry {
+        private final String location;
+        private final String fileName;
+        private final String version;
+        private final String checksum;
+        private final long size;
+
+        private Entry(String location, String fileName, String version, String checksum, long size) {
+            this.location = location;
+            this.fileName = fileName;
+            this.version = version;
+            this.checksum = checksum;
+            this.size = size;
+        }
+
+        private static Entry read(Path file) {
+            Properties properties = new Properties();
+            try (InputStream input = Files.newInputStream(file)) {
+                properties.load(input);
+                return new Entry(properties.getProperty("location"),
+                                 properties.getProperty("fileName"),
+                                 properties.getProperty("version"),
+                                 properties.getProperty("checksum"),
+                                 Long.parseLong(properties.getProperty("size")));
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Ignoring unreadable S3 cache entry: {}", file, e);
+                return null;
+            }
+        }
+
+        private void write(Path file, Path staging) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("location", location);
+            properties.setProperty("fileName", fileName);
+            properties.setProperty("version", version);
+            properties.setProperty("checksum", checksum);
+            properties.setProperty("size", Long.toString(size));
+
+            Path temporary = Files.createTempFile(staging, "entry", ".part");
+            try (OutputStream output = Files.newOutputStream(temporary)) {
+                properties.store(output, null);
+            }
+            Files.move(temporary, file, ATOMIC_MOVE, REPLACE_EXISTING);
+        }
+    }
+}
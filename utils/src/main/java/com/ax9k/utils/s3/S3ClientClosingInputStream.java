@@ -1,75 +0,0 @@
-package com.ax9k.utils.s3;
-
-import software.amazon.awssdk.core.sync.ResponseInputStream;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.GetObjectResponse;
-
-import java.io.IOException;
-import java.io.InputStream;
-
-class S3ClientClosingInputStream extends InputStream {
-    private final S3Client client;
-    private final ResponseInputStream<GetObjectResponse> delegate;
-
-    S3ClientClosingInputStream(S3Client client,
-                               ResponseInputStream<GetObjectResponse> delegate) {
-        this.client = client;
-        this.delegate = delegate;
-    }
-
-    @Override
-    public int read() throws IOException {
-        return delegate.read();
-    }
-
-    @Override
-    public int read(byte[] b) throws IOException {
-        return delegate.read(b);
-    }
-
-    @Override
-    public int read(byte[] b, int off, int len) throws IOException {
-        return delegate.read(b, off, len);
-    }
-
-    @Override
-    public byte[] readAllBytes() throws IOException {
-        return delegate.readAllBytes();
-    }
-
-    @Override
-    public int readNBytes(byte[] b, int off, int len) throws IOException {
-        return delegate.readNBytes(b, off, len);
-    }
-
-    @Override
-    public long skip(long n) throws IOException {
-        return delegate.skip(n);
-    }
-
-    @Override
-    public int available() throws IOException {
-        return delegate.available();
-    }
-
-    @Override
-    public void close() throws IOException {
-        delegate.close();
-        client.close();
-    }
-
-    @Override
-    public synchronized void mark(int readlimit) {
-        delegate.mark(readlimit);
-    }
-
-    @Override
-    public synchronized void reset() throws IOException {
-        delegate.reset();
-    }
-
-    @Override
-    public boolean markSupported() {
-        return delegate.markSupported();
-    }
-}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.ax9k.utils.s3;
+
+import software.amazon.awssdk.core.regions.Region;
+import software.amazon.awssdk.core.sync.ResponseInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * Uses the object's ETag as its version, so revalidating a cached copy is a single conditional GET.
+ */
+final class S3ObjectStore implements ObjectStore {
+    private static final int NOT_MODIFIED = 304;
+
+    @Override
+    public String fetch(String bucket, String key, Optional<Region> region, String knownVersion,
+                        OutputStream destination) throws IOException {
+        S3ClientBuilder partialClient = S3Client.builder();
+        region.ifPresent(partialClient::region);
+
+        GetObjectRequest.Builder request = GetObjectRequest.builder()
+                                                           .bucket(bucket)
+                                                           .key(key);
+        if (knownVersion != null && !knownVersion.isEmpty()) {
+            request.ifNoneMatch(knownVersion);
+        }
+
+        try (S3Client client = partialClient.build();
+             ResponseInputStream<GetObjectResponse> response = client.getObject(request.build())) {
+            response.transferTo(destination);
+            String eTag = response.response().eTag();
+            return eTag != null ? eTag : "";
+        } catch (S3Exception e) {
+            if (e.statusCode() == NOT_MODIFIED) {
+                return null;
+            }
+            throw e;
+        }
+    }
+}
@@ -4,17 +4,14 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import software.amazon.awssdk.core.regions.Region;
-import software.amazon.awssdk.core.sync.ResponseInputStream;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.S3ClientBuilder;
-import software.amazon.awssdk.services.s3.model.GetObjectRequest;
-import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -35,9 +32,7 @@ public class S3UrlConnection extends URLConnection {
     private final String bucket, path;
     private final Optional<Region> region;
 
-    private S3Client client;
-    private GetObjectResponse responseHeaders;
-    private ResponseInputStream<GetObjectResponse> response;
+    private Path localCopy;
 
     S3UrlConnection(URL url) {
         super(notNull(url));
@@ -79,32 +74,35 @@ public class S3UrlConnection extends URLConnection {
         return region;
     }
 
+    /**
+     * @return the local copy held by {@link S3Cache#getDefault()}. It is shared and must not be modified
+     */
+    public Path getLocalCopy() throws IOException {
+        connect();
+        return localCopy;
+    }
+
     @Override
     public InputStream getInputStream() throws IOException {
         connect();
-        return new S3ClientClosingInputStream(client, response);
+        return Files.newInputStream(localCopy);
     }
 
     @Override
     public void connect() throws IOException {
-        S3ClientBuilder partialClient = S3Client.builder();
-        region.ifPresent(partialClient::region);
+        if (connected) {
+            return;
+        }
 
         LOGGER.info("Opening connection to S3 object. Bucket: {}, Key: {}, Region: {}",
                     bucket, path, region.map(Region::toString).orElse("DEFAULT"));
 
         try {
-            client = partialClient.build();
-            GetObjectRequest request = GetObjectRequest.builder()
-                                                       .bucket(bucket)
-                                                       .key(path)
-                                                       .build();
-
-            response = client.getObject(request);
-            responseHeaders = response.response();
+            localCopy = S3Cache.getDefault().get(bucket, path, region);
         } catch (S3Exception e) {
             throw new CheckedS3Exception("Error downloading object from S3", e);
         }
+        connected = true;
 
         LOGGER.info("Content-Type: {}, Size: {} KiB",
                     getContentType(), getContentLengthLong() > UNKNOWN ?
@@ -118,12 +116,19 @@ public class S3UrlConnection extends URLConnection {
 
     @Override
     public long getContentLengthLong() {
-        return responseHeaders.contentLength();
+        if (localCopy == null) {
+            return UNKNOWN;
+        }
+        try {
+            return Files.size(localCopy);
+        } catch (IOException e) {
+            return UNKNOWN;
+        }
     }
 
     @Override
     public String getContentType() {
-        return responseHeaders.contentType();
+        return guessContentTypeFromName(path);
     }
 
     @Override
@@ -131,19 +136,4 @@ public class S3UrlConnection extends URLConnection {
         long actualLength = getContentLengthLong();
         return actualLength <= Integer.MAX_VALUE ? (int) actualLength : -1;
     }
-
-    @Override
-    public String getContentEncoding() {
-        return responseHeaders.contentEncoding();
-    }
-
-    @Override
-    public long getExpiration() {
-        return responseHeaders.expires().toEpochMilli();
-    }
-
-    @Override
-    public long getLastModified() {
-        return responseHeaders.lastModified().toEpochMilli();
-    }
 }
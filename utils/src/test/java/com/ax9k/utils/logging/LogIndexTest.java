@@ -0,0 +1,157 @@
+package com.ax9k.utils.logging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LogIndexTest {
+    private static final String DATE = "2018-06-01\n";
+    private static final String FIRST = "{\"eventTime\":\"09:15:00\",\"price\":1}\n";
+    private static final String SECOND = "{\"eventTime\":\"09:15:05\",\"price\":2}\n";
+    private static final String THIRD = "{\"eventTime\":\"09:15:10\",\"price\":3}\n";
+    private static final String FOURTH = "{\"eventTime\":\"09:15:30\",\"price\":4}\n";
+    private static final String LOG = DATE + FIRST + SECOND + THIRD + FOURTH;
+    private static final ZoneId ZONE = ZoneId.of("Asia/Hong_Kong");
+
+    private LogIndex testIndex;
+
+    private static Instant at(LocalDate date, LocalTime time) {
+        return LocalDateTime.of(date, time).atZone(ZONE).toInstant();
+    }
+
+    private static Instant at(LocalTime time) {
+        return at(LocalDate.of(2018, 6, 1), time);
+    }
+
+    private static LogIndex index(String log) throws IOException {
+        return LogIndex.build(new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8)),
+                              LogIndex.DEFAULT_TIME_PROPERTY,
+                              ZONE);
+    }
+
+    private static String read(InputStream input) throws IOException {
+        try (input) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static InputStream log() {
+        return new ByteArrayInputStream(LOG.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @BeforeEach
+    void buildIndex() throws IOException {
+        testIndex = index(LOG);
+    }
+
+    @Test
+    void shouldAddEntryForFirstRecordOfEachInterval() {
+        List<LogIndex.Entry> entries = testIndex.getEntries();
+
+        assertEquals(3, entries.size());
+        assertEquals(at(LocalTime.of(9, 15, 10)), entries.get(1).getTime());
+        assertEquals(2, entries.get(1).getEventCount());
+        assertEquals(DATE.length() + FIRST.length() + SECOND.length(), entries.get(1).getOffset());
+        assertEquals(4, testIndex.getEventCount());
+    }
+
+    @Test
+    void shouldIndexPrettyPrintedRecordsFromTheirOpeningBrace() throws IOException {
+        String first = "{\n  \"eventTime\" : \"09:15:00\"\n},\n";
+        String log = DATE + first + "{\n  \"eventTime\" : \"09:15:20\"\n}\n";
+        LogIndex index = index(log);
+
+        assertEquals(DATE.length() + first.length(), index.getEntries().get(1).getOffset());
+    }
+
+    @Test
+    void shouldMoveToNextDayWhenTimesPassMidnight() throws IOException {
+        String log = DATE + "{\"eventTime\":\"23:59:55\"}\n" + "{\"eventTime\":\"00:00:05\"}\n";
+
+        List<LogIndex.Entry> entries = index(log).getEntries();
+
+        assertEquals(2, entries.size());
+        assertEquals(at(LocalDate.of(2018, 6, 2), LocalTime.of(0, 0, 5)), entries.get(1).getTime());
+    }
+
+    @Test
+    void shouldUseEpochForLogsWithoutDate() throws IOException {
+        LogIndex index = index(FIRST);
+
+        assertEquals(LocalDate.EPOCH, index.getDate());
+        assertEquals(at(LocalDate.EPOCH, LocalTime.of(9, 15)), index.getEntries().get(0).getTime());
+    }
+
+    @Test
+    void shouldRoundTripThroughSidecarFile() throws IOException {
+        Path log = Files.createTempFile("BookStates", ".log");
+        Files.write(log, LOG.getBytes(StandardCharsets.UTF_8));
+
+        LogIndex.load(log, LogIndex.DEFAULT_TIME_PROPERTY, ZONE);
+        LogIndex saved = LogIndex.read(LogIndex.sidecarOf(log));
+
+        assertEquals(testIndex.getEntries().toString(), saved.getEntries().toString());
+        assertEquals(testIndex.getEventCount(), saved.getEventCount());
+        assertEquals(ZONE, saved.getZone());
+        assertEquals(LocalDate.of(2018, 6, 1), saved.getDate());
+    }
+
+    @Test
+    void shouldRebuildSidecarForAnotherZone() throws IOException {
+        Path log = Files.createTempFile("BookStates", ".log");
+        Files.write(log, LOG.getBytes(StandardCharsets.UTF_8));
+        LogIndex.load(log, LogIndex.DEFAULT_TIME_PROPERTY, ZONE);
+
+        LogIndex rebuilt = LogIndex.load(log, LogIndex.DEFAULT_TIME_PROPERTY, ZoneOffset.UTC);
+
+        assertEquals(ZoneOffset.UTC, rebuilt.getZone());
+        assertEquals(ZoneOffset.UTC, LogIndex.read(LogIndex.sidecarOf(log)).getZone());
+    }
+
+    @Test
+    void shouldShareSidecarBetweenLogAndGzippedCopy() {
+        Path log = Paths.get("temp", "BookStates.log");
+
+        assertEquals(LogIndex.sidecarOf(log), LogIndex.sidecarOf(Paths.get("temp", "BookStates.log.gz")));
+        assertEquals("BookStates.log.idx", LogIndex.sidecarOf(log).getFileName().toString());
+    }
+
+    @Nested
+    class WhenWindowed {
+        @Test
+        void shouldKeepHeaderAndStartAtIntervalBeforeWindow() throws IOException {
+            String window = read(testIndex.window(log(), at(LocalTime.of(9, 15, 12)), null));
+
+            assertEquals(DATE + THIRD + FOURTH, window);
+        }
+
+        @Test
+        void shouldEndAtIntervalAfterWindow() throws IOException {
+            String window = read(testIndex.window(log(), null, at(LocalTime.of(9, 15, 7))));
+
+            assertEquals(DATE + FIRST + SECOND, window);
+        }
+
+        @Test
+        void shouldReadWholeLogWithoutBounds() throws IOException {
+            assertEquals(LOG, read(testIndex.window(log(), null, null)));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.ax9k.utils.s3;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.regions.Region;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class S3CacheTest {
+    private static final String BUCKET = "market-data";
+    private static final String KEY = "extracted_ohlc_data/20180601_5.csv";
+    private static final String OTHER_KEY = "extracted_ohlc_data/20180604_5.csv";
+    private static final String CONTENT = "time,open,high,low,close,volume\n";
+
+    private DirectoryObjectStore bucket;
+    private Path cacheDirectory;
+    private S3Cache testCache;
+
+    @BeforeEach
+    void initialiseCache() throws IOException {
+        bucket = new DirectoryObjectStore(Files.createTempDirectory("s3-cache-test-bucket"));
+        cacheDirectory = Files.createTempDirectory("s3-cache-test");
+        testCache = new S3Cache(cacheDirectory, Long.MAX_VALUE, false, bucket);
+    }
+
+    private Path get(S3Cache cache, String key) throws IOException {
+        return cache.get(BUCKET, key, Optional.empty());
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file));
+    }
+
+    @Nested
+    class WhenObjectIsNotCached {
+        @BeforeEach
+        void putObject() throws IOException {
+            bucket.put(KEY, CONTENT);
+        }
+
+        @Test
+        void shouldDownloadObject() throws IOException {
+            Path copy = get(testCache, KEY);
+
+            assertEquals(CONTENT, read(copy));
+            assertEquals(1, bucket.downloads);
+        }
+
+        @Test
+        void shouldKeepFileName() throws IOException {
+            assertEquals("20180601_5.csv", get(testCache, KEY).getFileName().toString());
+        }
+
+        @Test
+        void shouldFailWhenOffline() {
+            S3Cache offlineCache = new S3Cache(cacheDirectory, Long.MAX_VALUE, true, bucket);
+
+            assertThrows(FileNotFoundException.class, () -> get(offlineCache, KEY));
+        }
+    }
+
+    @Nested
+    class WhenObjectIsCached {
+        private Path firstCopy;
+
+        @BeforeEach
+        void cacheObject() throws IOException {
+            bucket.put(KEY, CONTENT);
+            firstCopy = get(testCache, KEY);
+        }
+
+        @Test
+        void shouldNotDownloadUnchangedObjectAgain() throws IOException {
+            Path secondCopy = get(testCache, KEY);
+
+            assertEquals(firstCopy, secondCopy);
+            assertEquals(1, bucket.downloads);
+        }
+
+        @Test
+        void shouldDownloadChangedObject() throws IOException {
+            bucket.put(KEY, CONTENT + "09:15:00,1,2,0,1,10\n");
+
+            Path secondCopy = get(testCache, KEY);
+
+            assertEquals(2, bucket.downloads);
+            assertTrue(read(secondCopy).endsWith("10\n"));
+        }
+
+        @Test
+        void shouldServeFromCacheWhenOffline() throws IOException {
+            S3Cache offlineCache = new S3Cache(cacheDirectory, Long.MAX_VALUE, true, bucket);
+
+            assertEquals(CONTENT, read(get(offlineCache, KEY)));
+            assertEquals(1, bucket.requests);
+        }
+
+        @Test
+        void shouldReplaceCorruptCopy() throws IOException {
+            Files.write(firstCopy, "corrupt".getBytes());
+
+            Path secondCopy = get(testCache, KEY);
+
+            assertEquals(CONTENT, read(secondCopy));
+            assertEquals(2, bucket.downloads);
+        }
+
+        @Test
+        void shouldRejectCorruptCopyWhenOffline() throws IOException {
+            Files.write(firstCopy, "corrupt".getBytes());
+            S3Cache offlineCache = new S3Cache(cacheDirectory, Long.MAX_VALUE, true, bucket);
+
+            assertThrows(FileNotFoundException.class, () -> get(offlineCache, KEY));
+        }
+    }
+
+    @Nested
+    class WhenCacheIsFull {
+        private Path firstCopy;
+
+        @BeforeEach
+        void fillCache() throws IOException {
+            testCache = new S3Cache(cacheDirectory, CONTENT.length() + 10, false, bucket);
+            bucket.put(KEY, CONTENT);
+            bucket.put(OTHER_KEY, CONTENT + "more");
+
+            firstCopy = get(testCache, KEY);
+            get(testCache, OTHER_KEY);
+        }
+
+        @Test
+        void shouldEvictLeastRecentlyUsedObject() throws IOException {
+            assertFalse(Files.exists(firstCopy));
+
+            get(testCache, KEY);
+            assertEquals(3, bucket.downloads);
+        }
+    }
+
+    private static final class DirectoryObjectStore implements ObjectStore {
+        private final Path root;
+        private final Map<String, Integer> versions = new HashMap<>();
+        private int requests;
+        private int downloads;
+
+        private DirectoryObjectStore(Path root) {
+            this.root = root;
+        }
+
+        private void put(String key, String content) throws IOException {
+            Path file = root.resolve(key);
+            Files.createDirectories(file.getParent());
+            Files.write(file, content.getBytes());
+            versions.merge(key, 1, Integer::sum);
+        }
+
+        @Override
+        public String fetch(String bucket, String key, Optional<Region> region, String knownVersion,
+                            OutputStream destination) throws IOException {
+            requests++;
+            String currentVersion = key + '@' + versions.get(key);
+            if (currentVersion.equals(knownVersion)) {
+                return null;
+            }
+            downloads++;
+            Files.copy(root.resolve(key), destination);
+            return currentVersion;
+        }
+    }
+}